@@ -23,9 +23,9 @@ public class PremiumApplication {
 
 	@Bean
 	public CommandLineRunner runCommandLineRunner() {
-		final ObjectMapper objectMapper = new ObjectMapper();
+		final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
 		return (final String... commandLineArgs) -> {
-			if (0 < commandLineArgs.length) {
+			if (0 < commandLineArgs.length && !commandLineArgs[0].startsWith("--")) {
 				final String input = commandLineArgs[0];
 				final ApiResponse<PremiumResponse> result = (this.premiumService.calculatePremium(objectMapper.readValue(input, PremiumRequest.class)));
 				System.out.println("Premium: " + result);
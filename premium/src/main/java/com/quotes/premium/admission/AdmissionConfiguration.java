@@ -0,0 +1,38 @@
+package com.quotes.premium.admission;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * The admission limiters. /quote has one of its own, tuned to single quotes. /quote/breakdown, /forecast, /solve and
+ * /bundle price many quotes per request and share the other one, so their latency never cuts the /quote limit and
+ * they can not take every /quote slot.
+ */
+@Configuration
+public class AdmissionConfiguration {
+
+    public static final String HEAVY = "heavyAdmissionLimiter";
+
+    @Bean
+    @Primary
+    public AdmissionLimiter quoteAdmissionLimiter(@Value("${admission.enabled:true}") final boolean enabled,
+                                                  @Value("${admission.limit.initial:20}") final int initialLimit,
+                                                  @Value("${admission.limit.min:2}") final int minLimit,
+                                                  @Value("${admission.limit.max:200}") final int maxLimit,
+                                                  @Value("${admission.latency.target.ms:250}") final long targetLatencyMs,
+                                                  @Value("${admission.backoff.ratio:0.9}") final double backoffRatio) {
+        return new AdmissionLimiter("quote", enabled, initialLimit, minLimit, maxLimit, targetLatencyMs, backoffRatio);
+    }
+
+    @Bean(AdmissionConfiguration.HEAVY)
+    public AdmissionLimiter heavyAdmissionLimiter(@Value("${admission.enabled:true}") final boolean enabled,
+                                                  @Value("${admission.heavy.limit.initial:4}") final int initialLimit,
+                                                  @Value("${admission.heavy.limit.min:1}") final int minLimit,
+                                                  @Value("${admission.heavy.limit.max:20}") final int maxLimit,
+                                                  @Value("${admission.heavy.latency.target.ms:2000}") final long targetLatencyMs,
+                                                  @Value("${admission.backoff.ratio:0.9}") final double backoffRatio) {
+        return new AdmissionLimiter("heavy", enabled, initialLimit, minLimit, maxLimit, targetLatencyMs, backoffRatio);
+    }
+}
@@ -0,0 +1,99 @@
+package com.quotes.premium.admission;
+
+import com.quotes.premium.dto.AdmissionReport;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit on a group of endpoints that follows observed latency, additive increase / multiplicative
+ * decrease. A request answered within the target latency while the limit was at least half used raises the limit by
+ * 1/limit, about one per limit's worth of requests. A slower or abandoned request cuts it by the backoff ratio, at most
+ * once per target latency so one burst of slow requests counts as one signal. Requests over the limit are rejected at
+ * once instead of queueing behind the ones being priced. See {@link AdmissionConfiguration} for the limiters there are.
+ */
+@Log4j2
+public class AdmissionLimiter {
+
+    private final String name;
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder abandoned = new LongAdder();
+    private volatile double limit;
+    private long lastDecrease; // guarded by this
+
+    public AdmissionLimiter(final String name, final boolean enabled, final int initialLimit, final int minLimit, final int maxLimit,
+                            final long targetLatencyMs, final double backoffRatio) {
+        this.name = name;
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatencyMs * 1_000_000L;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.lastDecrease = System.nanoTime() - this.targetLatencyNanos;
+    }
+
+    /**
+     * @return whether the request may be priced, every admitted request must be released
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = this.inFlight.get();
+            if (this.enabled && current >= (int) this.limit) {
+                this.rejected.increment();
+                return false;
+            }
+        } while (!this.inFlight.compareAndSet(current, current + 1));
+        this.admitted.increment();
+        return true;
+    }
+
+    /**
+     * @param startNanos System.nanoTime() the request was admitted at
+     * @param dropped    whether the request was abandoned at its deadline
+     */
+    public void release(final long startNanos, final boolean dropped) {
+        final int current = this.inFlight.getAndDecrement();
+        if (dropped) {
+            this.abandoned.increment();
+        }
+        if (this.enabled) {
+            this.sample(System.nanoTime() - startNanos, dropped, current);
+        }
+    }
+
+    public AdmissionReport report() {
+        return AdmissionReport.builder()
+                .enabled(this.enabled)
+                .limit((int) this.limit)
+                .inFlight(this.inFlight.get())
+                .admitted(this.admitted.sum())
+                .rejected(this.rejected.sum())
+                .abandoned(this.abandoned.sum())
+                .build();
+    }
+
+    private synchronized void sample(final long latencyNanos, final boolean dropped, final int inFlight) {
+        final double limit = this.limit;
+        if (dropped || latencyNanos > this.targetLatencyNanos) {
+            final long now = System.nanoTime();
+            if (now - this.lastDecrease >= this.targetLatencyNanos) {
+                this.lastDecrease = now;
+                this.limit = Math.max(this.minLimit, limit * this.backoffRatio);
+                AdmissionLimiter.log.debug("{} admission limit cut to {} after a {} ms request", this.name, (int) this.limit, latencyNanos / 1_000_000L);
+            }
+        } else if (2 * inFlight >= limit) {
+            this.limit = Math.min(this.maxLimit, limit + 1.0d / limit);
+        }
+    }
+}
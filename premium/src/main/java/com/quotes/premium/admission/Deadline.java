@@ -0,0 +1,47 @@
+package com.quotes.premium.admission;
+
+import com.quotes.premium.exception.DeadlineExceededException;
+
+/**
+ * Deadline of the quote priced on the current thread, bound by the controller from the client's deadline header.
+ * The header carries the milliseconds the client is still willing to wait, a budget rather than a wall clock time so
+ * clock skew between client and server does not matter. Threads with nothing bound never expire.
+ */
+public final class Deadline {
+
+    public static final String HEADER = "X-Deadline-Ms";
+
+    private static final ThreadLocal<Long> CURRENT = new ThreadLocal<>(); // System.nanoTime() the caller stops waiting at
+
+    private Deadline() {
+    }
+
+    /**
+     * Binds the deadline to the current thread, null unbinds it.
+     *
+     * @return the deadline bound before, to restore once the quote is priced
+     */
+    public static Long bind(final Long deadlineNanos) {
+        final Long previous = Deadline.CURRENT.get();
+        if (null == deadlineNanos) {
+            Deadline.CURRENT.remove();
+        } else {
+            Deadline.CURRENT.set(deadlineNanos);
+        }
+        return previous;
+    }
+
+    public static long remainingNanos() {
+        final Long deadlineNanos = Deadline.CURRENT.get();
+        return null == deadlineNanos ? Long.MAX_VALUE : deadlineNanos - System.nanoTime();
+    }
+
+    /**
+     * Abandons the quote when nobody is waiting for it anymore.
+     */
+    public static void check(final String stage) {
+        if (Deadline.remainingNanos() <= 0L) {
+            throw new DeadlineExceededException("deadline passed before " + stage);
+        }
+    }
+}
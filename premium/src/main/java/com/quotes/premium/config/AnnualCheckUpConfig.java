@@ -1,44 +1,36 @@
 package com.quotes.premium.config;
 
-import org.apache.poi.ss.usermodel.*;
+import com.quotes.premium.rates.RateTable;
+import com.quotes.premium.reader.SheetStream;
 
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
 
 public class AnnualCheckUpConfig {
-    public static void fetchAnnualCheckUp(String filePath) {
+    public static Map<String, Double> fetchAnnualCheckUp(final Path file) throws IOException {
+        final Map<String, Double> annualHealthCheck = new HashMap<>();
+        SheetStream.readTable(file, (sumInsuredRow, row) -> {
+            for (int cellIndex = 1; cellIndex < row.size(); cellIndex++) {
+                if (!row.has(cellIndex)) continue;
 
-        ClassLoader classLoader = DynamicConfigurations.class.getClassLoader();
-        try (InputStream file = classLoader.getResourceAsStream(filePath);
-             Workbook workbook = WorkbookFactory.create(file)) {
-            Sheet sheet = workbook.getSheetAt(0);
-            Row waitingPeriodRow = sheet.getRow(0);
-            for (int rowIndex = 1; rowIndex <= sheet.getLastRowNum(); rowIndex++) {
-                Row row = sheet.getRow(rowIndex);
-                if (row == null) continue;
-
-                for (int cellIndex = 1; cellIndex < row.getLastCellNum(); cellIndex++) {
-                    Cell cell = row.getCell(cellIndex);
-                    if (cell == null) continue;
-
-                    String policyType = row.getCell(0).getStringCellValue().trim();
-                    String sumInsured = null;
-                    switch(waitingPeriodRow.getCell(cellIndex).getCellType()){
-                        case NUMERIC -> sumInsured =String.valueOf((long)waitingPeriodRow.getCell(cellIndex).getNumericCellValue());
-                        case STRING -> sumInsured =waitingPeriodRow.getCell(cellIndex).getStringCellValue();
-                    }
-                    String key = policyType.toLowerCase() + "#" + sumInsured;
-                    DynamicConfigurations.annualHealthCheck.put(key, cell.getNumericCellValue());
+                String policyType = row.text(0).trim();
+                String sumInsured = null;
+                if (sumInsuredRow.isNumber(cellIndex)) {
+                    sumInsured = String.valueOf((long) sumInsuredRow.number(cellIndex));
+                } else if (sumInsuredRow.isText(cellIndex)) {
+                    sumInsured = sumInsuredRow.text(cellIndex);
                 }
+                String key = policyType.toLowerCase() + "#" + sumInsured;
+                annualHealthCheck.put(key, row.number(cellIndex));
             }
-        }
-        catch (IOException e) {
-            e.printStackTrace();
-        }
+        });
+        return annualHealthCheck;
     }
 
-    public static Double getAnnualCheckUp(final String policyType, final String sumInsured) {
+    public static Double getAnnualCheckUp(final RateTable annualHealthCheck, final String policyType, final String sumInsured) {
         String key = policyType + "#" + sumInsured;
-        return DynamicConfigurations.annualHealthCheck.get(key);
+        return annualHealthCheck.get(key);
     }
 }
@@ -1,37 +1,18 @@
 package com.quotes.premium.config;
 
-import com.quotes.premium.dto.Insured;
-import com.quotes.premium.reader.ExcelReader;
-import jakarta.annotation.PostConstruct;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.quotes.premium.rates.RateVersion;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.HashMap;
-import java.util.Map;
-
 @Configuration
 public class BasePremiumConfig {
 
-    private Map<String, Double> parentPremium = new HashMap<>();
-    private Map<String, Double> childPremium = new HashMap<>();
-
-    @Autowired
-    private ExcelReader excelReader;
-
-    @PostConstruct
-    public void config(){
-        this.excelReader.preparePremium(parentPremium, "parent_ss_premium.xlsx" );
-        this.excelReader.preparePremium(childPremium, "child_ss_premium.xlsx" );
-    }
-
-
     public Double getPremium(int age, String type, String sumInsured){
         String key = null;
         sumInsured = Long.valueOf(sumInsured) > 10000000 ? "UNLIMITED" : sumInsured;
         switch(type){
             case "adult":{
                 key = age > 80 ? ">80" : age + "#" +sumInsured;
-                return this.parentPremium.get(key);
+                return RateVersion.current().table("parent_ss_premium.xlsx").get(key);
             }
             case "child":{
                 String ageString = null;
@@ -48,7 +29,7 @@ public class BasePremiumConfig {
                 }
 
                 key = ageString + "#" +sumInsured;
-                return this.childPremium.get(key);
+                return RateVersion.current().table("child_ss_premium.xlsx").get(key);
             }
         }
 
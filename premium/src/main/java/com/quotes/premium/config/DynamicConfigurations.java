@@ -1,102 +1,74 @@
 package com.quotes.premium.config;
 
+import com.quotes.premium.rates.DecisionTable;
+import com.quotes.premium.rates.RateVersion;
 import com.quotes.premium.reader.*;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.*;
-
+/**
+ * Rate lookups against the rate version bound to the pricing thread, see {@link com.quotes.premium.rates.RateRegistry}.
+ */
 @Configuration
 public class DynamicConfigurations {
 
-    @Autowired
-    private InfiniteCareConf infiniteCareConf;
-    @Autowired
-    private PowerBoosterConf powerBoosterConf;
-    @Autowired
-    private CibilDiscount cibilDiscount;
-    @Autowired
-    private ZonalDiscount zonalDiscount;
-    @Autowired
-    private RoomRent roomRent;
-    @Autowired
-    private WellnessDiscount wellnessDiscount;
-    @Autowired
-    private WomenCare womenCare;
-    @Autowired
-    private LongTermDiscount longTermDiscount;
-    @Autowired
-    private PolicyTypeDiscount policyTypeDiscount;
-    @Autowired
-    private CompassionateVisit compassionateVisit;
-    @Autowired
-    private InternationalSecondOpinion internationalSecondOpinion;
-    @Autowired
-    private HighEndDiagnostic highEndDiagnostic;
-
-    public static final Map<String, Double> voluntaryDeductible = new HashMap<>();
-    public static final Map<String, Double> reductionOfPEWaitingPeriod = new HashMap<>();
-    public static final Map<String, Double> annualHealthCheck = new HashMap<>();
-
     public Double getInfiniteCare(final String amount){
-        return this.infiniteCareConf.infiniteCare(amount);
+        return RateVersion.current().table("infinite.care.mapping").get(amount);
     }
 
     public Double getCibilDiscount(final Integer cibil) {
-        return this.cibilDiscount.cibilDiscount(cibil);
+        return RateVersion.current().table("cibil.discount.mapping").floor(cibil);
     }
 
-    public Double getZonalDiscount(final String zone) {return this.zonalDiscount.getZonalDiscount(zone);}
+    public Double getZonalDiscount(final String zone) {return RateVersion.current().table("zonal.discount.mapping").get(zone);}
 
-    public Double getRoomRentDiscount(final String roomType) {return this.roomRent.getRoomRentDiscount(roomType);}
+    public Double getRoomRentDiscount(final String roomType) {return RateVersion.current().table("room.rent.discount.mapping").get(roomType);}
 
-    public Double getWellnessDiscount(final Double wellnessPoint) {return this.wellnessDiscount.getWellnessDiscount(wellnessPoint);}
+    public Double getWellnessDiscount(final Double wellnessPoint) {return RateVersion.current().table("wellness.discount.mapping").floor(wellnessPoint);}
 
-    public Double getWomenCareExpense(final Double sumInsured) {return this.womenCare.getWomenCareExpense(sumInsured);}
+    public Double getWomenCareExpense(final Double sumInsured) {return RateVersion.current().table("women.care.expense.mapping").floor(sumInsured);}
 
-    public Double getLongTermDiscount(final Integer year) {return this.longTermDiscount.getLongTermDiscount(year);}
+    public Double getLongTermDiscount(final Integer year) {return RateVersion.current().table("long.term.discount.mapping").get(String.valueOf(year));}
 
-    public Double getPolicyTypeDiscount(final String policyType) {return this.policyTypeDiscount.getPolicyTypeDiscount(policyType);}
+    public Double getPolicyTypeDiscount(final String policyType) {return RateVersion.current().table("policy.type.discount.mapping").get(policyType);}
 
-    public Double getCompassionateVisit(final String policyType) {return this.compassionateVisit.getCompassionateVist(policyType);}
+    public Double getCompassionateVisit(final String policyType) {return RateVersion.current().table("compassionate.visit.mapping").get(policyType);}
 
-    public Double getInternationalSecondOpinion(final String policyType) {return this.internationalSecondOpinion.getInternationSecondOpinion(policyType);}
-    public Double getHighEndDiagnostic(final String policyType) {return this.highEndDiagnostic.getHighEndDiagnostic(policyType);}
+    public Double getInternationalSecondOpinion(final String policyType) {return RateVersion.current().table("international.second.opinion.mapping").get(policyType);}
+    public Double getHighEndDiagnostic(final String policyType) {return RateVersion.current().table("high.end.diagnostic.mapping").get(policyType);}
     public double getPowerBooster(final String amount){
-        return this.powerBoosterConf.powerBooster(amount);
+        return RateVersion.current().table("power.booster.mapping").get(amount);
+    }
+
+    public static double getRate(final String property) {
+        return RateVersion.current().rate(property);
+    }
+
+    public static DecisionTable getDecision(final String name) {
+        return RateVersion.current().decision(name);
     }
 
     public static Double getFutureReadyconf(int age){
-        return FutureReadyConf.get(age);
+        return FutureReadyConf.get(RateVersion.current().table("future_ready_conf.xlsx"), age);
     }
 
     public static Double getSpecificDiseaseConf(int age){
-        return SpecificDiseaseConf.get(age);
+        return SpecificDiseaseConf.get(RateVersion.current().table("specific_disease_conf.xlsx"), age);
     }
 
 
     public static Double getVoluntaryDeductiblePercent(final int age, final int deductible) {
-        if(voluntaryDeductible.isEmpty()) {
-            VoluntaryDeductible.fetchVoluntaryDeductibles("VoluntaryDeductible.xlsx");
-        }
-        return VoluntaryDeductible.getVoluntaryDeductiblePercent(age, deductible);
+        return VoluntaryDeductible.getVoluntaryDeductiblePercent(RateVersion.current().table("VoluntaryDeductible.xlsx"), age, deductible);
     }
     public static Double getReductionOfPEDWaitingPercent(final int age, final String waitingPeriodInMonths) {
-        if(reductionOfPEWaitingPeriod.isEmpty()) {
-            PedWaitingConfig.fetchReductionOfPEDWaiting("ReductionOnPED.xlsx");
-        }
-        return PedWaitingConfig.getPedValue(age, waitingPeriodInMonths);
+        return PedWaitingConfig.getPedValue(RateVersion.current().table("ReductionOnPED.xlsx"), age, waitingPeriodInMonths);
     }
     public static Double getAnnualCheckUp(final String policyType, final String sumInsured) {
-        if(annualHealthCheck.isEmpty()) {
-            AnnualCheckUpConfig.fetchAnnualCheckUp("AnnualCheckUp.xlsx");
-        }
-        return AnnualCheckUpConfig.getAnnualCheckUp(policyType,sumInsured);
+        return AnnualCheckUpConfig.getAnnualCheckUp(RateVersion.current().table("AnnualCheckUp.xlsx"), policyType, sumInsured);
     }
 
     public static Double getHospitalCash(final String policyType, final int age, final String hospitalDays) {
-        return HospitalCash.get(age, policyType, hospitalDays);
+        final String workbook = "individual".equals(policyType) ? "hospital_cash_individual.xlsx" : "hospital_cash_floater.xlsx";
+        return HospitalCash.get(RateVersion.current().table(workbook), age, hospitalDays);
     }
 
 
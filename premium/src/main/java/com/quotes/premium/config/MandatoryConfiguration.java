@@ -3,6 +3,7 @@ package com.quotes.premium.config;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
 import lombok.Getter;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Value;
@@ -36,12 +37,23 @@ public class MandatoryConfiguration {
     private String validationKeys;
 
     final private List<String> validationKeysList = new LinkedList<>();
-    final private List<String> executionKeysList = new LinkedList<>();
+    final private List<String> executionKeysList = new ArrayList<>(); // read by position on every quote
     private Map<String, Attribute> floaterFreshMandatoryConf = new HashMap<>();
     private Map<String, Attribute> individualFreshMandatoryConf = new HashMap<>();
     private Map<String, Attribute> floaterRenewalMandatoryConf = new HashMap<>();
     private Map<String, Attribute> individualRenewalMandatoryConf = new HashMap<>();
 
+    @PostConstruct
+    public void config() throws JsonProcessingException {
+        this.floaterFreshMandatoryConf = this.prepareConfMap(this.floaterFreshConf);
+        this.individualFreshMandatoryConf = this.prepareConfMap(this.individualFreshConf);
+        this.floaterRenewalMandatoryConf = this.prepareConfMap(this.floaterRenewalConf);
+        this.individualRenewalMandatoryConf = this.prepareConfMap(this.individualRenewalConf);
+        if (Long.SIZE < this.getExecutionKeys().size()) {
+            throw new IllegalStateException("execution plan mask supports at most " + Long.SIZE + " execution keys");
+        }
+    }
+
     public List<String> getValidationKeys(){
         if(this.validationKeysList.isEmpty()){
             this.validationKeysList.addAll(Arrays.asList(this.validationKeys.split(",")));
@@ -82,28 +94,25 @@ public class MandatoryConfiguration {
                 featureConf,
                 new TypeReference<Map<String, Attribute>>() {}
         );
+        map.values().forEach(Attribute::compile);
 
         return map;
     }
 
     public Map<String, Attribute> getConf(final String policyType, boolean fresh) throws JsonProcessingException {
         if ("floater".equals(policyType) && fresh) {
-            this.floaterFreshMandatoryConf = this.prepareConfMap(this.floaterFreshConf);
             return this.floaterFreshMandatoryConf;
         }
 
         else if("individual".equals(policyType) && fresh) {
-            this.individualFreshMandatoryConf = this.prepareConfMap(this.individualFreshConf);
             return this.individualFreshMandatoryConf;
         }
 
         else if("floater".equals(policyType)) {
-            this.floaterRenewalMandatoryConf = this.prepareConfMap(this.floaterRenewalConf);
             return this.floaterRenewalMandatoryConf;
         }
 
         else  {
-            this.individualRenewalMandatoryConf = this.prepareConfMap(this.individualRenewalConf);
             return this.individualRenewalMandatoryConf;
         }
     }
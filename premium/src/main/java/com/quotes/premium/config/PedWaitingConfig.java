@@ -1,40 +1,31 @@
 package com.quotes.premium.config;
 
-import org.apache.poi.ss.usermodel.*;
+import com.quotes.premium.rates.RateTable;
+import com.quotes.premium.reader.SheetStream;
 
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
 
 public class PedWaitingConfig {
 
-    public static void fetchReductionOfPEDWaiting(final String filePath) {
-        ClassLoader classLoader = DynamicConfigurations.class.getClassLoader();
-        try (InputStream file = classLoader.getResourceAsStream(filePath);
-             Workbook workbook = WorkbookFactory.create(file)) {
-            Sheet sheet = workbook.getSheetAt(0);
-            Row waitingPeriodRow = sheet.getRow(0);
-            for (int rowIndex = 1; rowIndex <= sheet.getLastRowNum(); rowIndex++) {
-                Row row = sheet.getRow(rowIndex);
-                if (row == null) continue;
-
-                for (int cellIndex = 1; cellIndex < row.getLastCellNum(); cellIndex++) {
-                    Cell cell = row.getCell(cellIndex);
-                    if (cell == null) continue;
-
-                    String ageBand = row.getCell(0).getStringCellValue().trim();
-                    String waitingPeriod = waitingPeriodRow.getCell(cellIndex).getStringCellValue();
-                    String key = ageBand + "#" + waitingPeriod;
-
-                    DynamicConfigurations.reductionOfPEWaitingPeriod.put(key, cell.getNumericCellValue());
-                }
+    public static Map<String, Double> fetchReductionOfPEDWaiting(final Path file) throws IOException {
+        final Map<String, Double> reductionOfPEWaitingPeriod = new HashMap<>();
+        SheetStream.readTable(file, (waitingPeriodRow, row) -> {
+            for (int cellIndex = 1; cellIndex < row.size(); cellIndex++) {
+                if (!row.has(cellIndex)) continue;
+
+                String ageBand = row.text(0).trim();
+                String waitingPeriod = waitingPeriodRow.text(cellIndex);
+                String key = ageBand + "#" + waitingPeriod;
+                reductionOfPEWaitingPeriod.put(key, row.number(cellIndex));
             }
-        }
-        catch (IOException e) {
-            e.printStackTrace();
-        }
+        });
+        return reductionOfPEWaitingPeriod;
     }
 
-    public static Double getPedValue(int age, String waitingPeriodInMonths) {
+    public static Double getPedValue(final RateTable reductionOfPEWaitingPeriod, int age, String waitingPeriodInMonths) {
 
         String ageBand;
         if (age <= 35) {
@@ -54,6 +45,6 @@ public class PedWaitingConfig {
         }
 
         String key = ageBand + "#" + waitingPeriodInMonths;
-        return DynamicConfigurations.reductionOfPEWaitingPeriod.get(key);
+        return reductionOfPEWaitingPeriod.get(key);
     }
 }
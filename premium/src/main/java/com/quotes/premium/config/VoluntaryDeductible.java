@@ -1,15 +1,16 @@
 package com.quotes.premium.config;
 
-import org.apache.poi.ss.usermodel.*;
+import com.quotes.premium.rates.RateTable;
+import com.quotes.premium.reader.SheetStream;
 
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 
 public class VoluntaryDeductible {
 
-    public static Double getVoluntaryDeductiblePercent(final int age, final int deductible) {
+    public static Double getVoluntaryDeductiblePercent(final RateTable voluntaryDeductible, final int age, final int deductible) {
         String ageBand;
         if (age <= 35) {
             ageBand = "LTE 35";
@@ -28,34 +29,22 @@ public class VoluntaryDeductible {
         }
 
         String key = ageBand + "#" + deductible;
-        return DynamicConfigurations.voluntaryDeductible.get(key);
+        return voluntaryDeductible.get(key);
 
     }
 
-    public static void fetchVoluntaryDeductibles(final String filePath) {
-        ClassLoader classLoader = DynamicConfigurations.class.getClassLoader();
-        try (InputStream file = classLoader.getResourceAsStream(filePath);
-             Workbook workbook = WorkbookFactory.create(file)) {
-            Sheet sheet = workbook.getSheetAt(0);
-            Row deductibleRow = sheet.getRow(0);
-            for (int rowIndex = 1; rowIndex <= sheet.getLastRowNum(); rowIndex++) {
-                Row row = sheet.getRow(rowIndex);
-                if (row == null) continue;
-
-                for (int cellIndex = 1; cellIndex < row.getLastCellNum(); cellIndex++) {
-                    Cell cell = row.getCell(cellIndex);
-                    if (cell == null) continue;
-
-                    String ageBand = row.getCell(0).getStringCellValue().trim();
-                    String sumInsured = String.valueOf((int)deductibleRow.getCell(cellIndex).getNumericCellValue());
-                    String key = ageBand + "#" + sumInsured;
-
-                    DynamicConfigurations.voluntaryDeductible.put(key, cell.getNumericCellValue());
-                }
+    public static Map<String, Double> fetchVoluntaryDeductibles(final Path file) throws IOException {
+        final Map<String, Double> voluntaryDeductible = new HashMap<>();
+        SheetStream.readTable(file, (deductibleRow, row) -> {
+            for (int cellIndex = 1; cellIndex < row.size(); cellIndex++) {
+                if (!row.has(cellIndex)) continue;
+
+                String ageBand = row.text(0).trim();
+                String sumInsured = String.valueOf((int) deductibleRow.number(cellIndex));
+                String key = ageBand + "#" + sumInsured;
+                voluntaryDeductible.put(key, row.number(cellIndex));
             }
-        }
-        catch (IOException e) {
-            e.printStackTrace();
-        }
+        });
+        return voluntaryDeductible;
     }
 }
@@ -0,0 +1,50 @@
+package com.quotes.premium.controller;
+
+import com.quotes.premium.admission.AdmissionConfiguration;
+import com.quotes.premium.admission.AdmissionLimiter;
+import com.quotes.premium.dto.AdmissionReport;
+import com.quotes.premium.dto.CoalescingReport;
+import com.quotes.premium.dto.ShadowReport;
+import com.quotes.premium.engine.PremiumEngines;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RequestMapping("/engine")
+@RestController
+public class EngineController {
+
+    @Autowired
+    private PremiumEngines premiumEngines;
+    @Autowired
+    private AdmissionLimiter admissionLimiter;
+    @Autowired
+    @Qualifier(AdmissionConfiguration.HEAVY)
+    private AdmissionLimiter heavyAdmissionLimiter;
+
+    @GetMapping("/shadow")
+    public ResponseEntity<ShadowReport> shadow() {
+        return ResponseEntity.ok().body(this.premiumEngines.report());
+    }
+
+    @GetMapping("/coalescing")
+    public ResponseEntity<CoalescingReport> coalescing() {
+        return ResponseEntity.ok().body(this.premiumEngines.coalescing());
+    }
+
+    @GetMapping("/admission")
+    public ResponseEntity<AdmissionReport> admission() {
+        return ResponseEntity.ok().body(this.admissionLimiter.report());
+    }
+
+    /**
+     * The limiter /quote/breakdown, /forecast, /solve and /bundle share.
+     */
+    @GetMapping("/admission/heavy")
+    public ResponseEntity<AdmissionReport> heavyAdmission() {
+        return ResponseEntity.ok().body(this.heavyAdmissionLimiter.report());
+    }
+}
@@ -1,25 +1,128 @@
 package com.quotes.premium.controller;
 
+import com.quotes.premium.admission.AdmissionConfiguration;
+import com.quotes.premium.admission.AdmissionLimiter;
+import com.quotes.premium.admission.Deadline;
 import com.quotes.premium.dto.ApiResponse;
+import com.quotes.premium.dto.CoverBundle;
+import com.quotes.premium.dto.CoverSolution;
 import com.quotes.premium.dto.PremiumRequest;
 import com.quotes.premium.dto.PremiumResponse;
+import com.quotes.premium.dto.QuoteBreakdownResponse;
+import com.quotes.premium.dto.RenewalForecast;
+import com.quotes.premium.exception.DeadlineExceededException;
+import com.quotes.premium.forecast.RenewalForecastService;
 import com.quotes.premium.service.PremiumService;
+import com.quotes.premium.session.CoverBundleOptimizer;
+import com.quotes.premium.session.QuoteBreakdownService;
+import com.quotes.premium.solver.CoverSolver;
+import com.quotes.premium.traffic.TrafficCapture;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Quotes over the admission limit are turned away with 503 straight away. With a deadline header the pipeline
+ * stops between stages once the client has given up and the quote is answered with 504.
+ */
 @RequestMapping("/quote")
 @RestController("use for premium calculation of superstar product")
 public class PremiumController {
 
     @Autowired
     private PremiumService premiumService;
+    @Autowired
+    private QuoteBreakdownService quoteBreakdownService;
+    @Autowired
+    private RenewalForecastService renewalForecastService;
+    @Autowired
+    private CoverSolver coverSolver;
+    @Autowired
+    private CoverBundleOptimizer coverBundleOptimizer;
+    @Autowired
+    private AdmissionLimiter admissionLimiter;
+    @Autowired
+    @Qualifier(AdmissionConfiguration.HEAVY)
+    private AdmissionLimiter heavyAdmissionLimiter;
+    @Autowired
+    private TrafficCapture trafficCapture;
 
    @PostMapping
-    public ResponseEntity<ApiResponse<PremiumResponse>> fetchPremium(@RequestBody final PremiumRequest premiumRequest){
-       return ResponseEntity.ok().body(this.premiumService.calculatePremium(premiumRequest));
+    public ResponseEntity<ApiResponse<PremiumResponse>> fetchPremium(@RequestBody final PremiumRequest premiumRequest,
+                                                                     @RequestHeader(value = Deadline.HEADER, required = false) final Long deadlineMs){
+       this.trafficCapture.sample(premiumRequest); // offered traffic, admitted or not
+       return this.admit(this.admissionLimiter, deadlineMs, () -> this.premiumService.calculatePremium(premiumRequest));
+   }
+
+    /**
+     * The quote plus the premium change of toggling each optional cover and discount.
+     */
+   @PostMapping("/breakdown")
+    public ResponseEntity<ApiResponse<QuoteBreakdownResponse>> breakdown(@RequestBody final PremiumRequest premiumRequest,
+                                                                         @RequestHeader(value = Deadline.HEADER, required = false) final Long deadlineMs){
+       return this.admit(this.heavyAdmissionLimiter, deadlineMs, () -> this.quoteBreakdownService.breakdown(premiumRequest));
+   }
+
+    /**
+     * Premium of each of the next renewals of the quoted policy, every insured a year older at each.
+     */
+   @PostMapping("/forecast")
+    public ResponseEntity<ApiResponse<RenewalForecast>> forecast(@RequestBody final PremiumRequest premiumRequest,
+                                                                 @RequestParam(defaultValue = "10") final int years,
+                                                                 @RequestHeader(value = Deadline.HEADER, required = false) final Long deadlineMs){
+       return this.admit(this.heavyAdmissionLimiter, deadlineMs, () -> this.renewalForecastService.forecast(premiumRequest, years));
+   }
+
+    /**
+     * Highest sum insured the family, zone and covers of the request get within a yearly budget, at each term.
+     */
+   @PostMapping("/solve")
+    public ResponseEntity<ApiResponse<CoverSolution>> solve(@RequestBody final PremiumRequest premiumRequest,
+                                                            @RequestParam final long budget,
+                                                            @RequestHeader(value = Deadline.HEADER, required = false) final Long deadlineMs){
+       return this.admit(this.heavyAdmissionLimiter, deadlineMs, () -> this.coverSolver.solve(premiumRequest, budget));
+   }
+
+    /**
+     * Cheapest bundle of optional covers and discounts keeping the must-have covers on, named as in /quote/breakdown.
+     */
+   @PostMapping("/bundle")
+    public ResponseEntity<ApiResponse<CoverBundle>> bundle(@RequestBody final PremiumRequest premiumRequest,
+                                                           @RequestParam(required = false) final List<String> mustHave,
+                                                           @RequestHeader(value = Deadline.HEADER, required = false) final Long deadlineMs){
+       return this.admit(this.heavyAdmissionLimiter, deadlineMs, () -> this.coverBundleOptimizer.optimize(premiumRequest, mustHave));
+   }
+
+    private <T> ResponseEntity<ApiResponse<T>> admit(final AdmissionLimiter limiter, final Long deadlineMs, final Supplier<ApiResponse<T>> pricing) {
+       final long start = System.nanoTime();
+       if (null != deadlineMs && deadlineMs <= 0L) {
+           return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(ApiResponse.buildResponse(null, "deadline already passed", false));
+       }
+       if (!limiter.tryAcquire()) {
+           return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                   .body(ApiResponse.buildResponse(null, "too many quotes in flight, retry later", false));
+       }
+       final Long previous = Deadline.bind(null == deadlineMs ? null : start + deadlineMs * 1_000_000L);
+       boolean abandoned = false;
+       try {
+           return ResponseEntity.ok().body(pricing.get());
+       } catch (final DeadlineExceededException e) {
+           abandoned = true;
+           return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(ApiResponse.buildResponse(null, e.getMessage(), false));
+       } finally {
+           Deadline.bind(previous);
+           limiter.release(start, abandoned);
+       }
    }
 }
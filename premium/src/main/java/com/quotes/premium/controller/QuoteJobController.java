@@ -0,0 +1,84 @@
+package com.quotes.premium.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.quotes.premium.dto.ApiResponse;
+import com.quotes.premium.dto.QuoteJobStatus;
+import com.quotes.premium.job.QuoteJob;
+import com.quotes.premium.job.QuoteJobService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * Batches of quotes too large to price within one request. The upload is a JSON array of quote requests, results are
+ * downloaded as NDJSON pages of QuoteJobResult lines; X-Next-From is the record to ask for next.
+ */
+@RequestMapping("/quote/jobs")
+@RestController
+public class QuoteJobController {
+
+    public static final String NEXT_FROM = "X-Next-From";
+
+    @Autowired
+    private QuoteJobService quoteJobService;
+
+    @Value("${quote.jobs.page.max:1000}")
+    private int maxPageSize;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<QuoteJobStatus>> submit(final HttpServletRequest request) throws IOException {
+        final QuoteJob job;
+        try {
+            job = this.quoteJobService.submit(request.getInputStream());
+        } catch (final IllegalArgumentException | JsonProcessingException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.buildResponse(null, e.getMessage(), false));
+        }
+        if (null == job) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "30")
+                    .body(ApiResponse.buildResponse(null, "too many quote jobs queued, retry later", false));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).header(HttpHeaders.LOCATION, "/quote/jobs/" + job.getId())
+                .body(ApiResponse.buildResponse(job.status(), "success", true));
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ApiResponse<QuoteJobStatus>> status(@PathVariable final String jobId) {
+        final QuoteJob job = this.quoteJobService.get(jobId);
+        if (null == job) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.buildResponse(null, "quote job not found or expired", false));
+        }
+        return ResponseEntity.ok().body(ApiResponse.buildResponse(job.status(), "success", true));
+    }
+
+    @GetMapping(value = "/{jobId}/results", produces = "application/x-ndjson")
+    public ResponseEntity<byte[]> results(@PathVariable final String jobId,
+                                          @RequestParam(defaultValue = "0") final int from,
+                                          @RequestParam(defaultValue = "1000") final int size) throws IOException {
+        final QuoteJob job = this.quoteJobService.get(jobId);
+        if (null == job) {
+            return ResponseEntity.notFound().build();
+        }
+        if (0 > from || 0 >= size) {
+            return ResponseEntity.badRequest().build();
+        }
+        final int pageSize = Math.min(size, this.maxPageSize);
+        final int available = job.getAvailable();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header(QuoteJobController.NEXT_FROM, String.valueOf(Math.max(from, Math.min(available, from + pageSize))))
+                .header("X-Job-State", job.getState().name())
+                .body(this.quoteJobService.results(job, from, pageSize));
+    }
+
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<Void> cancel(@PathVariable final String jobId) {
+        return this.quoteJobService.cancel(jobId) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+}
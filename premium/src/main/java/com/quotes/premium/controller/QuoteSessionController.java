@@ -0,0 +1,46 @@
+package com.quotes.premium.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.quotes.premium.dto.ApiResponse;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.QuoteSessionResponse;
+import com.quotes.premium.session.QuoteSessionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RequestMapping("/quote/sessions")
+@RestController
+public class QuoteSessionController {
+
+    @Autowired
+    private QuoteSessionService quoteSessionService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<QuoteSessionResponse>> create(@RequestBody final PremiumRequest premiumRequest) {
+        return ResponseEntity.ok().body(this.quoteSessionService.create(premiumRequest));
+    }
+
+    @PatchMapping("/{sessionId}")
+    public ResponseEntity<ApiResponse<QuoteSessionResponse>> update(@PathVariable final String sessionId, @RequestBody final JsonNode patch) {
+        return QuoteSessionController.found(this.quoteSessionService.update(sessionId, patch));
+    }
+
+    @GetMapping("/{sessionId}")
+    public ResponseEntity<ApiResponse<QuoteSessionResponse>> get(@PathVariable final String sessionId) {
+        return QuoteSessionController.found(this.quoteSessionService.get(sessionId));
+    }
+
+    @DeleteMapping("/{sessionId}")
+    public ResponseEntity<Void> delete(@PathVariable final String sessionId) {
+        return this.quoteSessionService.delete(sessionId) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    private static ResponseEntity<ApiResponse<QuoteSessionResponse>> found(final ApiResponse<QuoteSessionResponse> response) {
+        if (null == response) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.buildResponse(null, "quote session not found or expired", false));
+        }
+        return ResponseEntity.ok().body(response);
+    }
+}
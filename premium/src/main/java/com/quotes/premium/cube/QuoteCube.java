@@ -0,0 +1,90 @@
+package com.quotes.premium.cube;
+
+import com.quotes.premium.config.MandatoryConfiguration;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.PremiumResponse;
+import com.quotes.premium.rates.RateRegistry;
+import com.quotes.premium.service.PremiumService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Predicate;
+
+/**
+ * Serves single insured individual quotes from a precomputed cube file when quote.cube.file is set. Only requests
+ * that pass validation and are priced with the rate version the cube was generated from are answered from it.
+ * <p>
+ * A cube answer has its own contract: it carries the final premium, taxes, total premium, summary and payment term
+ * of the engine's quote, and an empty applicables list instead of the per insured-year breakdown. It is a read, so
+ * it is neither coalesced, replayed on the shadow engine nor bound by the deadline. Deployments whose clients read
+ * the applicables leave quote.cube.file unset.
+ */
+@Component
+@Log4j2
+public class QuoteCube {
+
+    @Value("${quote.cube.file:}")
+    private String file;
+
+    @Autowired
+    private MandatoryConfiguration mandatoryConfiguration;
+    @Autowired
+    private RateRegistry rateRegistry;
+
+    private QuoteCubeFile cube;
+    private QuoteCubeLayout layout;
+
+    @PostConstruct
+    public void load() {
+        if (null == this.file || this.file.isBlank()) {
+            return;
+        }
+        this.load(Path.of(this.file));
+    }
+
+    void load(final Path path) {
+        try {
+            final QuoteCubeFile cubeFile = QuoteCubeFile.open(path);
+            if (!cubeFile.getExecutionKeys().equals(this.mandatoryConfiguration.getExecutionKeys())) {
+                QuoteCube.log.warn("quote cube {} was generated for other execution keys, serving every quote from the engine", path);
+                return;
+            }
+            this.layout = new QuoteCubeLayout(this.mandatoryConfiguration.getExecutionKeys(), cubeFile.getBundles());
+            this.cube = cubeFile;
+            QuoteCube.log.info("quote cube {} loaded with {} entries for rate version {}", path, this.layout.size(), cubeFile.getRateVersion());
+        } catch (final IOException | RuntimeException e) {
+            QuoteCube.log.error("quote cube {} could not be loaded, serving every quote from the engine", path, e);
+        }
+    }
+
+    /**
+     * @param valid whether the engine would accept the request, asked only of requests inside the cube
+     * @return the quote for a request inside the cube, null when the engine has to price it
+     */
+    public PremiumResponse lookup(final PremiumRequest premiumRequest, final Predicate<PremiumRequest> valid) {
+        if (null == this.cube) {
+            return null;
+        }
+        final int index = this.layout.index(premiumRequest);
+        if (0 > index || !this.cube.getRateVersion().equals(this.rateRegistry.resolve(premiumRequest.getQuoteDate()).getId())
+                || !valid.test(premiumRequest)) {
+            return null; // the engine reports why an invalid request is rejected
+        }
+        return QuoteCube.serve(this.cube, index, premiumRequest);
+    }
+
+    static PremiumResponse serve(final QuoteCubeFile cube, final int index, final PremiumRequest premiumRequest) {
+        final PremiumResponse premiumResponse = cube.get(index);
+        if (null == premiumResponse) {
+            return null; // rejected input, let the engine report why
+        }
+        premiumResponse.setTotalPremium(premiumResponse.getFinalPremium() + premiumResponse.getCgst() + premiumResponse.getIgst());
+        PremiumService.handlePaymentTerm(premiumResponse, premiumRequest);
+        return premiumResponse;
+    }
+}
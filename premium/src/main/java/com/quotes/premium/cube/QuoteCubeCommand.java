@@ -0,0 +1,52 @@
+package com.quotes.premium.cube;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Offline cube commands, the application exits once the command is done:
+ * <pre>
+ * java -jar premium.jar --spring.main.web-application-type=none --quote.cube.generate=quote-cube.bin
+ * java -jar premium.jar --spring.main.web-application-type=none --quote.cube.verify=quote-cube.bin --quote.cube.samples=5000
+ * </pre>
+ */
+@Component
+@Log4j2
+public class QuoteCubeCommand implements ApplicationRunner {
+
+    @Autowired
+    private QuoteCubeGenerator quoteCubeGenerator;
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Value("${quote.cube.bundles}")
+    private String bundles;
+
+    @Value("${quote.cube.samples:1000}")
+    private int samples;
+
+    @Override
+    public void run(final ApplicationArguments args) throws Exception {
+        if (args.containsOption("quote.cube.generate")) {
+            final Path path = Path.of(args.getOptionValues("quote.cube.generate").get(0));
+            this.quoteCubeGenerator.generate(path, QuoteCubeLayout.parseBundles(this.bundles));
+            this.exit(0);
+        } else if (args.containsOption("quote.cube.verify")) {
+            final Path path = Path.of(args.getOptionValues("quote.cube.verify").get(0));
+            final int mismatches = this.quoteCubeGenerator.verify(path, this.samples, System.nanoTime());
+            this.exit(0 == mismatches ? 0 : 1);
+        }
+    }
+
+    private void exit(final int code) {
+        System.exit(SpringApplication.exit(this.applicationContext, () -> code));
+    }
+}
@@ -0,0 +1,133 @@
+package com.quotes.premium.cube;
+
+import com.quotes.premium.dto.PremiumResponse;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary cube file: a header naming the rate version, execution keys and bundles it was generated for, followed by
+ * fixed width entries in QuoteCubeLayout index order. Entries are read straight from the mapped file.
+ */
+public class QuoteCubeFile {
+
+    static final int MAGIC = 0x51434232; // QCB2
+    static final int ENTRY_BYTES = 40;
+    static final long FAILED = -1L;
+
+    private final MappedByteBuffer entries;
+    private final String rateVersion;
+    private final List<String> executionKeys;
+    private final List<List<String>> bundles;
+
+    private QuoteCubeFile(final MappedByteBuffer entries, final String rateVersion, final List<String> executionKeys, final List<List<String>> bundles) {
+        this.entries = entries;
+        this.rateVersion = rateVersion;
+        this.executionKeys = executionKeys;
+        this.bundles = bundles;
+    }
+
+    public static QuoteCubeFile open(final Path path) throws IOException {
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (QuoteCubeFile.MAGIC != mapped.getInt()) {
+                throw new IOException(path + " is not a quote cube file");
+            }
+            final String rateVersion = QuoteCubeFile.readString(mapped);
+            final List<String> executionKeys = List.of(QuoteCubeFile.readString(mapped).split(","));
+            final int bundleCount = mapped.getInt();
+            final List<List<String>> bundles = new ArrayList<>(bundleCount);
+            for (int bundle = 0; bundle < bundleCount; bundle++) {
+                final String keys = QuoteCubeFile.readString(mapped);
+                bundles.add(keys.isEmpty() ? List.of() : List.of(keys.split(",")));
+            }
+            final int entryCount = mapped.getInt();
+            final MappedByteBuffer entries = (MappedByteBuffer) mapped.slice(mapped.position(), entryCount * QuoteCubeFile.ENTRY_BYTES);
+            return new QuoteCubeFile(entries, rateVersion, executionKeys, bundles);
+        }
+    }
+
+    public static void write(final Path path, final String rateVersion, final QuoteCubeLayout layout, final ByteBuffer entries) throws IOException {
+        final Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (final DataOutputStream out = new DataOutputStream(Files.newOutputStream(temporary))) {
+            out.writeInt(QuoteCubeFile.MAGIC);
+            QuoteCubeFile.writeString(out, rateVersion);
+            QuoteCubeFile.writeString(out, String.join(",", layout.getExecutionKeys()));
+            out.writeInt(layout.getBundles().size());
+            for (final List<String> bundle : layout.getBundles()) {
+                QuoteCubeFile.writeString(out, String.join(",", bundle));
+            }
+            out.writeInt(layout.size());
+            out.write(entries.array(), 0, layout.size() * QuoteCubeFile.ENTRY_BYTES);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static void put(final ByteBuffer entries, final int index, final PremiumResponse premiumResponse) {
+        final int offset = index * QuoteCubeFile.ENTRY_BYTES;
+        if (null == premiumResponse) {
+            entries.putLong(offset, QuoteCubeFile.FAILED);
+            return;
+        }
+        entries.putLong(offset, premiumResponse.getFinalPremium());
+        entries.putInt(offset + 8, Math.toIntExact(premiumResponse.getCgst()));
+        entries.putInt(offset + 12, Math.toIntExact(premiumResponse.getIgst()));
+        entries.putDouble(offset + 16, premiumResponse.getLifestyleDiscount());
+        entries.putDouble(offset + 24, premiumResponse.getTotalOptionalCovers());
+        entries.putDouble(offset + 32, premiumResponse.getTotalDiscounts());
+    }
+
+    /**
+     * Totals stored at the index before taxes are added and the payment term applied, null when the
+     * engine rejected that input.
+     */
+    PremiumResponse get(final int index) {
+        final int offset = index * QuoteCubeFile.ENTRY_BYTES;
+        final long finalPremium = this.entries.getLong(offset);
+        if (QuoteCubeFile.FAILED == finalPremium) {
+            return null;
+        }
+        final PremiumResponse premiumResponse = new PremiumResponse();
+        premiumResponse.setFinalPremium(finalPremium);
+        premiumResponse.setCgst(this.entries.getInt(offset + 8));
+        premiumResponse.setIgst(this.entries.getInt(offset + 12));
+        premiumResponse.setLifestyleDiscount(this.entries.getDouble(offset + 16));
+        premiumResponse.setTotalOptionalCovers(this.entries.getDouble(offset + 24));
+        premiumResponse.setTotalDiscounts(this.entries.getDouble(offset + 32));
+        return premiumResponse;
+    }
+
+    String getRateVersion() {
+        return this.rateVersion;
+    }
+
+    List<String> getExecutionKeys() {
+        return this.executionKeys;
+    }
+
+    List<List<String>> getBundles() {
+        return this.bundles;
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,122 @@
+package com.quotes.premium.cube;
+
+import com.quotes.premium.config.MandatoryConfiguration;
+import com.quotes.premium.dto.ApiResponse;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.PremiumResponse;
+import com.quotes.premium.rates.RateRegistry;
+import com.quotes.premium.service.PremiumService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Evaluates every cube coordinate with the live engine, and checks an existing cube against it.
+ */
+@Component
+@Log4j2
+public class QuoteCubeGenerator {
+
+    @Autowired
+    private PremiumService premiumService;
+    @Autowired
+    private MandatoryConfiguration mandatoryConfiguration;
+    @Autowired
+    private RateRegistry rateRegistry;
+
+    public void generate(final Path path, final List<List<String>> bundles) throws IOException {
+        final QuoteCubeLayout layout = new QuoteCubeLayout(this.mandatoryConfiguration.getExecutionKeys(), bundles);
+        final ByteBuffer entries = ByteBuffer.allocate(layout.size() * QuoteCubeFile.ENTRY_BYTES);
+        final long start = System.nanoTime();
+        final LocalDate quoteDate = LocalDate.now(); // every entry is priced with the same rate version
+        final String rateVersion = this.rateRegistry.resolve(quoteDate).getId();
+
+        IntStream.rangeClosed(QuoteCubeLayout.MIN_AGE, QuoteCubeLayout.MAX_AGE).parallel().forEach(age -> {
+            for (int sumInsured = 0; sumInsured < QuoteCubeLayout.SUM_INSURED.size(); sumInsured++) {
+                for (int zone = 1; zone <= QuoteCubeLayout.ZONES; zone++) {
+                    for (int term = 1; term <= QuoteCubeLayout.TERMS; term++) {
+                        for (int bundle = 0; bundle < bundles.size(); bundle++) {
+                            for (final boolean emi : new boolean[]{false, true}) {
+                                final int index = layout.index(age, sumInsured, zone, term, emi, bundle);
+                                final PremiumRequest premiumRequest = layout.request(age, sumInsured, zone, term, emi, bundle);
+                                premiumRequest.setQuoteDate(quoteDate);
+                                QuoteCubeFile.put(entries, index, this.evaluate(premiumRequest));
+                            }
+                        }
+                    }
+                }
+            }
+        });
+
+        QuoteCubeFile.write(path, rateVersion, layout, entries);
+        QuoteCubeGenerator.log.info("quote cube {} written with {} entries for rate version {} in {} ms", path, layout.size(), rateVersion, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Prices random cube coordinates with the live engine and compares them with the cube answers.
+     *
+     * @return number of mismatching samples
+     */
+    public int verify(final Path path, final int samples, final long seed) throws IOException {
+        final QuoteCubeFile cube = QuoteCubeFile.open(path);
+        if (!cube.getExecutionKeys().equals(this.mandatoryConfiguration.getExecutionKeys())) {
+            QuoteCubeGenerator.log.error("quote cube {} was generated for other execution keys", path);
+            return samples;
+        }
+        if (!cube.getRateVersion().equals(this.rateRegistry.resolve(null).getId())) {
+            QuoteCubeGenerator.log.error("quote cube {} was generated for rate version {}, rate version {} is in force", path,
+                    cube.getRateVersion(), this.rateRegistry.resolve(null).getId());
+            return samples;
+        }
+        final QuoteCubeLayout layout = new QuoteCubeLayout(cube.getExecutionKeys(), cube.getBundles());
+        final Random random = new Random(seed);
+        int mismatches = 0;
+        for (int sample = 0; sample < samples; sample++) {
+            final int age = QuoteCubeLayout.MIN_AGE + random.nextInt(QuoteCubeLayout.MAX_AGE - QuoteCubeLayout.MIN_AGE + 1);
+            final int sumInsured = random.nextInt(QuoteCubeLayout.SUM_INSURED.size());
+            final int zone = 1 + random.nextInt(QuoteCubeLayout.ZONES);
+            final int term = 1 + random.nextInt(QuoteCubeLayout.TERMS);
+            final boolean emi = random.nextBoolean();
+            final int bundle = random.nextInt(layout.getBundles().size());
+            final PremiumRequest premiumRequest = layout.request(age, sumInsured, zone, term, emi, bundle);
+
+            final PremiumResponse served = QuoteCube.serve(cube, layout.index(premiumRequest), premiumRequest);
+            final PremiumResponse live = this.evaluate(premiumRequest);
+            if (!QuoteCubeGenerator.sameTotals(served, live)) {
+                mismatches++;
+                QuoteCubeGenerator.log.warn("quote cube mismatch at age {} sum insured {} zone {} term {} emi {} bundle {}",
+                        age, QuoteCubeLayout.SUM_INSURED.get(sumInsured), zone, term, emi, layout.getBundles().get(bundle));
+            }
+        }
+        QuoteCubeGenerator.log.info("quote cube {} verified, {} of {} samples mismatched", path, mismatches, samples);
+        return mismatches;
+    }
+
+    private PremiumResponse evaluate(final PremiumRequest premiumRequest) {
+        final ApiResponse<PremiumResponse> response = this.premiumService.calculateLive(premiumRequest);
+        return response.isSuccess() ? response.getData().orElse(null) : null;
+    }
+
+    private static boolean sameTotals(final PremiumResponse served, final PremiumResponse live) {
+        if (null == served || null == live) {
+            return served == live;
+        }
+        return served.getFinalPremium() == live.getFinalPremium()
+                && served.getCgst() == live.getCgst()
+                && served.getIgst() == live.getIgst()
+                && served.getTotalPremium() == live.getTotalPremium()
+                && Objects.equals(served.getLifestyleDiscount(), live.getLifestyleDiscount())
+                && Objects.equals(served.getTotalOptionalCovers(), live.getTotalOptionalCovers())
+                && Objects.equals(served.getTotalDiscounts(), live.getTotalDiscounts())
+                && served.getEmiResponse().getAmount() == live.getEmiResponse().getAmount();
+    }
+}
@@ -0,0 +1,175 @@
+package com.quotes.premium.cube;
+
+import com.quotes.premium.dto.Insured;
+import com.quotes.premium.dto.PaymentTermRequest;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.plan.FeatureActivation;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Input space of the quote cube: one fresh individual adult without peds or reflex loading,
+ * age x sum insured x zone x term x emi x add-on bundle. Every other optional cover must be inactive.
+ */
+@Getter
+public class QuoteCubeLayout {
+
+    public static final int MIN_AGE = 18;
+    public static final int MAX_AGE = 100;
+    public static final List<String> SUM_INSURED = List.of("500000", "750000", "1000000", "1500000", "2000000", "2500000", "5000000", "10000000", "UNLIMITED");
+    public static final int ZONES = 3;
+    public static final int TERMS = 5;
+
+    /**
+     * Execution keys without a parameter, the only optional covers a bundle may switch on.
+     */
+    public static final Set<String> BUNDLE_KEYS = Set.of("superstarBonus", "consumableCover", "futureReady", "specificDisease",
+            "limitlessCare", "preferredHospitalNetwork", "subLimitModeration", "medicalEquipmentCover", "nriDiscount", "womenCare",
+            "highEndDiagnostic", "annualHealthCheckUp", "internationalSecondOpinion", "compassionateVisit", "healthQuestionnaire", "earlyRenewal");
+
+    private final List<String> executionKeys;
+    private final List<List<String>> bundles;
+    private final long[] bundleMasks;
+    private final long optionalMask; // keys that are either bundle keys or gated by a request flag
+    private final int longTermPosition;
+
+    public QuoteCubeLayout(final List<String> executionKeys, final List<List<String>> bundles) {
+        this.executionKeys = executionKeys;
+        this.bundles = bundles;
+        this.bundleMasks = new long[bundles.size()];
+        for (int bundle = 0; bundle < bundles.size(); bundle++) {
+            for (final String key : bundles.get(bundle)) {
+                final int position = executionKeys.indexOf(key);
+                if (!QuoteCubeLayout.BUNDLE_KEYS.contains(key) || 0 > position) {
+                    throw new IllegalArgumentException("execution key " + key + " can not be part of a quote cube bundle");
+                }
+                this.bundleMasks[bundle] |= 1L << position;
+            }
+        }
+        long optional = 0L;
+        final PremiumRequest none = QuoteCubeLayout.request(QuoteCubeLayout.MIN_AGE, 0, 1, 1, false);
+        for (int position = 0; position < executionKeys.size(); position++) {
+            if (!FeatureActivation.isActive(executionKeys.get(position), none)) {
+                optional |= 1L << position;
+            }
+        }
+        this.longTermPosition = executionKeys.indexOf("longTermDiscount");
+        this.optionalMask = optional & ~(1L << this.longTermPosition);
+    }
+
+    public static List<List<String>> parseBundles(final String bundles) {
+        final List<List<String>> parsed = new ArrayList<>();
+        for (final String bundle : bundles.split(";")) {
+            final String trimmed = bundle.trim();
+            parsed.add("none".equals(trimmed) || trimmed.isEmpty() ? List.of() : Arrays.stream(trimmed.split(",")).map(String::trim).toList());
+        }
+        return parsed;
+    }
+
+    public int size() {
+        return (QuoteCubeLayout.MAX_AGE - QuoteCubeLayout.MIN_AGE + 1) * QuoteCubeLayout.SUM_INSURED.size()
+                * QuoteCubeLayout.ZONES * QuoteCubeLayout.TERMS * 2 * this.bundles.size();
+    }
+
+    public int index(final int age, final int sumInsured, final int zone, final int term, final boolean emi, final int bundle) {
+        int index = age - QuoteCubeLayout.MIN_AGE;
+        index = index * QuoteCubeLayout.SUM_INSURED.size() + sumInsured;
+        index = index * QuoteCubeLayout.ZONES + zone - 1;
+        index = index * QuoteCubeLayout.TERMS + term - 1;
+        index = index * 2 + (emi ? 1 : 0);
+        return index * this.bundles.size() + bundle;
+    }
+
+    /**
+     * Cube index answering the request, or -1 when the request lies outside the cube.
+     */
+    public int index(final PremiumRequest premiumRequest) {
+        if (!"individual".equals(premiumRequest.getPolicyType()) || !premiumRequest.isFresh()
+                || null == premiumRequest.getInsured() || 1 != premiumRequest.getInsured().size()
+                || null == premiumRequest.getPaymentTermRequest()) {
+            return -1;
+        }
+        final Insured insured = premiumRequest.getInsured().get(0);
+        if (!"adult".equals(insured.getType()) || !insured.isProposer() || QuoteCubeLayout.MIN_AGE > insured.getAge() || QuoteCubeLayout.MAX_AGE < insured.getAge()) {
+            return -1;
+        }
+        final int sumInsured = QuoteCubeLayout.SUM_INSURED.indexOf(premiumRequest.getSumInsured());
+        final int zone = QuoteCubeLayout.zone(premiumRequest.getZone());
+        final int term = premiumRequest.getPolicyTerm();
+        if (0 > sumInsured || 0 > zone || 1 > term || QuoteCubeLayout.TERMS < term) {
+            return -1;
+        }
+        final long mask = FeatureActivation.mask(premiumRequest, this.executionKeys) & this.optionalMask;
+        for (int bundle = 0; bundle < this.bundleMasks.length; bundle++) {
+            if (this.bundleMasks[bundle] == mask) {
+                return this.index(insured.getAge(), sumInsured, zone, term, premiumRequest.getPaymentTermRequest().isEmi(), bundle);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Request sitting at the given coordinates, used to evaluate and verify the cube.
+     */
+    public PremiumRequest request(final int age, final int sumInsured, final int zone, final int term, final boolean emi, final int bundle) {
+        final PremiumRequest premiumRequest = QuoteCubeLayout.request(age, sumInsured, zone, term, emi);
+        for (final String key : this.bundles.get(bundle)) {
+            QuoteCubeLayout.enable(premiumRequest, key);
+        }
+        return premiumRequest;
+    }
+
+    private static PremiumRequest request(final int age, final int sumInsured, final int zone, final int term, final boolean emi) {
+        final Insured insured = new Insured();
+        insured.setType("adult");
+        insured.setAge(age);
+        insured.setProposer(true);
+        final PaymentTermRequest paymentTermRequest = new PaymentTermRequest();
+        paymentTermRequest.setEmi(emi);
+        paymentTermRequest.setPaymentDuration("annual");
+
+        final PremiumRequest premiumRequest = new PremiumRequest();
+        premiumRequest.setSumInsured(QuoteCubeLayout.SUM_INSURED.get(sumInsured));
+        premiumRequest.setZone(String.valueOf(zone));
+        premiumRequest.setPolicyTerm(term);
+        premiumRequest.setPolicyType("individual");
+        premiumRequest.setFresh(true);
+        premiumRequest.setInsured(new ArrayList<>(List.of(insured)));
+        premiumRequest.setPaymentTermRequest(paymentTermRequest);
+        return premiumRequest;
+    }
+
+    private static void enable(final PremiumRequest premiumRequest, final String key) {
+        switch (key) {
+            case "superstarBonus" -> premiumRequest.setSuperstarBonus(true);
+            case "consumableCover" -> premiumRequest.setConsumableCover(true);
+            case "futureReady" -> premiumRequest.setFutureReady(true);
+            case "specificDisease" -> premiumRequest.setReductionOnSpecificDisease(true);
+            case "limitlessCare" -> premiumRequest.setLimitlessCare(true);
+            case "preferredHospitalNetwork" -> premiumRequest.setSmartNetworkDiscount(true);
+            case "subLimitModeration" -> premiumRequest.setSubLimitsForModernTreatments(true);
+            case "medicalEquipmentCover" -> premiumRequest.setDurableMedicalEquipmentCover(true);
+            case "nriDiscount" -> premiumRequest.getInsured().forEach(ins -> ins.setNri(true));
+            case "womenCare" -> premiumRequest.setWomenCare(true);
+            case "highEndDiagnostic" -> premiumRequest.setHighEndDiagnostic(true);
+            case "annualHealthCheckUp" -> premiumRequest.setAnnualCheckUp(true);
+            case "internationalSecondOpinion" -> premiumRequest.setInternationalSecondOpinion(true);
+            case "compassionateVisit" -> premiumRequest.setCompassionateVisit(true);
+            case "healthQuestionnaire" -> premiumRequest.setHealthQuestionnaire(true);
+            case "earlyRenewal" -> premiumRequest.setEarlyRenewalDiscount(true);
+            default -> throw new IllegalArgumentException("execution key " + key + " can not be part of a quote cube bundle");
+        }
+    }
+
+    private static int zone(final String zone) {
+        if (null == zone || 1 != zone.length()) {
+            return -1;
+        }
+        final int value = zone.charAt(0) - '0';
+        return 1 <= value && QuoteCubeLayout.ZONES >= value ? value : -1;
+    }
+}
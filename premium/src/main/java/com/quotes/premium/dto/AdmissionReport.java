@@ -0,0 +1,15 @@
+package com.quotes.premium.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class AdmissionReport {
+    private boolean enabled;
+    private int limit;
+    private int inFlight;
+    private long admitted;
+    private long rejected;
+    private long abandoned;
+}
@@ -3,6 +3,7 @@ package com.quotes.premium.dto;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 
+import java.util.List;
 import java.util.Optional;
 
 @Getter
@@ -14,6 +15,7 @@ public class ApiResponse<T>{
     private boolean success;
     private String message;
     private Optional<T> data;
+    private List<String> errors; // every violation of an invalid request, message holds the first
 
     public static <T> ApiResponse<T> buildResponse(final T response, final String message, final boolean isSuccess) {
         return ApiResponse.<T>builder()
@@ -23,4 +25,10 @@ public class ApiResponse<T>{
                 .build();
     }
 
+    public static <T> ApiResponse<T> buildResponse(final T response, final String message, final boolean isSuccess, final List<String> errors) {
+        final ApiResponse<T> apiResponse = ApiResponse.buildResponse(response, message, isSuccess);
+        apiResponse.setErrors(errors);
+        return apiResponse;
+    }
+
 }
@@ -10,7 +10,7 @@ import java.util.List;
 @Getter
 @Setter
 @ToString
-public class Applicable {
+public class Applicable implements Cloneable {
     private Double basePremium = 0.0d;
     private Double lookup = 0.0d;
     private Double zonalDiscount = 0.0d;
@@ -77,4 +77,15 @@ public class Applicable {
                         this.basePremium*0.20d
         );
     }
+
+    /**
+     * Shallow copy, premium components are immutable boxes and peds are never mutated by the pipeline.
+     */
+    public Applicable copy() {
+        try {
+            return (Applicable) super.clone();
+        } catch (final CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
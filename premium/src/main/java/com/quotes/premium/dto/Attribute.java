@@ -1,13 +1,11 @@
 package com.quotes.premium.dto;
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.quotes.premium.plan.Selectors;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.List;
-
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 public class Attribute{
     private String insured; //adult, all, child
@@ -16,4 +14,25 @@ public class Attribute{
     private boolean rounding;
     private String stage;
     private String expenseType;
+
+    @JsonIgnore
+    private int yearMask = Selectors.ALL_YEARS; // compiled from year at config load
+    @JsonIgnore
+    private int insuredMask = Selectors.ALL_INSURED; // compiled from insured at config load
+
+    public Attribute(final String insured, final String year, final boolean multiplicative, final boolean rounding, final String stage, final String expenseType) {
+        this.insured = insured;
+        this.year = year;
+        this.multiplicative = multiplicative;
+        this.rounding = rounding;
+        this.stage = stage;
+        this.expenseType = expenseType;
+        this.compile();
+    }
+
+    public Attribute compile() {
+        this.yearMask = Selectors.yearMask(this.year);
+        this.insuredMask = Selectors.insuredMask(this.insured);
+        return this;
+    }
 }
@@ -0,0 +1,13 @@
+package com.quotes.premium.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class CoalescingReport {
+    private boolean enabled;
+    private int inFlight;
+    private long priced;
+    private long coalesced;
+}
@@ -0,0 +1,22 @@
+package com.quotes.premium.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class CoverBundle {
+    private List<String> mustHave; // covers the bundle has to keep on
+    private List<String> covers; // every optional cover and discount on in the cheapest bundle, must-haves included
+    private long totalPremium; // of the cheapest bundle
+    private long mustHavePremium; // of the must-haves alone, every other optional cover and discount off
+    private PremiumResponse quote;
+    private int candidates; // covers searched over, the ones that can be on alongside the must-haves and change a premium
+    private long bundles; // bundles the candidates make
+    private int bundlesPriced; // searched to the total premium
+    private int partialQuotes; // stage ranges run, each shared by every bundle under it
+    private int prunedByBound; // partial bundles no bundle under could beat the cheapest found
+    private int prunedByValidation; // partial bundles validation turns down, copay with deductible say
+}
@@ -0,0 +1,20 @@
+package com.quotes.premium.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CoverImpact {
+    private String cover; // request property toggled, flag field of an option object after a dot
+    private boolean selected; // whether the quoted request has it on, toggling then takes it off
+    private boolean success;
+    private String message;
+    private long totalPremium; // of the quote with the cover toggled
+    private long delta; // totalPremium minus the base quote's
+    private String recomputedFrom;
+}
@@ -0,0 +1,27 @@
+package com.quotes.premium.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class CoverSolution {
+    private long budget; // a year
+    private Option best; // highest sum insured within budget, the cheapest term a year of it, null when nothing fits
+    private List<Option> options; // highest sum insured within budget at each term that has one
+    private int sumsInsuredPriced; // quotes run through the whole pipeline
+    private int termsRepriced; // quotes of a shorter term finished from a longer one's insured-years
+    private int gridSize; // quotes pricing every sum insured at every term would take
+
+    @Getter
+    @Builder
+    public static class Option {
+        private String sumInsured;
+        private int policyTerm;
+        private long totalPremium;
+        private long annualPremium; // totalPremium over the term, rounded up
+        private PremiumResponse quote;
+    }
+}
@@ -1,10 +1,12 @@
 package com.quotes.premium.dto;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.io.Serializable;
+import java.time.LocalDate;
 import java.util.List;
 
 @Getter
@@ -46,5 +48,7 @@ public class PremiumRequest implements Serializable {
     private boolean earlyRenewalDiscount;
  //   private boolean bonusMaximizer;
     private PaymentTermRequest paymentTermRequest;
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate quoteDate; // rates in force on this date apply, today when absent
     private boolean isFresh; // TODO renewal request not planned yet for premium calculation
 }
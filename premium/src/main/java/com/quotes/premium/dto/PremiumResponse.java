@@ -28,6 +28,13 @@ public class PremiumResponse implements Serializable {
 
     // TODO add summary for optional covers, discounts , base premium ,
 
+    public PremiumResponse copy() {
+        final List<Applicable> copies = new ArrayList<>(this.applicables.size());
+        this.applicables.forEach(app -> copies.add(app.copy()));
+        return new PremiumResponse(copies, this.finalPremium, this.cgst, this.igst, this.totalPremium,
+                this.emiResponse, this.LifestyleDiscount, this.totalOptionalCovers, this.totalDiscounts);
+    }
+
     public static void main(String[] args) throws JsonProcessingException {
         System.out.println(new ObjectMapper().writeValueAsString(PremiumResponse.builder().finalPremium(240030)
                 .build()));
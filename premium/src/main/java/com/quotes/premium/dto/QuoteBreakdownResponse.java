@@ -0,0 +1,17 @@
+package com.quotes.premium.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuoteBreakdownResponse {
+    private PremiumResponse quote;
+    private List<CoverImpact> covers;
+}
@@ -0,0 +1,22 @@
+package com.quotes.premium.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuoteJobResult {
+    private int index; // position of the record in the uploaded array
+    private boolean success;
+    private String message;
+    private PremiumResponse quote;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<String> errors;
+}
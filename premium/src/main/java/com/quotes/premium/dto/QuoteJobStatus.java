@@ -0,0 +1,19 @@
+package com.quotes.premium.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class QuoteJobStatus {
+    private String jobId;
+    private String state;
+    private String message;
+    private String createdAt;
+    private int total;
+    private int priced;
+    private int failed;
+    private int available; // results that can be downloaded, in record order
+    private long elapsedMs;
+    private double quotesPerSecond;
+}
@@ -0,0 +1,16 @@
+package com.quotes.premium.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuoteSessionResponse {
+    private String sessionId;
+    private String recomputedFrom; // first execution key run again, null when nothing changed
+    private PremiumResponse quote;
+}
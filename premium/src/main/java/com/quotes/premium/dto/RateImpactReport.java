@@ -0,0 +1,49 @@
+package com.quotes.premium.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class RateImpactReport {
+    private String liveVersion;
+    private String candidateVersion;
+    private long policies; // records read, whether they quote or not
+    private long compared; // quoted under both versions, everything below counts only these
+    private long failedLive;
+    private long failedCandidate;
+    private long unreadable;
+    private long livePremium;
+    private long candidatePremium;
+    private double changePercent; // of the total premium
+    private double thresholdPercent;
+    private long movedOverThreshold; // policies whose premium moved by more than thresholdPercent either way
+    private double largestDecreasePercent;
+    private double largestIncreasePercent;
+    private List<Bucket> changes; // premium change per policy, in percent
+    private List<Group> byZone;
+    private List<Group> byAgeBand; // of the oldest insured
+    private List<Group> bySumInsured;
+
+    @Getter
+    @Builder
+    public static class Bucket {
+        private Double fromPercent; // inclusive, null for the open lower end
+        private Double toPercent; // exclusive, null for the open upper end
+        private long policies;
+    }
+
+    @Getter
+    @Builder
+    public static class Group {
+        private String key;
+        private long policies;
+        private long livePremium;
+        private long candidatePremium;
+        private double changePercent;
+        private long movedOverThreshold;
+        private List<Bucket> changes;
+    }
+}
@@ -0,0 +1,18 @@
+package com.quotes.premium.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class RenewalForecast {
+    private List<RenewalYear> years;
+    private long totalPremium; // over every renewal quoted
+    private int repriced;
+    private int reused;
+    private Integer stoppedAt; // renewal that did not quote, null when every one did
+    private String stoppedBecause;
+    private List<String> errors;
+}
@@ -0,0 +1,16 @@
+package com.quotes.premium.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class RenewalYear {
+    private int renewal; // 1 for the next renewal
+    private List<Integer> ages; // of the insured, in request order
+    private boolean repriced; // false when nobody changed age band and the previous year's insured-years were reused
+    private long totalPremium;
+    private PremiumResponse quote;
+}
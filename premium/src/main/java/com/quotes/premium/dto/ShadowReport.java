@@ -0,0 +1,32 @@
+package com.quotes.premium.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+@Builder
+public class ShadowReport {
+    private String primary;
+    private String shadow;
+    private double sampleRate;
+    private long sampled;
+    private long compared;
+    private long mismatched;
+    private long dropped;
+    private Map<String, Long> mismatchedFields;
+    private LatencySummary primaryLatency;
+    private LatencySummary shadowLatency;
+
+    @Getter
+    @Builder
+    public static class LatencySummary {
+        private long count;
+        private double p50Ms;
+        private double p90Ms;
+        private double p99Ms;
+        private double p999Ms;
+        private double maxMs;
+    }
+}
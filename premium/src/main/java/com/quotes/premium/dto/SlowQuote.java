@@ -0,0 +1,34 @@
+package com.quotes.premium.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Builder
+public class SlowQuote {
+    private long sequence;
+    private long capturedAtEpochMs;
+    private double latencyMs;
+    private double thresholdMs;
+    private String outcome;
+    private String thread;
+    private int inFlight;
+    private long heapUsedMb;
+    private Map<String, Double> stageMs; // empty when answered from the quote cube or by an identical quote priced alongside
+    private List<GcPause> gcPauses;
+    private JsonNode request;
+
+    @Getter
+    @Builder
+    public static class GcPause {
+        private String collector;
+        private String action;
+        private String cause;
+        private long startMs; // since the JVM started
+        private long durationMs;
+    }
+}
@@ -0,0 +1,16 @@
+package com.quotes.premium.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class SlowQuoteReplay {
+    private long sequence;
+    private double capturedMs;
+    private int repetitions;
+    private double minMs;
+    private double medianMs;
+    private boolean intrinsic; // still over the threshold it was captured at when priced alone
+    private String failure;
+}
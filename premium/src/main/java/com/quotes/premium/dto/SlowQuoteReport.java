@@ -0,0 +1,18 @@
+package com.quotes.premium.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class SlowQuoteReport {
+    private boolean enabled;
+    private int capacity;
+    private double thresholdMs;
+    private double percentile;
+    private double percentileThresholdMs;
+    private long captured;
+    private List<SlowQuote> quotes;
+}
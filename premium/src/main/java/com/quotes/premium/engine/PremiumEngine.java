@@ -0,0 +1,22 @@
+package com.quotes.premium.engine;
+
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.PremiumResponse;
+
+/**
+ * Prices a premium request. PremiumService is the reference implementation, alternative engines can be
+ * selected as primary with premium.engine.primary or tried on live traffic with premium.engine.shadow.
+ */
+public interface PremiumEngine {
+
+    /**
+     * Name engines are selected by.
+     */
+    String getName();
+
+    /**
+     * @return the quote including its summary
+     * @throws Exception when the request is rejected, the message is what the caller is told
+     */
+    PremiumResponse quote(PremiumRequest premiumRequest) throws Exception;
+}
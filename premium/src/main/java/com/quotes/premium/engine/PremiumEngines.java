@@ -0,0 +1,200 @@
+package com.quotes.premium.engine;
+
+import com.quotes.premium.dto.CoalescingReport;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.PremiumResponse;
+import com.quotes.premium.dto.ShadowReport;
+import com.quotes.premium.exception.DeadlineExceededException;
+import com.quotes.premium.service.PremiumService;
+import com.quotes.premium.warmup.WarmUp;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Routes quotes to the primary engine and replays a sampled fraction of them on the shadow engine.
+ * Shadow runs happen on a bounded executor after the primary quote is computed, when the executor is
+ * saturated the sample is dropped rather than queued behind the caller. Identical quotes arriving together are
+ * priced once, see {@link QuoteCoalescer}.
+ */
+@Component
+@Log4j2
+public class PremiumEngines implements SmartInitializingSingleton {
+
+    private static final long HIGHEST_LATENCY_NANOS = 60_000_000_000L;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+    @Autowired
+    private QuoteCoalescer quoteCoalescer;
+
+    @Value("${premium.engine.primary:reflective}")
+    private String primaryName;
+    @Value("${premium.engine.shadow:}")
+    private String shadowName;
+    @Value("${premium.engine.shadow.sample.rate:0.01}")
+    private double sampleRate;
+    @Value("${premium.engine.shadow.threads:1}")
+    private int shadowThreads;
+    @Value("${premium.engine.shadow.queue:256}")
+    private int shadowQueue;
+    @Value("${premium.engine.shadow.tolerance:0}")
+    private double tolerance;
+
+    private PremiumEngine primary;
+    private PremiumEngine shadow;
+    private ThreadPoolExecutor executor;
+
+    private final LongAdder sampled = new LongAdder();
+    private final LongAdder compared = new LongAdder();
+    private final LongAdder mismatched = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Map<String, LongAdder> mismatchedFields = new ConcurrentHashMap<>();
+    private final Histogram primaryLatency = new ConcurrentHistogram(PremiumEngines.HIGHEST_LATENCY_NANOS, 3);
+    private final Histogram shadowLatency = new ConcurrentHistogram(PremiumEngines.HIGHEST_LATENCY_NANOS, 3);
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        final Map<String, PremiumEngine> engines = this.applicationContext.getBeansOfType(PremiumEngine.class).values().stream()
+                .collect(Collectors.toMap(PremiumEngine::getName, engine -> engine));
+        this.primary = PremiumEngines.engine(engines, this.primaryName);
+        if (!this.shadowName.isBlank()) {
+            this.shadow = PremiumEngines.engine(engines, this.shadowName);
+            final AtomicInteger threadCount = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(this.shadowThreads, this.shadowThreads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(this.shadowQueue), runnable -> {
+                        final Thread thread = new Thread(runnable, "premium-shadow-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        thread.setPriority(Thread.MIN_PRIORITY);
+                        return thread;
+                    }, (runnable, executor) -> this.dropped.increment());
+            PremiumEngines.log.info("shadowing {} of quotes priced by {} with {}", this.sampleRate, this.primary.getName(), this.shadow.getName());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (null != this.executor) {
+            this.executor.shutdownNow();
+        }
+    }
+
+    public PremiumResponse quote(final PremiumRequest premiumRequest) throws Exception {
+        return this.quoteCoalescer.isEnabled() ? this.quoteCoalescer.quote(premiumRequest, this::route) : this.route(premiumRequest);
+    }
+
+    public CoalescingReport coalescing() {
+        return this.quoteCoalescer.report();
+    }
+
+    private PremiumResponse route(final PremiumRequest premiumRequest) throws Exception {
+        if (null == this.shadow || WarmUp.isWarmUpQuote() || ThreadLocalRandom.current().nextDouble() >= this.sampleRate) {
+            return this.primary.quote(premiumRequest);
+        }
+        this.sampled.increment();
+        final long start = System.nanoTime();
+        try {
+            final PremiumResponse premiumResponse = this.primary.quote(premiumRequest);
+            this.record(this.primaryLatency, start);
+            final PremiumResponse expected = premiumResponse.copy(); // the caller owns the returned quote
+            this.executor.execute(() -> this.compare(premiumRequest, expected, null));
+            return premiumResponse;
+        } catch (final DeadlineExceededException e) {
+            this.record(this.primaryLatency, start);
+            throw e; // abandoned, nothing to compare with
+        } catch (final Exception e) {
+            this.record(this.primaryLatency, start);
+            final String failure = PremiumService.failureMessage(e);
+            this.executor.execute(() -> this.compare(premiumRequest, null, failure));
+            throw e;
+        }
+    }
+
+    private void compare(final PremiumRequest premiumRequest, final PremiumResponse expected, final String expectedFailure) {
+        PremiumResponse actual = null;
+        String actualFailure = null;
+        final long start = System.nanoTime();
+        try {
+            actual = this.shadow.quote(premiumRequest);
+        } catch (final Exception e) {
+            actualFailure = PremiumService.failureMessage(e);
+        }
+        this.record(this.shadowLatency, start);
+
+        final Set<String> fields;
+        if (null != expected && null != actual) {
+            fields = ResponseDiff.diff(expected, actual, this.tolerance);
+        } else {
+            fields = null == expectedFailure ? Set.of("failure") : expectedFailure.equals(actualFailure) ? Set.of() : Set.of("failure");
+        }
+        this.compared.increment();
+        if (!fields.isEmpty()) {
+            this.mismatched.increment();
+            fields.forEach(field -> this.mismatchedFields.computeIfAbsent(field, name -> new LongAdder()).increment());
+            PremiumEngines.log.debug("shadow engine {} disagrees on {}", this.shadow.getName(), fields);
+        }
+    }
+
+    private void record(final Histogram histogram, final long start) {
+        histogram.recordValue(Math.min(System.nanoTime() - start, PremiumEngines.HIGHEST_LATENCY_NANOS));
+    }
+
+    public PremiumEngine getPrimary() {
+        return this.primary;
+    }
+
+    public ShadowReport report() {
+        final Map<String, Long> fields = new TreeMap<>();
+        this.mismatchedFields.forEach((field, count) -> fields.put(field, count.sum()));
+        return ShadowReport.builder()
+                .primary(this.primary.getName())
+                .shadow(null == this.shadow ? null : this.shadow.getName())
+                .sampleRate(null == this.shadow ? 0.0d : this.sampleRate)
+                .sampled(this.sampled.sum())
+                .compared(this.compared.sum())
+                .mismatched(this.mismatched.sum())
+                .dropped(this.dropped.sum())
+                .mismatchedFields(fields)
+                .primaryLatency(PremiumEngines.summary(this.primaryLatency))
+                .shadowLatency(PremiumEngines.summary(this.shadowLatency))
+                .build();
+    }
+
+    private static ShadowReport.LatencySummary summary(final Histogram histogram) {
+        final Histogram copy = histogram.copy();
+        return ShadowReport.LatencySummary.builder()
+                .count(copy.getTotalCount())
+                .p50Ms(copy.getValueAtPercentile(50.0d) / 1_000_000.0d)
+                .p90Ms(copy.getValueAtPercentile(90.0d) / 1_000_000.0d)
+                .p99Ms(copy.getValueAtPercentile(99.0d) / 1_000_000.0d)
+                .p999Ms(copy.getValueAtPercentile(99.9d) / 1_000_000.0d)
+                .maxMs(copy.getMaxValue() / 1_000_000.0d)
+                .build();
+    }
+
+    private static PremiumEngine engine(final Map<String, PremiumEngine> engines, final String name) {
+        final PremiumEngine engine = engines.get(name);
+        if (null == engine) {
+            throw new IllegalStateException("no premium engine named " + name + ", available engines are " + engines.keySet());
+        }
+        return engine;
+    }
+}
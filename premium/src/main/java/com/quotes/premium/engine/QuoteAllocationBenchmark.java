@@ -0,0 +1,68 @@
+package com.quotes.premium.engine;
+
+import com.quotes.premium.dto.PremiumRequest;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Time and bytes allocated per quote of a premium engine over a fixed list of requests, rejected ones included as
+ * live traffic has them. Every request is quoted the given number of rounds unmeasured first, so the numbers are of
+ * compiled code. Allocated is what the benchmark thread allocated, so work an engine hands to other threads is not
+ * counted. Stage and validation key logging is at debug, enabling it adds its allocation to every stage.
+ */
+@Log4j2
+public class QuoteAllocationBenchmark {
+
+    public record Result(String engine, int quotes, int failures, double microsPerQuote, double allocatedBytesPerQuote) {
+    }
+
+    public static Result run(final PremiumEngine engine, final List<PremiumRequest> requests, final int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            QuoteAllocationBenchmark.quoteAll(engine, requests);
+        }
+        final long allocatedBefore = QuoteAllocationBenchmark.allocatedBytes();
+        final long start = System.nanoTime();
+        int failures = 0;
+        for (int round = 0; round < rounds; round++) {
+            failures = QuoteAllocationBenchmark.quoteAll(engine, requests);
+        }
+        final long nanos = System.nanoTime() - start;
+        final long allocated = QuoteAllocationBenchmark.allocatedBytes() - allocatedBefore;
+        final int quotes = rounds * requests.size();
+        QuoteAllocationBenchmark.log.info("{} priced {} quotes in {} ms", engine.getName(), quotes, nanos / 1_000_000L);
+        return new Result(engine.getName(), quotes, failures, nanos / 1000.0d / quotes, (double) allocated / quotes);
+    }
+
+    public static void report(final List<Result> results, final PrintStream out) {
+        out.printf("%-12s %10s %10s %12s %18s%n", "engine", "quotes", "failures", "us/quote", "allocated KB/quote");
+        for (final Result result : results) {
+            out.printf("%-12s %10d %10d %12.1f %18.1f%n", result.engine(), result.quotes(), result.failures(),
+                    result.microsPerQuote(), result.allocatedBytesPerQuote() / 1024.0d);
+        }
+    }
+
+    /**
+     * @return the requests rejected
+     */
+    private static int quoteAll(final PremiumEngine engine, final List<PremiumRequest> requests) {
+        int failures = 0;
+        for (final PremiumRequest premiumRequest : requests) {
+            try {
+                engine.quote(premiumRequest);
+            } catch (final Exception e) {
+                failures++;
+            }
+        }
+        return failures;
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return -1L;
+    }
+}
@@ -0,0 +1,55 @@
+package com.quotes.premium.engine;
+
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.loadgen.LoadGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per quote time and allocation benchmark of the premium engines, the application exits once it is reported.
+ * Synthesizes the given number of requests off loadgen.profile and quotes them quote.benchmark.rounds times per engine:
+ * <pre>
+ * java -jar premium.jar --spring.main.web-application-type=none --quote.benchmark=2000
+ * </pre>
+ */
+@Component
+public class QuoteBenchmarkCommand implements ApplicationRunner {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+    @Autowired
+    private LoadGenerator loadGenerator;
+    @Autowired
+    private List<PremiumEngine> engines;
+
+    @Value("${quote.benchmark.engines:reflective}")
+    private String names;
+    @Value("${quote.benchmark.rounds:5}")
+    private int rounds;
+
+    @Override
+    public void run(final ApplicationArguments args) throws Exception {
+        if (!args.containsOption("quote.benchmark")) {
+            return;
+        }
+        final int size = Integer.parseInt(args.getOptionValues("quote.benchmark").get(0));
+        final List<PremiumRequest> requests = this.loadGenerator.synthesize(size, 42L);
+
+        final List<QuoteAllocationBenchmark.Result> results = new ArrayList<>();
+        for (final String name : this.names.split(",")) {
+            final PremiumEngine engine = this.engines.stream().filter(candidate -> candidate.getName().equals(name.trim())).findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("no premium engine named " + name.trim()));
+            results.add(QuoteAllocationBenchmark.run(engine, requests, this.rounds));
+        }
+        QuoteAllocationBenchmark.report(results, System.out);
+        System.exit(SpringApplication.exit(this.applicationContext, () -> 0));
+    }
+}
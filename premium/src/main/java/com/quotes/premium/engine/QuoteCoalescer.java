@@ -0,0 +1,159 @@
+package com.quotes.premium.engine;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.quotes.premium.admission.Deadline;
+import com.quotes.premium.dto.CoalescingReport;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.PremiumResponse;
+import com.quotes.premium.exception.DeadlineExceededException;
+import com.quotes.premium.warmup.WarmUp;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Single flight in front of the engines: a quote whose request is identical to one being priced right now waits
+ * for that computation instead of starting its own. Requests are identical when their canonical JSON, properties
+ * and map entries in key order, and the date their rates resolve on match.
+ * <p>
+ * A flight is removed the moment its quote is priced, nothing is cached. Every waiter gets its own copy of the
+ * quote, or the exception the pricing failed with. Waiters stop waiting at their own deadline, and when the
+ * leading quote is abandoned at its caller's deadline they price the request again themselves.
+ */
+@Component
+@Log4j2
+public class QuoteCoalescer {
+
+    @FunctionalInterface
+    public interface Pricing {
+        PremiumResponse quote(PremiumRequest premiumRequest) throws Exception;
+    }
+
+    private static final class Flight {
+        private final CompletableFuture<PremiumResponse> result = new CompletableFuture<>();
+        private int waiters; // only touched inside map compute functions, which run under the entry's lock
+    }
+
+    private final ObjectMapper canonical = JsonMapper.builder().findAndAddModules()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .build();
+    private final ConcurrentHashMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder priced = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    @Value("${premium.engine.coalescing.enabled:true}")
+    private boolean enabled;
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    public PremiumResponse quote(final PremiumRequest premiumRequest, final Pricing pricing) throws Exception {
+        final String fingerprint;
+        try {
+            fingerprint = this.fingerprint(premiumRequest);
+        } catch (final JsonProcessingException e) {
+            QuoteCoalescer.log.debug("request can not be fingerprinted, pricing it alone", e);
+            return pricing.quote(premiumRequest);
+        }
+
+        final boolean[] joined = new boolean[1];
+        Flight flight;
+        while (true) {
+            joined[0] = false;
+            flight = this.inFlight.compute(fingerprint, (key, current) -> {
+                if (null == current) {
+                    return new Flight();
+                }
+                current.waiters++;
+                joined[0] = true;
+                return current;
+            });
+            if (!joined[0]) {
+                break;
+            }
+            if (!WarmUp.isWarmUpQuote()) {
+                this.coalesced.increment();
+            }
+            try {
+                return QuoteCoalescer.await(flight);
+            } catch (final DeadlineExceededException e) {
+                Deadline.check("coalesced quote"); // else the leader's caller gave up, not this one, so price it again
+            }
+        }
+
+        if (!WarmUp.isWarmUpQuote()) {
+            this.priced.increment();
+        }
+        final PremiumResponse premiumResponse;
+        try {
+            premiumResponse = pricing.quote(premiumRequest);
+        } catch (final Exception | Error e) {
+            if (0 < this.land(fingerprint)) {
+                flight.result.completeExceptionally(e);
+            }
+            throw e;
+        }
+        if (0 < this.land(fingerprint)) {
+            flight.result.complete(premiumResponse.copy()); // the caller owns premiumResponse, waiters copy this one
+        }
+        return premiumResponse;
+    }
+
+    public CoalescingReport report() {
+        return CoalescingReport.builder()
+                .enabled(this.enabled)
+                .inFlight(this.inFlight.size())
+                .priced(this.priced.sum())
+                .coalesced(this.coalesced.sum())
+                .build();
+    }
+
+    String fingerprint(final PremiumRequest premiumRequest) throws JsonProcessingException {
+        final LocalDate ratesOn = null == premiumRequest.getQuoteDate() ? LocalDate.now() : premiumRequest.getQuoteDate();
+        return ratesOn + this.canonical.writeValueAsString(premiumRequest);
+    }
+
+    /**
+     * Removes the flight so later requests price afresh.
+     *
+     * @return the number of requests waiting on it, none can join once it is removed
+     */
+    private int land(final String fingerprint) {
+        final int[] waiters = new int[1];
+        this.inFlight.computeIfPresent(fingerprint, (key, current) -> {
+            waiters[0] = current.waiters;
+            return null;
+        });
+        return waiters[0];
+    }
+
+    private static PremiumResponse await(final Flight flight) throws Exception {
+        try {
+            return flight.result.get(Deadline.remainingNanos(), TimeUnit.NANOSECONDS).copy();
+        } catch (final TimeoutException e) {
+            throw new DeadlineExceededException("deadline passed waiting for an identical quote");
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
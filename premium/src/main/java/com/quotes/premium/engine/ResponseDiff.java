@@ -0,0 +1,61 @@
+package com.quotes.premium.engine;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Field by field comparison of two quotes. Array positions are dropped from the reported paths,
+ * so a mismatch on every insured-year of a field counts once under e.g. applicables.lookup.
+ */
+final class ResponseDiff {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    private ResponseDiff() {
+    }
+
+    static Set<String> diff(final Object expected, final Object actual, final double tolerance) {
+        final Set<String> fields = new TreeSet<>();
+        ResponseDiff.diff("", ResponseDiff.OBJECT_MAPPER.valueToTree(expected), ResponseDiff.OBJECT_MAPPER.valueToTree(actual), tolerance, fields);
+        return fields;
+    }
+
+    private static void diff(final String path, final JsonNode expected, final JsonNode actual, final double tolerance, final Set<String> fields) {
+        if (expected.isNumber() && actual.isNumber()) {
+            if (Math.abs(expected.doubleValue() - actual.doubleValue()) > tolerance) {
+                fields.add(path);
+            }
+        } else if (expected.isObject() && actual.isObject()) {
+            final Iterator<Map.Entry<String, JsonNode>> entries = expected.fields();
+            while (entries.hasNext()) {
+                final Map.Entry<String, JsonNode> entry = entries.next();
+                final String field = path.isEmpty() ? entry.getKey() : path + "." + entry.getKey();
+                final JsonNode other = actual.get(entry.getKey());
+                if (null == other) {
+                    fields.add(field);
+                } else {
+                    ResponseDiff.diff(field, entry.getValue(), other, tolerance, fields);
+                }
+            }
+            actual.fieldNames().forEachRemaining(name -> {
+                if (!expected.has(name)) {
+                    fields.add(path.isEmpty() ? name : path + "." + name);
+                }
+            });
+        } else if (expected.isArray() && actual.isArray()) {
+            if (expected.size() != actual.size()) {
+                fields.add(path + ".size");
+            }
+            for (int i = 0; i < Math.min(expected.size(), actual.size()); i++) {
+                ResponseDiff.diff(path, expected.get(i), actual.get(i), tolerance, fields);
+            }
+        } else if (!expected.equals(actual)) {
+            fields.add(path);
+        }
+    }
+}
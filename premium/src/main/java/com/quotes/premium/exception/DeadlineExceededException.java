@@ -0,0 +1,11 @@
+package com.quotes.premium.exception;
+
+/**
+ * The caller's deadline passed while its quote was still being priced, the rest of the work was abandoned.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(final String message) {
+        super(message);
+    }
+}
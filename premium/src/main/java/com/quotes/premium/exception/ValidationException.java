@@ -0,0 +1,20 @@
+package com.quotes.premium.exception;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Carries every violation of an invalid request up to where the response is built. It is expected traffic rather
+ * than a fault, so no stack trace is filled in.
+ */
+@Getter
+public class ValidationException extends RuntimeException {
+
+    private final List<String> errors;
+
+    public ValidationException(final List<String> errors) {
+        super(errors.get(0), null, false, false);
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,194 @@
+package com.quotes.premium.forecast;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quotes.premium.config.BasePremiumConfig;
+import com.quotes.premium.config.DynamicConfigurations;
+import com.quotes.premium.dto.Applicable;
+import com.quotes.premium.dto.ApiResponse;
+import com.quotes.premium.dto.Insured;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.PremiumResponse;
+import com.quotes.premium.dto.RenewalForecast;
+import com.quotes.premium.dto.RenewalYear;
+import com.quotes.premium.rates.DecisionTable;
+import com.quotes.premium.rates.RateRegistry;
+import com.quotes.premium.rates.RateVersion;
+import com.quotes.premium.service.PremiumService;
+import com.quotes.premium.service.ValidationService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Premium of the next renewals of a policy, each a renewal quote with every insured a year older than in the one
+ * before, at the rates in force on the request's quote date. Ageing only changes a quote where an insured crosses an
+ * age band, so every renewal first works out each insured's bands: the rate every age-banded table gives them and
+ * which side of every age limit they are on. When nobody's bands moved the previous renewal's insured-years are
+ * reused with the ages moved on, only renewals where somebody crossed a band run the pipeline.
+ * <p>
+ * Bands are compared for whole families, not insured by insured: PA cover, PED waiting and specific disease price
+ * everybody from the oldest insured's age and the stage totals add up across insured, so one insured crossing a band
+ * reprices the renewal. The forecast stops at the first renewal that does not quote, a child grown past 25 say.
+ */
+@Service
+@Log4j2
+public class RenewalForecastService {
+
+    @Autowired
+    private PremiumService premiumService;
+    @Autowired
+    private BasePremiumConfig premiumConfig;
+    @Autowired
+    private RateRegistry rateRegistry;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${quote.forecast.max.years:30}")
+    private int maxYears;
+
+    public ApiResponse<RenewalForecast> forecast(final PremiumRequest premiumRequest, final int years) {
+        if (1 > years || this.maxYears < years) {
+            return ApiResponse.buildResponse(null, "years must be between 1 and " + this.maxYears, false);
+        }
+        final List<RenewalYear> renewals = new ArrayList<>(years);
+        long totalPremium = 0L;
+        int repriced = 0;
+        ApiResponse<PremiumResponse> failure = null;
+        final RateVersion previous = RateVersion.bind(this.rateRegistry.resolve(premiumRequest.getQuoteDate()));
+        try {
+            List<List<Object>> lastBands = null;
+            PremiumResponse last = null;
+            for (int renewal = 1; renewal <= years; renewal++) {
+                final PremiumRequest renewalRequest = this.renewal(premiumRequest, renewal);
+                // a term out of range is left to the quote to reject, its bands would walk every year of it
+                final List<List<Object>> bands = ValidationService.MIN_POLICY_TERM > renewalRequest.getPolicyTerm()
+                        || ValidationService.MAX_POLICY_TERM < renewalRequest.getPolicyTerm() ? null : this.bands(renewalRequest);
+                final PremiumResponse quote;
+                final boolean reprice = null == bands || null == last || !bands.equals(lastBands);
+                if (reprice) {
+                    final ApiResponse<PremiumResponse> response = this.premiumService.calculateLive(renewalRequest);
+                    if (!response.isSuccess()) {
+                        failure = response;
+                        break;
+                    }
+                    quote = response.getData().orElseThrow();
+                    repriced++;
+                } else {
+                    quote = RenewalForecastService.aged(last, renewalRequest.getInsured());
+                }
+                renewals.add(RenewalYear.builder()
+                        .renewal(renewal)
+                        .ages(renewalRequest.getInsured().stream().map(Insured::getAge).toList())
+                        .repriced(reprice)
+                        .totalPremium(quote.getTotalPremium())
+                        .quote(quote)
+                        .build());
+                totalPremium += quote.getTotalPremium();
+                lastBands = bands;
+                last = quote;
+            }
+        } catch (final IllegalArgumentException e) {
+            return ApiResponse.buildResponse(null, e.getMessage(), false);
+        } finally {
+            RateVersion.bind(previous);
+        }
+        RenewalForecastService.log.debug("forecast {} renewals, {} priced, {}", renewals.size(), repriced,
+                null == failure ? "all quoted" : failure.getMessage());
+        if (renewals.isEmpty()) {
+            return ApiResponse.buildResponse(null, failure.getMessage(), false, failure.getErrors());
+        }
+        final RenewalForecast forecast = RenewalForecast.builder()
+                .years(renewals)
+                .totalPremium(totalPremium)
+                .repriced(repriced)
+                .reused(renewals.size() - repriced)
+                .stoppedAt(null == failure ? null : renewals.size() + 1)
+                .stoppedBecause(null == failure ? null : failure.getMessage())
+                .errors(null == failure ? null : failure.getErrors())
+                .build();
+        return ApiResponse.buildResponse(forecast, "success", true);
+    }
+
+    /**
+     * The renewal request the given number of renewals on: a copy with every insured that many years older and not
+     * fresh business any more.
+     */
+    public PremiumRequest renewal(final PremiumRequest premiumRequest, final int renewal) {
+        final PremiumRequest renewalRequest = this.objectMapper.convertValue(premiumRequest, PremiumRequest.class);
+        renewalRequest.setFresh(false);
+        if (null != renewalRequest.getInsured()) {
+            renewalRequest.getInsured().forEach(insured -> insured.setAge(insured.getAge() + renewal));
+        }
+        return renewalRequest;
+    }
+
+    /**
+     * Age bands of every insured of the request, in request order. Has to read every age-banded rate and age limit
+     * the validation and the stage handlers do, with the rates of the request bound. Handlers pricing from the oldest
+     * age read the oldest insured's bands, and the same insured stays the oldest as everybody ages.
+     */
+    private List<List<Object>> bands(final PremiumRequest premiumRequest) {
+        final List<Insured> insured = null == premiumRequest.getInsured() ? List.of() : premiumRequest.getInsured();
+        final DecisionTable shares = DynamicConfigurations.getDecision("pa.cover.share.decision");
+        final List<List<Object>> bands = new ArrayList<>(insured.size());
+        for (final Insured one : insured) {
+            final String type = one.getType();
+            final int age = one.getAge();
+            final List<Object> band = new ArrayList<>();
+            // validation limits and the cibil discount cut-off
+            band.add((18 > age ? 1 : 0) | (25 < age ? 2 : 0) | (50 < age ? 4 : 0) | (65 < age ? 8 : 0));
+            for (int year = 1; year <= premiumRequest.getPolicyTerm(); year++) {
+                final int lookupAge = 50 < year ? age + year - 1 : age;
+                band.add(RenewalForecastService.read(() -> this.premiumConfig.getPremium(lookupAge, type, premiumRequest.getSumInsured())));
+            }
+            // PA cover shares, as the eldest of the insured priced and as anybody else
+            band.add(RenewalForecastService.read(() -> shares.matchNumbers(age, 1.0d)));
+            band.add(RenewalForecastService.read(() -> shares.matchNumbers(age, 0.0d)));
+            band.add(RenewalForecastService.read(() -> DynamicConfigurations.getFutureReadyconf(age)));
+            band.add(RenewalForecastService.read(() -> DynamicConfigurations.getSpecificDiseaseConf(age)));
+            if (null != premiumRequest.getPedWaitingRequest()) {
+                band.add(RenewalForecastService.read(() -> DynamicConfigurations.getReductionOfPEDWaitingPercent(age,
+                        premiumRequest.getPedWaitingRequest().getWaitingPeriod())));
+            }
+            if (null != premiumRequest.getVoluntarilyDeductible()) {
+                band.add(RenewalForecastService.read(() -> DynamicConfigurations.getVoluntaryDeductiblePercent(age,
+                        Integer.parseInt(premiumRequest.getVoluntarilyDeductible().getDeductibleAmount()))));
+            }
+            if (null != premiumRequest.getHospitalCashRequest()) {
+                band.add(RenewalForecastService.read(() -> DynamicConfigurations.getHospitalCash(premiumRequest.getPolicyType(), age,
+                        premiumRequest.getHospitalCashRequest().getNumberOfDays())));
+            }
+            bands.add(band);
+        }
+        return bands;
+    }
+
+    /**
+     * A table failing for an age bands it apart from the ages it prices, the pipeline fails the same way on it.
+     */
+    private static Object read(final Supplier<Object> rate) {
+        try {
+            return rate.get();
+        } catch (final RuntimeException e) {
+            return e.getClass();
+        }
+    }
+
+    /**
+     * Copy of the previous renewal's quote with the insured-years carrying this renewal's ages. Insured-years are laid
+     * out year by year with the insured in request order within a year.
+     */
+    private static PremiumResponse aged(final PremiumResponse last, final List<Insured> insured) {
+        final PremiumResponse quote = last.copy();
+        final List<Applicable> applicables = quote.getApplicables();
+        for (int index = 0; index < applicables.size(); index++) {
+            applicables.get(index).setAge(insured.get(index % insured.size()).getAge());
+        }
+        return quote;
+    }
+}
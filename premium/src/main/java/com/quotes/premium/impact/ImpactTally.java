@@ -0,0 +1,111 @@
+package com.quotes.premium.impact;
+
+import com.quotes.premium.dto.RateImpactReport;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Premium totals and the histogram of per-policy premium changes of one slice of the book. The histogram has
+ * bucketPercent wide buckets over [-rangePercent, rangePercent) and one open bucket at either end, so a tally takes
+ * the same memory however many policies it counts.
+ */
+final class ImpactTally {
+
+    private final double bucketPercent;
+    private final double rangePercent;
+    private final double thresholdPercent;
+    private final long[] changes;
+
+    private long policies;
+    private long livePremium;
+    private long candidatePremium;
+    private long moved;
+
+    ImpactTally(final double bucketPercent, final double rangePercent, final double thresholdPercent) {
+        this.bucketPercent = bucketPercent;
+        this.rangePercent = rangePercent;
+        this.thresholdPercent = thresholdPercent;
+        this.changes = new long[(int) Math.ceil(2.0d * rangePercent / bucketPercent) + 2];
+    }
+
+    void add(final long livePremium, final long candidatePremium, final double changePercent) {
+        this.policies++;
+        this.livePremium += livePremium;
+        this.candidatePremium += candidatePremium;
+        if (Math.abs(changePercent) > this.thresholdPercent) {
+            this.moved++;
+        }
+        final int last = this.changes.length - 1;
+        final int bucket;
+        if (changePercent < -this.rangePercent) {
+            bucket = 0;
+        } else if (changePercent >= this.rangePercent) {
+            bucket = last;
+        } else {
+            bucket = Math.min(last - 1, 1 + (int) Math.floor((changePercent + this.rangePercent) / this.bucketPercent));
+        }
+        this.changes[bucket]++;
+    }
+
+    void merge(final ImpactTally other) {
+        this.policies += other.policies;
+        this.livePremium += other.livePremium;
+        this.candidatePremium += other.candidatePremium;
+        this.moved += other.moved;
+        for (int bucket = 0; bucket < this.changes.length; bucket++) {
+            this.changes[bucket] += other.changes[bucket];
+        }
+    }
+
+    long getPolicies() {
+        return this.policies;
+    }
+
+    long getLivePremium() {
+        return this.livePremium;
+    }
+
+    long getCandidatePremium() {
+        return this.candidatePremium;
+    }
+
+    long getMoved() {
+        return this.moved;
+    }
+
+    double changePercent() {
+        return 0L == this.livePremium ? 0.0d : (this.candidatePremium - this.livePremium) * 100.0d / this.livePremium;
+    }
+
+    /**
+     * @return the buckets any policy fell in, lowest change first
+     */
+    List<RateImpactReport.Bucket> buckets() {
+        final int last = this.changes.length - 1;
+        final List<RateImpactReport.Bucket> buckets = new ArrayList<>();
+        for (int bucket = 0; bucket <= last; bucket++) {
+            if (0L == this.changes[bucket]) {
+                continue;
+            }
+            buckets.add(RateImpactReport.Bucket.builder()
+                    .fromPercent(0 == bucket ? null : -this.rangePercent + (bucket - 1) * this.bucketPercent)
+                    .toPercent(last == bucket ? null : Math.min(this.rangePercent, -this.rangePercent + bucket * this.bucketPercent))
+                    .policies(this.changes[bucket])
+                    .build());
+        }
+        return buckets;
+    }
+
+    RateImpactReport.Group group(final String key) {
+        return RateImpactReport.Group.builder()
+                .key(key)
+                .policies(this.policies)
+                .livePremium(this.livePremium)
+                .candidatePremium(this.candidatePremium)
+                .changePercent(this.changePercent())
+                .movedOverThreshold(this.moved)
+                .changes(this.buckets())
+                .build();
+    }
+}
@@ -0,0 +1,77 @@
+package com.quotes.premium.impact;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quotes.premium.dto.RateImpactReport;
+import com.quotes.premium.rates.RateRegistry;
+import com.quotes.premium.rates.RateVersion;
+import com.quotes.premium.rates.RateVersionDefinition;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Simulates a rate filing against a book of policies before it is filed, the application exits once the impact is
+ * reported:
+ * <pre>
+ * java -jar premium.jar --spring.main.web-application-type=none --logging.level.com.quotes.premium=WARN \
+ *      --rate.impact=book.ndjson --rate.impact.out=impact.json \
+ *      --rate.impact.candidate='{"id":"2027-04","properties":{"zonal.discount.mapping":"1:0,2:0.15,3:0.28"},
+ *                                "workbooks":{"parent_ss_premium.xlsx":"file:/opt/rates/2027-04/parent_ss_premium.xlsx"}}'
+ * </pre>
+ * rate.impact is a file of quote requests, one per line. The candidate is written like an entry of rate.versions and
+ * is derived from rate.impact.live, the version in force today when not given. rate.impact.out keeps the full report
+ * with its histograms as JSON.
+ */
+@Component
+@Log4j2
+public class RateImpactCommand implements ApplicationRunner {
+
+    @Autowired
+    private RateImpactSimulator rateImpactSimulator;
+    @Autowired
+    private RateRegistry rateRegistry;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Value("${rate.impact.candidate:}")
+    private String candidate;
+    @Value("${rate.impact.live:}")
+    private String live;
+    @Value("${rate.impact.threads:0}")
+    private int threads;
+    @Value("${rate.impact.out:}")
+    private String out;
+
+    @Override
+    public void run(final ApplicationArguments args) throws Exception {
+        if (!args.containsOption("rate.impact")) {
+            return;
+        }
+        if (this.candidate.isBlank()) {
+            throw new IllegalArgumentException("rate.impact.candidate is required, a rate version definition");
+        }
+        final Path policies = Path.of(args.getOptionValues("rate.impact").get(0));
+        final RateVersion liveVersion = this.live.isBlank() ? this.rateRegistry.resolve(null) : this.rateRegistry.get(this.live);
+        final RateVersion candidateVersion = this.rateRegistry.candidate(this.objectMapper.readValue(this.candidate, RateVersionDefinition.class), liveVersion);
+        final int workers = 0 < this.threads ? this.threads : Runtime.getRuntime().availableProcessors();
+        RateImpactCommand.log.info("simulating rate version {} against {} over {} on {} threads", candidateVersion.getId(), liveVersion.getId(),
+                policies, workers);
+
+        final RateImpactReport report = this.rateImpactSimulator.simulate(policies, liveVersion, candidateVersion, workers);
+        RateImpactSimulator.report(report, System.out);
+        if (!this.out.isBlank()) {
+            this.objectMapper.writerWithDefaultPrettyPrinter().writeValue(Path.of(this.out).toFile(), report);
+            RateImpactCommand.log.info("rate impact report written to {}", this.out);
+        }
+        System.exit(SpringApplication.exit(this.applicationContext, () -> 0));
+    }
+}
@@ -0,0 +1,308 @@
+package com.quotes.premium.impact;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.quotes.premium.dto.Insured;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.PremiumResponse;
+import com.quotes.premium.dto.RateImpactReport;
+import com.quotes.premium.plan.QuoteContext;
+import com.quotes.premium.plan.StageListener;
+import com.quotes.premium.rates.RateVersion;
+import com.quotes.premium.service.PremiumService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * What a rate filing does to the premium of a book of policies: every policy is priced at the live rates and at the
+ * candidate ones and only the difference is kept, tallied overall and by zone, by age band of the oldest insured and
+ * by sum insured. The book is read once, one quote request per line, and handed in batches through a bounded queue
+ * to one worker per thread. A worker parses, validates and lays out each request once and prices the laid out quote
+ * at both versions, then folds it into tallies of its own that are merged at the end, so memory follows the number
+ * of slices and not of policies.
+ */
+@Component
+@Log4j2
+public class RateImpactSimulator {
+
+    private static final int BATCH = 256;
+    private static final List<String> END = List.of();
+    /**
+     * Slice keys in the order of the number they start with, zones and sums insured as numbers, age bands by their
+     * lower age, keys without one last.
+     */
+    private static final Comparator<String> KEY_ORDER = Comparator.comparingLong(RateImpactSimulator::leadingNumber)
+            .thenComparing(Comparator.naturalOrder());
+
+    @Autowired
+    private PremiumService premiumService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${rate.impact.threshold.percent:10}")
+    private double thresholdPercent;
+    @Value("${rate.impact.bucket.percent:1}")
+    private double bucketPercent;
+    @Value("${rate.impact.range.percent:50}")
+    private double rangePercent;
+    @Value("${rate.impact.age.bands:25,35,45,55,65,75}")
+    private int[] ageBands; // upper ages, inclusive
+
+    public RateImpactReport simulate(final Path policies, final RateVersion live, final RateVersion candidate, final int threads) throws Exception {
+        final BlockingQueue<List<String>> batches = new ArrayBlockingQueue<>(2 * threads);
+        final ObjectReader reader = this.objectMapper.readerFor(PremiumRequest.class);
+        final Worker[] workers = new Worker[threads];
+        for (int thread = 0; thread < threads; thread++) {
+            workers[thread] = new Worker("rate-impact-" + thread, batches, reader, live, candidate);
+            workers[thread].start();
+        }
+        try (final BufferedReader in = Files.newBufferedReader(policies)) {
+            List<String> batch = new ArrayList<>(RateImpactSimulator.BATCH);
+            String line;
+            while (null != (line = in.readLine())) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                batch.add(line);
+                if (RateImpactSimulator.BATCH == batch.size()) {
+                    batches.put(batch);
+                    batch = new ArrayList<>(RateImpactSimulator.BATCH);
+                }
+            }
+            if (!batch.isEmpty()) {
+                batches.put(batch);
+            }
+        } finally {
+            for (int thread = 0; thread < threads; thread++) {
+                batches.put(RateImpactSimulator.END);
+            }
+            for (final Worker worker : workers) {
+                worker.join();
+            }
+        }
+
+        final Worker total = workers[0];
+        for (final Worker worker : workers) {
+            if (null != worker.error) {
+                throw new IllegalStateException("rate impact worker " + worker.getName() + " failed", worker.error);
+            }
+            if (worker != total) {
+                total.merge(worker);
+            }
+        }
+        return total.report(live, candidate);
+    }
+
+    public static void report(final RateImpactReport report, final PrintStream out) {
+        out.println(String.format(Locale.ROOT, "%s -> %s: %d policies, %d compared, %d fail live, %d fail candidate, %d unreadable",
+                report.getLiveVersion(), report.getCandidateVersion(), report.getPolicies(), report.getCompared(), report.getFailedLive(),
+                report.getFailedCandidate(), report.getUnreadable()));
+        out.println(String.format(Locale.ROOT, "premium %d -> %d (%+.2f%%), %d moved over %.1f%%, largest %+.2f%% / %+.2f%%",
+                report.getLivePremium(), report.getCandidatePremium(), report.getChangePercent(), report.getMovedOverThreshold(),
+                report.getThresholdPercent(), report.getLargestDecreasePercent(), report.getLargestIncreasePercent()));
+        out.println(String.format(Locale.ROOT, "%-16s %-12s %10s %16s %16s %9s %9s", "slice", "key", "policies", "live", "candidate", "change %", "moved"));
+        RateImpactSimulator.report("zone", report.getByZone(), out);
+        RateImpactSimulator.report("age band", report.getByAgeBand(), out);
+        RateImpactSimulator.report("sum insured", report.getBySumInsured(), out);
+    }
+
+    private static void report(final String slice, final List<RateImpactReport.Group> groups, final PrintStream out) {
+        for (final RateImpactReport.Group group : groups) {
+            out.println(String.format(Locale.ROOT, "%-16s %-12s %10d %16d %16d %+9.2f %9d", slice, group.getKey(), group.getPolicies(),
+                    group.getLivePremium(), group.getCandidatePremium(), group.getChangePercent(), group.getMovedOverThreshold()));
+        }
+    }
+
+    private String ageBand(final PremiumRequest premiumRequest) {
+        final int age = premiumRequest.getInsured().stream().mapToInt(Insured::getAge).max().orElse(0);
+        int from = 0;
+        for (final int upTo : this.ageBands) {
+            if (age <= upTo) {
+                return from + "-" + upTo;
+            }
+            from = upTo + 1;
+        }
+        return from + "+";
+    }
+
+    private static long leadingNumber(final String key) {
+        int end = 0;
+        while (end < key.length() && end < 18 && Character.isDigit(key.charAt(end))) {
+            end++;
+        }
+        return 0 == end ? Long.MAX_VALUE : Long.parseLong(key.substring(0, end));
+    }
+
+    private static List<RateImpactReport.Group> groups(final Map<String, ImpactTally> tallies) {
+        return tallies.entrySet().stream().sorted(Map.Entry.comparingByKey(RateImpactSimulator.KEY_ORDER))
+                .map(entry -> entry.getValue().group(entry.getKey())).toList();
+    }
+
+    private final class Worker extends Thread {
+        private final BlockingQueue<List<String>> batches;
+        private final ObjectReader reader;
+        private final RateVersion live;
+        private final RateVersion candidate;
+
+        private final ImpactTally all = RateImpactSimulator.this.tally();
+        private final Map<String, ImpactTally> byZone = new HashMap<>();
+        private final Map<String, ImpactTally> byAgeBand = new HashMap<>();
+        private final Map<String, ImpactTally> bySumInsured = new HashMap<>();
+        private long policies;
+        private long failedLive;
+        private long failedCandidate;
+        private long unreadable;
+        private double largestDecrease;
+        private double largestIncrease;
+        private Throwable error;
+
+        private Worker(final String name, final BlockingQueue<List<String>> batches, final ObjectReader reader, final RateVersion live,
+                       final RateVersion candidate) {
+            super(name);
+            this.batches = batches;
+            this.reader = reader;
+            this.live = live;
+            this.candidate = candidate;
+            this.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                List<String> batch;
+                while (RateImpactSimulator.END != (batch = this.batches.take())) {
+                    if (null != this.error) {
+                        continue; // keeps taking, the reader must not block on a dead worker
+                    }
+                    try {
+                        batch.forEach(this::compare);
+                    } catch (final Throwable e) {
+                        this.error = e;
+                    }
+                }
+            } catch (final InterruptedException e) {
+                this.error = e;
+            }
+        }
+
+        private void compare(final String line) {
+            this.policies++;
+            final PremiumRequest premiumRequest;
+            final QuoteContext context;
+            try {
+                premiumRequest = this.reader.readValue(line);
+            } catch (final IOException e) {
+                this.unreadable++;
+                return;
+            }
+            try {
+                context = RateImpactSimulator.this.premiumService.prepare(premiumRequest, this.live);
+            } catch (final Exception e) {
+                this.failedLive++; // invalid at any rates
+                this.failedCandidate++;
+                return;
+            }
+            final PremiumResponse unpriced = context.getPremiumResponse().copy();
+            final Long livePremium = this.price(context);
+            final Long candidatePremium = this.price(context.reprice(this.candidate, unpriced));
+            if (null == livePremium) {
+                this.failedLive++;
+            }
+            if (null == candidatePremium) {
+                this.failedCandidate++;
+            }
+            if (null == livePremium || null == candidatePremium) {
+                return;
+            }
+
+            final double change;
+            if (0L == livePremium) {
+                change = 0L == candidatePremium ? 0.0d : Double.POSITIVE_INFINITY;
+            } else {
+                change = (candidatePremium - livePremium) * 100.0d / livePremium;
+            }
+            this.largestDecrease = Math.min(this.largestDecrease, change);
+            this.largestIncrease = Math.max(this.largestIncrease, change);
+            this.all.add(livePremium, candidatePremium, change);
+            this.tally(this.byZone, String.valueOf(premiumRequest.getZone())).add(livePremium, candidatePremium, change);
+            this.tally(this.byAgeBand, RateImpactSimulator.this.ageBand(premiumRequest)).add(livePremium, candidatePremium, change);
+            this.tally(this.bySumInsured, String.valueOf(premiumRequest.getSumInsured())).add(livePremium, candidatePremium, change);
+        }
+
+        private Long price(final QuoteContext context) {
+            try {
+                RateImpactSimulator.this.premiumService.execute(context, 0, StageListener.NONE);
+                return context.getPremiumResponse().getTotalPremium();
+            } catch (final Exception e) {
+                return null;
+            }
+        }
+
+        private ImpactTally tally(final Map<String, ImpactTally> tallies, final String key) {
+            return tallies.computeIfAbsent(key, ignored -> RateImpactSimulator.this.tally());
+        }
+
+        private void merge(final Worker other) {
+            this.all.merge(other.all);
+            Worker.merge(this.byZone, other.byZone);
+            Worker.merge(this.byAgeBand, other.byAgeBand);
+            Worker.merge(this.bySumInsured, other.bySumInsured);
+            this.policies += other.policies;
+            this.failedLive += other.failedLive;
+            this.failedCandidate += other.failedCandidate;
+            this.unreadable += other.unreadable;
+            this.largestDecrease = Math.min(this.largestDecrease, other.largestDecrease);
+            this.largestIncrease = Math.max(this.largestIncrease, other.largestIncrease);
+        }
+
+        private static void merge(final Map<String, ImpactTally> into, final Map<String, ImpactTally> from) {
+            from.forEach((key, tally) -> into.merge(key, tally, (mine, theirs) -> {
+                mine.merge(theirs);
+                return mine;
+            }));
+        }
+
+        private RateImpactReport report(final RateVersion live, final RateVersion candidate) {
+            return RateImpactReport.builder()
+                    .liveVersion(live.getId())
+                    .candidateVersion(candidate.getId())
+                    .policies(this.policies)
+                    .compared(this.all.getPolicies())
+                    .failedLive(this.failedLive)
+                    .failedCandidate(this.failedCandidate)
+                    .unreadable(this.unreadable)
+                    .livePremium(this.all.getLivePremium())
+                    .candidatePremium(this.all.getCandidatePremium())
+                    .changePercent(this.all.changePercent())
+                    .thresholdPercent(RateImpactSimulator.this.thresholdPercent)
+                    .movedOverThreshold(this.all.getMoved())
+                    .largestDecreasePercent(this.largestDecrease)
+                    .largestIncreasePercent(this.largestIncrease)
+                    .changes(this.all.buckets())
+                    .byZone(RateImpactSimulator.groups(this.byZone))
+                    .byAgeBand(RateImpactSimulator.groups(this.byAgeBand))
+                    .bySumInsured(RateImpactSimulator.groups(this.bySumInsured))
+                    .build();
+        }
+    }
+
+    private ImpactTally tally() {
+        return new ImpactTally(this.bucketPercent, this.rangePercent, this.thresholdPercent);
+    }
+}
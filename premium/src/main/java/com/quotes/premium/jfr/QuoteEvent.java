@@ -0,0 +1,63 @@
+package com.quotes.premium.jfr;
+
+import com.quotes.premium.dto.ApiResponse;
+import com.quotes.premium.dto.PremiumRequest;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One quote through PremiumService.calculatePremium, from the quote cube lookup to the response. Its stages and
+ * validation keys are recorded on the same thread within its duration.
+ */
+@Name("com.quotes.premium.Quote")
+@Label("Quote")
+@Category({"Premium", "Quotes"})
+@Description("A quote priced from the quote cube or by the primary engine")
+@StackTrace(false)
+public class QuoteEvent extends Event {
+
+    public static final String PRICED = "priced";
+    public static final String PRECOMPUTED = "precomputed";
+    public static final String REJECTED = "rejected";
+    public static final String FAILED = "failed";
+    public static final String ABANDONED = "abandoned";
+
+    @Label("Policy Type")
+    private String policyType;
+    @Label("Insured")
+    private int insured;
+    @Label("Policy Term")
+    private int policyTerm;
+    @Label("Fresh")
+    private boolean fresh;
+    @Label("Outcome")
+    @Description("priced, precomputed, rejected by validation, failed, or abandoned at its deadline")
+    private String outcome;
+
+    /**
+     * Ends the event and commits it when the recording wants it.
+     *
+     * @param apiResponse the quote, null when none was answered
+     */
+    public void finish(final PremiumRequest premiumRequest, final ApiResponse<?> apiResponse, final boolean precomputed) {
+        this.end();
+        if (this.shouldCommit()) {
+            this.policyType = premiumRequest.getPolicyType();
+            this.insured = null == premiumRequest.getInsured() ? 0 : premiumRequest.getInsured().size();
+            this.policyTerm = premiumRequest.getPolicyTerm();
+            this.fresh = premiumRequest.isFresh();
+            this.outcome = QuoteEvent.outcome(apiResponse, precomputed);
+            this.commit();
+        }
+    }
+
+    public static String outcome(final ApiResponse<?> apiResponse, final boolean precomputed) {
+        return null == apiResponse ? QuoteEvent.ABANDONED
+                : apiResponse.isSuccess() ? (precomputed ? QuoteEvent.PRECOMPUTED : QuoteEvent.PRICED)
+                : null != apiResponse.getErrors() ? QuoteEvent.REJECTED : QuoteEvent.FAILED;
+    }
+}
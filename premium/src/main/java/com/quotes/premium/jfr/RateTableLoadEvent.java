@@ -0,0 +1,35 @@
+package com.quotes.premium.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One rate workbook parsed into a rate table, for the base rates or a rate version replacing it.
+ */
+@Name("com.quotes.premium.RateTableLoad")
+@Label("Rate Table Load")
+@Category({"Premium", "Rates"})
+@Description("A rate workbook read into a rate table")
+public class RateTableLoadEvent extends Event {
+
+    @Label("Workbook")
+    private String workbook;
+    @Label("Location")
+    private String location;
+    @Label("Entries")
+    @Description("Entries in the rate table, -1 when the workbook failed to load")
+    private int entries;
+
+    public void finish(final String workbook, final String location, final int entries) {
+        this.end();
+        if (this.shouldCommit()) {
+            this.workbook = workbook;
+            this.location = location;
+            this.entries = entries;
+            this.commit();
+        }
+    }
+}
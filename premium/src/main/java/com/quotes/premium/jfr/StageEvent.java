@@ -0,0 +1,59 @@
+package com.quotes.premium.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One execution key of a quote's plan: its handler and the rounding and multiplicative operations after it.
+ */
+@Name("com.quotes.premium.Stage")
+@Label("Quote Stage")
+@Category({"Premium", "Quotes"})
+@Description("An execution stage of a quote")
+@StackTrace(false)
+public class StageEvent extends Event {
+
+    private static final EventType TYPE = EventType.getEventType(StageEvent.class);
+
+    @Label("Execution Key")
+    private String key;
+    @Label("Position")
+    @Description("Index of the key in execution.keys")
+    private int position;
+    @Label("Insured-Years")
+    @Description("Insured-years the stage's selector resolved to")
+    private int insuredYears;
+    @Label("Engine")
+    private String engine;
+
+    /**
+     * @return the begun event, null while no recording has the event enabled so a stage allocates nothing for it
+     */
+    public static StageEvent start() {
+        if (!StageEvent.TYPE.isEnabled()) {
+            return null;
+        }
+        final StageEvent event = new StageEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void finish(final StageEvent event, final String engine, final String key, final int position, final int insuredYears) {
+        if (null == event) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.engine = engine;
+            event.key = key;
+            event.position = position;
+            event.insuredYears = insuredYears;
+            event.commit();
+        }
+    }
+}
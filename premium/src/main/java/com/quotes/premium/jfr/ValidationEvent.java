@@ -0,0 +1,34 @@
+package com.quotes.premium.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One validation key of a quote.
+ */
+@Name("com.quotes.premium.Validation")
+@Label("Quote Validation")
+@Category({"Premium", "Quotes"})
+@Description("A validation key run on a quote request")
+@StackTrace(false)
+public class ValidationEvent extends Event {
+
+    @Label("Validation Key")
+    private String key;
+    @Label("Violations")
+    @Description("Violations the key added")
+    private int violations;
+
+    public void finish(final String key, final int violations) {
+        this.end();
+        if (this.shouldCommit()) {
+            this.key = key;
+            this.violations = violations;
+            this.commit();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.quotes.premium.job;
+
+import com.quotes.premium.dto.QuoteJobStatus;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * One batch of quotes priced in the background. Progress is written by the single worker pricing the job and read
+ * by status requests, so plain volatile counters do.
+ */
+@Getter
+public class QuoteJob {
+
+    public enum State { QUEUED, RUNNING, DONE, FAILED, CANCELLED }
+
+    private final String id;
+    private final int total;
+    private final Path directory;
+    private final Instant createdAt = Instant.now();
+    private volatile State state = State.QUEUED;
+    private volatile String message;
+    private volatile int priced;
+    private volatile int failed;
+    private volatile int available; // results flushed to the store and ready to download
+    private volatile boolean cancelled;
+    private volatile long startNanos;
+    private volatile long endNanos;
+
+    QuoteJob(final String id, final int total, final Path directory) {
+        this.id = id;
+        this.total = total;
+        this.directory = directory;
+    }
+
+    public boolean isFinished() {
+        return State.DONE == this.state || State.FAILED == this.state || State.CANCELLED == this.state;
+    }
+
+    public QuoteJobStatus status() {
+        final long endNanos = this.isFinished() ? this.endNanos : System.nanoTime();
+        final long elapsedNanos = 0L == this.startNanos ? 0L : endNanos - this.startNanos;
+        return QuoteJobStatus.builder()
+                .jobId(this.id)
+                .state(this.state.name())
+                .message(this.message)
+                .createdAt(this.createdAt.toString())
+                .total(this.total)
+                .priced(this.priced)
+                .failed(this.failed)
+                .available(this.available)
+                .elapsedMs(elapsedNanos / 1_000_000L)
+                .quotesPerSecond(0L == elapsedNanos ? 0.0d : this.priced * 1.0E9d / elapsedNanos)
+                .build();
+    }
+
+    void start() {
+        this.startNanos = System.nanoTime();
+        this.state = State.RUNNING;
+    }
+
+    void priced(final boolean success) {
+        this.priced++;
+        if (!success) {
+            this.failed++;
+        }
+    }
+
+    void publish(final int available) {
+        this.available = available;
+    }
+
+    void cancel() {
+        this.cancelled = true;
+    }
+
+    void finish(final State state, final String message) {
+        this.endNanos = System.nanoTime();
+        this.message = message;
+        this.state = state;
+    }
+}
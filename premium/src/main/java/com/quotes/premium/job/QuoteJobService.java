@@ -0,0 +1,160 @@
+package com.quotes.premium.job;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quotes.premium.dto.ApiResponse;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.PremiumResponse;
+import com.quotes.premium.dto.QuoteJobResult;
+import com.quotes.premium.service.PremiumService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Prices uploaded batches of quote requests in the background. Every job runs on one thread of a bounded executor,
+ * so its results come out in record order, and is written to the QuoteJobStore as it goes. Results become
+ * downloadable every FLUSH_EVERY records. A job that does not fit the executor queue is refused, not queued.
+ */
+@Service
+@Log4j2
+public class QuoteJobService {
+
+    private static final int FLUSH_EVERY = 100;
+
+    @Autowired
+    private PremiumService premiumService;
+    @Autowired
+    private QuoteJobStore quoteJobStore;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${quote.jobs.threads:2}")
+    private int threads;
+    @Value("${quote.jobs.queue:16}")
+    private int queue;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(this.threads, this.threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.queue), runnable -> {
+                    final Thread thread = new Thread(runnable, "quote-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    /**
+     * @return the queued job, null when the executor queue is full
+     * @throws IllegalArgumentException when the payload is not a JSON array of requests
+     */
+    public QuoteJob submit(final InputStream payload) throws IOException {
+        final QuoteJob job = this.quoteJobStore.create(payload);
+        try {
+            this.executor.execute(() -> this.run(job));
+        } catch (final RejectedExecutionException e) {
+            this.quoteJobStore.remove(job.getId());
+            QuoteJobStore.delete(job.getDirectory());
+            return null;
+        }
+        QuoteJobService.log.info("queued quote job {} of {} records", job.getId(), job.getTotal());
+        return job;
+    }
+
+    public QuoteJob get(final String id) {
+        return this.quoteJobStore.get(id);
+    }
+
+    public byte[] results(final QuoteJob job, final int from, final int size) throws IOException {
+        return this.quoteJobStore.page(job, from, size);
+    }
+
+    /**
+     * Stops the job after the record it is pricing and deletes its files.
+     */
+    public boolean cancel(final String id) {
+        final QuoteJob job = this.quoteJobStore.remove(id);
+        if (null == job) {
+            return false;
+        }
+        job.cancel();
+        if (job.isFinished()) {
+            QuoteJobStore.delete(job.getDirectory()); // otherwise its worker deletes them
+        }
+        return true;
+    }
+
+    private void run(final QuoteJob job) {
+        if (job.isCancelled()) {
+            QuoteJobStore.delete(job.getDirectory());
+            return;
+        }
+        job.start();
+        int index = 0;
+        try (final BufferedReader requests = Files.newBufferedReader(job.getDirectory().resolve(QuoteJobStore.REQUESTS));
+             final OutputStream results = new BufferedOutputStream(Files.newOutputStream(job.getDirectory().resolve(QuoteJobStore.RESULTS)), 1 << 16);
+             final DataOutputStream offsets = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(job.getDirectory().resolve(QuoteJobStore.OFFSETS))))) {
+            long end = 0L;
+            String line;
+            while (!job.isCancelled() && null != (line = requests.readLine())) {
+                final ApiResponse<PremiumResponse> response = this.price(line);
+                final byte[] result = this.objectMapper.writeValueAsBytes(
+                        new QuoteJobResult(index, response.isSuccess(), response.getMessage(), response.getData().orElse(null), response.getErrors()));
+                results.write(result);
+                results.write('\n');
+                end += result.length + 1;
+                offsets.writeLong(end);
+                job.priced(response.isSuccess());
+                if (0 == ++index % QuoteJobService.FLUSH_EVERY) {
+                    QuoteJobService.flush(job, results, offsets, index);
+                }
+            }
+            QuoteJobService.flush(job, results, offsets, index);
+            job.finish(job.isCancelled() ? QuoteJob.State.CANCELLED : QuoteJob.State.DONE, null);
+        } catch (final Exception e) {
+            QuoteJobService.log.error("quote job {} failed at record {}", job.getId(), index, e);
+            job.finish(QuoteJob.State.FAILED, "failed at record " + index + ": " + e.getMessage());
+        }
+        if (job.isCancelled()) {
+            QuoteJobStore.delete(job.getDirectory());
+        }
+        QuoteJobService.log.info("quote job {} {}: {} priced, {} failed", job.getId(), job.getState(), job.getPriced(), job.getFailed());
+    }
+
+    private ApiResponse<PremiumResponse> price(final String line) {
+        try {
+            return this.premiumService.calculatePremium(this.objectMapper.readValue(line, PremiumRequest.class));
+        } catch (final Exception e) {
+            return ApiResponse.buildResponse(null, PremiumService.failureMessage(e), false);
+        }
+    }
+
+    private static void flush(final QuoteJob job, final OutputStream results, final DataOutputStream offsets, final int index) throws IOException {
+        results.flush();
+        offsets.flush(); // after the results, so no offset points past them
+        job.publish(index);
+    }
+}
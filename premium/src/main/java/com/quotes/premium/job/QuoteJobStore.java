@@ -0,0 +1,157 @@
+package com.quotes.premium.job;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Local file store of quote jobs, one directory per job under quote.jobs.dir:
+ * <pre>
+ * requests.ndjson  the uploaded records, one JSON object per line
+ * results.ndjson   one QuoteJobResult per line, in record order
+ * results.idx      for every result the offset its line ends at, a big endian long
+ * </pre>
+ * Results and offsets are appended while the job runs, a page is cut from the results with two reads of the index.
+ * Finished jobs are dropped quote.jobs.ttl.hours after they finished. Only the files outlive a restart, the jobs do not.
+ */
+@Component
+@Log4j2
+public class QuoteJobStore {
+
+    static final String REQUESTS = "requests.ndjson";
+    static final String RESULTS = "results.ndjson";
+    static final String OFFSETS = "results.idx";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${quote.jobs.dir}")
+    private String dir;
+    @Value("${quote.jobs.max.records:100000}")
+    private int maxRecords;
+    @Value("${quote.jobs.ttl.hours:24}")
+    private long ttlHours;
+
+    private Path root;
+    private final Map<String, QuoteJob> jobs = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() throws IOException {
+        this.root = Files.createDirectories(Path.of(this.dir));
+    }
+
+    /**
+     * Spools a JSON array of request objects to a new job directory without holding the array in memory.
+     *
+     * @throws IllegalArgumentException when the payload is not an array of objects or holds too many records
+     */
+    public QuoteJob create(final InputStream payload) throws IOException {
+        this.evictExpired();
+        final String id = UUID.randomUUID().toString();
+        final Path directory = Files.createDirectory(this.root.resolve(id));
+        int total = 0;
+        try (final JsonParser parser = this.objectMapper.getFactory().createParser(payload);
+             final OutputStream out = Files.newOutputStream(directory.resolve(QuoteJobStore.REQUESTS))) {
+            if (JsonToken.START_ARRAY != parser.nextToken()) {
+                throw new IllegalArgumentException("expected a JSON array of quote requests");
+            }
+            JsonToken token;
+            while (JsonToken.END_ARRAY != (token = parser.nextToken())) {
+                if (JsonToken.START_OBJECT != token) {
+                    throw new IllegalArgumentException("record " + total + " is not a quote request object");
+                }
+                if (++total > this.maxRecords) {
+                    throw new IllegalArgumentException("a job holds at most " + this.maxRecords + " records");
+                }
+                final JsonNode record = this.objectMapper.readTree(parser);
+                out.write(this.objectMapper.writeValueAsBytes(record));
+                out.write('\n');
+            }
+        } catch (final IOException | RuntimeException e) {
+            QuoteJobStore.delete(directory);
+            throw e;
+        }
+        final QuoteJob job = new QuoteJob(id, total, directory);
+        this.jobs.put(id, job);
+        return job;
+    }
+
+    public QuoteJob get(final String id) {
+        return this.jobs.get(id);
+    }
+
+    public QuoteJob remove(final String id) {
+        return this.jobs.remove(id);
+    }
+
+    /**
+     * @return the result lines of records from, from + 1, ... that are available, at most size of them
+     */
+    public byte[] page(final QuoteJob job, final int from, final int size) throws IOException {
+        final int to = Math.min(job.getAvailable(), from + size);
+        if (from >= to) {
+            return new byte[0];
+        }
+        try (final FileChannel offsets = FileChannel.open(job.getDirectory().resolve(QuoteJobStore.OFFSETS), StandardOpenOption.READ);
+             final FileChannel results = FileChannel.open(job.getDirectory().resolve(QuoteJobStore.RESULTS), StandardOpenOption.READ)) {
+            final long start = 0 == from ? 0L : QuoteJobStore.readLong(offsets, (from - 1) * 8L);
+            final long end = QuoteJobStore.readLong(offsets, (to - 1) * 8L);
+            final ByteBuffer page = ByteBuffer.allocate(Math.toIntExact(end - start));
+            while (page.hasRemaining() && 0 <= results.read(page, start + page.position())) {
+                // positional reads until the page is full
+            }
+            return page.array();
+        }
+    }
+
+    static void delete(final Path directory) {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (final Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (final IOException e) {
+            QuoteJobStore.log.warn("could not delete quote job directory {}", directory, e);
+        }
+    }
+
+    private void evictExpired() {
+        final long ttlNanos = this.ttlHours * 3_600_000_000_000L;
+        final long now = System.nanoTime();
+        this.jobs.values().removeIf(job -> {
+            if (!job.isFinished() || now - job.getEndNanos() < ttlNanos) {
+                return false;
+            }
+            QuoteJobStore.delete(job.getDirectory());
+            return true;
+        });
+    }
+
+    private static long readLong(final FileChannel channel, final long position) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(8);
+        while (buffer.hasRemaining() && 0 <= channel.read(buffer, position + buffer.position())) {
+            // positional reads until the long is complete
+        }
+        return buffer.flip().getLong();
+    }
+}
@@ -0,0 +1,46 @@
+package com.quotes.premium.loadgen;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quotes.premium.dto.PremiumRequest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Posts pre-serialized requests to the quote endpoint of a running service.
+ */
+public class HttpLoadTarget implements LoadTarget {
+
+    private static final String SUCCESS = "\"success\":true";
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final URI uri;
+    private final byte[][] bodies;
+
+    public HttpLoadTarget(final String url, final List<PremiumRequest> requests) throws JsonProcessingException {
+        this.uri = URI.create(url);
+        final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        this.bodies = new byte[requests.size()][];
+        for (int i = 0; i < requests.size(); i++) {
+            this.bodies[i] = objectMapper.writeValueAsBytes(requests.get(i));
+        }
+    }
+
+    @Override
+    public boolean call(final int index) throws Exception {
+        final HttpRequest request = HttpRequest.newBuilder(this.uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(this.bodies[index % this.bodies.length]))
+                .build();
+        final HttpResponse<String> response = this.client.send(request, HttpResponse.BodyHandlers.ofString());
+        return 200 == response.statusCode() && response.body().contains(HttpLoadTarget.SUCCESS);
+    }
+}
@@ -0,0 +1,243 @@
+package com.quotes.premium.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.rates.RateRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a load target closed loop at 1..N threads or open loop at fixed request rates.
+ * Fixed rate latencies are measured from the scheduled send time, so a stalled target shows up as
+ * queueing delay instead of silently lowering the offered load.
+ */
+@Component
+@Log4j2
+public class LoadGenerator {
+
+    private static final long HIGHEST_LATENCY_NANOS = 60_000_000_000L;
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    @Autowired
+    private RateRegistry rateRegistry;
+
+    @Value("${loadgen.profile}")
+    private String profile;
+
+    public List<PremiumRequest> synthesize(final int size, final long seed) throws IOException {
+        return this.synthesize(this.profile, size, seed);
+    }
+
+    /**
+     * Requests drawn from the given profile instead of loadgen.profile.
+     */
+    public List<PremiumRequest> synthesize(final String profile, final int size, final long seed) throws IOException {
+        final LoadProfile loadProfile = new ObjectMapper().readValue(profile, LoadProfile.class);
+        final RequestSynthesizer synthesizer = new RequestSynthesizer(loadProfile, this.rateRegistry.resolve(null));
+        final SplittableRandom random = new SplittableRandom(seed);
+        final List<PremiumRequest> requests = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            requests.add(synthesizer.next(random));
+        }
+        return requests;
+    }
+
+    public List<LoadStep> closedLoop(final LoadTarget target, final List<Integer> threadSteps, final long warmupNanos, final long durationNanos) throws InterruptedException {
+        final int maxThreads = threadSteps.stream().mapToInt(Integer::intValue).max().orElse(1);
+        LoadGenerator.log.info("warming up with {} threads for {} s", maxThreads, warmupNanos / 1_000_000_000L);
+        this.closedStep(target, maxThreads, warmupNanos);
+        final List<LoadStep> steps = new ArrayList<>();
+        for (final int threads : threadSteps) {
+            final LoadStep step = this.closedStep(target, threads, durationNanos);
+            LoadGenerator.log.info("{}: {} requests/s, p99 {} ms", step.label(), Math.round(step.throughput()), step.percentileMillis(99.0d));
+            steps.add(step);
+        }
+        return steps;
+    }
+
+    public List<LoadStep> fixedRate(final LoadTarget target, final List<Integer> rates, final int threads, final long warmupNanos, final long durationNanos) throws InterruptedException {
+        final int firstRate = rates.get(0);
+        LoadGenerator.log.info("warming up at {} requests/s for {} s", firstRate, warmupNanos / 1_000_000_000L);
+        this.fixedStep(target, firstRate, threads, warmupNanos);
+        final List<LoadStep> steps = new ArrayList<>();
+        for (final int rate : rates) {
+            final LoadStep step = this.fixedStep(target, rate, threads, durationNanos);
+            LoadGenerator.log.info("{}: {} requests/s, p99 {} ms", step.label(), Math.round(step.throughput()), step.percentileMillis(99.0d));
+            steps.add(step);
+        }
+        return steps;
+    }
+
+    private LoadStep closedStep(final LoadTarget target, final int threads, final long durationNanos) throws InterruptedException {
+        final Worker[] workers = new Worker[threads];
+        final CountDownLatch ready = new CountDownLatch(1);
+        final long[] window = new long[2];
+        for (int t = 0; t < threads; t++) {
+            final int offset = t * 7919; // spread threads over the request pool
+            workers[t] = new Worker("loadgen-" + t, () -> {
+                final Worker self = (Worker) Thread.currentThread();
+                ready.await();
+                int index = offset;
+                while (System.nanoTime() < window[1]) {
+                    final long start = System.nanoTime();
+                    final boolean quoted = LoadGenerator.call(target, index++);
+                    self.record(System.nanoTime() - start, quoted);
+                }
+            });
+        }
+        return this.run("closed", threads, 0, workers, ready, window, durationNanos);
+    }
+
+    private LoadStep fixedStep(final LoadTarget target, final int rate, final int threads, final long durationNanos) throws InterruptedException {
+        final Worker[] workers = new Worker[threads];
+        final CountDownLatch ready = new CountDownLatch(1);
+        final long[] window = new long[2];
+        final long interval = 1_000_000_000L / rate;
+        final AtomicLong slots = new AtomicLong();
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Worker("loadgen-" + t, () -> {
+                final Worker self = (Worker) Thread.currentThread();
+                ready.await();
+                while (true) {
+                    final long slot = slots.getAndIncrement();
+                    final long scheduled = window[0] + slot * interval;
+                    if (scheduled >= window[1]) {
+                        return;
+                    }
+                    long now;
+                    while ((now = System.nanoTime()) < scheduled) {
+                        LockSupport.parkNanos(scheduled - now);
+                    }
+                    final boolean quoted = LoadGenerator.call(target, (int) slot);
+                    self.record(System.nanoTime() - scheduled, quoted);
+                }
+            });
+        }
+        return this.run("fixed", threads, rate, workers, ready, window, durationNanos);
+    }
+
+    private LoadStep run(final String mode, final int threads, final int rate, final Worker[] workers, final CountDownLatch ready,
+                         final long[] window, final long durationNanos) throws InterruptedException {
+        for (final Worker worker : workers) {
+            worker.start();
+        }
+        window[0] = System.nanoTime();
+        window[1] = window[0] + durationNanos;
+        ready.countDown();
+        for (final Worker worker : workers) {
+            worker.join();
+        }
+        final long elapsed = Math.max(System.nanoTime(), window[1]) - window[0];
+        final Histogram latency = new Histogram(LoadGenerator.HIGHEST_LATENCY_NANOS, LoadGenerator.SIGNIFICANT_DIGITS);
+        long requests = 0;
+        long failures = 0;
+        for (final Worker worker : workers) {
+            if (null != worker.error) {
+                throw new IllegalStateException("load worker " + worker.getName() + " failed", worker.error);
+            }
+            latency.add(worker.latency);
+            requests += worker.requests;
+            failures += worker.failures;
+        }
+        return new LoadStep(mode, threads, rate, requests, failures, elapsed, latency);
+    }
+
+    private static boolean call(final LoadTarget target, final int index) {
+        try {
+            return target.call(index & Integer.MAX_VALUE);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (final Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Prints the percentiles of every step and the throughput scaling against the first step scaled linearly,
+     * a falling scaling column is where threads start contending. Fixed rate runs show achieved over offered rate.
+     */
+    public static void report(final List<LoadStep> steps, final PrintStream out) {
+        out.println(String.format(Locale.ROOT, "%-14s %12s %8s %9s %9s %9s %9s %9s %9s",
+                "step", "requests/s", "scaling", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "failures"));
+        final LoadStep first = steps.get(0);
+        for (final LoadStep step : steps) {
+            final double linear = first.throughput() / first.getThreads() * step.getThreads();
+            out.println(String.format(Locale.ROOT, "%-14s %12.1f %8.2f %9.3f %9.3f %9.3f %9.3f %9.3f %9d",
+                    step.label(), step.throughput(), "closed".equals(step.getMode()) ? step.throughput() / linear : step.throughput() / step.getTargetRate(),
+                    step.percentileMillis(50.0d), step.percentileMillis(90.0d), step.percentileMillis(99.0d),
+                    step.percentileMillis(99.9d), step.getLatency().getMaxValue() / 1_000_000.0d, step.getFailures()));
+        }
+    }
+
+    /**
+     * Writes scaling.csv and one HdrHistogram percentile distribution (.hgrm, milliseconds) per step.
+     */
+    public static void write(final List<LoadStep> steps, final Path directory) throws IOException {
+        Files.createDirectories(directory);
+        try (final PrintWriter csv = new PrintWriter(Files.newBufferedWriter(directory.resolve("scaling.csv")))) {
+            csv.println("mode,threads,target_rate,requests,failures,throughput,p50_ms,p90_ms,p99_ms,p999_ms,max_ms");
+            for (final LoadStep step : steps) {
+                csv.println(String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f", step.getMode(), step.getThreads(),
+                        step.getTargetRate(), step.getRequests(), step.getFailures(), step.throughput(), step.percentileMillis(50.0d),
+                        step.percentileMillis(90.0d), step.percentileMillis(99.0d), step.percentileMillis(99.9d),
+                        step.getLatency().getMaxValue() / 1_000_000.0d));
+                try (final PrintStream hgrm = new PrintStream(Files.newOutputStream(directory.resolve(step.label() + ".hgrm")))) {
+                    step.getLatency().outputPercentileDistribution(hgrm, 1_000_000.0d);
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Body {
+        void run() throws Exception;
+    }
+
+    private static final class Worker extends Thread {
+        private final Histogram latency = new Histogram(LoadGenerator.HIGHEST_LATENCY_NANOS, LoadGenerator.SIGNIFICANT_DIGITS);
+        private final Body body;
+        private long requests;
+        private long failures;
+        private Throwable error;
+
+        private Worker(final String name, final Body body) {
+            super(name);
+            this.body = body;
+            this.setDaemon(true);
+        }
+
+        private void record(final long nanos, final boolean quoted) {
+            this.latency.recordValue(Math.min(nanos, LoadGenerator.HIGHEST_LATENCY_NANOS));
+            this.requests++;
+            if (!quoted) {
+                this.failures++;
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                this.body.run();
+            } catch (final Throwable e) {
+                this.error = e;
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.quotes.premium.loadgen;
+
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.service.PremiumService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Load test commands, the application exits once the run is reported:
+ * <pre>
+ * java -jar premium.jar --spring.main.web-application-type=none --logging.level.com.quotes.premium=WARN \
+ *      --loadgen=closed --loadgen.threads=8 --loadgen.out=target/loadgen
+ * java -jar premium.jar --spring.main.web-application-type=none \
+ *      --loadgen=fixed --loadgen.target=http --loadgen.url=http://quotes:8080/quote --loadgen.rates=200,400,800
+ * </pre>
+ * loadgen.threads is either the highest thread count, stepping through every count from 1, or an explicit list.
+ */
+@Component
+@Log4j2
+public class LoadGeneratorCommand implements ApplicationRunner {
+
+    @Autowired
+    private LoadGenerator loadGenerator;
+    @Autowired
+    private PremiumService premiumService;
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Value("${loadgen.target:service}")
+    private String target;
+    @Value("${loadgen.url:http://localhost:8080/quote}")
+    private String url;
+    @Value("${loadgen.threads:8}")
+    private String threads;
+    @Value("${loadgen.rates:100}")
+    private String rates;
+    @Value("${loadgen.warmup.seconds:10}")
+    private long warmupSeconds;
+    @Value("${loadgen.duration.seconds:10}")
+    private long durationSeconds;
+    @Value("${loadgen.pool.size:10000}")
+    private int poolSize;
+    @Value("${loadgen.seed:42}")
+    private long seed;
+    @Value("${loadgen.out:}")
+    private String out;
+
+    @Override
+    public void run(final ApplicationArguments args) throws Exception {
+        if (!args.containsOption("loadgen")) {
+            return;
+        }
+        final String mode = args.getOptionValues("loadgen").get(0);
+        final List<PremiumRequest> requests = this.loadGenerator.synthesize(this.poolSize, this.seed);
+        final LoadTarget loadTarget = "http".equals(this.target) ? new HttpLoadTarget(this.url, requests) : new ServiceLoadTarget(this.premiumService, requests);
+        final long warmup = this.warmupSeconds * 1_000_000_000L;
+        final long duration = this.durationSeconds * 1_000_000_000L;
+        final List<Integer> threadSteps = LoadGeneratorCommand.threadSteps(this.threads);
+
+        final List<LoadStep> steps = switch (mode) {
+            case "closed" -> this.loadGenerator.closedLoop(loadTarget, threadSteps, warmup, duration);
+            case "fixed" -> this.loadGenerator.fixedRate(loadTarget, LoadGeneratorCommand.list(this.rates),
+                    threadSteps.get(threadSteps.size() - 1), warmup, duration);
+            default -> throw new IllegalArgumentException("unknown load generator mode " + mode + ", expected closed or fixed");
+        };
+        LoadGenerator.report(steps, System.out);
+        if (!this.out.isBlank()) {
+            LoadGenerator.write(steps, Path.of(this.out));
+            LoadGeneratorCommand.log.info("load generator results written to {}", this.out);
+        }
+        System.exit(SpringApplication.exit(this.applicationContext, () -> 0));
+    }
+
+    private static List<Integer> threadSteps(final String threads) {
+        final List<Integer> steps = LoadGeneratorCommand.list(threads);
+        return 1 == steps.size() ? IntStream.rangeClosed(1, steps.get(0)).boxed().toList() : steps;
+    }
+
+    private static List<Integer> list(final String values) {
+        return new ArrayList<>(Arrays.stream(values.split(",")).map(String::trim).map(Integer::valueOf).toList());
+    }
+}
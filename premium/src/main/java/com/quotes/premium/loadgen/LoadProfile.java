@@ -0,0 +1,37 @@
+package com.quotes.premium.loadgen;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+/**
+ * Distributions the synthesized traffic is drawn from, read from loadgen.profile.
+ * Weight maps need not add up to one, rates are probabilities per request.
+ */
+@Getter
+@Setter
+public class LoadProfile {
+    private Map<String, Double> families;          // e.g. "2A1C": two adults and one child
+    private double floaterShare;                   // share of multi insured families quoted as floater
+    private Map<String, Double> adultAges;         // age bands "from-to"
+    private Map<String, Double> childAges;
+    private Map<String, Double> sumInsured;
+    private Map<String, Double> zones;
+    private Map<String, Double> terms;
+    private Map<String, Double> paymentDurations;
+    private double emiRate;
+    private double pedRate;
+    private double nriRate;
+    private double reflexLoadingRate;
+    private Map<String, Double> addOns;            // boolean request flags, e.g. "consumableCover": 0.3
+    private double copayRate;
+    private double deductibleRate;
+    private double roomRentRate;
+    private double wellnessRate;
+    private double pedWaitingRate;
+    private double maternityRate;
+    private double hospitalCashRate;
+    private double paCoverRate;
+    private double cibilRate;
+}
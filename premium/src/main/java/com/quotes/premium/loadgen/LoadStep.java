@@ -0,0 +1,41 @@
+package com.quotes.premium.loadgen;
+
+import lombok.Getter;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Outcome of one load level, either a thread count (closed loop) or a request rate (fixed rate).
+ */
+@Getter
+public class LoadStep {
+    private final String mode;
+    private final int threads;
+    private final int targetRate;
+    private final long requests;
+    private final long failures;
+    private final long elapsedNanos;
+    private final Histogram latency; // nanoseconds
+
+    public LoadStep(final String mode, final int threads, final int targetRate, final long requests, final long failures,
+                    final long elapsedNanos, final Histogram latency) {
+        this.mode = mode;
+        this.threads = threads;
+        this.targetRate = targetRate;
+        this.requests = requests;
+        this.failures = failures;
+        this.elapsedNanos = elapsedNanos;
+        this.latency = latency;
+    }
+
+    public double throughput() {
+        return this.requests * 1_000_000_000.0d / this.elapsedNanos;
+    }
+
+    public double percentileMillis(final double percentile) {
+        return this.latency.getValueAtPercentile(percentile) / 1_000_000.0d;
+    }
+
+    public String label() {
+        return "closed".equals(this.mode) ? this.threads + "-threads" : this.targetRate + "-rps";
+    }
+}
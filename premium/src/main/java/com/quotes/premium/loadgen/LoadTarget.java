@@ -0,0 +1,12 @@
+package com.quotes.premium.loadgen;
+
+/**
+ * Something the load generator sends the request at a pool index to.
+ */
+public interface LoadTarget {
+
+    /**
+     * @return whether a premium was quoted
+     */
+    boolean call(int index) throws Exception;
+}
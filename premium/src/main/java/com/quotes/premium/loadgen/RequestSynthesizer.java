@@ -0,0 +1,280 @@
+package com.quotes.premium.loadgen;
+
+import com.quotes.premium.dto.*;
+import com.quotes.premium.plan.FeatureActivation;
+import com.quotes.premium.rates.RateVersion;
+import com.quotes.premium.service.ValidationService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+/**
+ * Synthesizes premium requests from a load profile. Every request satisfies the ValidationService rules and
+ * only carries option values the rate tables price, so the traffic exercises pricing rather than rejections.
+ */
+public class RequestSynthesizer {
+
+    private static final List<String> PEDS = List.of("BP", "DM", "CAD", "Asthma", "Hyperlipedimia");
+    private static final int MAX_ADULTS = 2;
+    private static final int MAX_CHILDREN = 4;
+    private static final int MIN_ADULT_AGE = 18;
+    private static final int MAX_CHILD_AGE = 25;
+    private static final int MAX_AGE_FOR_HIGH_SUM_INSURED = 65;
+    private static final int MAX_SUM_INSURED_DRAWS = 100;
+
+    private final LoadProfile profile;
+    private final Weighted families;
+    private final Weighted adultAges;
+    private final Weighted childAges;
+    private final Weighted sumInsured;
+    private final Weighted zones;
+    private final Weighted terms;
+    private final Weighted paymentDurations;
+    private final List<String> copayPercents;
+    private final List<String> deductibleAmounts;
+    private final List<String> roomRentOptions;
+    private final List<String> waitingPeriods;
+    private final List<String> individualHospitalDays;
+    private final List<String> floaterHospitalDays;
+
+    public RequestSynthesizer(final LoadProfile profile, final RateVersion rates) {
+        this.profile = profile;
+        this.families = new Weighted("families", profile.getFamilies());
+        this.adultAges = new Weighted("adultAges", profile.getAdultAges());
+        this.childAges = new Weighted("childAges", profile.getChildAges());
+        this.sumInsured = new Weighted("sumInsured", profile.getSumInsured());
+        this.zones = new Weighted("zones", profile.getZones());
+        this.terms = new Weighted("terms", profile.getTerms());
+        this.paymentDurations = new Weighted("paymentDurations", profile.getPaymentDurations());
+        this.copayPercents = List.copyOf(new TreeSet<>(FeatureActivation.ALLOWED_COPAY_PERCENTS));
+        this.deductibleAmounts = RequestSynthesizer.columns(rates.table("VoluntaryDeductible.xlsx").entries());
+        this.roomRentOptions = List.copyOf(rates.table("room.rent.discount.mapping").entries().keySet());
+        this.waitingPeriods = RequestSynthesizer.columns(rates.table("ReductionOnPED.xlsx").entries());
+        this.individualHospitalDays = RequestSynthesizer.columns(rates.table("hospital_cash_individual.xlsx").entries());
+        this.floaterHospitalDays = RequestSynthesizer.columns(rates.table("hospital_cash_floater.xlsx").entries());
+        this.check();
+    }
+
+    public PremiumRequest next(final SplittableRandom random) {
+        final PremiumRequest premiumRequest = new PremiumRequest();
+        premiumRequest.setFresh(true);
+        premiumRequest.setInsured(this.family(random));
+        final int size = premiumRequest.getInsured().size();
+        premiumRequest.setPolicyType(1 < size && random.nextDouble() < this.profile.getFloaterShare() ? "floater" : "individual");
+        premiumRequest.setSumInsured(this.sumInsured(random, premiumRequest.getInsured()));
+        premiumRequest.setZone(this.zones.next(random));
+        premiumRequest.setPolicyTerm(Integer.parseInt(this.terms.next(random)));
+
+        final PaymentTermRequest paymentTermRequest = new PaymentTermRequest();
+        paymentTermRequest.setEmi(3 >= premiumRequest.getPolicyTerm() && random.nextDouble() < this.profile.getEmiRate());
+        paymentTermRequest.setPaymentDuration(this.paymentDurations.next(random));
+        premiumRequest.setPaymentTermRequest(paymentTermRequest);
+
+        for (final Map.Entry<String, Double> addOn : this.profile.getAddOns().entrySet()) {
+            if (random.nextDouble() < addOn.getValue()) {
+                RequestSynthesizer.enable(premiumRequest, addOn.getKey());
+            }
+        }
+        this.options(random, premiumRequest);
+        return premiumRequest;
+    }
+
+    private List<Insured> family(final SplittableRandom random) {
+        final String shape = this.families.next(random);
+        final int adults = RequestSynthesizer.count(shape, 'A');
+        final int children = RequestSynthesizer.count(shape, 'C');
+        final boolean nri = random.nextDouble() < this.profile.getNriRate();
+        final List<Insured> insured = new ArrayList<>(adults + children);
+        for (int i = 0; i < adults + children; i++) {
+            final Insured member = new Insured();
+            final boolean adult = i < adults;
+            member.setType(adult ? "adult" : "child");
+            member.setAge(adult ? Math.max(RequestSynthesizer.MIN_ADULT_AGE, this.adultAges.nextInBand(random))
+                    : Math.min(RequestSynthesizer.MAX_CHILD_AGE, this.childAges.nextInBand(random)));
+            member.setProposer(0 == i);
+            member.setNri(nri);
+            if (random.nextDouble() < this.profile.getPedRate()) {
+                member.getPeds().add(RequestSynthesizer.PEDS.get(random.nextInt(RequestSynthesizer.PEDS.size())));
+            }
+            if (adult && random.nextDouble() < this.profile.getReflexLoadingRate()) {
+                member.setReflexLoading((5 + random.nextInt(21)) / 100.0d);
+            }
+            insured.add(member);
+        }
+        return insured;
+    }
+
+    private String sumInsured(final SplittableRandom random, final List<Insured> insured) {
+        final boolean senior = insured.stream().anyMatch(ins -> "adult".equals(ins.getType()) && RequestSynthesizer.MAX_AGE_FOR_HIGH_SUM_INSURED < ins.getAge());
+        for (int draw = 0; draw < RequestSynthesizer.MAX_SUM_INSURED_DRAWS; draw++) {
+            final String sumInsured = this.sumInsured.next(random);
+            if (!senior || !("10000000".equals(sumInsured) || "UNLIMITED".equals(sumInsured))) {
+                return sumInsured;
+            }
+        }
+        return "500000";
+    }
+
+    private void options(final SplittableRandom random, final PremiumRequest premiumRequest) {
+        if (random.nextDouble() < this.profile.getCopayRate()) {
+            final VoluntarilyCopay copay = new VoluntarilyCopay();
+            copay.setCopay(true);
+            copay.setCopayPercent(RequestSynthesizer.pick(random, this.copayPercents));
+            premiumRequest.setVoluntarilyCopay(copay);
+        } else if (random.nextDouble() < this.profile.getDeductibleRate()) {
+            final VoluntarilyDeductible deductible = new VoluntarilyDeductible();
+            deductible.setDeductible(true);
+            deductible.setDeductibleAmount(RequestSynthesizer.pick(random, this.deductibleAmounts));
+            premiumRequest.setVoluntarilyDeductible(deductible);
+        }
+        if (random.nextDouble() < this.profile.getRoomRentRate()) {
+            final RoomRent roomRent = new RoomRent();
+            roomRent.setRent(true);
+            roomRent.setOption(RequestSynthesizer.pick(random, this.roomRentOptions));
+            premiumRequest.setRoomRent(roomRent);
+        }
+        if (random.nextDouble() < this.profile.getWellnessRate()) {
+            final WellnessDiscount wellnessDiscount = new WellnessDiscount();
+            wellnessDiscount.setWellnessDiscount(true);
+            wellnessDiscount.setPoints((double) random.nextInt(1000));
+            premiumRequest.setWellnessDiscount(wellnessDiscount);
+        }
+        if (random.nextDouble() < this.profile.getPedWaitingRate()) {
+            final PedWaitingRequest pedWaitingRequest = new PedWaitingRequest();
+            pedWaitingRequest.setPedWaitingRequest(true);
+            pedWaitingRequest.setWaitingPeriod(RequestSynthesizer.pick(random, this.waitingPeriods));
+            premiumRequest.setPedWaitingRequest(pedWaitingRequest);
+        }
+        if (random.nextDouble() < this.profile.getMaternityRate()) {
+            premiumRequest.setMaternityRequest(RequestSynthesizer.maternity(random));
+        }
+        if (random.nextDouble() < this.profile.getHospitalCashRate()) {
+            final HospitalCashRequest hospitalCashRequest = new HospitalCashRequest();
+            hospitalCashRequest.setHospitalCash(true);
+            hospitalCashRequest.setNumberOfDays(RequestSynthesizer.pick(random,
+                    "individual".equals(premiumRequest.getPolicyType()) ? this.individualHospitalDays : this.floaterHospitalDays));
+            premiumRequest.setHospitalCashRequest(hospitalCashRequest);
+        }
+        final double sumInsured = "UNLIMITED".equals(premiumRequest.getSumInsured()) ? 0.0d : Double.parseDouble(premiumRequest.getSumInsured());
+        if (1000000 <= sumInsured && 100000000 >= sumInsured && random.nextDouble() < this.profile.getPaCoverRate()) {
+            final PACoverRequest paCoverRequest = new PACoverRequest();
+            paCoverRequest.setPaCover(true);
+            paCoverRequest.setOption(random.nextBoolean() ? "1" : "2");
+            premiumRequest.setPaCoverRequest(paCoverRequest);
+        }
+        if (random.nextDouble() < this.profile.getCibilRate()) {
+            final CibilScoreRequest cibilScoreRequest = new CibilScoreRequest();
+            cibilScoreRequest.setCibil(true);
+            cibilScoreRequest.setCibilScore(300 + random.nextInt(601));
+            premiumRequest.setCibilScoreRequest(cibilScoreRequest);
+        }
+    }
+
+    /**
+     * Option A or B, never both, optionally with C.
+     */
+    private static MaternityRequest maternity(final SplittableRandom random) {
+        final List<MaternityOptions> options = new ArrayList<>(2);
+        final MaternityOptions first = new MaternityOptions();
+        if (random.nextBoolean()) {
+            first.setOption("A");
+            first.setSubLimit(random.nextBoolean() ? 50000.0d : 100000.0d);
+        } else {
+            first.setOption("B");
+            first.setSubLimit(30000.0d);
+        }
+        options.add(first);
+        if (random.nextBoolean()) {
+            final MaternityOptions newBorn = new MaternityOptions();
+            newBorn.setOption("C");
+            newBorn.setSubLimit(0.0d);
+            options.add(newBorn);
+        }
+        final MaternityRequest maternityRequest = new MaternityRequest();
+        maternityRequest.setMaternityRequest(true);
+        maternityRequest.setOption(options);
+        return maternityRequest;
+    }
+
+    private static void enable(final PremiumRequest premiumRequest, final String flag) {
+        switch (flag) {
+            case "superstarBonus" -> premiumRequest.setSuperstarBonus(true);
+            case "instantCover" -> premiumRequest.setInstantCover(true);
+            case "consumableCover" -> premiumRequest.setConsumableCover(true);
+            case "futureReady" -> premiumRequest.setFutureReady(true);
+            case "reductionOnSpecificDisease" -> premiumRequest.setReductionOnSpecificDisease(true);
+            case "smartNetworkDiscount" -> premiumRequest.setSmartNetworkDiscount(true);
+            case "limitlessCare" -> premiumRequest.setLimitlessCare(true);
+            case "subLimitsForModernTreatments" -> premiumRequest.setSubLimitsForModernTreatments(true);
+            case "durableMedicalEquipmentCover" -> premiumRequest.setDurableMedicalEquipmentCover(true);
+            case "womenCare" -> premiumRequest.setWomenCare(true);
+            case "highEndDiagnostic" -> premiumRequest.setHighEndDiagnostic(true);
+            case "annualCheckUp" -> premiumRequest.setAnnualCheckUp(true);
+            case "internationalSecondOpinion" -> premiumRequest.setInternationalSecondOpinion(true);
+            case "compassionateVisit" -> premiumRequest.setCompassionateVisit(true);
+            case "healthQuestionnaire" -> premiumRequest.setHealthQuestionnaire(true);
+            case "earlyRenewalDiscount" -> premiumRequest.setEarlyRenewalDiscount(true);
+            default -> throw new IllegalArgumentException("load profile add on " + flag + " is not a request flag");
+        }
+    }
+
+    private void check() {
+        for (final String shape : this.profile.getFamilies().keySet()) {
+            final int adults = RequestSynthesizer.count(shape, 'A');
+            final int children = RequestSynthesizer.count(shape, 'C');
+            if (1 > adults || RequestSynthesizer.MAX_ADULTS < adults || RequestSynthesizer.MAX_CHILDREN < children) {
+                throw new IllegalArgumentException("load profile family " + shape + " is not a valid family");
+            }
+        }
+        for (final String sumInsured : this.profile.getSumInsured().keySet()) {
+            if (!ValidationService.ALLOWED_SUM_INSURED.contains(sumInsured)) {
+                throw new IllegalArgumentException("load profile sum insured " + sumInsured + " is not offered");
+            }
+        }
+        for (final String zone : this.profile.getZones().keySet()) {
+            if (!ValidationService.ALLOWED_ZONES.contains(zone)) {
+                throw new IllegalArgumentException("load profile zone " + zone + " is not offered");
+            }
+        }
+        for (final String term : this.profile.getTerms().keySet()) {
+            final int policyTerm = Integer.parseInt(term);
+            if (ValidationService.MIN_POLICY_TERM > policyTerm || ValidationService.MAX_POLICY_TERM < policyTerm) {
+                throw new IllegalArgumentException("load profile term " + term + " is not offered");
+            }
+        }
+        for (final String addOn : this.profile.getAddOns().keySet()) {
+            RequestSynthesizer.enable(new PremiumRequest(), addOn);
+        }
+    }
+
+    /**
+     * Count of a member type in a family shape such as "2A1C", zero when the type is absent.
+     */
+    private static int count(final String shape, final char type) {
+        final int end = shape.indexOf(type);
+        if (0 > end) {
+            return 0;
+        }
+        int start = end;
+        while (0 < start && Character.isDigit(shape.charAt(start - 1))) {
+            start--;
+        }
+        return start == end ? 1 : Integer.parseInt(shape.substring(start, end));
+    }
+
+    /**
+     * Distinct column headers of a workbook table keyed "row#column".
+     */
+    private static List<String> columns(final Map<String, Double> table) {
+        final TreeSet<String> columns = new TreeSet<>();
+        table.keySet().forEach(key -> columns.add(key.substring(key.indexOf('#') + 1)));
+        return List.copyOf(columns);
+    }
+
+    private static String pick(final SplittableRandom random, final List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
@@ -0,0 +1,25 @@
+package com.quotes.premium.loadgen;
+
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.service.PremiumService;
+
+import java.util.List;
+
+/**
+ * Calls PremiumService in process, measuring the engine without HTTP and JSON costs.
+ */
+public class ServiceLoadTarget implements LoadTarget {
+
+    private final PremiumService premiumService;
+    private final PremiumRequest[] requests;
+
+    public ServiceLoadTarget(final PremiumService premiumService, final List<PremiumRequest> requests) {
+        this.premiumService = premiumService;
+        this.requests = requests.toArray(new PremiumRequest[0]);
+    }
+
+    @Override
+    public boolean call(final int index) {
+        return this.premiumService.calculatePremium(this.requests[index % this.requests.length]).isSuccess();
+    }
+}
@@ -0,0 +1,55 @@
+package com.quotes.premium.loadgen;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Draws keys of a weight map in proportion to their weights.
+ */
+final class Weighted {
+
+    private final String[] keys;
+    private final double[] cumulative;
+
+    Weighted(final String name, final Map<String, Double> weights) {
+        if (null == weights || weights.isEmpty()) {
+            throw new IllegalArgumentException("load profile has no weights for " + name);
+        }
+        this.keys = new String[weights.size()];
+        this.cumulative = new double[weights.size()];
+        double total = 0.0d;
+        int i = 0;
+        for (final Map.Entry<String, Double> weight : weights.entrySet()) {
+            if (0.0d > weight.getValue()) {
+                throw new IllegalArgumentException("load profile weight of " + name + " " + weight.getKey() + " is negative");
+            }
+            total += weight.getValue();
+            this.keys[i] = weight.getKey();
+            this.cumulative[i++] = total;
+        }
+        if (0.0d == total) {
+            throw new IllegalArgumentException("load profile weights of " + name + " are all zero");
+        }
+    }
+
+    String next(final SplittableRandom random) {
+        final double point = random.nextDouble() * this.cumulative[this.cumulative.length - 1];
+        int index = Arrays.binarySearch(this.cumulative, point);
+        index = 0 > index ? -index - 1 : index + 1;
+        while (index < this.keys.length - 1 && this.cumulative[index] <= point) {
+            index++; // skip zero weights
+        }
+        return this.keys[Math.min(index, this.keys.length - 1)];
+    }
+
+    /**
+     * Draws a band "from-to" and then an integer uniformly inside it.
+     */
+    int nextInBand(final SplittableRandom random) {
+        final String[] band = this.next(random).split("-");
+        final int from = Integer.parseInt(band[0].trim());
+        final int to = 1 < band.length ? Integer.parseInt(band[1].trim()) : from;
+        return from + random.nextInt(to - from + 1);
+    }
+}
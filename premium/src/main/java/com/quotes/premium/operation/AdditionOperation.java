@@ -12,12 +12,10 @@ public class AdditionOperation implements Operation {
             return ;
         }
 
-        final Field discountField = Applicable.class.getDeclaredField(key);
-        discountField.setAccessible(true);
+        final Field discountField = ApplicableFields.get(key);
         final Double currentDiscount = (Double) discountField.get(obj);
 
-        final Field baseField = Applicable.class.getDeclaredField(baseValueKey);
-        baseField.setAccessible(true);
+        final Field baseField = ApplicableFields.get(baseValueKey);
         Double baseValue = (Double) baseField.get(obj);
 
         baseValue = baseValue + ("loading".equals(attribute.getExpenseType()) ? currentDiscount : -currentDiscount);
@@ -0,0 +1,29 @@
+package com.quotes.premium.operation;
+
+import com.quotes.premium.dto.Applicable;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applicable fields by name, made accessible once rather than looked up again for every insured-year of every stage.
+ */
+final class ApplicableFields {
+
+    private static final Map<String, Field> FIELDS = new ConcurrentHashMap<>();
+
+    private ApplicableFields() {
+    }
+
+    static Field get(final String name) throws NoSuchFieldException {
+        final Field cached = ApplicableFields.FIELDS.get(name);
+        if (null != cached) {
+            return cached;
+        }
+        final Field field = Applicable.class.getDeclaredField(name);
+        field.setAccessible(true);
+        ApplicableFields.FIELDS.put(name, field);
+        return field;
+    }
+}
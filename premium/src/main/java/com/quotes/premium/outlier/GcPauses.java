@@ -0,0 +1,79 @@
+package com.quotes.premium.outlier;
+
+import com.quotes.premium.dto.SlowQuote;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The last few collections the JVM reported, kept from its GC notifications so nothing is read per quote. Times
+ * are milliseconds since the JVM started, as GcInfo reports them. Notifications arrive shortly after a collection
+ * ends, one finishing just before a quote is captured can be missing from it.
+ */
+class GcPauses implements NotificationListener {
+
+    private final AtomicReferenceArray<SlowQuote.GcPause> pauses;
+    private final AtomicLong count = new AtomicLong();
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+
+    GcPauses(final int capacity) {
+        this.pauses = new AtomicReferenceArray<>(capacity);
+    }
+
+    void start() {
+        for (final GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter) {
+                ((NotificationEmitter) collector).addNotificationListener(this, null, null);
+                this.emitters.add((NotificationEmitter) collector);
+            }
+        }
+    }
+
+    void stop() {
+        for (final NotificationEmitter emitter : this.emitters) {
+            try {
+                emitter.removeNotificationListener(this);
+            } catch (final Exception ignored) {
+                // already gone with the JVM
+            }
+        }
+        this.emitters.clear();
+    }
+
+    @Override
+    public void handleNotification(final Notification notification, final Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        final GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        final GcInfo gcInfo = info.getGcInfo();
+        final SlowQuote.GcPause pause = SlowQuote.GcPause.builder().collector(info.getGcName()).action(info.getGcAction())
+                .cause(info.getGcCause()).startMs(gcInfo.getStartTime()).durationMs(gcInfo.getDuration()).build();
+        this.pauses.set((int) (this.count.getAndIncrement() % this.pauses.length()), pause);
+    }
+
+    /**
+     * @return the remembered collections overlapping the interval, oldest first
+     */
+    List<SlowQuote.GcPause> between(final long fromMs, final long toMs) {
+        final List<SlowQuote.GcPause> overlapping = new ArrayList<>();
+        for (int index = 0; index < this.pauses.length(); index++) {
+            final SlowQuote.GcPause pause = this.pauses.get(index);
+            if (null != pause && pause.getStartMs() <= toMs && pause.getStartMs() + pause.getDurationMs() >= fromMs) {
+                overlapping.add(pause);
+            }
+        }
+        overlapping.sort((left, right) -> Long.compare(left.getStartMs(), right.getStartMs()));
+        return overlapping;
+    }
+}
@@ -0,0 +1,39 @@
+package com.quotes.premium.outlier;
+
+import com.quotes.premium.dto.SlowQuoteReplay;
+import com.quotes.premium.dto.SlowQuoteReport;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * GET /actuator/slowquotes lists the captured quotes, newest first. POST /actuator/slowquotes with a JSON body
+ * replays them, {"repetitions": n} times each up to quote.outliers.replay.max.repetitions, 5 times for {}.
+ * <p>
+ * The captures carry customers' requests and every replay costs quotes on the primary engine, so it is left out of
+ * the default web exposure. Add it to management.endpoints.web.exposure.include only behind a secured management port.
+ */
+@Component
+@Endpoint(id = "slowquotes")
+public class SlowQuoteEndpoint {
+
+    private static final int REPETITIONS = 5;
+
+    @Autowired
+    private SlowQuoteRecorder slowQuoteRecorder;
+
+    @ReadOperation
+    public SlowQuoteReport slowQuotes() {
+        return this.slowQuoteRecorder.report();
+    }
+
+    @WriteOperation
+    public List<SlowQuoteReplay> replay(@Nullable final Integer repetitions) {
+        return this.slowQuoteRecorder.replay(null == repetitions ? SlowQuoteEndpoint.REPETITIONS : repetitions);
+    }
+}
@@ -0,0 +1,235 @@
+package com.quotes.premium.outlier;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quotes.premium.admission.AdmissionLimiter;
+import com.quotes.premium.config.MandatoryConfiguration;
+import com.quotes.premium.dto.ApiResponse;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.SlowQuote;
+import com.quotes.premium.dto.SlowQuoteReplay;
+import com.quotes.premium.dto.SlowQuoteReport;
+import com.quotes.premium.engine.PremiumEngine;
+import com.quotes.premium.engine.PremiumEngines;
+import com.quotes.premium.jfr.QuoteEvent;
+import com.quotes.premium.service.PremiumService;
+import com.quotes.premium.warmup.WarmUp;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the last quote.outliers.capacity quotes slower than quote.outliers.threshold.ms, or than the
+ * quote.outliers.percentile of the latencies seen over the last window, with their request, stage timings and what
+ * the thread and the JVM were doing. Fast quotes cost a latency recording and a comparison, only a slow one is
+ * copied, into a ring the newest capture overwrites the oldest of without locking.
+ * <p>
+ * A captured quote replayed alone on the primary engine, away from the cube, coalescing, shadowing and the other
+ * quotes in flight, shows whether the request was expensive or the system was busy.
+ */
+@Component
+@Log4j2
+public class SlowQuoteRecorder {
+
+    private static final long HIGHEST_LATENCY_NANOS = 60_000_000_000L;
+
+    @Autowired
+    private MandatoryConfiguration mandatoryConfiguration;
+    @Autowired
+    private AdmissionLimiter admissionLimiter;
+    @Autowired
+    private PremiumEngines premiumEngines;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${quote.outliers.enabled:true}")
+    private boolean enabled;
+    @Value("${quote.outliers.capacity:64}")
+    private int capacity;
+    @Value("${quote.outliers.threshold.ms:250}")
+    private double thresholdMs; // negative to rely on the percentile alone
+    @Value("${quote.outliers.percentile:99.9}")
+    private double percentile; // 0 to rely on the threshold alone
+    @Value("${quote.outliers.percentile.window.seconds:60}")
+    private long windowSeconds;
+    @Value("${quote.outliers.percentile.min.samples:1000}")
+    private long minSamples;
+    @Value("${quote.outliers.gc.history:32}")
+    private int gcHistory;
+    @Value("${quote.outliers.replay.max.repetitions:20}")
+    private int maxReplayRepetitions; // a replay holds the calling thread for every repetition of every capture
+
+    private AtomicReferenceArray<SlowQuote> quotes;
+    private final AtomicLong captured = new AtomicLong();
+    private GcPauses gcPauses;
+
+    private long thresholdNanos;
+    private volatile long percentileNanos = Long.MAX_VALUE; // until a window has enough quotes
+    private final Recorder latencies = new Recorder(SlowQuoteRecorder.HIGHEST_LATENCY_NANOS, 2);
+    private final Histogram window = new Histogram(SlowQuoteRecorder.HIGHEST_LATENCY_NANOS, 2);
+    private Histogram interval;
+    private final AtomicLong nextRefresh = new AtomicLong();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    @PostConstruct
+    public void init() {
+        this.quotes = new AtomicReferenceArray<>(Math.max(1, this.capacity));
+        this.thresholdNanos = 0.0d > this.thresholdMs ? Long.MAX_VALUE : (long) (this.thresholdMs * 1_000_000.0d);
+        this.nextRefresh.set(System.nanoTime() + this.windowSeconds * 1_000_000_000L);
+        if (this.enabled) {
+            this.gcPauses = new GcPauses(Math.max(1, this.gcHistory));
+            this.gcPauses.start();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (null != this.gcPauses) {
+            this.gcPauses.stop();
+        }
+    }
+
+    /**
+     * Records the latency of a quote that began at startNanos and captures it when it was slow. Stage timings are
+     * those the thread took since StageTimings.begin.
+     */
+    public void record(final PremiumRequest premiumRequest, final ApiResponse<?> apiResponse, final boolean precomputed, final long startNanos) {
+        if (!this.enabled || WarmUp.isWarmUpQuote()) {
+            return;
+        }
+        final long now = System.nanoTime();
+        final long latency = now - startNanos;
+        if (0.0d < this.percentile) {
+            this.latencies.recordValue(Math.min(latency, SlowQuoteRecorder.HIGHEST_LATENCY_NANOS));
+            if (now - this.nextRefresh.get() >= 0L) {
+                this.refresh(now);
+            }
+        }
+        final long threshold = Math.min(this.thresholdNanos, this.percentileNanos);
+        if (latency >= threshold) {
+            try {
+                this.capture(premiumRequest, apiResponse, precomputed, latency, threshold);
+            } catch (final Exception e) {
+                SlowQuoteRecorder.log.warn("slow quote not captured", e);
+            }
+        }
+    }
+
+    public SlowQuoteReport report() {
+        return SlowQuoteReport.builder()
+                .enabled(this.enabled)
+                .capacity(this.quotes.length())
+                .thresholdMs(this.thresholdMs)
+                .percentile(this.percentile)
+                .percentileThresholdMs(Long.MAX_VALUE == this.percentileNanos ? 0.0d : this.percentileNanos / 1_000_000.0d)
+                .captured(this.captured.get())
+                .quotes(this.snapshot())
+                .build();
+    }
+
+    /**
+     * Prices every captured request the given number of times, at least once and at most
+     * quote.outliers.replay.max.repetitions, on the primary engine, one after another on the calling thread.
+     */
+    public List<SlowQuoteReplay> replay(final int repetitions) {
+        final PremiumEngine engine = this.premiumEngines.getPrimary();
+        final int times = Math.min(Math.max(1, repetitions), Math.max(1, this.maxReplayRepetitions));
+        final List<SlowQuoteReplay> replays = new ArrayList<>();
+        for (final SlowQuote quote : this.snapshot()) {
+            final SlowQuoteReplay.SlowQuoteReplayBuilder replay = SlowQuoteReplay.builder().sequence(quote.getSequence())
+                    .capturedMs(quote.getLatencyMs()).repetitions(times);
+            try {
+                final long[] nanos = new long[times];
+                for (int repetition = 0; repetition < nanos.length; repetition++) {
+                    final PremiumRequest premiumRequest = this.objectMapper.treeToValue(quote.getRequest(), PremiumRequest.class);
+                    final long start = System.nanoTime();
+                    try {
+                        engine.quote(premiumRequest);
+                    } catch (final Exception e) {
+                        replay.failure(PremiumService.failureMessage(e)); // a rejected quote still takes its time
+                    }
+                    nanos[repetition] = System.nanoTime() - start;
+                }
+                Arrays.sort(nanos);
+                replay.minMs(nanos[0] / 1_000_000.0d).medianMs(nanos[nanos.length / 2] / 1_000_000.0d)
+                        .intrinsic(nanos[0] / 1_000_000.0d >= quote.getThresholdMs());
+            } catch (final Exception e) {
+                replay.failure(e.getMessage());
+            }
+            replays.add(replay.build());
+        }
+        return replays;
+    }
+
+    private void capture(final PremiumRequest premiumRequest, final ApiResponse<?> apiResponse, final boolean precomputed,
+                         final long latency, final long threshold) {
+        final JsonNode request = this.objectMapper.valueToTree(premiumRequest);
+        final long uptimeMs = ManagementFactory.getRuntimeMXBean().getUptime();
+        final long sequence = this.captured.getAndIncrement();
+        final SlowQuote quote = SlowQuote.builder()
+                .sequence(sequence)
+                .capturedAtEpochMs(System.currentTimeMillis())
+                .latencyMs(latency / 1_000_000.0d)
+                .thresholdMs(threshold / 1_000_000.0d)
+                .outcome(QuoteEvent.outcome(apiResponse, precomputed))
+                .thread(Thread.currentThread().getName())
+                .inFlight(this.admissionLimiter.report().getInFlight())
+                .heapUsedMb(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() >> 20)
+                .stageMs(precomputed ? Map.of() : StageTimings.millis(this.mandatoryConfiguration.getExecutionKeys()))
+                .gcPauses(this.gcPauses.between(uptimeMs - latency / 1_000_000L - 1L, uptimeMs))
+                .request(request)
+                .build();
+        this.quotes.accumulateAndGet((int) (sequence % this.quotes.length()), quote,
+                (current, next) -> null == current || current.getSequence() < next.getSequence() ? next : current);
+    }
+
+    /**
+     * Percentile of the quotes recorded since the last window with enough of them, worked out by one thread at a time.
+     */
+    private void refresh(final long now) {
+        if (!this.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            this.nextRefresh.set(now + this.windowSeconds * 1_000_000_000L);
+            this.interval = this.latencies.getIntervalHistogram(this.interval);
+            this.window.add(this.interval);
+            if (this.window.getTotalCount() >= this.minSamples) {
+                this.percentileNanos = this.window.getValueAtPercentile(this.percentile);
+                this.window.reset();
+            }
+        } finally {
+            this.refreshing.set(false);
+        }
+    }
+
+    /**
+     * @return the captured quotes, newest first
+     */
+    private List<SlowQuote> snapshot() {
+        final List<SlowQuote> snapshot = new ArrayList<>(this.quotes.length());
+        for (int index = 0; index < this.quotes.length(); index++) {
+            final SlowQuote quote = this.quotes.get(index);
+            if (null != quote) {
+                snapshot.add(quote);
+            }
+        }
+        snapshot.sort(Comparator.comparingLong(SlowQuote::getSequence).reversed());
+        return snapshot;
+    }
+}
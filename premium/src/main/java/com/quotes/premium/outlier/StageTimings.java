@@ -0,0 +1,66 @@
+package com.quotes.premium.outlier;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The time each execution key of the thread's current quote took, laps of one clock read per stage. A stage's lap
+ * starts where the previous one ended, so the few instructions between stages are charged to the next one. Stages
+ * run on other threads, by an identical quote priced alongside, are not seen.
+ */
+public final class StageTimings {
+
+    private static final ThreadLocal<StageTimings> CURRENT = ThreadLocal.withInitial(StageTimings::new);
+
+    private long[] nanos = new long[64]; // by execution key position, -1 when the stage did not run
+    private long last;
+
+    private StageTimings() {
+        Arrays.fill(this.nanos, -1L);
+    }
+
+    /**
+     * Starts timing the thread's quote, forgetting the previous one.
+     */
+    public static void begin() {
+        Arrays.fill(StageTimings.CURRENT.get().nanos, -1L);
+    }
+
+    /**
+     * Starts the lap of the next stage, before the first one of a run.
+     */
+    public static void mark() {
+        StageTimings.CURRENT.get().last = System.nanoTime();
+    }
+
+    /**
+     * Ends the lap of the stage at position.
+     */
+    public static void lap(final int position) {
+        final StageTimings timings = StageTimings.CURRENT.get();
+        final long now = System.nanoTime();
+        if (position >= timings.nanos.length) {
+            final int length = timings.nanos.length;
+            timings.nanos = Arrays.copyOf(timings.nanos, Math.max(position + 1, length * 2));
+            Arrays.fill(timings.nanos, length, timings.nanos.length, -1L);
+        }
+        timings.nanos[position] = Math.max(0L, timings.nanos[position]) + now - timings.last;
+        timings.last = now;
+    }
+
+    /**
+     * @return milliseconds of every stage that ran on the thread since begin, in execution key order
+     */
+    public static Map<String, Double> millis(final List<String> executionKeys) {
+        final long[] nanos = StageTimings.CURRENT.get().nanos;
+        final Map<String, Double> millis = new LinkedHashMap<>();
+        for (int position = 0; position < Math.min(nanos.length, executionKeys.size()); position++) {
+            if (0L <= nanos[position]) {
+                millis.put(executionKeys.get(position), nanos[position] / 1_000_000.0d);
+            }
+        }
+        return millis;
+    }
+}
@@ -0,0 +1,17 @@
+package com.quotes.premium.plan;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Ordered stages that can change a value for one policy type / fresh flag / active-feature mask.
+ * Plans are immutable and shared between requests with the same shape.
+ */
+@Getter
+@AllArgsConstructor
+public class ExecutionPlan {
+    private final long mask;
+    private final List<Stage> stages;
+}
@@ -0,0 +1,75 @@
+package com.quotes.premium.plan;
+
+import com.quotes.premium.config.MandatoryConfiguration;
+import com.quotes.premium.dto.Attribute;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.PremiumResponse;
+import com.quotes.premium.service.PremiumService;
+import com.quotes.premium.utils.Utils;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@Log4j2
+public class ExecutionPlanner {
+
+    @Autowired
+    private MandatoryConfiguration mandatoryConfiguration;
+
+    @Value("${execution.plan.cache.size:4096}")
+    private int cacheSize;
+
+    private final Map<String, ExecutionPlan> plans = new ConcurrentHashMap<>();
+    private final Map<String, MethodHandle> handlers = new ConcurrentHashMap<>();
+
+    public ExecutionPlan plan(final PremiumRequest premiumRequest) throws Exception {
+        final List<String> executionKeys = this.mandatoryConfiguration.getExecutionKeys();
+        final long mask = FeatureActivation.mask(premiumRequest, executionKeys);
+        final String planKey = premiumRequest.getPolicyType() + "#" + premiumRequest.isFresh() + "#" + mask;
+        final ExecutionPlan cached = this.plans.get(planKey);
+        if (null != cached) {
+            return cached;
+        }
+
+        final ExecutionPlan plan = this.build(premiumRequest.getPolicyType(), premiumRequest.isFresh(), mask);
+        if (this.plans.size() < this.cacheSize) {
+            this.plans.putIfAbsent(planKey, plan);
+        }
+        return plan;
+    }
+
+    private ExecutionPlan build(final String policyType, final boolean fresh, final long mask) throws Exception {
+        final List<String> executionKeys = this.mandatoryConfiguration.getExecutionKeys();
+        final Map<String, Attribute> confMap = this.mandatoryConfiguration.getConf(policyType, fresh);
+        final List<Stage> stages = new ArrayList<>();
+        for (int position = 0; position < executionKeys.size(); position++) {
+            if (0L == (mask & (1L << position))) {
+                continue;
+            }
+            final String key = executionKeys.get(position);
+            stages.add(new Stage(key, position, confMap.get(key), this.handler(key)));
+        }
+        ExecutionPlanner.log.debug("built plan for {} fresh {} with {} of {} stages", policyType, fresh, stages.size(), executionKeys.size());
+        return new ExecutionPlan(mask, List.copyOf(stages));
+    }
+
+    private MethodHandle handler(final String key) throws NoSuchMethodException, IllegalAccessException {
+        final MethodHandle cached = this.handlers.get(key);
+        if (null != cached) {
+            return cached;
+        }
+        final MethodHandle handler = MethodHandles.publicLookup().unreflect(
+                PremiumService.class.getMethod("handle" + Utils.capitalizeFirstLetter(key), PremiumResponse.class, PremiumRequest.class, List.class));
+        this.handlers.put(key, handler);
+        return handler;
+    }
+}
@@ -0,0 +1,138 @@
+package com.quotes.premium.plan;
+
+import com.quotes.premium.dto.Insured;
+import com.quotes.premium.dto.PremiumRequest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decides up front which execution keys can change a value for a request.
+ * Every case mirrors the early return of the matching handle* method in PremiumService,
+ * keys without a case (lookup, zonal, floater, stage totals, taxes) are always active.
+ */
+public class FeatureActivation {
+
+    public static final Set<String> ALLOWED_COPAY_PERCENTS = Set.of("10", "20", "30", "40", "50");
+
+    /**
+     * First execution key reading each top level PremiumRequest property. Properties missing here
+     * (sum insured, zone, insured, policy type, term, fresh) feed the lookup and invalidate the whole quote.
+     */
+    public static final Map<String, String> INPUT_KEYS = Map.ofEntries(
+            Map.entry("superstarBonus", "superstarBonus"),
+            Map.entry("consumableCover", "consumableCover"),
+            Map.entry("futureReady", "futureReady"),
+            Map.entry("reductionOnSpecificDisease", "specificDisease"),
+            Map.entry("pedWaitingRequest", "pedWaitingPeriod"),
+            Map.entry("limitlessCare", "limitlessCare"),
+            Map.entry("smartNetworkDiscount", "preferredHospitalNetwork"),
+            Map.entry("voluntarilyCopay", "copay"),
+            Map.entry("voluntarilyDeductible", "deductible"),
+            Map.entry("roomRent", "roomRent"),
+            Map.entry("subLimitsForModernTreatments", "subLimitModeration"),
+            Map.entry("durableMedicalEquipmentCover", "medicalEquipmentCover"),
+            Map.entry("wellnessDiscount", "wellnessDiscount"),
+            Map.entry("maternityRequest", "maternityExpense"),
+            Map.entry("womenCare", "womenCare"),
+            Map.entry("highEndDiagnostic", "highEndDiagnostic"),
+            Map.entry("annualCheckUp", "annualHealthCheckUp"),
+            Map.entry("internationalSecondOpinion", "internationalSecondOpinion"),
+            Map.entry("compassionateVisit", "compassionateVisit"),
+            Map.entry("hospitalCashRequest", "hospitalCash"),
+            Map.entry("paCoverRequest", "paCover"),
+            Map.entry("healthQuestionnaire", "healthQuestionnaire"),
+            Map.entry("cibilScoreRequest", "cibilDiscount"),
+            Map.entry("earlyRenewalDiscount", "earlyRenewal"),
+            Map.entry("paymentTermRequest", "longTermDiscount"));
+
+    /**
+     * Earliest execution key position that can observe a change of the given request properties.
+     */
+    public static int firstAffectedPosition(final Iterable<String> properties, final List<String> executionKeys) {
+        int position = executionKeys.size();
+        for (final String property : properties) {
+            if ("instantCover".equals(property)) {
+                continue; // the flag is not read, instant cover loading follows the insured peds
+            }
+            final String key = FeatureActivation.INPUT_KEYS.get(property);
+            final int index = null == key ? -1 : executionKeys.indexOf(key);
+            if (0 > index) {
+                return 0;
+            }
+            position = Math.min(position, index);
+        }
+        return position;
+    }
+
+    /**
+     * Positions {@link #firstAffectedPosition} can return past the first: the first key reading each property and the
+     * end of the plan. Only the state in front of these is ever resumed from.
+     *
+     * @return by position, one past the last execution key included
+     */
+    public static boolean[] resumablePositions(final List<String> executionKeys) {
+        final boolean[] resumable = new boolean[executionKeys.size() + 1];
+        for (final String key : FeatureActivation.INPUT_KEYS.values()) {
+            final int index = executionKeys.indexOf(key);
+            if (0 < index) {
+                resumable[index] = true;
+            }
+        }
+        resumable[executionKeys.size()] = true;
+        return resumable;
+    }
+
+    public static long mask(final PremiumRequest premiumRequest, final List<String> executionKeys) {
+        long mask = 0L;
+        for (int index = 0; index < executionKeys.size(); index++) {
+            if (FeatureActivation.isActive(executionKeys.get(index), premiumRequest)) {
+                mask |= 1L << index;
+            }
+        }
+        return mask;
+    }
+
+    public static boolean isActive(final String key, final PremiumRequest premiumRequest) {
+        return switch (key) {
+            case "reflexLoading" -> FeatureActivation.hasReflexLoading(premiumRequest.getInsured());
+            case "superstarBonus" -> premiumRequest.isSuperstarBonus();
+            case "instantCover" -> premiumRequest.getInsured().stream().anyMatch(ins -> !ins.getPeds().isEmpty());
+            case "consumableCover" -> premiumRequest.isConsumableCover();
+            case "futureReady" -> premiumRequest.isFutureReady()
+                    && 1 >= premiumRequest.getInsured().stream().filter(ins -> "adult".equals(ins.getType())).count();
+            case "specificDisease" -> premiumRequest.isReductionOnSpecificDisease();
+            case "pedWaitingPeriod" -> null != premiumRequest.getPedWaitingRequest() && premiumRequest.getPedWaitingRequest().isPedWaitingRequest();
+            case "limitlessCare" -> premiumRequest.isLimitlessCare();
+            case "preferredHospitalNetwork" -> premiumRequest.isSmartNetworkDiscount();
+            case "copay" -> null != premiumRequest.getVoluntarilyCopay()
+                    && premiumRequest.getVoluntarilyCopay().isCopay()
+                    && FeatureActivation.ALLOWED_COPAY_PERCENTS.contains(premiumRequest.getVoluntarilyCopay().getCopayPercent());
+            case "deductible" -> null != premiumRequest.getVoluntarilyDeductible() && premiumRequest.getVoluntarilyDeductible().isDeductible();
+            case "roomRent" -> null != premiumRequest.getRoomRent() && premiumRequest.getRoomRent().isRent();
+            case "subLimitModeration" -> premiumRequest.isSubLimitsForModernTreatments();
+            case "medicalEquipmentCover" -> premiumRequest.isDurableMedicalEquipmentCover();
+            case "wellnessDiscount" -> null != premiumRequest.getWellnessDiscount() && premiumRequest.getWellnessDiscount().isWellnessDiscount();
+            case "nriDiscount" -> premiumRequest.getInsured().stream().allMatch(Insured::isNri);
+            case "maternityExpense" -> null != premiumRequest.getMaternityRequest() && premiumRequest.getMaternityRequest().isMaternityRequest();
+            case "womenCare" -> premiumRequest.isWomenCare();
+            case "highEndDiagnostic" -> premiumRequest.isHighEndDiagnostic();
+            case "annualHealthCheckUp" -> premiumRequest.isAnnualCheckUp();
+            case "internationalSecondOpinion" -> premiumRequest.isInternationalSecondOpinion();
+            case "compassionateVisit" -> premiumRequest.isCompassionateVisit();
+            case "hospitalCash" -> null != premiumRequest.getHospitalCashRequest() && premiumRequest.getHospitalCashRequest().isHospitalCash();
+            case "paCover" -> null != premiumRequest.getPaCoverRequest() && premiumRequest.getPaCoverRequest().isPaCover();
+            case "healthQuestionnaire" -> premiumRequest.isHealthQuestionnaire();
+            case "cibilDiscount" -> null != premiumRequest.getCibilScoreRequest() && premiumRequest.getCibilScoreRequest().isCibil();
+            case "earlyRenewal" -> premiumRequest.isEarlyRenewalDiscount();
+            case "longTermDiscount" -> null == premiumRequest.getPaymentTermRequest() || !premiumRequest.getPaymentTermRequest().isEmi();
+            default -> true;
+        };
+    }
+
+    private static boolean hasReflexLoading(final List<Insured> insured) {
+        // a null loading is kept active so the handler fails the same way it always did
+        return insured.stream().anyMatch(ins -> null == ins.getReflexLoading() || 0.0d != ins.getReflexLoading());
+    }
+}
@@ -0,0 +1,125 @@
+package com.quotes.premium.plan;
+
+import com.quotes.premium.dto.Applicable;
+import com.quotes.premium.dto.Attribute;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Insured-year layout of one quote. Resolves compiled Attribute selectors into index arrays
+ * once per distinct selector, so every stage sharing a selector reuses the same read-only view.
+ */
+public class InsuredYearLayout {
+
+    // matched positions are collected here before being copied to their exact size, sized for the largest
+    // family validation allows (2 adults and 4 children over 5 years)
+    private static final ThreadLocal<int[]> SCRATCH = ThreadLocal.withInitial(() -> new int[30]);
+
+    private final List<Applicable> applicables;
+    private final int[] typeBits;
+    private final int[] years;
+    private final int[] ages;
+
+    private long[] selectorKeys = new long[8];
+    private List<Applicable>[] selections = InsuredYearLayout.newSelections(8);
+    private int resolved;
+
+    public InsuredYearLayout(final List<Applicable> applicables) {
+        this.applicables = applicables;
+        final int size = applicables.size();
+        this.typeBits = new int[size];
+        this.years = new int[size];
+        this.ages = new int[size];
+        for (int index = 0; index < size; index++) {
+            final Applicable applicable = applicables.get(index);
+            this.typeBits[index] = Selectors.typeBit(applicable.getType());
+            this.years[index] = applicable.getYear();
+            this.ages[index] = applicable.getAge();
+        }
+    }
+
+    public List<Applicable> select(final Attribute attribute) {
+        final int yearMask = attribute.getYearMask();
+        final int insuredMask = attribute.getInsuredMask();
+        if (Selectors.ALL_YEARS == yearMask && Selectors.ALL_INSURED == insuredMask) {
+            return this.applicables;
+        }
+
+        final long selectorKey = ((long) yearMask << Integer.SIZE) | (insuredMask & 0xFFFFFFFFL);
+        for (int index = 0; index < this.resolved; index++) {
+            if (this.selectorKeys[index] == selectorKey) {
+                return this.selections[index];
+            }
+        }
+
+        final List<Applicable> selection = new Selection(this.applicables, this.resolve(yearMask, insuredMask));
+        if (this.resolved == this.selectorKeys.length) {
+            this.selectorKeys = Arrays.copyOf(this.selectorKeys, this.resolved * 2);
+            this.selections = Arrays.copyOf(this.selections, this.resolved * 2);
+        }
+        this.selectorKeys[this.resolved] = selectorKey;
+        this.selections[this.resolved++] = selection;
+        return selection;
+    }
+
+    private int[] resolve(final int yearMask, final int insuredMask) {
+        final int size = this.applicables.size();
+        int[] indices = InsuredYearLayout.SCRATCH.get();
+        if (indices.length < size) {
+            indices = new int[size];
+            InsuredYearLayout.SCRATCH.set(indices);
+        }
+        int count = 0;
+        if (Selectors.OLDEST == insuredMask) {
+            int maxAge = 0;
+            boolean any = false;
+            for (int index = 0; index < size; index++) {
+                if (Selectors.matchesYear(yearMask, this.years[index]) && (!any || this.ages[index] > maxAge)) {
+                    maxAge = this.ages[index];
+                    any = true;
+                }
+            }
+            for (int index = 0; index < size; index++) {
+                if (Selectors.matchesYear(yearMask, this.years[index]) && this.ages[index] == maxAge) {
+                    indices[count++] = index;
+                }
+            }
+        } else {
+            for (int index = 0; index < size; index++) {
+                if (Selectors.matchesYear(yearMask, this.years[index])
+                        && (Selectors.ALL_INSURED == insuredMask || 0 != (insuredMask & this.typeBits[index]))) {
+                    indices[count++] = index;
+                }
+            }
+        }
+        return Arrays.copyOf(indices, count);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Applicable>[] newSelections(final int size) {
+        return new List[size];
+    }
+
+    private static final class Selection extends AbstractList<Applicable> implements RandomAccess {
+        private final List<Applicable> applicables;
+        private final int[] indices;
+
+        private Selection(final List<Applicable> applicables, final int[] indices) {
+            this.applicables = applicables;
+            this.indices = indices;
+        }
+
+        @Override
+        public Applicable get(final int index) {
+            return this.applicables.get(this.indices[index]);
+        }
+
+        @Override
+        public int size() {
+            return this.indices.length;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.quotes.premium.plan;
+
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.PremiumResponse;
+import com.quotes.premium.rates.RateVersion;
+import lombok.Getter;
+
+/**
+ * Working state of one quote while its execution plan runs.
+ */
+@Getter
+public class QuoteContext {
+    private final PremiumRequest premiumRequest;
+    private final ExecutionPlan plan;
+    private final RateVersion rates;
+    private PremiumResponse premiumResponse;
+    private InsuredYearLayout layout;
+
+    public QuoteContext(final PremiumRequest premiumRequest, final ExecutionPlan plan, final RateVersion rates, final PremiumResponse premiumResponse) {
+        this.premiumRequest = premiumRequest;
+        this.plan = plan;
+        this.rates = rates;
+        this.premiumResponse = premiumResponse;
+        this.layout = new InsuredYearLayout(premiumResponse.getApplicables());
+    }
+
+    /**
+     * Continues from a copy of a state captured earlier, the snapshot itself is never mutated.
+     */
+    public QuoteContext restore(final PremiumResponse snapshot) {
+        this.premiumResponse = snapshot.copy();
+        this.layout = new InsuredYearLayout(this.premiumResponse.getApplicables());
+        return this;
+    }
+
+    /**
+     * The same quote to be priced at other rates, from a copy of a state captured before any stage ran.
+     */
+    public QuoteContext reprice(final RateVersion rates, final PremiumResponse unpriced) {
+        return new QuoteContext(this.premiumRequest, this.plan, rates, unpriced.copy());
+    }
+}
@@ -0,0 +1,60 @@
+package com.quotes.premium.plan;
+
+/**
+ * Bitmask encoding of the insured and year selectors of an Attribute.
+ * Year bit n is set when policy year n applies, "all" sets every bit.
+ */
+public class Selectors {
+
+    public static final int ALL_YEARS = -1;
+
+    public static final int ADULT = 1;
+    public static final int CHILD = 1 << 1;
+    public static final int OLDEST = 1 << 2;
+    public static final int ALL_INSURED = Selectors.ADULT | Selectors.CHILD;
+
+    public static int yearMask(final String year) {
+        if (null == year || "all".equals(year)) {
+            return Selectors.ALL_YEARS;
+        }
+        int mask = 0;
+        for (final String token : year.split(",")) {
+            try {
+                final int value = Integer.parseInt(token.trim());
+                if (0 <= value && Integer.SIZE - 1 > value) {
+                    mask |= 1 << value;
+                }
+            } catch (final NumberFormatException e) {
+                // unknown year tokens never matched any policy year
+            }
+        }
+        return mask;
+    }
+
+    public static int insuredMask(final String insured) {
+        if (null == insured) {
+            return Selectors.ALL_INSURED;
+        }
+        return switch (insured) {
+            case "oldest" -> Selectors.OLDEST;
+            case "adult" -> Selectors.ADULT;
+            case "child" -> Selectors.CHILD;
+            case "proposer" -> 0; // insured type is never "proposer", nothing is selected
+            default -> Selectors.ALL_INSURED;
+        };
+    }
+
+    public static int typeBit(final String type) {
+        if ("adult".equals(type)) {
+            return Selectors.ADULT;
+        }
+        return "child".equals(type) ? Selectors.CHILD : 0;
+    }
+
+    public static boolean matchesYear(final int yearMask, final int year) {
+        if (Selectors.ALL_YEARS == yearMask) {
+            return true;
+        }
+        return 0 <= year && Integer.SIZE - 1 > year && 0 != (yearMask & (1 << year));
+    }
+}
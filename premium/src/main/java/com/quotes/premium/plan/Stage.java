@@ -0,0 +1,39 @@
+package com.quotes.premium.plan;
+
+import com.quotes.premium.dto.Applicable;
+import com.quotes.premium.dto.Attribute;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.PremiumResponse;
+import com.quotes.premium.service.PremiumService;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class Stage {
+    private final String key;
+    private final int position; // index of the key in execution.keys
+    private final Attribute attribute;
+    private final MethodHandle handler; // (PremiumService, PremiumResponse, PremiumRequest, List)void
+
+    public boolean hasPostOperation() {
+        return this.attribute.isRounding() || this.attribute.isMultiplicative();
+    }
+
+    /**
+     * Runs the stage's handler without the argument array of a reflective call, whatever it throws comes wrapped the
+     * way {@link java.lang.reflect.Method#invoke} wraps it.
+     */
+    public void invoke(final PremiumService premiumService, final PremiumResponse premiumResponse, final PremiumRequest premiumRequest,
+                       final List<Applicable> applicables) throws InvocationTargetException {
+        try {
+            this.handler.invokeExact(premiumService, premiumResponse, premiumRequest, applicables);
+        } catch (final Throwable e) {
+            throw new InvocationTargetException(e, this.key);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.quotes.premium.plan;
+
+/**
+ * Callback around every stage executed by PremiumService.
+ */
+public interface StageListener {
+
+    StageListener NONE = new StageListener() {};
+
+    default void beforeStage(final QuoteContext context, final Stage stage) {
+    }
+
+    default void afterStage(final QuoteContext context, final Stage stage) {
+    }
+}
@@ -0,0 +1,327 @@
+package com.quotes.premium.rates;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * First match decision table compiled from a rate property, e.g.
+ * <pre>
+ * maternity.newborn.decision={"inputs":{"option":"key","sumInsured":"number"},"outputs":["amount"],
+ *                             "rules":[["A","<=2500000","2690"],["A","*","4034"],["C","500000|750000","41932"]]}
+ * </pre>
+ * Key cells name one or more keys separated by |, + matching any key and * matching anything, an empty set of keys
+ * included. Number cells are a value, an inclusive range 18..70, a bound like <=2500000 or >70, several of those
+ * separated by |, or *.
+ * <p>
+ * Rules are flattened into primitive arrays when the rates are loaded: every key cell becomes a bit mask over the keys
+ * the table names and every number cell an inclusive range, a rule with alternative number cells being repeated once
+ * per alternative. A lookup is a scan over those arrays, nothing is parsed per quote. The single key overloads of
+ * {@link #match} and {@link #lookup} and {@link #matchNumbers} take their inputs as arguments, so the handlers do not
+ * build an input array per insured-year either, see DecisionTableBenchmark in the tests.
+ */
+public final class DecisionTable {
+
+    public static final long[] NO_KEYS = new long[0];
+    public static final double[] NO_NUMBERS = new double[0];
+
+    static final String KEY = "key";
+    static final String NUMBER = "number";
+
+    private static final long PRESENT = 1L << 63; // set in every input, so that * also matches an empty set of keys
+    private static final long UNNAMED = 1L << 62; // keys no rule names
+    private static final int MAX_KEYS = 62;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final String source;
+    private final List<String> outputs;
+    private final List<Map<String, Long>> keyBits; // per key column
+    private final int keyColumns;
+    private final int numberColumns;
+    private final int rows;
+    private final long[] masks; // rows x key columns
+    private final double[] lows; // rows x number columns, inclusive
+    private final double[] highs;
+    private final double[] results; // rows x outputs
+
+    private DecisionTable(final String source, final List<String> outputs, final List<Map<String, Long>> keyBits, final int numberColumns,
+                          final List<long[]> masks, final List<double[]> lows, final List<double[]> highs, final List<double[]> results) {
+        this.source = source;
+        this.outputs = List.copyOf(outputs);
+        this.keyBits = List.copyOf(keyBits);
+        this.keyColumns = keyBits.size();
+        this.numberColumns = numberColumns;
+        this.rows = masks.size();
+        this.masks = new long[this.rows * this.keyColumns];
+        this.lows = new double[this.rows * numberColumns];
+        this.highs = new double[this.rows * numberColumns];
+        this.results = new double[this.rows * outputs.size()];
+        for (int row = 0; row < this.rows; row++) {
+            System.arraycopy(masks.get(row), 0, this.masks, row * this.keyColumns, this.keyColumns);
+            System.arraycopy(lows.get(row), 0, this.lows, row * numberColumns, numberColumns);
+            System.arraycopy(highs.get(row), 0, this.highs, row * numberColumns, numberColumns);
+            System.arraycopy(results.get(row), 0, this.results, row * outputs.size(), outputs.size());
+        }
+    }
+
+    public static DecisionTable compile(final String source, final String definition) throws IOException {
+        return DecisionTable.compile(source, DecisionTable.OBJECT_MAPPER.readValue(definition, DecisionTableDefinition.class));
+    }
+
+    public static DecisionTable compile(final String source, final DecisionTableDefinition definition) {
+        final List<String> kinds = List.copyOf(definition.getInputs().values());
+        final List<Map<String, Long>> keyBits = new ArrayList<>();
+        int numberColumns = 0;
+        for (final String kind : kinds) {
+            if (DecisionTable.KEY.equals(kind)) {
+                keyBits.add(new HashMap<>());
+            } else if (DecisionTable.NUMBER.equals(kind)) {
+                numberColumns++;
+            } else {
+                throw new IllegalArgumentException("decision table " + source + " has an input of unknown kind " + kind);
+            }
+        }
+        final int outputs = definition.getOutputs().size();
+
+        final List<long[]> masks = new ArrayList<>();
+        final List<double[]> lows = new ArrayList<>();
+        final List<double[]> highs = new ArrayList<>();
+        final List<double[]> results = new ArrayList<>();
+        for (final List<String> rule : definition.getRules()) {
+            if (kinds.size() + outputs != rule.size()) {
+                throw new IllegalArgumentException("decision table " + source + " rule " + rule + " should have "
+                        + kinds.size() + " inputs and " + outputs + " outputs");
+            }
+            final long[] mask = new long[keyBits.size()];
+            final List<List<double[]>> ranges = new ArrayList<>(numberColumns);
+            int keyColumn = 0;
+            for (int input = 0; input < kinds.size(); input++) {
+                if (DecisionTable.KEY.equals(kinds.get(input))) {
+                    mask[keyColumn] = DecisionTable.keyCell(source, keyBits.get(keyColumn), rule.get(input));
+                    keyColumn++;
+                } else {
+                    ranges.add(DecisionTable.numberCell(rule.get(input)));
+                }
+            }
+            final double[] result = new double[outputs];
+            for (int output = 0; output < outputs; output++) {
+                result[output] = Double.parseDouble(rule.get(kinds.size() + output));
+            }
+
+            // one row per combination of alternative number cells
+            final int[] alternative = new int[numberColumns];
+            do {
+                final double[] low = new double[numberColumns];
+                final double[] high = new double[numberColumns];
+                for (int column = 0; column < numberColumns; column++) {
+                    low[column] = ranges.get(column).get(alternative[column])[0];
+                    high[column] = ranges.get(column).get(alternative[column])[1];
+                }
+                masks.add(mask);
+                lows.add(low);
+                highs.add(high);
+                results.add(result);
+            } while (DecisionTable.next(alternative, ranges));
+        }
+        return new DecisionTable(source, definition.getOutputs(), keyBits, numberColumns, masks, lows, highs, results);
+    }
+
+    public String getSource() {
+        return this.source;
+    }
+
+    public List<String> getOutputs() {
+        return this.outputs;
+    }
+
+    public int rows() {
+        return this.rows;
+    }
+
+    /**
+     * Input of a key column holding a single key.
+     */
+    public long key(final int keyColumn, final String key) {
+        final Long bit = this.keyBits.get(keyColumn).get(key);
+        return DecisionTable.PRESENT | (null == bit ? DecisionTable.UNNAMED : bit);
+    }
+
+    /**
+     * Input of a key column holding a set of keys, a rule cell matches when it names any of them.
+     */
+    public long keys(final int keyColumn, final List<String> keys) {
+        final Map<String, Long> bits = this.keyBits.get(keyColumn);
+        long input = DecisionTable.PRESENT;
+        for (int index = 0; index < keys.size(); index++) {
+            final Long bit = bits.get(keys.get(index));
+            input |= null == bit ? DecisionTable.UNNAMED : bit;
+        }
+        return input;
+    }
+
+    /**
+     * Index of the first row matching the inputs, -1 when none does.
+     *
+     * @param keys    one input per key column, see {@link #key} and {@link #keys}
+     * @param numbers one input per number column, in input order
+     */
+    public int match(final long[] keys, final double[] numbers) {
+        this.checkInputs(keys.length, numbers.length);
+        rows:
+        for (int row = 0; row < this.rows; row++) {
+            for (int column = 0; column < this.keyColumns; column++) {
+                if (!this.keyMatches(row, column, keys[column])) {
+                    continue rows;
+                }
+            }
+            for (int column = 0; column < this.numberColumns; column++) {
+                if (!this.numberMatches(row, column, numbers[column])) {
+                    continue rows;
+                }
+            }
+            return row;
+        }
+        return -1;
+    }
+
+    /**
+     * {@link #match(long[], double[])} of a table with a single key column and no number column.
+     */
+    public int match(final long key) {
+        this.checkInputs(1, 0);
+        for (int row = 0; row < this.rows; row++) {
+            if (this.keyMatches(row, 0, key)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * {@link #match(long[], double[])} of a table with a single key column and a single number column.
+     */
+    public int match(final long key, final double number) {
+        this.checkInputs(1, 1);
+        for (int row = 0; row < this.rows; row++) {
+            if (this.keyMatches(row, 0, key) && this.numberMatches(row, 0, number)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * {@link #match(long[], double[])} of a table with no key column and two number columns, named apart so that two
+     * int arguments are not taken for a key and a number.
+     */
+    public int matchNumbers(final double first, final double second) {
+        this.checkInputs(0, 2);
+        for (int row = 0; row < this.rows; row++) {
+            if (this.numberMatches(row, 0, first) && this.numberMatches(row, 1, second)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    public double result(final int row, final int output) {
+        return this.results[row * this.outputs.size() + output];
+    }
+
+    /**
+     * Output of the first matching row, the given default when no row matches.
+     */
+    public double lookup(final int output, final long[] keys, final double[] numbers, final double otherwise) {
+        return this.resultOr(this.match(keys, numbers), output, otherwise);
+    }
+
+    public double lookup(final int output, final long key, final double otherwise) {
+        return this.resultOr(this.match(key), output, otherwise);
+    }
+
+    public double lookup(final int output, final long key, final double number, final double otherwise) {
+        return this.resultOr(this.match(key, number), output, otherwise);
+    }
+
+    private double resultOr(final int row, final int output, final double otherwise) {
+        return -1 == row ? otherwise : this.result(row, output);
+    }
+
+    private boolean keyMatches(final int row, final int column, final long key) {
+        return 0L != (this.masks[row * this.keyColumns + column] & key);
+    }
+
+    private boolean numberMatches(final int row, final int column, final double number) {
+        final int cell = row * this.numberColumns + column;
+        final double low = this.lows[cell];
+        final double high = this.highs[cell];
+        return (low <= number && number <= high) || (Double.NEGATIVE_INFINITY == low && Double.POSITIVE_INFINITY == high);
+    }
+
+    private void checkInputs(final int keys, final int numbers) {
+        if (this.keyColumns != keys || this.numberColumns != numbers) {
+            throw new IllegalArgumentException("decision table " + this.source + " takes " + this.keyColumns + " keys and " + this.numberColumns + " numbers");
+        }
+    }
+
+    private static long keyCell(final String source, final Map<String, Long> bits, final String cell) {
+        if ("*".equals(cell)) {
+            return -1L;
+        }
+        if ("+".equals(cell)) {
+            return ~DecisionTable.PRESENT;
+        }
+        long mask = 0L;
+        for (final String key : cell.split("\\|")) {
+            Long bit = bits.get(key.trim());
+            if (null == bit) {
+                if (DecisionTable.MAX_KEYS == bits.size()) {
+                    throw new IllegalArgumentException("decision table " + source + " names more than " + DecisionTable.MAX_KEYS + " keys in one column");
+                }
+                bit = 1L << bits.size();
+                bits.put(key.trim(), bit);
+            }
+            mask |= bit;
+        }
+        return mask;
+    }
+
+    private static List<double[]> numberCell(final String cell) {
+        final List<double[]> ranges = new ArrayList<>();
+        for (final String alternative : cell.split("\\|")) {
+            final String range = alternative.trim();
+            if ("*".equals(range)) {
+                ranges.add(new double[]{Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY});
+            } else if (range.startsWith("<=")) {
+                ranges.add(new double[]{Double.NEGATIVE_INFINITY, Double.parseDouble(range.substring(2))});
+            } else if (range.startsWith("<")) {
+                ranges.add(new double[]{Double.NEGATIVE_INFINITY, Math.nextDown(Double.parseDouble(range.substring(1)))});
+            } else if (range.startsWith(">=")) {
+                ranges.add(new double[]{Double.parseDouble(range.substring(2)), Double.POSITIVE_INFINITY});
+            } else if (range.startsWith(">")) {
+                ranges.add(new double[]{Math.nextUp(Double.parseDouble(range.substring(1))), Double.POSITIVE_INFINITY});
+            } else if (range.contains("..")) {
+                final String[] bounds = range.split("\\.\\.");
+                ranges.add(new double[]{Double.parseDouble(bounds[0]), Double.parseDouble(bounds[1])});
+            } else {
+                final double value = Double.parseDouble(range);
+                ranges.add(new double[]{value, value});
+            }
+        }
+        return ranges;
+    }
+
+    private static boolean next(final int[] alternative, final List<List<double[]>> ranges) {
+        for (int column = alternative.length - 1; column >= 0; column--) {
+            if (++alternative[column] < ranges.get(column).size()) {
+                return true;
+            }
+            alternative[column] = 0;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,21 @@
+package com.quotes.premium.rates;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Source form of a decision table property: the input columns with their kind, key or number, the
+ * output names and the rules, each rule listing one cell per input followed by one value per output.
+ */
+@Getter
+@Setter
+public class DecisionTableDefinition {
+    private Map<String, String> inputs = new LinkedHashMap<>();
+    private List<String> outputs = new ArrayList<>();
+    private List<List<String>> rules = new ArrayList<>();
+}
@@ -0,0 +1,93 @@
+package com.quotes.premium.rates;
+
+import java.util.Arrays;
+
+/**
+ * Rate table keyed by a number, e.g. a pincode, held in two parallel sorted arrays: 16 bytes an entry where a
+ * {@link RateTable} entry costs a boxed key, a boxed value and a tree node. Meant for tables with hundreds of
+ * thousands of rows streamed in by {@link com.quotes.premium.reader.SheetStream}.
+ */
+public final class PrimitiveRateTable {
+
+    private final String source;
+    private final long[] keys;
+    private final double[] values;
+
+    private PrimitiveRateTable(final String source, final long[] keys, final double[] values) {
+        this.source = source;
+        this.keys = keys;
+        this.values = values;
+    }
+
+    public String getSource() {
+        return this.source;
+    }
+
+    public int size() {
+        return this.keys.length;
+    }
+
+    /**
+     * Rate filed for the key, NaN when there is none.
+     */
+    public double get(final long key) {
+        final int index = Arrays.binarySearch(this.keys, key);
+        return 0 > index ? Double.NaN : this.values[index];
+    }
+
+    public boolean contains(final long key) {
+        return 0 <= Arrays.binarySearch(this.keys, key);
+    }
+
+    public static Builder builder(final String source) {
+        return new Builder(source);
+    }
+
+    public static final class Builder {
+
+        private final String source;
+        private long[] keys = new long[1024];
+        private double[] values = new double[1024];
+        private int size;
+        private boolean sorted = true;
+
+        private Builder(final String source) {
+            this.source = source;
+        }
+
+        public Builder put(final long key, final double value) {
+            if (this.size == this.keys.length) {
+                this.keys = Arrays.copyOf(this.keys, this.size * 2);
+                this.values = Arrays.copyOf(this.values, this.size * 2);
+            }
+            if (0 < this.size && key <= this.keys[this.size - 1]) {
+                this.sorted = false;
+            }
+            this.keys[this.size] = key;
+            this.values[this.size] = value;
+            this.size++;
+            return this;
+        }
+
+        /**
+         * @throws IllegalArgumentException when a key was put twice
+         */
+        public PrimitiveRateTable build() {
+            if (this.sorted) {
+                return new PrimitiveRateTable(this.source, Arrays.copyOf(this.keys, this.size), Arrays.copyOf(this.values, this.size));
+            }
+            final long[] keys = Arrays.copyOf(this.keys, this.size);
+            Arrays.sort(keys);
+            for (int i = 1; i < keys.length; i++) {
+                if (keys[i] == keys[i - 1]) {
+                    throw new IllegalArgumentException("rate table " + this.source + " lists key " + keys[i] + " twice");
+                }
+            }
+            final double[] values = new double[this.size];
+            for (int i = 0; i < this.size; i++) {
+                values[Arrays.binarySearch(keys, this.keys[i])] = this.values[i];
+            }
+            return new PrimitiveRateTable(this.source, keys, values);
+        }
+    }
+}
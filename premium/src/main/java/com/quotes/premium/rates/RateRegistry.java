@@ -0,0 +1,210 @@
+package com.quotes.premium.rates;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quotes.premium.config.AnnualCheckUpConfig;
+import com.quotes.premium.config.PedWaitingConfig;
+import com.quotes.premium.config.VoluntaryDeductible;
+import com.quotes.premium.jfr.RateTableLoadEvent;
+import com.quotes.premium.reader.ExcelReader;
+import com.quotes.premium.reader.FutureReadyConf;
+import com.quotes.premium.reader.HospitalCash;
+import com.quotes.premium.reader.SpecificDiseaseConf;
+import com.quotes.premium.reader.WorkbookResource;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps every filed rate version in memory. The base version is built from application.properties and the
+ * bundled workbooks, each entry of rate.versions is derived from the version before it and only replaces
+ * the tables it lists:
+ * <pre>
+ * rate.versions=[{"id":"2025-04","effectiveFrom":"2025-04-01","properties":{"zonal.discount.mapping":"1:0,2:0.15,3:0.28"},
+ *                 "workbooks":{"parent_ss_premium.xlsx":"file:/opt/rates/2025-04/parent_ss_premium.xlsx"}}]
+ * </pre>
+ */
+@Component
+@Log4j2
+public class RateRegistry {
+
+    public static final String BASE_VERSION = "base";
+    static final String SCALAR_KEY = "value";
+
+    public static final List<String> MAPPINGS = List.of("infinite.care.mapping", "power.booster.mapping", "cibil.discount.mapping",
+            "wellness.discount.mapping", "zonal.discount.mapping", "room.rent.discount.mapping", "women.care.expense.mapping",
+            "long.term.discount.mapping", "policy.type.discount.mapping", "compassionate.visit.mapping",
+            "international.second.opinion.mapping", "high.end.diagnostic.mapping");
+    public static final List<String> SCALARS = List.of("consumable.cover", "bonus.maximizer", "early.renewal.discount",
+            "health.questionnaire", "medical.equipment.cover", "sublimit.moderation", "preferred.hospital.network", "nri.discount");
+    public static final List<String> DECISIONS = List.of("maternity.amount.decision", "maternity.newborn.decision",
+            "instant.cover.decision", "pa.cover.rate.decision", "pa.cover.share.decision");
+
+    @FunctionalInterface
+    private interface WorkbookParser {
+        Map<String, Double> parse(Path file) throws IOException;
+    }
+
+    @Autowired
+    private Environment environment;
+    @Autowired
+    private ResourceLoader resourceLoader;
+    @Autowired
+    private ExcelReader excelReader;
+
+    @Value("${rate.versions:[]}")
+    private String versionDefinitions;
+
+    private final Map<String, WorkbookParser> workbooks = new LinkedHashMap<>();
+    private final Map<String, RateVersion> byId = new HashMap<>();
+    private LocalDate[] effectiveFrom;
+    private RateVersion[] byDate;
+
+    @PostConstruct
+    public void load() throws IOException {
+        this.workbooks.put("parent_ss_premium.xlsx", this.excelReader::readPremium);
+        this.workbooks.put("child_ss_premium.xlsx", this.excelReader::readPremium);
+        this.workbooks.put("AnnualCheckUp.xlsx", AnnualCheckUpConfig::fetchAnnualCheckUp);
+        this.workbooks.put("ReductionOnPED.xlsx", PedWaitingConfig::fetchReductionOfPEDWaiting);
+        this.workbooks.put("VoluntaryDeductible.xlsx", VoluntaryDeductible::fetchVoluntaryDeductibles);
+        this.workbooks.put("future_ready_conf.xlsx", FutureReadyConf::futureReadyConf);
+        this.workbooks.put("specific_disease_conf.xlsx", SpecificDiseaseConf::specificDiseaseConf);
+        this.workbooks.put("hospital_cash_individual.xlsx", HospitalCash::map);
+        this.workbooks.put("hospital_cash_floater.xlsx", HospitalCash::map);
+
+        final Map<String, RateTable> tables = new HashMap<>();
+        for (final String workbook : this.workbooks.keySet()) {
+            tables.put(workbook, this.workbook(workbook, "classpath:" + workbook));
+        }
+        for (final String mapping : RateRegistry.MAPPINGS) {
+            tables.put(mapping, RateTable.ofMapping(mapping, this.environment.getRequiredProperty(mapping)));
+        }
+        for (final String scalar : RateRegistry.SCALARS) {
+            tables.put(scalar, RateRegistry.scalar(scalar, this.environment.getRequiredProperty(scalar)));
+        }
+        final Map<String, DecisionTable> decisions = new HashMap<>();
+        for (final String decision : RateRegistry.DECISIONS) {
+            decisions.put(decision, DecisionTable.compile(decision, this.environment.getRequiredProperty(decision)));
+        }
+
+        final List<RateVersion> versions = new ArrayList<>();
+        RateVersion version = new RateVersion(RateRegistry.BASE_VERSION, LocalDate.MIN, tables, decisions);
+        versions.add(version);
+
+        final List<RateVersionDefinition> definitions = new ObjectMapper().readValue(this.versionDefinitions, new TypeReference<List<RateVersionDefinition>>() {});
+        definitions.sort(Comparator.comparing(definition -> LocalDate.parse(definition.getEffectiveFrom())));
+        for (final RateVersionDefinition definition : definitions) {
+            final Map<String, RateTable> replaced = new HashMap<>();
+            final Map<String, DecisionTable> replacedDecisions = new HashMap<>();
+            this.replace(definition, replaced, replacedDecisions);
+            version = version.derive(definition.getId(), LocalDate.parse(definition.getEffectiveFrom()), replaced, replacedDecisions);
+            versions.add(version);
+            RateRegistry.log.info("rate version {} effective from {} replaces {}", definition.getId(), definition.getEffectiveFrom(),
+                    definition.getProperties().size() + definition.getWorkbooks().size());
+        }
+
+        this.effectiveFrom = new LocalDate[versions.size()];
+        this.byDate = new RateVersion[versions.size()];
+        for (int i = 0; i < versions.size(); i++) {
+            final RateVersion rateVersion = versions.get(i);
+            if (0 < i && !rateVersion.getEffectiveFrom().isAfter(this.effectiveFrom[i - 1])) {
+                throw new IllegalStateException("rate versions " + this.byDate[i - 1].getId() + " and " + rateVersion.getId() + " share an effective date");
+            }
+            if (null != this.byId.put(rateVersion.getId(), rateVersion)) {
+                throw new IllegalStateException("rate version " + rateVersion.getId() + " is defined twice");
+            }
+            this.effectiveFrom[i] = rateVersion.getEffectiveFrom();
+            this.byDate[i] = rateVersion;
+        }
+    }
+
+    /**
+     * Version in force on the quote date, today when the request carries none.
+     */
+    public RateVersion resolve(final LocalDate quoteDate) {
+        final LocalDate date = null == quoteDate ? LocalDate.now() : quoteDate;
+        int index = Arrays.binarySearch(this.effectiveFrom, date);
+        if (0 > index) {
+            index = -index - 2; // insertion point - 1, the latest version effective before the date
+        }
+        return this.byDate[index];
+    }
+
+    public RateVersion get(final String id) {
+        final RateVersion rateVersion = this.byId.get(id);
+        if (null == rateVersion) {
+            throw new IllegalArgumentException("unknown rate version " + id);
+        }
+        return rateVersion;
+    }
+
+    public List<RateVersion> versions() {
+        return List.of(this.byDate);
+    }
+
+    /**
+     * Version a definition would file on top of another, built next to the registered ones and never resolved for a
+     * quote date. Its effective date is not looked at.
+     */
+    public RateVersion candidate(final RateVersionDefinition definition, final RateVersion from) throws IOException {
+        final Map<String, RateTable> replaced = new HashMap<>();
+        final Map<String, DecisionTable> replacedDecisions = new HashMap<>();
+        this.replace(definition, replaced, replacedDecisions);
+        return from.derive(null == definition.getId() ? "candidate" : definition.getId(), from.getEffectiveFrom(), replaced, replacedDecisions);
+    }
+
+    private void replace(final RateVersionDefinition definition, final Map<String, RateTable> replaced,
+                         final Map<String, DecisionTable> replacedDecisions) throws IOException {
+        for (final Map.Entry<String, String> property : definition.getProperties().entrySet()) {
+            final String name = property.getKey();
+            if (RateRegistry.MAPPINGS.contains(name)) {
+                replaced.put(name, RateTable.ofMapping(name, property.getValue()));
+            } else if (RateRegistry.SCALARS.contains(name)) {
+                replaced.put(name, RateRegistry.scalar(name, property.getValue()));
+            } else if (RateRegistry.DECISIONS.contains(name)) {
+                replacedDecisions.put(name, DecisionTable.compile(name, property.getValue()));
+            } else {
+                throw new IllegalArgumentException("rate version " + definition.getId() + " replaces unknown property " + name);
+            }
+        }
+        for (final Map.Entry<String, String> workbook : definition.getWorkbooks().entrySet()) {
+            if (!this.workbooks.containsKey(workbook.getKey())) {
+                throw new IllegalArgumentException("rate version " + definition.getId() + " replaces unknown workbook " + workbook.getKey());
+            }
+            replaced.put(workbook.getKey(), this.workbook(workbook.getKey(), workbook.getValue()));
+        }
+    }
+
+    private RateTable workbook(final String name, final String location) throws IOException {
+        final RateTableLoadEvent event = new RateTableLoadEvent();
+        event.begin();
+        RateTable table = null;
+        final Resource resource = this.resourceLoader.getResource(location);
+        try {
+            table = new RateTable(location, WorkbookResource.read(resource, this.workbooks.get(name)::parse));
+            return table;
+        } finally {
+            event.finish(name, location, null == table ? -1 : table.entries().size());
+        }
+    }
+
+    private static RateTable scalar(final String name, final String value) {
+        return new RateTable(name, Map.of(RateRegistry.SCALAR_KEY, Double.valueOf(value)));
+    }
+}
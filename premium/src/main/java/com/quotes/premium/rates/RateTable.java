@@ -0,0 +1,70 @@
+package com.quotes.premium.rates;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable rate table, either one workbook or one mapping property.
+ * Entries iterate in key order, which the age band lookups rely on.
+ */
+public final class RateTable {
+
+    private final String source;
+    private final NavigableMap<String, Double> values;
+    private final NavigableMap<Double, Double> numeric; // same entries keyed by number, null unless every key is numeric
+
+    public RateTable(final String source, final Map<String, Double> values) {
+        this.source = source;
+        this.values = Collections.unmodifiableNavigableMap(new TreeMap<>(values));
+        this.numeric = RateTable.numeric(values);
+    }
+
+    /**
+     * Parses a mapping property of the form key:value,key:value.
+     */
+    public static RateTable ofMapping(final String source, final String mapping) {
+        final Map<String, Double> values = new TreeMap<>();
+        for (final String item : mapping.split(",")) {
+            final String[] each = item.split(":");
+            values.put(each[0], Double.valueOf(each[1]));
+        }
+        return new RateTable(source, values);
+    }
+
+    public String getSource() {
+        return this.source;
+    }
+
+    public Double get(final String key) {
+        return this.values.get(key);
+    }
+
+    /**
+     * Value of the greatest numeric key lower than or equal to the given one, 0 below the first key.
+     */
+    public double floor(final double key) {
+        if (null == this.numeric) {
+            throw new IllegalStateException("rate table " + this.source + " is not keyed by numbers");
+        }
+        final Map.Entry<Double, Double> entry = this.numeric.floorEntry(key);
+        return null != entry ? entry.getValue() : 0.0d;
+    }
+
+    public Map<String, Double> entries() {
+        return this.values;
+    }
+
+    private static NavigableMap<Double, Double> numeric(final Map<String, Double> values) {
+        final NavigableMap<Double, Double> numeric = new TreeMap<>();
+        for (final Map.Entry<String, Double> entry : values.entrySet()) {
+            try {
+                numeric.put(Double.valueOf(entry.getKey()), entry.getValue());
+            } catch (final NumberFormatException e) {
+                return null;
+            }
+        }
+        return Collections.unmodifiableNavigableMap(numeric);
+    }
+}
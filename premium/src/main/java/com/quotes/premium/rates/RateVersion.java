@@ -0,0 +1,112 @@
+package com.quotes.premium.rates;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Every rate table in force from a filing date on. A version derived from an earlier one
+ * references the earlier tables it does not replace, so memory only grows with what changed.
+ * <p>
+ * The version pricing a quote is bound to the pricing thread for the length of the quote.
+ */
+public final class RateVersion {
+
+    private static final ThreadLocal<RateVersion> CURRENT = new ThreadLocal<>();
+
+    private final String id;
+    private final LocalDate effectiveFrom;
+    private final Map<String, RateTable> tables;
+    private final Map<String, DecisionTable> decisions;
+
+    public RateVersion(final String id, final LocalDate effectiveFrom, final Map<String, RateTable> tables, final Map<String, DecisionTable> decisions) {
+        this.id = id;
+        this.effectiveFrom = effectiveFrom;
+        this.tables = Map.copyOf(tables);
+        this.decisions = Map.copyOf(decisions);
+    }
+
+    /**
+     * New version with the given tables replaced and every other table shared with this one.
+     */
+    public RateVersion derive(final String id, final LocalDate effectiveFrom, final Map<String, RateTable> replaced,
+                              final Map<String, DecisionTable> replacedDecisions) {
+        for (final String name : replaced.keySet()) {
+            if (!this.tables.containsKey(name)) {
+                throw new IllegalArgumentException("rate version " + id + " replaces unknown rate table " + name);
+            }
+        }
+        for (final String name : replacedDecisions.keySet()) {
+            if (!this.decisions.containsKey(name)) {
+                throw new IllegalArgumentException("rate version " + id + " replaces unknown decision table " + name);
+            }
+        }
+        final Map<String, RateTable> tables = new HashMap<>(this.tables);
+        tables.putAll(replaced);
+        final Map<String, DecisionTable> decisions = new HashMap<>(this.decisions);
+        decisions.putAll(replacedDecisions);
+        return new RateVersion(id, effectiveFrom, tables, decisions);
+    }
+
+    public String getId() {
+        return this.id;
+    }
+
+    public LocalDate getEffectiveFrom() {
+        return this.effectiveFrom;
+    }
+
+    public RateTable table(final String name) {
+        final RateTable table = this.tables.get(name);
+        if (null == table) {
+            throw new IllegalArgumentException("rate version " + this.id + " has no rate table " + name);
+        }
+        return table;
+    }
+
+    public DecisionTable decision(final String name) {
+        final DecisionTable decision = this.decisions.get(name);
+        if (null == decision) {
+            throw new IllegalArgumentException("rate version " + this.id + " has no decision table " + name);
+        }
+        return decision;
+    }
+
+    /**
+     * Single valued rate property, stored as a one entry table.
+     */
+    public double rate(final String name) {
+        return this.table(name).get(RateRegistry.SCALAR_KEY);
+    }
+
+    public Map<String, RateTable> getTables() {
+        return this.tables;
+    }
+
+    public Map<String, DecisionTable> getDecisions() {
+        return this.decisions;
+    }
+
+    /**
+     * Binds a version to the calling thread.
+     *
+     * @return the version bound before, to be restored once the quote is priced
+     */
+    public static RateVersion bind(final RateVersion rateVersion) {
+        final RateVersion previous = RateVersion.CURRENT.get();
+        if (null == rateVersion) {
+            RateVersion.CURRENT.remove();
+        } else {
+            RateVersion.CURRENT.set(rateVersion);
+        }
+        return previous;
+    }
+
+    public static RateVersion current() {
+        final RateVersion rateVersion = RateVersion.CURRENT.get();
+        if (null == rateVersion) {
+            throw new IllegalStateException("no rate version bound to the pricing thread");
+        }
+        return rateVersion;
+    }
+}
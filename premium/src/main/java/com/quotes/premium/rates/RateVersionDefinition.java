@@ -0,0 +1,20 @@
+package com.quotes.premium.rates;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One entry of rate.versions: the properties and workbooks a filing replaces.
+ * Workbook locations are Spring resource locations, e.g. file:/opt/rates/2025-04/parent_ss_premium.xlsx.
+ */
+@Getter
+@Setter
+public class RateVersionDefinition {
+    private String id;
+    private String effectiveFrom;
+    private Map<String, String> properties = new HashMap<>();
+    private Map<String, String> workbooks = new HashMap<>();
+}
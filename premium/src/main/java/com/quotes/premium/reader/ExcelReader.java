@@ -1,69 +1,47 @@
 package com.quotes.premium.reader;
 
-import org.apache.poi.ss.usermodel.*;
 import org.springframework.stereotype.Component;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
 
 @Component
 public class ExcelReader {
 
-    public void preparePremium(Map<String,Double> valueMap , String filePath){
-        try (InputStream file = ExcelReader.class.getClassLoader().getResourceAsStream(filePath) ;
-            Workbook workbook = WorkbookFactory.create(file)) {
-            Map<Integer, String> headerMap = new HashMap<>();
-            Sheet sheet = workbook.getSheetAt(0);
-            int row_num = 0;
-            // Iterate through rows
-            for (Row row : sheet) {
-                if (row_num == 0) {
-                    createHeaderMap(row, headerMap);
-                    row_num++;
-                    continue;
-                }
-                createValueMap(row, valueMap, headerMap);
-            }
-        }
-            catch (IOException e) {
-                e.printStackTrace();
-            }
+    public Map<String, Double> readPremium(final Path file) throws IOException {
+        final Map<String, Double> valueMap = new HashMap<>();
+        final Map<Integer, String> headerMap = new HashMap<>();
+        createHeaderMap(headerMap);
+        SheetStream.readTable(file, (header, row) -> createValueMap(row, valueMap, headerMap));
+        return valueMap;
     }
 
-    private static void createValueMap(Row row, Map<String, Double> valueMap, Map<Integer, String> headerMap) {
+    private static void createValueMap(SheetRow row, Map<String, Double> valueMap, Map<Integer, String> headerMap) {
 
-        Iterator<Cell> cellIterator = row.cellIterator();
         String age = null;
         String key = null;
-        while (cellIterator.hasNext()) {
-            Cell cell = cellIterator.next();
-            if(cell.getColumnIndex() == 0){
-                switch (cell.getCellType()) {
-                    case STRING:{
-                        age = cell.getStringCellValue();
-                        break;
-                    }
-
-                    case NUMERIC:{
-                        age = String.valueOf((long)cell.getNumericCellValue());
-                        break;
-                    }
+        for (int column = 0; column < row.size(); column++) {
+            if (!row.has(column)) {
+                continue;
+            }
+            if(column == 0){
+                if (row.isText(column)) {
+                    age = row.text(column);
+                } else if (row.isNumber(column)) {
+                    age = String.valueOf((long)row.number(column));
                 }
                 continue;
             }
 
 
-            key = age + "#" +headerMap.get(cell.getColumnIndex());
-            valueMap.put(key, cell.getNumericCellValue());
+            key = age + "#" +headerMap.get(column);
+            valueMap.put(key, row.number(column));
         }
     }
 
-    private static void createHeaderMap(Row row, Map<Integer, String> headerMap) {
+    private static void createHeaderMap(Map<Integer, String> headerMap) {
             headerMap.put(1, "500000");
             headerMap.put(2, "750000");
             headerMap.put(3, "1000000");
@@ -75,4 +53,3 @@ public class ExcelReader {
             headerMap.put(9, "UNLIMITED");
     }
 }
-
@@ -1,48 +1,32 @@
 package com.quotes.premium.reader;
 
-import org.apache.poi.ss.usermodel.*;
+import com.quotes.premium.rates.RateTable;
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.Iterator;
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.TreeMap;
 
 public class FutureReadyConf {
-    static final Map<String, Double> map = new TreeMap<>();
 
-    public static void futureReadyConf() {
-        if(!FutureReadyConf.map.isEmpty())
-            return ;
-
-        final String filename = "future_ready_conf.xlsx";
-        try (final InputStream file = FutureReadyConf.class.getClassLoader().getResourceAsStream(filename)) {
-            assert null != file;
-            try (final Workbook workbook = WorkbookFactory.create(file)) {
-                 final Sheet sheet = workbook.getSheetAt(0);
-                for (final Row row : sheet) {
-                    final Iterator<Cell> cellIterator = row.cellIterator();
-                    if (cellIterator.hasNext()) {
-                        final Cell keyCell = cellIterator.next(); // First cell
-                        if (cellIterator.hasNext()) {
-                            final Cell valueCell = cellIterator.next(); // Second cell
-                            FutureReadyConf.map.put(keyCell.toString(), valueCell.getNumericCellValue());
-                        }
-                    }
-                }
+    public static Map<String, Double> futureReadyConf(final Path file) throws IOException {
+        final Map<String, Double> map = new TreeMap<>();
+        SheetStream.read(file, (rowIndex, row) -> {
+            final int keyColumn = row.next(0); // First cell
+            final int valueColumn = row.next(keyColumn + 1); // Second cell
+            if (valueColumn < row.size()) {
+                map.put(row.toString(keyColumn), row.number(valueColumn));
             }
-        } catch (final IOException e) {
-            throw new RuntimeException(e);
-        }
+        });
+        return map;
     }
 
-    public static Double get(final int age) {
-        FutureReadyConf.futureReadyConf();
-        final String ageBand = FutureReadyConf.findAgeRange(age);
-        return FutureReadyConf.map.get(ageBand);
+    public static Double get(final RateTable map, final int age) {
+        final String ageBand = FutureReadyConf.findAgeRange(map.entries(), age);
+        return map.get(ageBand);
     }
 
-    public static String findAgeRange(final int age) {
-        for (final Map.Entry<String, Double> entry : FutureReadyConf.map.entrySet()) {
+    public static String findAgeRange(final Map<String, Double> map, final int age) {
+        for (final Map.Entry<String, Double> entry : map.entrySet()) {
             final String key = entry.getKey();
             if (key.startsWith("GT")) {
                 // Handle "GT" case
@@ -66,9 +50,4 @@ public class FutureReadyConf {
         }
         return null ;
     }
-
-    public static void main(final String[] args) {
-        FutureReadyConf.futureReadyConf();
-        System.out.println(FutureReadyConf.map.values());
-    }
 }
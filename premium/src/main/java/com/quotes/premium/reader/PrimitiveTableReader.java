@@ -0,0 +1,25 @@
+package com.quotes.premium.reader;
+
+import com.quotes.premium.rates.PrimitiveRateTable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Streams a two column table, e.g. pincode to zone, below a header row straight into a {@link PrimitiveRateTable}.
+ * Key cells may be numbers or digits stored as text.
+ */
+public class PrimitiveTableReader {
+
+    public static PrimitiveRateTable read(final Path file, final int keyColumn, final int valueColumn) throws IOException {
+        final PrimitiveRateTable.Builder builder = PrimitiveRateTable.builder(file.toString());
+        SheetStream.read(file, (rowIndex, row) -> {
+            if (0 == rowIndex || !row.has(keyColumn) || !row.has(valueColumn)) {
+                return;
+            }
+            final long key = row.isNumber(keyColumn) ? (long) row.number(keyColumn) : Long.parseLong(row.text(keyColumn).trim());
+            builder.put(key, row.number(valueColumn));
+        });
+        return builder.build();
+    }
+}
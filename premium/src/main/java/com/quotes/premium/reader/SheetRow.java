@@ -0,0 +1,124 @@
+package com.quotes.premium.reader;
+
+import java.util.Arrays;
+
+/**
+ * Cells of the row {@link SheetStream} is positioned on. The stream reuses one instance for every row, a handler
+ * keeping a row beyond its callback has to {@link #copy()} it.
+ */
+public final class SheetRow {
+
+    enum Kind { NONE, BLANK, NUMBER, TEXT, BOOLEAN, ERROR }
+
+    private Kind[] kinds = new Kind[16];
+    private String[] values = new String[16];
+    private int size;
+
+    SheetRow() {
+        Arrays.fill(this.kinds, Kind.NONE);
+    }
+
+    /**
+     * One past the last column holding a cell, the equivalent of Row.getLastCellNum().
+     */
+    public int size() {
+        return this.size;
+    }
+
+    public boolean has(final int column) {
+        return column < this.size && Kind.NONE != this.kinds[column];
+    }
+
+    /**
+     * First column from the given one on holding a cell, {@link #size()} when there is none.
+     */
+    public int next(final int fromColumn) {
+        int column = fromColumn;
+        while (column < this.size && Kind.NONE == this.kinds[column]) {
+            column++;
+        }
+        return Math.min(column, this.size);
+    }
+
+    public boolean isNumber(final int column) {
+        return this.has(column) && Kind.NUMBER == this.kinds[column];
+    }
+
+    public boolean isText(final int column) {
+        return this.has(column) && Kind.TEXT == this.kinds[column];
+    }
+
+    /**
+     * Numeric value of the cell, 0 for a blank cell as Cell.getNumericCellValue() returns.
+     */
+    public double number(final int column) {
+        switch (this.kind(column)) {
+            case NUMBER:
+                return Double.parseDouble(this.values[column]);
+            case BLANK:
+                return 0.0d;
+            default:
+                throw new IllegalStateException("cell " + column + " holds a " + this.kinds[column] + ", not a number");
+        }
+    }
+
+    /**
+     * Text of the cell, "" for a blank cell as Cell.getStringCellValue() returns.
+     */
+    public String text(final int column) {
+        switch (this.kind(column)) {
+            case TEXT:
+                return this.values[column];
+            case BLANK:
+                return "";
+            default:
+                throw new IllegalStateException("cell " + column + " holds a " + this.kinds[column] + ", not text");
+        }
+    }
+
+    /**
+     * Cell rendered the way Cell.toString() renders it, date formats aside.
+     */
+    public String toString(final int column) {
+        return switch (this.kind(column)) {
+            case NUMBER -> String.valueOf(this.number(column));
+            case BOOLEAN -> "1".equals(this.values[column]) ? "TRUE" : "FALSE";
+            case BLANK -> "";
+            default -> this.values[column];
+        };
+    }
+
+    public SheetRow copy() {
+        final SheetRow copy = new SheetRow();
+        copy.kinds = this.kinds.clone();
+        copy.values = this.values.clone();
+        copy.size = this.size;
+        return copy;
+    }
+
+    void clear() {
+        Arrays.fill(this.kinds, 0, this.size, Kind.NONE);
+        Arrays.fill(this.values, 0, this.size, null);
+        this.size = 0;
+    }
+
+    void set(final int column, final Kind kind, final String value) {
+        if (column >= this.kinds.length) {
+            final int length = Math.max(column + 1, this.kinds.length * 2);
+            final int previous = this.kinds.length;
+            this.kinds = Arrays.copyOf(this.kinds, length);
+            this.values = Arrays.copyOf(this.values, length);
+            Arrays.fill(this.kinds, previous, length, Kind.NONE);
+        }
+        this.kinds[column] = kind;
+        this.values[column] = value;
+        this.size = Math.max(this.size, column + 1);
+    }
+
+    private Kind kind(final int column) {
+        if (!this.has(column)) {
+            throw new IllegalStateException("no cell at column " + column);
+        }
+        return this.kinds[column];
+    }
+}
@@ -0,0 +1,195 @@
+package com.quotes.premium.reader;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * Reads the first sheet of an xlsx workbook row by row off the SAX events of the sheet part, without building the
+ * workbook object model. Only the shared strings and the row being read are held in memory. Workbooks are only
+ * opened from a {@link Path}, POI would unzip an {@link InputStream} into memory first, see {@link WorkbookResource}
+ * for resources that are not files.
+ */
+public final class SheetStream {
+
+    @FunctionalInterface
+    public interface RowHandler {
+        /**
+         * @param rowIndex zero based index of the row, as Row.getRowNum()
+         * @param row      the row's cells, reused for the next row once the handler returns
+         */
+        void row(int rowIndex, SheetRow row) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface TableHandler {
+        /**
+         * @param header the first row of the sheet
+         * @param row    a row below it, reused for the next row once the handler returns
+         */
+        void row(SheetRow header, SheetRow row) throws IOException;
+    }
+
+    private SheetStream() {
+    }
+
+    /**
+     * Reads a sheet whose first row labels the columns, handing every following row over together with that header.
+     */
+    public static void readTable(final Path file, final TableHandler handler) throws IOException {
+        final SheetRow[] header = new SheetRow[1];
+        SheetStream.read(file, (rowIndex, row) -> {
+            if (0 == rowIndex) {
+                header[0] = row.copy();
+            } else if (null != header[0]) {
+                handler.row(header[0], row);
+            }
+        });
+    }
+
+    public static void read(final Path file, final RowHandler handler) throws IOException {
+        try (final OPCPackage workbook = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            SheetStream.read(workbook, handler);
+        } catch (final OpenXML4JException e) {
+            throw new IOException(file + " is not an xlsx workbook", e);
+        }
+    }
+
+    private static void read(final OPCPackage workbook, final RowHandler handler) throws IOException, OpenXML4JException {
+        try {
+            final XSSFReader reader = new XSSFReader(workbook);
+            final ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(workbook);
+            final Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                throw new IOException("workbook has no sheet");
+            }
+            try (final InputStream sheet = sheets.next()) {
+                final XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new SheetHandler(strings, handler));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (final SAXException e) {
+            if (e.getException() instanceof IOException cause) {
+                throw cause;
+            }
+            throw new IOException("malformed sheet", e);
+        } catch (final ParserConfigurationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Column index of a cell reference like AB12.
+     */
+    static int column(final String reference) {
+        int column = 0;
+        for (int i = 0; i < reference.length(); i++) {
+            final char c = reference.charAt(i);
+            if ('A' > c || 'Z' < c) {
+                break;
+            }
+            column = column * 26 + c - 'A' + 1;
+        }
+        return column - 1;
+    }
+
+    private static final class SheetHandler extends DefaultHandler {
+
+        private final ReadOnlySharedStringsTable strings;
+        private final RowHandler handler;
+        private final SheetRow row = new SheetRow();
+        private final StringBuilder value = new StringBuilder();
+
+        private int rowIndex = -1;
+        private int column = -1;
+        private String type;
+        private boolean collecting;
+        private boolean hasValue;
+
+        SheetHandler(final ReadOnlySharedStringsTable strings, final RowHandler handler) {
+            this.strings = strings;
+            this.handler = handler;
+        }
+
+        @Override
+        public void startElement(final String uri, final String localName, final String qName, final Attributes attributes) {
+            switch (localName) {
+                case "row" -> {
+                    final String reference = attributes.getValue("r");
+                    this.rowIndex = null == reference ? this.rowIndex + 1 : Integer.parseInt(reference) - 1;
+                    this.column = -1;
+                    this.row.clear();
+                }
+                case "c" -> {
+                    final String reference = attributes.getValue("r");
+                    this.column = null == reference ? this.column + 1 : SheetStream.column(reference);
+                    this.type = attributes.getValue("t");
+                    this.value.setLength(0);
+                    this.hasValue = false;
+                }
+                case "v", "t" -> {
+                    this.collecting = true;
+                    this.hasValue = true;
+                }
+                default -> {
+                }
+            }
+        }
+
+        @Override
+        public void characters(final char[] ch, final int start, final int length) {
+            if (this.collecting) {
+                this.value.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(final String uri, final String localName, final String qName) throws SAXException {
+            switch (localName) {
+                case "v", "t" -> this.collecting = false;
+                case "c" -> this.cell();
+                case "row" -> {
+                    try {
+                        this.handler.row(this.rowIndex, this.row);
+                    } catch (final IOException e) {
+                        throw new SAXException(e);
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        private void cell() {
+            if (!this.hasValue) {
+                this.row.set(this.column, SheetRow.Kind.BLANK, null);
+                return;
+            }
+            final String raw = this.value.toString();
+            if (null == this.type || "n".equals(this.type)) {
+                this.row.set(this.column, SheetRow.Kind.NUMBER, raw);
+                return;
+            }
+            switch (this.type) {
+                case "s" -> this.row.set(this.column, SheetRow.Kind.TEXT, this.strings.getItemAt(Integer.parseInt(raw.trim())).getString());
+                case "inlineStr", "str" -> this.row.set(this.column, SheetRow.Kind.TEXT, raw);
+                case "b" -> this.row.set(this.column, SheetRow.Kind.BOOLEAN, raw);
+                default -> this.row.set(this.column, SheetRow.Kind.ERROR, raw);
+            }
+        }
+    }
+}
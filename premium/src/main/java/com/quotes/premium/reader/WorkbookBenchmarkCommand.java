@@ -0,0 +1,59 @@
+package com.quotes.premium.reader;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Workbook load benchmark, the application exits once it is reported. Generates a pincode workbook of the given
+ * number of rows unless workbook.benchmark.file names an existing one:
+ * <pre>
+ * java -Xmx2g -jar premium.jar --spring.main.web-application-type=none --workbook.benchmark=300000
+ * java -Xmx2g -jar premium.jar --spring.main.web-application-type=none --workbook.benchmark=300000 --workbook.benchmark.paths=dom
+ * </pre>
+ */
+@Component
+@Log4j2
+public class WorkbookBenchmarkCommand implements ApplicationRunner {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Value("${workbook.benchmark.paths:dom,stream,spooled,primitive}")
+    private String paths;
+    @Value("${workbook.benchmark.file:}")
+    private String file;
+
+    @Override
+    public void run(final ApplicationArguments args) throws Exception {
+        if (!args.containsOption("workbook.benchmark")) {
+            return;
+        }
+        final int rows = Integer.parseInt(args.getOptionValues("workbook.benchmark").get(0));
+        final Path workbook = this.file.isBlank() ? Files.createTempFile("pincode-zones", ".xlsx") : Path.of(this.file);
+        if (this.file.isBlank() || !Files.exists(workbook)) {
+            WorkbookLoadBenchmark.generate(workbook, rows, 42L);
+            WorkbookBenchmarkCommand.log.info("generated {} rows into {} ({} KB)", rows, workbook, Files.size(workbook) / 1024);
+        }
+
+        final List<WorkbookLoadBenchmark.Result> results = new ArrayList<>();
+        for (final String path : this.paths.split(",")) {
+            results.add(WorkbookLoadBenchmark.run(path.trim(), workbook));
+        }
+        WorkbookLoadBenchmark.report(results, System.out);
+        if (this.file.isBlank()) {
+            Files.deleteIfExists(workbook);
+        }
+        System.exit(SpringApplication.exit(this.applicationContext, () -> 0));
+    }
+}
@@ -0,0 +1,145 @@
+package com.quotes.premium.reader;
+
+import lombok.extern.log4j.Log4j2;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+
+/**
+ * Load time and heap of the ways a large keyed workbook can be read: the workbook object model every reader used
+ * (dom), the event model into the same map (stream), the same after spooling the workbook to a temporary file as a
+ * workbook packed into the application jar is (spooled) and the event model into a primitive table (primitive). All
+ * but dom go through {@link WorkbookResource}, the entry point the rate registry loads its workbooks through.
+ * <p>
+ * Peak heap is the highest heap use seen by the memory pools while loading, over what was in use before, so it also
+ * counts garbage the collector had not reclaimed yet. Allocated is what the loading thread allocated in total.
+ * Run each path in its own JVM for numbers that are not disturbed by the paths before it.
+ */
+@Log4j2
+public class WorkbookLoadBenchmark {
+
+    public static final List<String> PATHS = List.of("dom", "stream", "spooled", "primitive");
+
+    public record Result(String path, int entries, long millis, long peakHeapBytes, long allocatedBytes) {
+    }
+
+    /**
+     * Writes a pincode to zone workbook in the layout of the per-pincode zonal tables: pincode, city, zone.
+     */
+    public static void generate(final Path file, final int rows, final long seed) throws IOException {
+        final SplittableRandom random = new SplittableRandom(seed);
+        try (final SXSSFWorkbook workbook = new SXSSFWorkbook(100); final OutputStream out = Files.newOutputStream(file)) {
+            final Sheet sheet = workbook.createSheet("zones");
+            final Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Pincode");
+            header.createCell(1).setCellValue("City");
+            header.createCell(2).setCellValue("Zone");
+            for (int index = 1; index <= rows; index++) {
+                final Row row = sheet.createRow(index);
+                row.createCell(0).setCellValue(100000 + index);
+                row.createCell(1).setCellValue("City " + random.nextInt(2000));
+                row.createCell(2).setCellValue(1 + random.nextInt(3));
+            }
+            workbook.write(out);
+        }
+    }
+
+    public static Result run(final String path, final Path file) throws Exception {
+        return switch (path) {
+            case "dom" -> WorkbookLoadBenchmark.measure(path, () -> WorkbookLoadBenchmark.dom(file).size());
+            case "stream" -> WorkbookLoadBenchmark.measure(path,
+                    () -> WorkbookResource.read(new FileSystemResource(file), WorkbookLoadBenchmark::stream).size());
+            case "spooled" -> WorkbookLoadBenchmark.measure(path,
+                    () -> WorkbookResource.read(new InputStreamResource(Files.newInputStream(file)), WorkbookLoadBenchmark::stream).size());
+            case "primitive" -> WorkbookLoadBenchmark.measure(path,
+                    () -> WorkbookResource.read(new FileSystemResource(file), workbook -> PrimitiveTableReader.read(workbook, 0, 2)).size());
+            default -> throw new IllegalArgumentException("unknown workbook load path " + path + ", expected one of " + WorkbookLoadBenchmark.PATHS);
+        };
+    }
+
+    public static void report(final List<Result> results, final PrintStream out) {
+        out.printf("%-10s %10s %10s %14s %14s%n", "path", "entries", "load ms", "peak heap MB", "allocated MB");
+        for (final Result result : results) {
+            out.printf("%-10s %10d %10d %14.1f %14.1f%n", result.path(), result.entries(), result.millis(),
+                    result.peakHeapBytes() / 1048576.0d, result.allocatedBytes() / 1048576.0d);
+        }
+    }
+
+    /**
+     * The object model path the readers took before they streamed.
+     */
+    static Map<String, Double> dom(final Path file) throws IOException {
+        final Map<String, Double> map = new HashMap<>();
+        try (final InputStream in = Files.newInputStream(file); final Workbook workbook = WorkbookFactory.create(in)) {
+            for (final Row row : workbook.getSheetAt(0)) {
+                final Cell key = row.getCell(0);
+                final Cell value = row.getCell(2);
+                if (0 == row.getRowNum() || null == key || null == value) {
+                    continue;
+                }
+                map.put(String.valueOf((long) key.getNumericCellValue()), value.getNumericCellValue());
+            }
+        }
+        return map;
+    }
+
+    static Map<String, Double> stream(final Path file) throws IOException {
+        final Map<String, Double> map = new HashMap<>();
+        SheetStream.read(file, (rowIndex, row) -> {
+            if (0 != rowIndex && row.has(0) && row.has(2)) {
+                map.put(String.valueOf((long) row.number(0)), row.number(2));
+            }
+        });
+        return map;
+    }
+
+    private static Result measure(final String path, final Callable<Integer> load) throws Exception {
+        final List<MemoryPoolMXBean> heap = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> MemoryType.HEAP == pool.getType()).toList();
+        System.gc();
+        System.gc();
+        long before = 0L;
+        for (final MemoryPoolMXBean pool : heap) {
+            pool.resetPeakUsage();
+            before += pool.getUsage().getUsed();
+        }
+        final long allocatedBefore = WorkbookLoadBenchmark.allocatedBytes();
+        final long start = System.nanoTime();
+        final int entries = load.call();
+        final long millis = (System.nanoTime() - start) / 1_000_000L;
+        final long allocated = WorkbookLoadBenchmark.allocatedBytes() - allocatedBefore;
+        long peak = 0L;
+        for (final MemoryPoolMXBean pool : heap) {
+            peak += pool.getPeakUsage().getUsed();
+        }
+        WorkbookLoadBenchmark.log.info("{} loaded {} entries in {} ms", path, entries, millis);
+        return new Result(path, entries, millis, Math.max(0L, peak - before), allocated);
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return -1L;
+    }
+}
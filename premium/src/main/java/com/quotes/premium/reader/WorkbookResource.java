@@ -0,0 +1,40 @@
+package com.quotes.premium.reader;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Hands a workbook resource to a reader as a file, so that POI opens the package read only off the zip's central
+ * directory instead of unzipping every part into memory. A resource that is not a file, a workbook packed into the
+ * application jar say, is spooled to a temporary file first and removed once read.
+ */
+public final class WorkbookResource {
+
+    @FunctionalInterface
+    public interface Reader<T> {
+        T read(Path file) throws IOException;
+    }
+
+    private WorkbookResource() {
+    }
+
+    public static <T> T read(final Resource resource, final Reader<T> reader) throws IOException {
+        if (resource.isFile()) {
+            return reader.read(resource.getFile().toPath());
+        }
+        final Path spooled = Files.createTempFile("workbook", ".xlsx");
+        try {
+            try (final InputStream in = resource.getInputStream()) {
+                Files.copy(in, spooled, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return reader.read(spooled);
+        } finally {
+            Files.deleteIfExists(spooled);
+        }
+    }
+}
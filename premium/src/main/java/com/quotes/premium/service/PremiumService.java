@@ -3,12 +3,32 @@ package com.quotes.premium.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quotes.premium.admission.Deadline;
 import com.quotes.premium.config.BasePremiumConfig;
 import com.quotes.premium.config.DynamicConfigurations;
 import com.quotes.premium.config.MandatoryConfiguration;
+import com.quotes.premium.cube.QuoteCube;
 import com.quotes.premium.dto.*;
+import com.quotes.premium.engine.PremiumEngine;
+import com.quotes.premium.exception.DeadlineExceededException;
+import com.quotes.premium.exception.SuperstarException;
+import com.quotes.premium.exception.ValidationException;
+import com.quotes.premium.jfr.QuoteEvent;
+import com.quotes.premium.jfr.StageEvent;
+import com.quotes.premium.engine.PremiumEngines;
 import com.quotes.premium.operation.OperationRegistry;
-import com.quotes.premium.utils.Utils;
+import com.quotes.premium.outlier.SlowQuoteRecorder;
+import com.quotes.premium.outlier.StageTimings;
+import com.quotes.premium.plan.ExecutionPlan;
+import com.quotes.premium.plan.ExecutionPlanner;
+import com.quotes.premium.plan.FeatureActivation;
+import com.quotes.premium.plan.QuoteContext;
+import com.quotes.premium.plan.Stage;
+import com.quotes.premium.plan.StageListener;
+import com.quotes.premium.rates.DecisionTable;
+import com.quotes.premium.rates.RateRegistry;
+import com.quotes.premium.rates.RateVersion;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -16,13 +36,13 @@ import org.springframework.stereotype.Service;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 @Log4j2
-public class PremiumService {
+public class PremiumService implements PremiumEngine {
+
+    public static final String ENGINE_NAME = "reflective";
 
     @Autowired
     private BasePremiumConfig premiumConfig;
@@ -32,106 +52,234 @@ public class PremiumService {
     private DynamicConfigurations dynamicConfigurations;
     @Autowired
     private MandatoryConfiguration mandatoryConfiguration;
-    @Value("${consumable.cover}")
-    private Double consumableCover;
-    @Value("${bonus.maximizer}")
-    private Double bonusMaximizer;
-    @Value("${early.renewal.discount}")
-    private Double earlyRenewalDiscount;
-    @Value("${health.questionnaire}")
-    private Double healthQuestionnaire;
-    @Value("${nri.discount}")
-    private Double nriDiscount;
-    @Value("${medical.equipment.cover}")
-    private Double medicalEquipmentCover;
-    @Value("${sublimit.moderation}")
-    private Double sublimitModeration;
-    @Value("${preferred.hospital.network}")
-    private Double preferredHospitalNetwork;
+    @Autowired
+    private ExecutionPlanner executionPlanner;
+    @Autowired
+    private QuoteCube quoteCube;
+    @Autowired
+    private RateRegistry rateRegistry;
+    @Autowired
+    private PremiumEngines premiumEngines;
+    @Autowired
+    private SlowQuoteRecorder slowQuoteRecorder;
     @Value("${summary.map}")
     private String summary;
+    private Map<String, List<Field>> summaryCovers;
 
     public ApiResponse<PremiumResponse> calculatePremium(final PremiumRequest premiumRequest) {
+        final long start = System.nanoTime();
+        final QuoteEvent event = new QuoteEvent();
+        event.begin();
+        StageTimings.begin();
+        PremiumResponse precomputed = null;
+        ApiResponse<PremiumResponse> apiResponse = null;
+        try {
+            precomputed = this.quoteCube.lookup(premiumRequest, this::accepts);
+            apiResponse = null != precomputed ? ApiResponse.buildResponse(precomputed, "success", true) : this.calculateLive(premiumRequest);
+            return apiResponse;
+        } finally {
+            event.finish(premiumRequest, apiResponse, null != precomputed);
+            this.slowQuoteRecorder.record(premiumRequest, apiResponse, null != precomputed, start);
+        }
+    }
+
+    /**
+     * Prices the request with the primary engine, never answering from the quote cube. A quote abandoned at its
+     * deadline is not answered at all, the DeadlineExceededException reaches the caller.
+     */
+    public ApiResponse<PremiumResponse> calculateLive(final PremiumRequest premiumRequest) {
         try{
-            final PremiumResponse premiumResponse = this.calculate(premiumRequest);
-            this.createSummary(premiumResponse);
+            final PremiumResponse premiumResponse = this.premiumEngines.quote(premiumRequest);
             return ApiResponse.buildResponse(premiumResponse, "success", true);
         }
-        catch(final InvocationTargetException e){
-            return ApiResponse.buildResponse(null, ((InvocationTargetException) e).getTargetException().toString(), false);
+        catch(final DeadlineExceededException e){
+            throw e;
+        }
+        catch(final ValidationException e){
+            return ApiResponse.buildResponse(null, PremiumService.failureMessage(e), false, e.getErrors());
         }
         catch(final Exception e){
-            return ApiResponse.buildResponse(null, e.getMessage(), false);
+            return ApiResponse.buildResponse(null, PremiumService.failureMessage(e), false);
+        }
+    }
+
+    public static String failureMessage(final Exception e) {
+        if (e instanceof ValidationException) {
+            // worded as when the first violation was thrown as a SuperstarException, clients match on it
+            return SuperstarException.class.getName() + ": " + e.getMessage();
+        }
+        if (e instanceof InvocationTargetException) {
+            return ((InvocationTargetException) e).getTargetException().toString();
         }
+        return e.getMessage();
     }
 
-    private void createSummary(final PremiumResponse premiumResponse) throws JsonProcessingException {
-        final Map<String, List<String>> coverMap;
-        coverMap = new ObjectMapper().readValue(
-                summary,
+    /**
+     * summary.map with every cover resolved to its Applicable field, read once instead of on every quote.
+     */
+    @PostConstruct
+    public void init() throws JsonProcessingException, NoSuchFieldException {
+        final Map<String, List<String>> coverMap = new ObjectMapper().readValue(
+                this.summary,
                 new TypeReference<Map<String, List<String>>>() {}
         );
+        this.summaryCovers = new LinkedHashMap<>();
+        for (final Map.Entry<String, List<String>> entry : coverMap.entrySet()) {
+            final List<Field> covers = new ArrayList<>(entry.getValue().size());
+            for (final String cover : entry.getValue()) {
+                final Field field = Applicable.class.getDeclaredField(cover);
+                field.setAccessible(true);
+                covers.add(field);
+            }
+            this.summaryCovers.put(entry.getKey(), covers);
+        }
+    }
 
-        for(Map.Entry<String, List<String>> entry : coverMap.entrySet()){
-            final AtomicReference<Double> totalCover = new AtomicReference<>(0d);
-            final String key = entry.getKey();
-            for(final String cover : entry.getValue()){
-                for(final Applicable app : premiumResponse.getApplicables()){
-                    totalCover.updateAndGet(v -> v + this.getCover(app, cover));
+    public void createSummary(final PremiumResponse premiumResponse) throws IllegalAccessException {
+        for (final Map.Entry<String, List<Field>> entry : this.summaryCovers.entrySet()) {
+            double totalCover = 0.0d;
+            final List<Field> covers = entry.getValue();
+            final List<Applicable> applicables = premiumResponse.getApplicables();
+            for (int cover = 0; cover < covers.size(); cover++) {
+                for (int index = 0; index < applicables.size(); index++) {
+                    totalCover += (Double) covers.get(cover).get(applicables.get(index));
                 }
             }
 
-            switch(key){
+            switch(entry.getKey()){
                 case "lifestyle" :{
-                    premiumResponse.setLifestyleDiscount(totalCover.get());
+                    premiumResponse.setLifestyleDiscount(totalCover);
                     break ;
                 }
 
                 case "optionalCovers" :{
-                    premiumResponse.setTotalOptionalCovers(totalCover.get());
+                    premiumResponse.setTotalOptionalCovers(totalCover);
                     break;
                 }
 
                 case "discounts": {
-                    premiumResponse.setTotalDiscounts(totalCover.get());
+                    premiumResponse.setTotalDiscounts(totalCover);
                     break;
                 }
             }
         }
     }
 
-    private Double getCover(Applicable obj, String cover) {
-        final Field field;
-        try {
-            field = Applicable.class.getDeclaredField(cover);
-            field.setAccessible(true);
-            return (Double) field.get(obj);
-        } catch (NoSuchFieldException e) {
-            throw new RuntimeException(e);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
+    @Override
+    public String getName() {
+        return PremiumService.ENGINE_NAME;
+    }
 
+    /**
+     * Reference engine: the reflective pipeline over execution.keys.
+     */
+    @Override
+    public PremiumResponse quote(final PremiumRequest premiumRequest) throws Exception {
+        final PremiumResponse premiumResponse = this.calculate(premiumRequest);
+        this.createSummary(premiumResponse);
+        return premiumResponse;
     }
 
     private PremiumResponse calculate(final PremiumRequest premiumRequest) throws Exception {
-        this.validationService.validatePremiumRequest(premiumRequest, this.mandatoryConfiguration.getValidationKeys());
-        final Map<String, Attribute> confMap = this.mandatoryConfiguration.getConf(premiumRequest.getPolicyType(), premiumRequest.isFresh());
-        final List<String> executionKeys = this.mandatoryConfiguration.getExecutionKeys();
+        final QuoteContext context = this.prepare(premiumRequest);
+        this.execute(context, 0, StageListener.NONE);
+        return context.getPremiumResponse();
+    }
+
+    /**
+     * Validates the request and lays out its insured-years, ready to execute from the first stage.
+     */
+    public QuoteContext prepare(final PremiumRequest premiumRequest) throws Exception {
+        return this.prepare(premiumRequest, this.rateRegistry.resolve(premiumRequest.getQuoteDate()));
+    }
+
+    /**
+     * Validates the request and continues from a copy of a state captured for another one, ready to execute from
+     * the position the snapshot was taken at. Stages in front of it must not read anything the two requests differ in.
+     */
+    public QuoteContext resume(final PremiumRequest premiumRequest, final PremiumResponse snapshot) throws Exception {
+        this.validate(premiumRequest);
+        return this.plan(premiumRequest, snapshot.copy(), this.rateRegistry.resolve(premiumRequest.getQuoteDate()));
+    }
+
+    /**
+     * Validates the request and lays out its insured-years to be priced at the given rates, whatever its quote date.
+     */
+    public QuoteContext prepare(final PremiumRequest premiumRequest, final RateVersion rates) throws Exception {
+        // the insured-years are only laid out for a validated term and family
+        this.validate(premiumRequest);
         final PremiumResponse premiumResponse = new PremiumResponse();
         this.createInsuredMapping(premiumResponse, premiumRequest);
-        for (final String key : executionKeys) {
-            PremiumService.log.info("Handling execution key: {}", key);
-            final Attribute attribute = confMap.get(key);
-            final List<Applicable> applicables = Utils.get(this.mandatoryConfiguration.getFeature(key, premiumRequest.getPolicyType(), premiumRequest.isFresh()), premiumResponse.getApplicables());
-            final Method method = this.getClass().getMethod("handle" + Utils.capitalizeFirstLetter(key), PremiumResponse.class, PremiumRequest.class, List.class);
-            method.invoke(this, premiumResponse, premiumRequest, applicables);
-            premiumResponse.getApplicables().forEach(app -> {
-                this.applyRounding(app, attribute, key);
-                this.applyMultiplicative(app, attribute, key, "basePremium");
-            });
+        return this.plan(premiumRequest, premiumResponse, rates);
+    }
+
+    private void validate(final PremiumRequest premiumRequest) throws Exception {
+        final ValidationResult validation = this.validationService.validatePremiumRequest(premiumRequest, this.mandatoryConfiguration.getValidationKeys());
+        if (!validation.isValid()) {
+            throw new ValidationException(validation.getErrors());
+        }
+    }
+
+    private boolean accepts(final PremiumRequest premiumRequest) {
+        try {
+            return this.validationService.validatePremiumRequest(premiumRequest, this.mandatoryConfiguration.getValidationKeys()).isValid();
+        } catch (final Exception e) {
+            return false;
+        }
+    }
+
+    private QuoteContext plan(final PremiumRequest premiumRequest, final PremiumResponse premiumResponse, final RateVersion rates) throws Exception {
+        final ExecutionPlan plan = this.executionPlanner.plan(premiumRequest);
+        return new QuoteContext(premiumRequest, plan, rates, premiumResponse);
+    }
+
+    /**
+     * Runs every planned stage whose execution key position is at or after fromPosition, giving up between stages
+     * once the deadline bound to the thread has passed.
+     */
+    public void execute(final QuoteContext context, final int fromPosition, final StageListener listener) throws Exception {
+        this.execute(context, fromPosition, Integer.MAX_VALUE, listener);
+    }
+
+    /**
+     * Runs the planned stages whose execution key position is at or after fromPosition and before toPosition, the
+     * state left is the one in front of toPosition.
+     */
+    public void execute(final QuoteContext context, final int fromPosition, final int toPosition, final StageListener listener) throws Exception {
+        final PremiumRequest premiumRequest = context.getPremiumRequest();
+        final RateVersion previous = RateVersion.bind(context.getRates());
+        try {
+            StageTimings.mark();
+            for (final Stage stage : context.getPlan().getStages()) {
+                if (stage.getPosition() < fromPosition) {
+                    continue;
+                }
+                if (stage.getPosition() >= toPosition) {
+                    break;
+                }
+                final String key = stage.getKey();
+                Deadline.check(key);
+                PremiumService.log.debug("Handling execution key: {}", key);
+                listener.beforeStage(context, stage);
+                final StageEvent event = StageEvent.start();
+                final PremiumResponse premiumResponse = context.getPremiumResponse();
+                final Attribute attribute = stage.getAttribute();
+                final List<Applicable> applicables = context.getLayout().select(attribute);
+                stage.invoke(this, premiumResponse, premiumRequest, applicables);
+                if (stage.hasPostOperation()) {
+                    final List<Applicable> insuredYears = premiumResponse.getApplicables();
+                    for (int index = 0; index < insuredYears.size(); index++) {
+                        this.applyRounding(insuredYears.get(index), attribute, key);
+                        this.applyMultiplicative(insuredYears.get(index), attribute, key, "basePremium");
+                    }
+                }
+                StageEvent.finish(event, PremiumService.ENGINE_NAME, key, stage.getPosition(), applicables.size());
+                StageTimings.lap(stage.getPosition());
+                listener.afterStage(context, stage);
+            }
+        } finally {
+            RateVersion.bind(previous);
         }
-        return premiumResponse;
     }
 
 
@@ -173,16 +321,18 @@ public class PremiumService {
         if(null != premiumRequest.getPaymentTermRequest() && premiumRequest.getPaymentTermRequest().isEmi()){
             return ;
         }
-        applicables.forEach(app -> {
+        for (final Applicable app : applicables) {
             app.setLongTermDiscount(app.getLongTermDiscount() + app.getBasePremium()*this.dynamicConfigurations.getLongTermDiscount(app.getYear()));
-        });
+        }
     }
 
     public void handleEarlyRenewal(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest, final List<Applicable> applicables) {
         if(!premiumRequest.isEarlyRenewalDiscount()){
             return ;
         }
-        applicables.forEach(app -> app.setEarlyRenewal(app.getEarlyRenewal() + app.getBasePremium()*earlyRenewalDiscount));
+        for (final Applicable app : applicables) {
+            app.setEarlyRenewal(app.getEarlyRenewal() + app.getBasePremium()*DynamicConfigurations.getRate("early.renewal.discount"));
+        }
     }
 
     public void handleCibilDiscount(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest, final List<Applicable> applicables) {
@@ -194,14 +344,20 @@ public class PremiumService {
 
         final int cibil = premiumRequest.getCibilScoreRequest().getCibilScore();
         final Double discount = this.dynamicConfigurations.getCibilDiscount(cibil);
-        applicables.stream().filter(applicable -> 50 >= applicable.getAge()).forEach(app -> app.setCibilDiscount(app.getCibilDiscount() + app.getBasePremium()*discount));
+        for (final Applicable app : applicables) {
+            if (50 >= app.getAge()) {
+                app.setCibilDiscount(app.getCibilDiscount() + app.getBasePremium()*discount);
+            }
+        }
     }
 
     public void handleHealthQuestionnaire(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest, final List<Applicable> applicables) {
         if(!premiumRequest.isHealthQuestionnaire()){
             return ;
         }
-        applicables.forEach(app -> app.setHealthQuestionnaire(app.getHealthQuestionnaire() + app.getBasePremium()*healthQuestionnaire));
+        for (final Applicable app : applicables) {
+            app.setHealthQuestionnaire(app.getHealthQuestionnaire() + app.getBasePremium()*DynamicConfigurations.getRate("health.questionnaire"));
+        }
     }
 
     public void handlePaCover(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest, final List<Applicable> applicables) {
@@ -209,29 +365,28 @@ public class PremiumService {
             return ;
         }
 
+        final DecisionTable rates = DynamicConfigurations.getDecision("pa.cover.rate.decision");
+        final DecisionTable shares = DynamicConfigurations.getDecision("pa.cover.share.decision");
         final String option = premiumRequest.getPaCoverRequest().getOption();
-        final Double perMile = "1".equals(option) ? 0.30d : 0.35d;
-        final Double sumInsured = Double.valueOf(premiumRequest.getSumInsured());
-        final Double perMileExpense = sumInsured * perMile / 1000.0d;
-        final int maxAge = PremiumService.getMaxAge(applicables).orElse(0);
-        applicables.stream().filter(app -> 18 <= app.getAge() && 70 >= app.getAge()).forEach(app -> {
-            if(app.getAge() == maxAge){
-                app.setPaCover(app.getPaCover() + perMileExpense);
-            }
-            else{
-                app.setPaCover(Math.min(app.getPaCover() + perMileExpense/2.0d, 1500000));
+        final double perMile = rates.lookup(0, rates.key(0, option), 0.0d);
+        final double perMileExpense = Double.parseDouble(premiumRequest.getSumInsured()) * perMile / 1000.0d;
+        final int maxAge = PremiumService.getMaxAge(applicables);
+        for(final Applicable app : applicables){
+            final int row = shares.matchNumbers(app.getAge(), app.getAge() == maxAge ? 1 : 0);
+            if(-1 != row){
+                app.setPaCover(Math.min(app.getPaCover() + perMileExpense * shares.result(row, 0), shares.result(row, 1)));
             }
-        });
+        }
     }
 
     public void handleHospitalCash(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest, final List<Applicable> applicables) {
         if(null == premiumRequest.getHospitalCashRequest() || !premiumRequest.getHospitalCashRequest().isHospitalCash()){
             return ;
         }
-        applicables.forEach(app -> {
+        for (final Applicable app : applicables) {
             final Double expense = DynamicConfigurations.getHospitalCash(premiumRequest.getPolicyType(), app.getAge(), premiumRequest.getHospitalCashRequest().getNumberOfDays());
             app.setHospitalCash(app.getHospitalCash() + expense);
-        });
+        }
     }
 
     public void handleCompassionateVisit(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest, final List<Applicable> applicables) {
@@ -240,7 +395,9 @@ public class PremiumService {
         }
 
         final Double expense = this.dynamicConfigurations.getCompassionateVisit(premiumRequest.getPolicyType());
-        applicables.forEach(app -> app.setCompassionateVisit(app.getCompassionateVisit() + expense));
+        for (final Applicable app : applicables) {
+            app.setCompassionateVisit(app.getCompassionateVisit() + expense);
+        }
     }
 
     public void handleInternationalSecondOpinion(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest, final List<Applicable> applicables) {
@@ -248,7 +405,9 @@ public class PremiumService {
             return ;
         }
         final Double expense = this.dynamicConfigurations.getInternationalSecondOpinion(premiumRequest.getPolicyType());
-        applicables.forEach(app -> app.setInternationalSecondOpinion(app.getInternationalSecondOpinion() + expense));
+        for (final Applicable app : applicables) {
+            app.setInternationalSecondOpinion(app.getInternationalSecondOpinion() + expense);
+        }
     }
 
     public void handleAnnualHealthCheckUp(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest, final List<Applicable> applicables) {
@@ -256,7 +415,9 @@ public class PremiumService {
             return ;
         }
         final Double expense = DynamicConfigurations.getAnnualCheckUp(premiumRequest.getPolicyType(),premiumRequest.getSumInsured());
-        applicables.forEach(app -> app.setAnnualHealthCheckUp(Math.min(25000,app.getAnnualHealthCheckUp() + expense)));
+        for (final Applicable app : applicables) {
+            app.setAnnualHealthCheckUp(Math.min(25000,app.getAnnualHealthCheckUp() + expense));
+        }
     }
 
     public void handleHighEndDiagnostic(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest, final List<Applicable> applicables) {
@@ -264,7 +425,9 @@ public class PremiumService {
             return ;
         }
         final Double amount = this.dynamicConfigurations.getHighEndDiagnostic(premiumRequest.getPolicyType());
-        applicables.forEach(app -> app.setHighEndDiagnostic(app.getHighEndDiagnostic() + amount));
+        for (final Applicable app : applicables) {
+            app.setHighEndDiagnostic(app.getHighEndDiagnostic() + amount);
+        }
     }
 
     public void handleWomenCare(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest, final List<Applicable> applicables) {
@@ -274,7 +437,9 @@ public class PremiumService {
         final double sumInsured = Double.parseDouble(premiumRequest.getSumInsured());
         final double expense = this.dynamicConfigurations.getWomenCareExpense(sumInsured);
 
-        applicables.forEach(app -> app.setWomenCare(app.getWomenCare() + expense));
+        for (final Applicable app : applicables) {
+            app.setWomenCare(app.getWomenCare() + expense);
+        }
     }
 
     public void handleMaternityExpense(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest, final List<Applicable> applicables) {
@@ -282,67 +447,20 @@ public class PremiumService {
             return ;
         }
         final List<MaternityOptions> maternityOptions = premiumRequest.getMaternityRequest().getOption();
-        final Double sumInsured = Double.valueOf(premiumRequest.getSumInsured());
-        applicables.forEach(app -> {
-            PremiumService.applyMaterityExpense(maternityOptions, sumInsured, app);
-        });
+        final double sumInsured = Double.parseDouble(premiumRequest.getSumInsured());
+        final DecisionTable maternity = DynamicConfigurations.getDecision("maternity.amount.decision");
+        final DecisionTable newBorn = DynamicConfigurations.getDecision("maternity.newborn.decision");
+        for(final Applicable app : applicables){
+            PremiumService.applyMaterityExpense(maternity, newBorn, maternityOptions, sumInsured, app);
+        }
     }
 
-    private static void applyMaterityExpense(final List<MaternityOptions> maternityOptions, final Double sumInsured, final Applicable applicable) {
+    private static void applyMaterityExpense(final DecisionTable maternity, final DecisionTable newBorn, final List<MaternityOptions> maternityOptions,
+                                             final double sumInsured, final Applicable applicable) {
         for(final MaternityOptions option : maternityOptions){
-            Double maternityAmount = 0.0d;
-            Double newBornAmount = 0.0d;
-            switch (option.getOption()){
-                case "A":{
-                    if(50000.0d == option.getSubLimit()){
-                        maternityAmount = 10758.0d;
-                    }
-
-                    else if(100000.0d == option.getSubLimit()){
-                        maternityAmount = 21516.0d;
-                    }
-
-                    if(2500000 >= sumInsured){
-                        newBornAmount = 2690.0d;
-                    }
-
-                    else {
-                        newBornAmount = 4034.0d;
-                    }
-
-                    break;
-                }
-                case "B":{
-                    if(30000.0d == option.getSubLimit()){
-                        maternityAmount = 12551.0d;
-                    }
-
-                    if(2500000 >= sumInsured){
-                        newBornAmount = 5230.0d;
-                    }
-
-                    else {
-                        newBornAmount = 7844.0d;
-                    }
-
-                    break;
-
-                }
-                case "C":{
-                    if(500000 == sumInsured || 750000 == sumInsured){
-                        newBornAmount = 41932.0d;
-                    }
-
-                    else if(1000000 == sumInsured || 1500000 == sumInsured || 2000000 == sumInsured || 2500000 == sumInsured){
-                        newBornAmount = 83865.0d;
-                    }
-
-                    else{
-                        newBornAmount = 167730.0d;
-                    }
-                    break;
-                }
-            }
+            final double subLimit = null == option.getSubLimit() ? Double.NaN : option.getSubLimit();
+            final double maternityAmount = maternity.lookup(0, maternity.key(0, option.getOption()), subLimit, 0.0d);
+            final double newBornAmount = newBorn.lookup(0, newBorn.key(0, option.getOption()), sumInsured, 0.0d);
 
             applicable.setMaternityExpense(applicable.getMaternityExpense() + maternityAmount + newBornAmount);
         }
@@ -357,9 +475,9 @@ public class PremiumService {
             }
         }
 
-        applicables.forEach(app->{
-            app.setNriDiscount(app.getBasePremium() * this.nriDiscount);
-        });
+        for (final Applicable app : applicables) {
+            app.setNriDiscount(app.getBasePremium() * DynamicConfigurations.getRate("nri.discount"));
+        }
     }
 
     public void handleWellnessDiscount(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest, final List<Applicable> applicables) {
@@ -370,9 +488,9 @@ public class PremiumService {
         final Double points = premiumRequest.getWellnessDiscount().getPoints();
         final Double discount = this.dynamicConfigurations.getWellnessDiscount(points);
 
-        applicables.forEach(app->{
+        for (final Applicable app : applicables) {
             app.setWellnessDiscount(app.getBasePremium() * discount);
-        });
+        }
     }
 
     public void handleMedicalEquipmentCover(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest, final List<Applicable> applicables) {
@@ -380,9 +498,9 @@ public class PremiumService {
             return ;
         }
 
-        applicables.forEach(app->{
-            app.setMedicalEquipmentCover(app.getBasePremium() * this.medicalEquipmentCover);
-        });
+        for (final Applicable app : applicables) {
+            app.setMedicalEquipmentCover(app.getBasePremium() * DynamicConfigurations.getRate("medical.equipment.cover"));
+        }
 
     }
 
@@ -390,9 +508,9 @@ public class PremiumService {
         if(!premiumRequest.isSubLimitsForModernTreatments()){
             return ;
         }
-        applicables.forEach(app->{
-            app.setSubLimitModeration(app.getBasePremium() * this.sublimitModeration);
-        });
+        for (final Applicable app : applicables) {
+            app.setSubLimitModeration(app.getBasePremium() * DynamicConfigurations.getRate("sublimit.moderation"));
+        }
 
     }
 
@@ -402,28 +520,29 @@ public class PremiumService {
         }
         final String option =  premiumRequest.getRoomRent().getOption();
         final double discount = this.dynamicConfigurations.getRoomRentDiscount(option);
-        applicables.forEach(app->{
+        for (final Applicable app : applicables) {
             app.setRoomRent(app.getBasePremium() * discount);
-        });
+        }
     }
 
     public void handleDeductible(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest, final List<Applicable> applicables) {
         if(null == premiumRequest.getVoluntarilyDeductible() || !premiumRequest.getVoluntarilyDeductible().isDeductible()){
             return ;
         }
-        applicables.forEach(app->{
+        for (final Applicable app : applicables) {
             app.setDeductible(app.getBasePremium()*DynamicConfigurations.getVoluntaryDeductiblePercent(app.getAge(), Integer.parseInt(premiumRequest.getVoluntarilyDeductible().getDeductibleAmount())));
-        });
+        }
     }
 
     public void handleCopay(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest, final List<Applicable> applicables) {
-        final List<String> copayLs = Arrays.asList("10","20","30","40","50");
         if(null == premiumRequest.getVoluntarilyCopay() ||
                 !premiumRequest.getVoluntarilyCopay().isCopay() ||
-                !copayLs.contains(premiumRequest.getVoluntarilyCopay().getCopayPercent())){
+                !FeatureActivation.ALLOWED_COPAY_PERCENTS.contains(premiumRequest.getVoluntarilyCopay().getCopayPercent())){
             return ;
         }
-        applicables.forEach(app->app.setCopay(app.getBasePremium()*(Double.parseDouble(premiumRequest.getVoluntarilyCopay().getCopayPercent()))/100.0d));
+        for (final Applicable app : applicables) {
+            app.setCopay(app.getBasePremium()*(Double.parseDouble(premiumRequest.getVoluntarilyCopay().getCopayPercent()))/100.0d);
+        }
     }
 
     public void handlePreferredHospitalNetwork(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest, final List<Applicable> applicables) {
@@ -431,7 +550,9 @@ public class PremiumService {
             return ;
         }
 
-        applicables.forEach(app->app.setPreferredHospitalNetwork(app.getBasePremium()* this.preferredHospitalNetwork));
+        for (final Applicable app : applicables) {
+            app.setPreferredHospitalNetwork(app.getBasePremium()* DynamicConfigurations.getRate("preferred.hospital.network"));
+        }
     }
 
     public void handleLimitlessCare(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest, final List<Applicable> applicables) {
@@ -439,11 +560,9 @@ public class PremiumService {
             return ;
         }
 
-        applicables.forEach(
-                app-> {
-                    app.setLimitlessCare(app.getBasePremium()* this.dynamicConfigurations.getInfiniteCare(premiumRequest.getSumInsured()));
-                }
-        );
+        for (final Applicable app : applicables) {
+            app.setLimitlessCare(app.getBasePremium()* this.dynamicConfigurations.getInfiniteCare(premiumRequest.getSumInsured()));
+        }
     }
 
     public void handlePedWaitingPeriod(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest, final List<Applicable> applicables) {
@@ -451,13 +570,11 @@ public class PremiumService {
             return ;
         }
 
-        final Optional<Integer> maxAge = PremiumService.getMaxAge(applicables);
-        final int age = maxAge.orElse(0);
+        final int age = PremiumService.getMaxAge(applicables);
         final Double value = DynamicConfigurations.getReductionOfPEDWaitingPercent(age, premiumRequest.getPedWaitingRequest().getWaitingPeriod());
-        applicables.forEach(app -> {
-            app.setPedWaitingPeriod(app.getBasePremium()*
-                    value);
-        });
+        for (final Applicable app : applicables) {
+            app.setPedWaitingPeriod(app.getBasePremium()* value);
+        }
     }
 
     public void handleSpecificDisease(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest, final List<Applicable> applicables) {
@@ -466,26 +583,40 @@ public class PremiumService {
         }
 
         /* TODO make it generic */
-        final Optional<Integer> maxAge = PremiumService.getMaxAge(applicables);
-        final int age = maxAge.orElse(0);
+        final int age = PremiumService.getMaxAge(applicables);
         final double loading = DynamicConfigurations.getSpecificDiseaseConf(age);
-        applicables.forEach(app->app.setSpecificDisease(app.getBasePremium()*loading));
+        for (final Applicable app : applicables) {
+            app.setSpecificDisease(app.getBasePremium()*loading);
+        }
     }
 
-    private static Optional<Integer> getMaxAge(final List<Applicable> ls) {
-        return ls.stream()
-                .map(Applicable::getAge)
-                .max(Integer::compareTo);
+    /**
+     * @return the age of the eldest insured-year, 0 without any
+     */
+    private static int getMaxAge(final List<Applicable> ls) {
+        int maxAge = ls.isEmpty() ? 0 : Integer.MIN_VALUE;
+        for (final Applicable app : ls) {
+            maxAge = Math.max(maxAge, app.getAge());
+        }
+        return maxAge;
     }
 
     public void handleFutureReady(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest, final List<Applicable> applicables) {
         if(!premiumRequest.isFutureReady()){
             return ;
         }
-        if(1 < premiumRequest.getInsured().stream().filter(ins -> "adult".equals(ins.getType())).count()){
+        int adults = 0;
+        for (final Insured insured : premiumRequest.getInsured()) {
+            if ("adult".equals(insured.getType())) {
+                adults++;
+            }
+        }
+        if(1 < adults){
             return ;
         }
-        applicables.forEach(app -> app.setFutureReady(app.getBasePremium()*DynamicConfigurations.getFutureReadyconf(app.getAge())));
+        for (final Applicable app : applicables) {
+            app.setFutureReady(app.getBasePremium()*DynamicConfigurations.getFutureReadyconf(app.getAge()));
+        }
     }
 
     public void handleConsumableCover(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest, final List<Applicable> applicables) {
@@ -493,19 +624,17 @@ public class PremiumService {
             return;
         }
 
-        applicables.forEach(app->app.setConsumableCover(app.getBasePremium()* this.consumableCover));
+        for (final Applicable app : applicables) {
+            app.setConsumableCover(app.getBasePremium()* DynamicConfigurations.getRate("consumable.cover"));
+        }
     }
 
     public void handleInstantCover(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest, final List<Applicable> applicables) {
-        final Set<String> masterDiseases = Set.of("BP", "DM", "CAD", "Asthma", "Hyperlipedimia");
+        final DecisionTable instantCover = DynamicConfigurations.getDecision("instant.cover.decision");
 
         for (final Applicable app : applicables) {
-            final boolean isMasterDisease = app.getPeds().stream().anyMatch(masterDiseases::contains);
-            final boolean isCad = app.getPeds().contains("CAD");
-
-            final double loading = isCad ? app.getBasePremium() * 0.30
-                    : (isMasterDisease ? app.getBasePremium() * 0.20
-                    : (app.getPeds().isEmpty() ? 0 : app.getBasePremium() * 0.15));
+            final int row = instantCover.match(instantCover.keys(0, app.getPeds()));
+            final double loading = -1 == row ? 0 : app.getBasePremium() * instantCover.result(row, 0);
 
             app.setInstantCover(loading);
         }
@@ -515,46 +644,50 @@ public class PremiumService {
         if(!premiumRequest.isSuperstarBonus())
             return ;
 
-        applicables.forEach(app -> {
+        for (final Applicable app : applicables) {
             app.setSuperstarBonus(app.getSuperstarBonus() + app.getBasePremium()* this.dynamicConfigurations.getPowerBooster(premiumRequest.getSumInsured()));
-        });
+        }
     }
 
     public void handleReflexLoading(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest, final List<Applicable> applicables) {
-        applicables.forEach(app -> app.setReflexLoading(app.getReflexLoading() + app.getBasePremium()*app.getReflexLoadingPercentage()));
+        for (final Applicable app : applicables) {
+            app.setReflexLoading(app.getReflexLoading() + app.getBasePremium()*app.getReflexLoadingPercentage());
+        }
     }
 
     public void handleFloater(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest, final List<Applicable> applicables) {
         final double discount = this.dynamicConfigurations.getPolicyTypeDiscount(premiumRequest.getPolicyType());
-        applicables.forEach(app -> {
+        for (final Applicable app : applicables) {
             app.setFloater(app.getFloater() + app.getBasePremium()*discount);
-        });
+        }
     }
 
     public void handleZonalDiscount(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest, final List<Applicable> applicables) {
 
         final double discount = this.dynamicConfigurations.getZonalDiscount(premiumRequest.getZone());
 
-        applicables.forEach(app -> {
+        for (final Applicable app : applicables) {
             app.setZonalDiscount(app.getZonalDiscount() + app.getBasePremium()*discount);
-        });
+        }
     }
 
     public void handleLookup(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest, final List<Applicable> applicables) {
-        applicables.stream().filter(applicable -> 50 >= applicable.getYear()).forEach(applicable -> applicable.setLookup(this.premiumConfig.getPremium(applicable.getAge(), applicable.getType(), premiumRequest.getSumInsured())));
-        applicables.stream().filter(applicable -> 50 < applicable.getYear()).forEach(applicable -> applicable.setLookup(this.premiumConfig.getPremium(applicable.getAge() + applicable.getYear() - 1, applicable.getType(), premiumRequest.getSumInsured())));
+        for (final Applicable applicable : applicables) {
+            final int age = 50 >= applicable.getYear() ? applicable.getAge() : applicable.getAge() + applicable.getYear() - 1;
+            applicable.setLookup(this.premiumConfig.getPremium(age, applicable.getType(), premiumRequest.getSumInsured()));
+        }
     }
 
     public void handleStageIIPremium(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest, final List<Applicable> applicables){
-        premiumResponse.getApplicables().forEach(
-                Applicable::handleStageIIPremium
-        );
+        for (final Applicable app : premiumResponse.getApplicables()) {
+            app.handleStageIIPremium();
+        }
     }
 
     public void handleStageIIIPremium(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest, final List<Applicable> applicables){
-        premiumResponse.getApplicables().forEach(
-                Applicable::handleStageIIIPremium
-        );
+        for (final Applicable app : premiumResponse.getApplicables()) {
+            app.handleStageIIIPremium();
+        }
     }
 
     public void handleCgst(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest, final List<Applicable> applicables){
@@ -571,19 +704,19 @@ public class PremiumService {
     }
 
     public void handleStageVPremium(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest, final List<Applicable> applicables){
-        final Long[] finalPremium = {0l};
-        premiumResponse.getApplicables().forEach(app -> {
-            finalPremium[0] = (long) (finalPremium[0] + app.getBasePremium());
-        });
+        long finalPremium = 0L;
+        for (final Applicable app : premiumResponse.getApplicables()) {
+            finalPremium = (long) (finalPremium + app.getBasePremium());
+        }
 
-        premiumResponse.setFinalPremium(finalPremium[0]);
+        premiumResponse.setFinalPremium(finalPremium);
         if(null == premiumRequest.getPaymentTermRequest() || !premiumRequest.getPaymentTermRequest().isEmi()){
             return ;
         }
         return ;
     }
 
-    private static void handlePaymentTerm(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest) {
+    public static void handlePaymentTerm(final PremiumResponse premiumResponse, final PremiumRequest premiumRequest) {
         long emiAmount = 0;
         int instalments = 0;
         double loading = 0d;
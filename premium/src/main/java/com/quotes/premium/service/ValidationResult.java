@@ -0,0 +1,36 @@
+package com.quotes.premium.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Violations found by one pass of ValidationService, in validation key order. Each pricing thread reuses one
+ * instance, a valid request allocates nothing.
+ */
+public class ValidationResult {
+
+    private final List<String> errors = new ArrayList<>(8);
+
+    void reset() {
+        this.errors.clear();
+    }
+
+    public void reject(final String error) {
+        this.errors.add(error);
+    }
+
+    int count() {
+        return this.errors.size();
+    }
+
+    public boolean isValid() {
+        return this.errors.isEmpty();
+    }
+
+    /**
+     * @return a copy, the result itself is reset by the next validation on this thread
+     */
+    public List<String> getErrors() {
+        return List.copyOf(this.errors);
+    }
+}
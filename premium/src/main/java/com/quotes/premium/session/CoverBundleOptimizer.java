@@ -0,0 +1,440 @@
+package com.quotes.premium.session;
+
+import com.quotes.premium.config.MandatoryConfiguration;
+import com.quotes.premium.dto.ApiResponse;
+import com.quotes.premium.dto.Applicable;
+import com.quotes.premium.dto.Attribute;
+import com.quotes.premium.dto.CoverBundle;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.PremiumResponse;
+import com.quotes.premium.exception.DeadlineExceededException;
+import com.quotes.premium.exception.ValidationException;
+import com.quotes.premium.plan.ExecutionPlanner;
+import com.quotes.premium.plan.FeatureActivation;
+import com.quotes.premium.plan.QuoteContext;
+import com.quotes.premium.plan.Stage;
+import com.quotes.premium.plan.StageListener;
+import com.quotes.premium.service.PremiumService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Cheapest bundle of the optional covers and discounts in quote.breakdown.covers that keeps a customer's must-have
+ * covers on, with no must-haves the discounts taking the premium lowest. The covers the request has on are not
+ * looked at, only the option objects it carries, a cover whose object is missing stays off as in the breakdown.
+ * <p>
+ * Bundles are searched depth first, deciding the covers in the order of the first execution key reading them. A
+ * partial bundle is priced up to the key of the next cover only, from the state its parent left there, so every
+ * stage range is priced once for all the bundles sharing it. Validation runs on each partial bundle with the covers
+ * still undecided off, it only turns down covers taken together, copay with deductible or maternity options A with
+ * B, so nothing under a turned down partial bundle validates either.
+ * <p>
+ * A partial bundle is dropped once no bundle under it can beat the cheapest found. The bound reads the premium the
+ * stages still to come can take off: a multiplicative discount takes a rate of the premium of its insured-year and
+ * the rate does not depend on the covers around it, so the rates of every discount are read once, from the must-have
+ * quote for those every bundle runs and from one stage of it with the discount on for the others. Stage III
+ * discounts take at most a fifth, loadings still to come are left out, they only add.
+ */
+@Service
+@Log4j2
+public class CoverBundleOptimizer {
+
+    private static final String STAGE_II_KEY = "stageIIPremium";
+    private static final String STAGE_III_KEY = "stageIIIPremium";
+    private static final double STAGE_III_FLOOR = 0.80d; // of the premium, Applicable.handleStageIIIPremium
+
+    @Autowired
+    private PremiumService premiumService;
+    @Autowired
+    private MandatoryConfiguration mandatoryConfiguration;
+    @Autowired
+    private ExecutionPlanner executionPlanner;
+
+    @Value("${quote.breakdown.covers}")
+    private List<String> covers;
+
+    private List<CoverToggle> toggles;
+    private int[] positions; // of the first execution key reading each toggle's property
+    private Field[] fields; // premium component written by each execution key, null for stage totals and taxes
+    private int stageII;
+    private int stageIII;
+
+    @PostConstruct
+    public void init() {
+        this.toggles = this.covers.stream().map(String::trim).map(CoverToggle::compile).toList();
+        final List<String> executionKeys = this.mandatoryConfiguration.getExecutionKeys();
+        this.positions = this.toggles.stream()
+                .mapToInt(toggle -> FeatureActivation.firstAffectedPosition(List.of(toggle.getProperty()), executionKeys)).toArray();
+        this.fields = new Field[executionKeys.size()];
+        for (int position = 0; position < executionKeys.size(); position++) {
+            try {
+                final Field field = Applicable.class.getDeclaredField(executionKeys.get(position));
+                field.setAccessible(true);
+                this.fields[position] = Double.class == field.getType() ? field : null;
+            } catch (final NoSuchFieldException e) {
+                // stage totals and taxes write the response, not an insured-year
+            }
+        }
+        this.stageII = executionKeys.indexOf(CoverBundleOptimizer.STAGE_II_KEY);
+        this.stageIII = executionKeys.indexOf(CoverBundleOptimizer.STAGE_III_KEY);
+        if (0 > this.stageII || 0 > this.stageIII) {
+            throw new IllegalStateException("execution.keys has no " + CoverBundleOptimizer.STAGE_II_KEY + " or " + CoverBundleOptimizer.STAGE_III_KEY);
+        }
+    }
+
+    /**
+     * @param mustHave covers as named in quote.breakdown.covers
+     */
+    public ApiResponse<CoverBundle> optimize(final PremiumRequest premiumRequest, final List<String> mustHave) {
+        final Search search;
+        final CoverBundle bundle;
+        try {
+            search = new Search(premiumRequest, null == mustHave ? List.of() : mustHave);
+            search.run();
+            bundle = search.result();
+        } catch (final DeadlineExceededException e) {
+            throw e;
+        } catch (final ValidationException e) {
+            return ApiResponse.buildResponse(null, PremiumService.failureMessage(e), false, e.getErrors());
+        } catch (final Exception e) {
+            return ApiResponse.buildResponse(null, PremiumService.failureMessage(e), false);
+        }
+        CoverBundleOptimizer.log.debug("{} bundles of {} covers searched with {} partial quotes, {} pruned by bound, {} by validation",
+                search.bundlesPriced, search.candidates.size(), search.partialQuotes, search.prunedByBound, search.prunedByValidation);
+        return ApiResponse.buildResponse(bundle, "success", true);
+    }
+
+    private double component(final int position, final Applicable applicable) throws IllegalAccessException {
+        final Double value = (Double) this.fields[position].get(applicable);
+        return null == value ? 0.0d : value;
+    }
+
+    /**
+     * One search, its covers and the rates of every discount that can run.
+     */
+    private final class Search {
+        private final List<String> mustHave = new ArrayList<>();
+        private final List<Candidate> candidates = new ArrayList<>();
+        private final Attribute[] attributes; // of every key some bundle runs, null for the others
+        private final int[] rounded; // stages some bundle runs from each position on that round a premium
+        private final double[][] rates; // upper bound on each discount's rate, by insured-year, null for keys no bundle discounts at
+        private final double[][] amounts; // each additive loading every bundle adds, by insured-year
+        private final PremiumRequest mustHaveRequest;
+        private final PremiumResponse mustHaveQuote;
+        private final QuoteSession checkpoints;
+
+        private PremiumRequest cheapestRequest;
+        private PremiumResponse cheapest;
+        private int bundlesPriced;
+        private int partialQuotes;
+        private int prunedByBound;
+        private int prunedByValidation;
+
+        private Search(final PremiumRequest premiumRequest, final List<String> mustHave) throws Exception {
+            final List<CoverToggle> required = new ArrayList<>();
+            for (final String cover : mustHave) {
+                final CoverToggle toggle = CoverBundleOptimizer.this.toggles.stream().filter(candidate -> candidate.getCover().equals(cover.trim()))
+                        .findFirst().orElseThrow(() -> new IllegalArgumentException("unknown cover " + cover));
+                if (null == toggle.selected(premiumRequest)) {
+                    throw new IllegalArgumentException("must-have " + toggle.getCover() + " needs its options on the request");
+                }
+                required.add(toggle);
+                this.mustHave.add(toggle.getCover());
+            }
+            PremiumRequest mustHaveRequest = premiumRequest;
+            PremiumRequest everyCover = premiumRequest;
+            final List<Integer> optional = new ArrayList<>();
+            for (int index = 0; index < CoverBundleOptimizer.this.toggles.size(); index++) {
+                final CoverToggle toggle = CoverBundleOptimizer.this.toggles.get(index);
+                if (null == toggle.selected(premiumRequest)) {
+                    continue;
+                }
+                mustHaveRequest = toggle.select(mustHaveRequest, required.contains(toggle));
+                everyCover = toggle.select(everyCover, true);
+                if (!required.contains(toggle)) {
+                    optional.add(index);
+                }
+            }
+            this.mustHaveRequest = mustHaveRequest;
+
+            final int keys = CoverBundleOptimizer.this.fields.length;
+            this.attributes = new Attribute[keys];
+            for (final Stage stage : CoverBundleOptimizer.this.executionPlanner.plan(everyCover).getStages()) {
+                this.attributes[stage.getPosition()] = stage.getAttribute();
+            }
+            this.rounded = new int[keys + 1];
+            for (int position = keys - 1; position >= 0; position--) {
+                final Attribute attribute = this.attributes[position];
+                this.rounded[position] = this.rounded[position + 1] + (null != attribute && (attribute.isRounding() || attribute.isMultiplicative()) ? 1 : 0);
+            }
+            this.rates = new double[keys][];
+            this.amounts = new double[keys][];
+
+            // the must-have quote, every bundle's fixed stages measured and a checkpoint in front of every key
+            this.checkpoints = new QuoteSession(null, CoverBundleOptimizer.this.mandatoryConfiguration.getExecutionKeys());
+            final QuoteContext context = CoverBundleOptimizer.this.premiumService.prepare(mustHaveRequest);
+            this.checkpoints.start(context);
+            CoverBundleOptimizer.this.premiumService.execute(context, 0, new Probe(this.checkpoints, -1));
+            this.checkpoints.finish(context);
+            this.mustHaveQuote = context.getPremiumResponse();
+            this.cheapestRequest = mustHaveRequest;
+            this.cheapest = this.mustHaveQuote;
+
+            for (final int index : optional) {
+                final int position = CoverBundleOptimizer.this.positions[index];
+                if (position >= keys || null == this.attributes[position]) {
+                    continue; // no key reads it for this request
+                }
+                final Candidate candidate = this.probe(CoverBundleOptimizer.this.toggles.get(index), position);
+                if (null != candidate) {
+                    this.candidates.add(candidate);
+                }
+            }
+            this.candidates.sort(Comparator.comparingInt(candidate -> candidate.position));
+        }
+
+        /**
+         * Prices the one stage of the cover on top of the must-haves, reading its rate when it is a discount.
+         *
+         * @return null when the cover cannot be on alongside the must-haves or changes no premium
+         */
+        private Candidate probe(final CoverToggle toggle, final int position) throws Exception {
+            final PremiumRequest selected = toggle.select(this.mustHaveRequest, true);
+            final QuoteContext context;
+            try {
+                context = 0 < position
+                        ? CoverBundleOptimizer.this.premiumService.resume(selected, this.checkpoints.getCheckpoints()[position])
+                        : CoverBundleOptimizer.this.premiumService.prepare(selected);
+            } catch (final ValidationException e) {
+                this.prunedByValidation++;
+                return null;
+            }
+            if (context.getPlan().getStages().stream().noneMatch(stage -> position == stage.getPosition())) {
+                return null; // on but inactive, copay at a percent not offered say
+            }
+            try {
+                CoverBundleOptimizer.this.premiumService.execute(context, position, position + 1, new Probe(StageListener.NONE, position));
+            } catch (final DeadlineExceededException e) {
+                throw e;
+            } catch (final Exception e) {
+                CoverBundleOptimizer.log.debug("cover {} does not quote", toggle.getCover(), e);
+                return null;
+            }
+            this.partialQuotes++;
+            return new Candidate(toggle, position, "discount".equals(this.attributes[position].getExpenseType()));
+        }
+
+        private void run() throws Exception {
+            if (!this.candidates.isEmpty()) {
+                this.search(0, this.mustHaveRequest, this.checkpoints.getCheckpoints()[this.candidates.get(0).position]);
+            }
+        }
+
+        /**
+         * @param state in front of the key of the cover decided at this depth, every cover in front of it decided
+         */
+        private void search(final int depth, final PremiumRequest premiumRequest, final PremiumResponse state) throws Exception {
+            final Candidate candidate = this.candidates.get(depth);
+            final int next = depth + 1 < this.candidates.size() ? this.candidates.get(depth + 1).position : CoverBundleOptimizer.this.fields.length;
+            // a discount on and a loading off are the likelier cheapest, trying them first finds a bound to prune with sooner
+            for (final boolean selected : candidate.discount ? new boolean[]{true, false} : new boolean[]{false, true}) {
+                final PremiumRequest bundle = selected ? candidate.toggle.select(premiumRequest, true) : premiumRequest;
+                final QuoteContext context;
+                try {
+                    context = CoverBundleOptimizer.this.premiumService.resume(bundle, state);
+                } catch (final ValidationException e) {
+                    this.prunedByValidation++;
+                    continue;
+                }
+                try {
+                    CoverBundleOptimizer.this.premiumService.execute(context, candidate.position, next, StageListener.NONE);
+                } catch (final DeadlineExceededException e) {
+                    throw e;
+                } catch (final Exception e) {
+                    CoverBundleOptimizer.log.debug("bundle does not quote", e);
+                    continue;
+                }
+                this.partialQuotes++;
+                final PremiumResponse reached = context.getPremiumResponse();
+                if (depth + 1 == this.candidates.size()) {
+                    this.bundlesPriced++;
+                    if (reached.getTotalPremium() < this.cheapest.getTotalPremium()) {
+                        this.cheapest = reached;
+                        this.cheapestRequest = bundle;
+                    }
+                } else if (this.bound(reached, next) > this.cheapest.getFinalPremium()) {
+                    // the total premium only grows with the final premium, the cheapest one found stays the cheapest
+                    this.prunedByBound++;
+                } else {
+                    this.search(depth + 1, bundle, reached);
+                }
+            }
+        }
+
+        /**
+         * Lowest final premium any bundle can reach from the state in front of position. Every stage still to come
+         * rounds its insured-years by at most half a rupee and the final premium drops the fraction of each.
+         */
+        private double bound(final PremiumResponse state, final int position) throws IllegalAccessException {
+            final List<Applicable> applicables = state.getApplicables();
+            double bound = 0.0d;
+            for (int index = 0; index < applicables.size(); index++) {
+                final Applicable applicable = applicables.get(index);
+                double premium = applicable.getBasePremium();
+                double added = 0.0d; // additive loadings waiting for stage II
+                double deducted = 0.0d; // discounts waiting for stage III
+                for (int earlier = 0; earlier < position; earlier++) {
+                    if (position <= CoverBundleOptimizer.this.stageII && this.isAdditive(earlier)) {
+                        added += CoverBundleOptimizer.this.component(earlier, applicable);
+                    } else if (position <= CoverBundleOptimizer.this.stageIII && this.isDeferred(earlier)) {
+                        deducted += CoverBundleOptimizer.this.component(earlier, applicable);
+                    }
+                }
+                for (int later = position; later < this.attributes.length; later++) {
+                    if (CoverBundleOptimizer.this.stageII == later) {
+                        premium += added;
+                    } else if (CoverBundleOptimizer.this.stageIII == later) {
+                        premium = Math.max(premium - deducted, CoverBundleOptimizer.STAGE_III_FLOOR * premium);
+                    } else if (null != this.amounts[later]) {
+                        added += this.amounts[later][index];
+                    } else if (null != this.rates[later] && this.isDeferred(later)) {
+                        deducted += premium * this.rates[later][index];
+                    } else if (null != this.rates[later]) {
+                        premium -= premium * this.rates[later][index];
+                    }
+                }
+                bound += premium - 0.5d * this.rounded[position] - 1.0d;
+            }
+            return bound;
+        }
+
+        /**
+         * Loading stage II adds to the premium as it is, not a rate of it.
+         */
+        private boolean isAdditive(final int position) {
+            final Attribute attribute = this.attributes[position];
+            return null != attribute && null != CoverBundleOptimizer.this.fields[position] && position < CoverBundleOptimizer.this.stageII
+                    && !attribute.isMultiplicative() && !"discount".equals(attribute.getExpenseType());
+        }
+
+        /**
+         * Discount stage III takes off, together with the others and a fifth of the premium at most.
+         */
+        private boolean isDeferred(final int position) {
+            final Attribute attribute = this.attributes[position];
+            return null != attribute && null != CoverBundleOptimizer.this.fields[position]
+                    && CoverBundleOptimizer.this.stageII < position && position < CoverBundleOptimizer.this.stageIII
+                    && !attribute.isMultiplicative() && "discount".equals(attribute.getExpenseType());
+        }
+
+        private boolean isDiscount(final int position) {
+            final Attribute attribute = this.attributes[position];
+            return null != attribute && null != CoverBundleOptimizer.this.fields[position] && "discount".equals(attribute.getExpenseType())
+                    && (attribute.isMultiplicative() || this.isDeferred(position));
+        }
+
+        private CoverBundle result() throws Exception {
+            CoverBundleOptimizer.this.premiumService.createSummary(this.cheapest);
+            final List<String> selected = new ArrayList<>();
+            for (final CoverToggle toggle : CoverBundleOptimizer.this.toggles) {
+                if (Boolean.TRUE.equals(toggle.selected(this.cheapestRequest))) {
+                    selected.add(toggle.getCover());
+                }
+            }
+            return CoverBundle.builder()
+                    .mustHave(this.mustHave)
+                    .covers(selected)
+                    .totalPremium(this.cheapest.getTotalPremium())
+                    .mustHavePremium(this.mustHaveQuote.getTotalPremium())
+                    .quote(this.cheapest)
+                    .candidates(this.candidates.size())
+                    .bundles(1L << this.candidates.size())
+                    .bundlesPriced(this.bundlesPriced)
+                    .partialQuotes(this.partialQuotes)
+                    .prunedByBound(this.prunedByBound)
+                    .prunedByValidation(this.prunedByValidation)
+                    .build();
+        }
+
+        /**
+         * Reads the discount rates and additive loadings of the stages it sees, all of them or the one at position.
+         */
+        private final class Probe implements StageListener {
+            private final StageListener delegate;
+            private final int position;
+            private double[] premiums;
+
+            private Probe(final StageListener delegate, final int position) {
+                this.delegate = delegate;
+                this.position = position;
+            }
+
+            @Override
+            public void beforeStage(final QuoteContext context, final Stage stage) {
+                this.delegate.beforeStage(context, stage);
+                if (this.measures(stage.getPosition())) {
+                    this.premiums = context.getPremiumResponse().getApplicables().stream().mapToDouble(Applicable::getBasePremium).toArray();
+                }
+            }
+
+            @Override
+            public void afterStage(final QuoteContext context, final Stage stage) {
+                this.delegate.afterStage(context, stage);
+                final int at = stage.getPosition();
+                if (!this.measures(at)) {
+                    return;
+                }
+                final boolean rounding = stage.getAttribute().isRounding();
+                final List<Applicable> applicables = context.getPremiumResponse().getApplicables();
+                final double[] measured = new double[applicables.size()];
+                try {
+                    for (int index = 0; index < measured.length; index++) {
+                        final double component = CoverBundleOptimizer.this.component(at, applicables.get(index));
+                        if (Search.this.isAdditive(at)) {
+                            measured[index] = Math.max(0.0d, component - (rounding ? 0.5d : 0.0d));
+                        } else {
+                            // a rounded component is at most half a rupee under the rate of the premium it was taken from
+                            final double premium = this.premiums[index];
+                            measured[index] = 0.0d < premium ? Math.min(1.0d, (component + (rounding ? 0.5d : 0.0d)) / premium) : 1.0d;
+                        }
+                    }
+                } catch (final IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+                if (Search.this.isAdditive(at)) {
+                    Search.this.amounts[at] = measured;
+                } else {
+                    Search.this.rates[at] = measured;
+                }
+            }
+
+            private boolean measures(final int at) {
+                if (0 <= this.position && this.position != at) {
+                    return false;
+                }
+                // a cover's own loading is left out of the bound, it may stay off
+                return Search.this.isDiscount(at) || 0 > this.position && Search.this.isAdditive(at);
+            }
+        }
+    }
+
+    private static final class Candidate {
+        private final CoverToggle toggle;
+        private final int position;
+        private final boolean discount;
+
+        private Candidate(final CoverToggle toggle, final int position, final boolean discount) {
+            this.toggle = toggle;
+            this.position = position;
+            this.discount = discount;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.quotes.premium.session;
+
+import com.quotes.premium.dto.PremiumRequest;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Flips one optional cover on a shallow copy of a request through its bean accessors, cheaper than a JSON round trip
+ * per cover. A cover names a boolean request property, or property.flag for the flag of an option object, which is
+ * copied before its flag changes so the request toggled from is never touched.
+ */
+final class CoverToggle {
+
+    private static final Map<Class<?>, PropertyDescriptor[]> PROPERTIES = new ConcurrentHashMap<>();
+
+    private final String cover;
+    private final String property;
+    private final PropertyDescriptor holder; // option object on the request, null for a boolean request property
+    private final PropertyDescriptor flag;
+
+    private CoverToggle(final String cover, final String property, final PropertyDescriptor holder, final PropertyDescriptor flag) {
+        this.cover = cover;
+        this.property = property;
+        this.holder = holder;
+        this.flag = flag;
+    }
+
+    static CoverToggle compile(final String cover) {
+        final int dot = cover.indexOf('.');
+        final String property = 0 > dot ? cover : cover.substring(0, dot);
+        final PropertyDescriptor holder = 0 > dot ? null : CoverToggle.property(PremiumRequest.class, property);
+        final PropertyDescriptor flag = 0 > dot
+                ? CoverToggle.property(PremiumRequest.class, property)
+                : CoverToggle.property(holder.getPropertyType(), cover.substring(dot + 1));
+        if (boolean.class != flag.getPropertyType()) {
+            throw new IllegalArgumentException("cover " + cover + " is not a boolean flag");
+        }
+        return new CoverToggle(cover, property, holder, flag);
+    }
+
+    String getCover() {
+        return this.cover;
+    }
+
+    /**
+     * Request property the cover is read from, as FeatureActivation knows it.
+     */
+    String getProperty() {
+        return this.property;
+    }
+
+    /**
+     * @return null when the request carries no option object to toggle
+     */
+    Boolean selected(final PremiumRequest premiumRequest) throws ReflectiveOperationException {
+        final Object target = null == this.holder ? premiumRequest : this.holder.getReadMethod().invoke(premiumRequest);
+        return null == target ? null : (Boolean) this.flag.getReadMethod().invoke(target);
+    }
+
+    PremiumRequest toggle(final PremiumRequest premiumRequest, final boolean selected) throws ReflectiveOperationException {
+        return this.select(premiumRequest, !selected);
+    }
+
+    /**
+     * @return a copy with the cover on or off, the request must carry the option object of an option object cover
+     */
+    PremiumRequest select(final PremiumRequest premiumRequest, final boolean selected) throws ReflectiveOperationException {
+        final PremiumRequest toggled = CoverToggle.copy(premiumRequest);
+        Object target = toggled;
+        if (null != this.holder) {
+            target = CoverToggle.copy(this.holder.getReadMethod().invoke(premiumRequest));
+            this.holder.getWriteMethod().invoke(toggled, target);
+        }
+        this.flag.getWriteMethod().invoke(target, selected);
+        return toggled;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T copy(final T bean) throws ReflectiveOperationException {
+        final T copy = (T) bean.getClass().getConstructor().newInstance();
+        for (final PropertyDescriptor property : CoverToggle.properties(bean.getClass())) {
+            property.getWriteMethod().invoke(copy, property.getReadMethod().invoke(bean));
+        }
+        return copy;
+    }
+
+    private static PropertyDescriptor property(final Class<?> type, final String name) {
+        return Arrays.stream(CoverToggle.properties(type)).filter(property -> property.getName().equals(name)).findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(type.getSimpleName() + " has no property " + name));
+    }
+
+    private static PropertyDescriptor[] properties(final Class<?> type) {
+        return CoverToggle.PROPERTIES.computeIfAbsent(type, key -> {
+            try {
+                return Arrays.stream(Introspector.getBeanInfo(key, Object.class).getPropertyDescriptors())
+                        .filter(property -> null != property.getReadMethod() && null != property.getWriteMethod())
+                        .toArray(PropertyDescriptor[]::new);
+            } catch (final IntrospectionException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,107 @@
+package com.quotes.premium.session;
+
+import com.quotes.premium.config.MandatoryConfiguration;
+import com.quotes.premium.dto.ApiResponse;
+import com.quotes.premium.dto.CoverImpact;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.PremiumResponse;
+import com.quotes.premium.dto.QuoteBreakdownResponse;
+import com.quotes.premium.exception.DeadlineExceededException;
+import com.quotes.premium.exception.ValidationException;
+import com.quotes.premium.plan.FeatureActivation;
+import com.quotes.premium.plan.QuoteContext;
+import com.quotes.premium.plan.StageListener;
+import com.quotes.premium.service.PremiumService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base quote plus what toggling each optional cover or discount in quote.breakdown.covers does to it. The base quote
+ * runs once with a checkpoint in front of every execution key, each toggled quote resumes from the checkpoint of
+ * the first key reading the toggled property, so lookup, zonal, floater and reflex loading are never priced twice.
+ * <p>
+ * An option object cover is left out when the request does not carry the object, switching it on needs options only
+ * the caller knows.
+ */
+@Service
+@Log4j2
+public class QuoteBreakdownService {
+
+    @Autowired
+    private PremiumService premiumService;
+    @Autowired
+    private MandatoryConfiguration mandatoryConfiguration;
+
+    @Value("${quote.breakdown.covers}")
+    private List<String> covers;
+
+    private List<CoverToggle> toggles;
+    private int[] positions; // of the first execution key reading each toggle's property
+
+    @PostConstruct
+    public void init() {
+        this.toggles = this.covers.stream().map(String::trim).map(CoverToggle::compile).toList();
+        final List<String> executionKeys = this.mandatoryConfiguration.getExecutionKeys();
+        this.positions = this.toggles.stream()
+                .mapToInt(toggle -> FeatureActivation.firstAffectedPosition(List.of(toggle.getProperty()), executionKeys)).toArray();
+    }
+
+    public ApiResponse<QuoteBreakdownResponse> breakdown(final PremiumRequest premiumRequest) {
+        final List<String> executionKeys = this.mandatoryConfiguration.getExecutionKeys();
+        final QuoteSession base = new QuoteSession(null, executionKeys);
+        final PremiumResponse quote;
+        try {
+            base.start(this.premiumService.prepare(premiumRequest));
+            this.premiumService.execute(base.getContext(), 0, base);
+            base.finish(base.getContext());
+            quote = base.getContext().getPremiumResponse();
+            this.premiumService.createSummary(quote);
+        } catch (final DeadlineExceededException e) {
+            throw e;
+        } catch (final ValidationException e) {
+            return ApiResponse.buildResponse(null, PremiumService.failureMessage(e), false, e.getErrors());
+        } catch (final Exception e) {
+            return ApiResponse.buildResponse(null, PremiumService.failureMessage(e), false);
+        }
+
+        final List<CoverImpact> impacts = new ArrayList<>(this.toggles.size());
+        for (int index = 0; index < this.toggles.size(); index++) {
+            final CoverImpact impact = this.impact(base, quote, this.toggles.get(index), this.positions[index], executionKeys);
+            if (null != impact) {
+                impacts.add(impact);
+            }
+        }
+        return ApiResponse.buildResponse(new QuoteBreakdownResponse(quote, impacts), "success", true);
+    }
+
+    private CoverImpact impact(final QuoteSession base, final PremiumResponse quote, final CoverToggle toggle, final int position,
+                               final List<String> executionKeys) {
+        final String recomputedFrom = position < executionKeys.size() ? executionKeys.get(position) : null;
+        Boolean selected = null;
+        try {
+            selected = toggle.selected(base.getContext().getPremiumRequest());
+            if (null == selected) {
+                return null;
+            }
+            final PremiumRequest toggled = toggle.toggle(base.getContext().getPremiumRequest(), selected);
+            final boolean resume = base.canResumeFrom(position);
+            final QuoteContext context = resume
+                    ? this.premiumService.resume(toggled, base.getCheckpoints()[position])
+                    : this.premiumService.prepare(toggled);
+            this.premiumService.execute(context, resume ? position : 0, StageListener.NONE);
+            final long totalPremium = context.getPremiumResponse().getTotalPremium();
+            return new CoverImpact(toggle.getCover(), selected, true, "success", totalPremium, totalPremium - quote.getTotalPremium(), recomputedFrom);
+        } catch (final DeadlineExceededException e) {
+            throw e;
+        } catch (final Exception e) {
+            QuoteBreakdownService.log.debug("toggling {} does not quote", toggle.getCover(), e);
+            return new CoverImpact(toggle.getCover(), Boolean.TRUE.equals(selected), false, PremiumService.failureMessage(e), 0L, 0L, recomputedFrom);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.quotes.premium.session;
+
+import com.quotes.premium.dto.PremiumResponse;
+import com.quotes.premium.plan.FeatureActivation;
+import com.quotes.premium.plan.QuoteContext;
+import com.quotes.premium.plan.Stage;
+import com.quotes.premium.plan.StageListener;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Quote kept between interactions of one visitor. Holds the state in front of every execution key
+ * position a change can resume from, so a change that only reaches key N resumes from checkpoint N.
+ */
+@Getter
+public class QuoteSession implements StageListener {
+
+    private static final long RESPONSE_BYTES = 256L;
+    private static final long APPLICABLE_BYTES = 1024L; // an insured-year with its boxed components, roughly
+
+    private final String id;
+    private QuoteContext context;
+    private final boolean[] resumable; // by position, see FeatureActivation.resumablePositions
+    private final PremiumResponse[] checkpoints; // null where no change resumes
+    private int checkpointed = -1;
+    private volatile boolean superseded;
+
+    QuoteSession(final String id, final List<String> executionKeys) {
+        this(id, FeatureActivation.resumablePositions(executionKeys));
+    }
+
+    private QuoteSession(final String id, final boolean[] resumable) {
+        this.id = id;
+        this.resumable = resumable;
+        this.checkpoints = new PremiumResponse[resumable.length];
+    }
+
+    void start(final QuoteContext context) {
+        this.context = context;
+    }
+
+    /**
+     * Next version of this session recomputing from the given position. The checkpoints in front of it
+     * are shared, this session stays untouched until the new version replaces it in the store.
+     */
+    QuoteSession resume(final QuoteContext context, final int position) {
+        final QuoteSession next = new QuoteSession(this.id, this.resumable);
+        System.arraycopy(this.checkpoints, 0, next.checkpoints, 0, position + 1);
+        next.checkpointed = position;
+        next.context = context.restore(this.checkpoints[position]);
+        return next;
+    }
+
+    boolean canResumeFrom(final int position) {
+        return 0 < position && position <= this.checkpointed && null != this.checkpoints[position];
+    }
+
+    void supersede() {
+        this.superseded = true;
+    }
+
+    /**
+     * Rough heap the session holds: its current quote and every distinct checkpoint.
+     */
+    long estimatedBytes() {
+        long bytes = null == this.context ? 0L : QuoteSession.estimatedBytes(this.context.getPremiumResponse());
+        PremiumResponse previous = null;
+        for (final PremiumResponse checkpoint : this.checkpoints) {
+            if (null != checkpoint && checkpoint != previous) {
+                bytes += QuoteSession.estimatedBytes(checkpoint);
+                previous = checkpoint;
+            }
+        }
+        return bytes;
+    }
+
+    @Override
+    public void beforeStage(final QuoteContext context, final Stage stage) {
+        this.checkpointUpTo(context, stage.getPosition());
+    }
+
+    void finish(final QuoteContext context) {
+        this.checkpointUpTo(context, this.checkpoints.length - 1);
+    }
+
+    private void checkpointUpTo(final QuoteContext context, final int position) {
+        if (position <= this.checkpointed) {
+            return;
+        }
+        // positions skipped by the plan see the same state, they share one snapshot
+        PremiumResponse snapshot = null;
+        for (int checkpoint = this.checkpointed + 1; checkpoint <= position; checkpoint++) {
+            if (this.resumable[checkpoint]) {
+                if (null == snapshot) {
+                    snapshot = context.getPremiumResponse().copy();
+                }
+                this.checkpoints[checkpoint] = snapshot;
+            }
+        }
+        this.checkpointed = position;
+    }
+
+    private static long estimatedBytes(final PremiumResponse premiumResponse) {
+        return QuoteSession.RESPONSE_BYTES + QuoteSession.APPLICABLE_BYTES * premiumResponse.getApplicables().size();
+    }
+}
@@ -0,0 +1,160 @@
+package com.quotes.premium.session;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.quotes.premium.config.MandatoryConfiguration;
+import com.quotes.premium.dto.ApiResponse;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.PremiumResponse;
+import com.quotes.premium.dto.QuoteSessionResponse;
+import com.quotes.premium.exception.ValidationException;
+import com.quotes.premium.plan.FeatureActivation;
+import com.quotes.premium.plan.QuoteContext;
+import com.quotes.premium.service.PremiumService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+@Service
+@Log4j2
+public class QuoteSessionService {
+
+    @Autowired
+    private PremiumService premiumService;
+    @Autowired
+    private QuoteSessionStore quoteSessionStore;
+    @Autowired
+    private MandatoryConfiguration mandatoryConfiguration;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    public ApiResponse<QuoteSessionResponse> create(final PremiumRequest premiumRequest) {
+        try {
+            final QuoteSession session = new QuoteSession(UUID.randomUUID().toString(), this.mandatoryConfiguration.getExecutionKeys());
+            session.start(this.premiumService.prepare(premiumRequest));
+            final PremiumResponse premiumResponse = this.run(session, 0);
+            this.quoteSessionStore.put(session);
+            return ApiResponse.buildResponse(new QuoteSessionResponse(session.getId(), this.keyAt(0), premiumResponse), "success", true);
+        } catch (final ValidationException e) {
+            return ApiResponse.buildResponse(null, PremiumService.failureMessage(e), false, e.getErrors());
+        } catch (final Exception e) {
+            return ApiResponse.buildResponse(null, PremiumService.failureMessage(e), false);
+        }
+    }
+
+    /**
+     * Applies a JSON merge patch of PremiumRequest properties and recomputes the stages downstream of the
+     * earliest execution key reading a changed property. A patch producing an invalid quote is not applied.
+     *
+     * @return null when the session does not exist or has expired
+     */
+    public ApiResponse<QuoteSessionResponse> update(final String sessionId, final JsonNode patch) {
+        while (true) {
+            final QuoteSession session = this.quoteSessionStore.get(sessionId);
+            if (null == session) {
+                return null;
+            }
+            synchronized (session) {
+                if (session.isSuperseded()) {
+                    continue; // a concurrent patch replaced it, apply on top of the newer version
+                }
+                return this.update(session, patch);
+            }
+        }
+    }
+
+    public ApiResponse<QuoteSessionResponse> get(final String sessionId) {
+        final QuoteSession session = this.quoteSessionStore.get(sessionId);
+        if (null == session) {
+            return null;
+        }
+        return ApiResponse.buildResponse(new QuoteSessionResponse(sessionId, null, session.getContext().getPremiumResponse()), "success", true);
+    }
+
+    public boolean delete(final String sessionId) {
+        return this.quoteSessionStore.remove(sessionId);
+    }
+
+    private ApiResponse<QuoteSessionResponse> update(final QuoteSession session, final JsonNode patch) {
+        try {
+            final ObjectNode current = this.objectMapper.valueToTree(session.getContext().getPremiumRequest());
+            final ObjectNode patched = current.deepCopy();
+            QuoteSessionService.merge(patched, patch);
+
+            final List<String> changed = new ArrayList<>();
+            final Iterator<String> names = patch.fieldNames();
+            while (names.hasNext()) {
+                final String name = names.next();
+                if (!Objects.equals(current.get(name), patched.get(name))) {
+                    changed.add(name);
+                }
+            }
+            if (changed.isEmpty()) {
+                return ApiResponse.buildResponse(new QuoteSessionResponse(session.getId(), null, session.getContext().getPremiumResponse()), "success", true);
+            }
+
+            final List<String> executionKeys = this.mandatoryConfiguration.getExecutionKeys();
+            final PremiumRequest premiumRequest = this.objectMapper.treeToValue(patched, PremiumRequest.class);
+            final QuoteContext context = this.premiumService.prepare(premiumRequest);
+            int position = FeatureActivation.firstAffectedPosition(changed, executionKeys);
+            final QuoteSession next;
+            if (session.canResumeFrom(position)) {
+                next = session.resume(context, position);
+            } else {
+                position = 0;
+                next = new QuoteSession(session.getId(), executionKeys);
+                next.start(context);
+            }
+            QuoteSessionService.log.debug("quote session {} changed {}, recomputing from {}", session.getId(), changed, this.keyAt(position));
+
+            final PremiumResponse premiumResponse = this.run(next, position);
+            session.supersede();
+            this.quoteSessionStore.put(next);
+            return ApiResponse.buildResponse(new QuoteSessionResponse(next.getId(), this.keyAt(position), premiumResponse), "success", true);
+        } catch (final ValidationException e) {
+            return ApiResponse.buildResponse(null, PremiumService.failureMessage(e), false, e.getErrors());
+        } catch (final Exception e) {
+            return ApiResponse.buildResponse(null, PremiumService.failureMessage(e), false);
+        }
+    }
+
+    private PremiumResponse run(final QuoteSession session, final int position) throws Exception {
+        final QuoteContext context = session.getContext();
+        this.premiumService.execute(context, position, session);
+        session.finish(context);
+        this.premiumService.createSummary(context.getPremiumResponse());
+        return context.getPremiumResponse();
+    }
+
+    private String keyAt(final int position) {
+        final List<String> executionKeys = this.mandatoryConfiguration.getExecutionKeys();
+        return position < executionKeys.size() ? executionKeys.get(position) : null;
+    }
+
+    /**
+     * RFC 7396 merge: objects merge recursively, null removes, anything else replaces.
+     */
+    private static void merge(final ObjectNode target, final JsonNode patch) {
+        final Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+        while (fields.hasNext()) {
+            final Map.Entry<String, JsonNode> field = fields.next();
+            final JsonNode value = field.getValue();
+            final JsonNode existing = target.get(field.getKey());
+            if (value.isNull()) {
+                target.remove(field.getKey());
+            } else if (value.isObject() && null != existing && existing.isObject()) {
+                QuoteSessionService.merge((ObjectNode) existing, value);
+            } else {
+                target.set(field.getKey(), value);
+            }
+        }
+    }
+}
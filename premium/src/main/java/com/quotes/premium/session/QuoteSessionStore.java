@@ -0,0 +1,104 @@
+package com.quotes.premium.session;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, access ordered session store. Sessions idle for longer than the ttl are evicted on access,
+ * the least recently used ones are evicted while the store holds more than max.entries sessions or more
+ * than max.bytes of estimated checkpoints.
+ */
+@Component
+@Log4j2
+public class QuoteSessionStore {
+
+    @Value("${quote.session.max.entries:10000}")
+    private int maxEntries;
+
+    @Value("${quote.session.max.bytes:268435456}")
+    private long maxBytes;
+
+    @Value("${quote.session.ttl.seconds:1800}")
+    private long ttlSeconds;
+
+    private final LinkedHashMap<String, Entry> sessions = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytes; // estimated, of every session held
+
+    public synchronized QuoteSession get(final String id) {
+        final long now = System.nanoTime();
+        this.evictExpired(now);
+        final Entry entry = this.sessions.get(id);
+        if (null == entry) {
+            return null;
+        }
+        entry.lastAccess = now;
+        return entry.session;
+    }
+
+    public synchronized void put(final QuoteSession session) {
+        final long now = System.nanoTime();
+        this.evictExpired(now);
+        final Entry entry = new Entry(session, now);
+        this.bytes += entry.bytes;
+        this.release(this.sessions.put(session.getId(), entry));
+        // the newest session stays even when it alone is over the byte bound
+        while (this.sessions.size() > this.maxEntries || (this.bytes > this.maxBytes && 1 < this.sessions.size())) {
+            final Iterator<Map.Entry<String, Entry>> eldest = this.sessions.entrySet().iterator();
+            final Map.Entry<String, Entry> evicted = eldest.next();
+            QuoteSessionStore.log.debug("evicting quote session {}, store is full", evicted.getKey());
+            this.release(evicted.getValue());
+            eldest.remove();
+        }
+    }
+
+    public synchronized boolean remove(final String id) {
+        final Entry entry = this.sessions.remove(id);
+        this.release(entry);
+        return null != entry;
+    }
+
+    public synchronized int size() {
+        return this.sessions.size();
+    }
+
+    public synchronized long bytes() {
+        return this.bytes;
+    }
+
+    private void release(final Entry entry) {
+        if (null != entry) {
+            this.bytes -= entry.bytes;
+        }
+    }
+
+    private void evictExpired(final long now) {
+        final long ttlNanos = this.ttlSeconds * 1_000_000_000L;
+        final Iterator<Entry> iterator = this.sessions.values().iterator();
+        // access order keeps the longest idle session first
+        while (iterator.hasNext()) {
+            final Entry entry = iterator.next();
+            if (now - entry.lastAccess < ttlNanos) {
+                return;
+            }
+            this.release(entry);
+            iterator.remove();
+        }
+    }
+
+    private static final class Entry {
+        private final QuoteSession session;
+        private final long bytes;
+        private long lastAccess;
+
+        private Entry(final QuoteSession session, final long lastAccess) {
+            this.session = session;
+            this.bytes = session.estimatedBytes();
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.quotes.premium.solver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quotes.premium.config.MandatoryConfiguration;
+import com.quotes.premium.dto.ApiResponse;
+import com.quotes.premium.dto.CoverSolution;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.PremiumResponse;
+import com.quotes.premium.exception.DeadlineExceededException;
+import com.quotes.premium.plan.QuoteContext;
+import com.quotes.premium.plan.Stage;
+import com.quotes.premium.plan.StageListener;
+import com.quotes.premium.service.PremiumService;
+import com.quotes.premium.service.ValidationService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Highest sum insured a family gets for a yearly budget, at every policy term. Validation turns some sums insured
+ * down for some families, PA cover below a minimum say, and costs little next to pricing, so every sum insured is
+ * validated first. Among those that validate the premium only grows with the sum insured, so each term binary
+ * searches them instead of pricing all of them, one failing to price counts as over budget.
+ * <p>
+ * The searches of all terms share their quotes: a sum insured is priced once through the whole pipeline at the
+ * longest term it validates at. Every insured-year up to the stage V total is priced the same whatever the term,
+ * so a shorter term keeps the insured-years of its own years and only runs the totals, taxes and payment term.
+ */
+@Service
+@Log4j2
+public class CoverSolver {
+
+    private static final String TOTALS_KEY = "stageVPremium";
+
+    /**
+     * In increasing cover, UNLIMITED above every amount.
+     */
+    private static final List<String> SUMS_INSURED = ValidationService.ALLOWED_SUM_INSURED.stream()
+            .sorted(Comparator.comparingLong(CoverSolver::amount)).toList();
+
+    @Autowired
+    private PremiumService premiumService;
+    @Autowired
+    private MandatoryConfiguration mandatoryConfiguration;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private int totalsPosition; // of the first stage adding up insured-years
+
+    @PostConstruct
+    public void init() {
+        this.totalsPosition = this.mandatoryConfiguration.getExecutionKeys().indexOf(CoverSolver.TOTALS_KEY);
+        if (0 > this.totalsPosition) {
+            throw new IllegalStateException("execution.keys has no " + CoverSolver.TOTALS_KEY);
+        }
+    }
+
+    /**
+     * @param premiumRequest the family, zone and covers, its sum insured and policy term are not looked at
+     */
+    public ApiResponse<CoverSolution> solve(final PremiumRequest premiumRequest, final long budget) {
+        if (0L >= budget) {
+            return ApiResponse.buildResponse(null, "budget must be positive", false);
+        }
+        final List<CoverSolution.Option> options = new ArrayList<>();
+        CoverSolution.Option best = null;
+        final Search search;
+        try {
+            search = new Search(premiumRequest, budget);
+            for (int term = ValidationService.MIN_POLICY_TERM; term <= ValidationService.MAX_POLICY_TERM; term++) {
+                int fits = -1; // highest candidate known within budget
+                int over = search.candidates.size(); // lowest candidate known over it
+                while (1 < over - fits) {
+                    final int middle = (fits + over) >>> 1;
+                    if (search.fits(search.candidates.get(middle), term)) {
+                        fits = middle;
+                    } else {
+                        over = middle;
+                    }
+                }
+                if (0 > fits) {
+                    continue;
+                }
+                final int sumInsured = search.candidates.get(fits);
+                final CoverSolution.Option option = search.option(sumInsured, term);
+                options.add(option);
+                if (null == best || CoverSolver.SUMS_INSURED.indexOf(best.getSumInsured()) < sumInsured
+                        || CoverSolver.SUMS_INSURED.indexOf(best.getSumInsured()) == sumInsured && option.getAnnualPremium() < best.getAnnualPremium()) {
+                    best = option;
+                }
+            }
+        } catch (final DeadlineExceededException e) {
+            throw e;
+        } catch (final Exception e) {
+            return ApiResponse.buildResponse(null, PremiumService.failureMessage(e), false);
+        }
+        CoverSolver.log.debug("budget {} solved with {} sums insured priced and {} terms finished", budget, search.priced, search.repriced);
+        return ApiResponse.buildResponse(CoverSolution.builder()
+                .budget(budget)
+                .best(best)
+                .options(options)
+                .sumsInsuredPriced(search.priced)
+                .termsRepriced(search.repriced)
+                .gridSize(CoverSolver.SUMS_INSURED.size() * (ValidationService.MAX_POLICY_TERM - ValidationService.MIN_POLICY_TERM + 1))
+                .build(), "success", true);
+    }
+
+    private static long amount(final String sumInsured) {
+        return "UNLIMITED".equals(sumInsured) ? Long.MAX_VALUE : Long.parseLong(sumInsured);
+    }
+
+    /**
+     * Quotes of one solve, by sum insured and term, priced when first asked for.
+     */
+    private final class Search {
+        private final PremiumRequest premiumRequest;
+        private final long budget;
+        private final Priced[] bySumInsured = new Priced[CoverSolver.SUMS_INSURED.size()];
+        private final List<Integer> candidates = new ArrayList<>(); // sums insured that validate, in increasing cover
+        private int priced;
+        private int repriced;
+
+        private Search(final PremiumRequest premiumRequest, final long budget) {
+            this.premiumRequest = premiumRequest;
+            this.budget = budget;
+            for (int sumInsured = 0; sumInsured < this.bySumInsured.length; sumInsured++) {
+                this.bySumInsured[sumInsured] = this.prepare(CoverSolver.SUMS_INSURED.get(sumInsured));
+                if (null != this.bySumInsured[sumInsured].context) {
+                    this.candidates.add(sumInsured);
+                }
+            }
+        }
+
+        private boolean fits(final int sumInsured, final int term) throws Exception {
+            final PremiumResponse quote = this.quote(sumInsured, term);
+            return null != quote && quote.getTotalPremium() <= this.budget * term;
+        }
+
+        private CoverSolution.Option option(final int sumInsured, final int term) throws Exception {
+            final PremiumResponse quote = this.quote(sumInsured, term);
+            CoverSolver.this.premiumService.createSummary(quote);
+            return CoverSolution.Option.builder()
+                    .sumInsured(CoverSolver.SUMS_INSURED.get(sumInsured))
+                    .policyTerm(term)
+                    .totalPremium(quote.getTotalPremium())
+                    .annualPremium((quote.getTotalPremium() + term - 1) / term)
+                    .quote(quote)
+                    .build();
+        }
+
+        /**
+         * @return null when the request does not quote at this sum insured and term
+         */
+        private PremiumResponse quote(final int sumInsured, final int term) {
+            final Priced priced = this.bySumInsured[sumInsured];
+            if (term > priced.longest) {
+                return null;
+            }
+            if (!priced.finished[priced.longest]) {
+                this.price(priced);
+            }
+            if (!priced.finished[term]) {
+                priced.finished[term] = true;
+                priced.quotes[term] = this.finish(priced, term);
+            }
+            return priced.quotes[term];
+        }
+
+        /**
+         * Validates the sum insured at the longest term it validates at, no term when it validates at none.
+         */
+        private Priced prepare(final String sumInsured) {
+            final Priced priced = new Priced(sumInsured);
+            for (int term = ValidationService.MAX_POLICY_TERM; term >= ValidationService.MIN_POLICY_TERM && null == priced.context; term--) {
+                try {
+                    priced.context = CoverSolver.this.premiumService.prepare(this.variant(sumInsured, term));
+                    priced.longest = term;
+                } catch (final Exception e) {
+                    // not at this term, an EMI past three years say
+                }
+            }
+            return priced;
+        }
+
+        /**
+         * Prices the longest term in full, keeping the insured-years as they reach the totals.
+         */
+        private void price(final Priced priced) {
+            this.priced++;
+            priced.finished[priced.longest] = true;
+            try {
+                CoverSolver.this.premiumService.execute(priced.context, 0, new StageListener() {
+                    @Override
+                    public void beforeStage(final QuoteContext context, final Stage stage) {
+                        if (CoverSolver.this.totalsPosition == stage.getPosition()) {
+                            priced.insuredYears = context.getPremiumResponse().copy();
+                        }
+                    }
+                });
+                priced.quotes[priced.longest] = priced.context.getPremiumResponse();
+            } catch (final DeadlineExceededException e) {
+                throw e;
+            } catch (final Exception e) {
+                CoverSolver.log.debug("sum insured {} does not quote", priced.sumInsured, e);
+                priced.insuredYears = null;
+            }
+        }
+
+        private PremiumResponse finish(final Priced priced, final int term) {
+            if (null == priced.insuredYears) {
+                return null;
+            }
+            final PremiumResponse insuredYears = priced.insuredYears.copy();
+            insuredYears.getApplicables().removeIf(applicable -> applicable.getYear() > term);
+            try {
+                final QuoteContext context = CoverSolver.this.premiumService.resume(this.variant(priced.sumInsured, term), insuredYears);
+                CoverSolver.this.premiumService.execute(context, CoverSolver.this.totalsPosition, StageListener.NONE);
+                this.repriced++;
+                return context.getPremiumResponse();
+            } catch (final DeadlineExceededException e) {
+                throw e;
+            } catch (final Exception e) {
+                return null;
+            }
+        }
+
+        private PremiumRequest variant(final String sumInsured, final int term) {
+            final PremiumRequest variant = CoverSolver.this.objectMapper.convertValue(this.premiumRequest, PremiumRequest.class);
+            variant.setSumInsured(sumInsured);
+            variant.setPolicyTerm(term);
+            return variant;
+        }
+    }
+
+    private static final class Priced {
+        private final String sumInsured;
+        private final PremiumResponse[] quotes = new PremiumResponse[ValidationService.MAX_POLICY_TERM + 1];
+        private final boolean[] finished = new boolean[ValidationService.MAX_POLICY_TERM + 1];
+        private QuoteContext context; // at the longest term, null when no term validates
+        private int longest;
+        private PremiumResponse insuredYears; // in front of the totals
+
+        private Priced(final String sumInsured) {
+            this.sumInsured = sumInsured;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.quotes.premium.traffic;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;
+import com.quotes.premium.dto.PremiumRequest;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Appends a traffic.capture.sample.rate share of the quote requests received to traffic logs in
+ * traffic.capture.directory, for TrafficReplayCommand. The request thread only encodes the request and offers it to a
+ * bounded queue, a capture that does not fit is dropped. A background thread writes them, starting a new file once
+ * one reaches traffic.capture.file.bytes and deleting the oldest beyond traffic.capture.files.
+ * <p>
+ * Requests are normalized to what the service read from them: unknown properties are gone and properties left at the
+ * value a new request object has are left out, reading the entry back gives the same request.
+ */
+@Component
+@Log4j2
+public class TrafficCapture {
+
+    private static final DateTimeFormatter FILE_NAME = DateTimeFormatter.ofPattern("'traffic-'yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+    private static final long IDLE_FLUSH_MILLIS = 1_000L;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${traffic.capture.enabled:false}")
+    private boolean enabled;
+    @Value("${traffic.capture.sample.rate:0.01}")
+    private double sampleRate;
+    @Value("${traffic.capture.directory:traffic}")
+    private Path directory;
+    @Value("${traffic.capture.file.bytes:67108864}")
+    private long fileBytes;
+    @Value("${traffic.capture.files:16}")
+    private int files;
+    @Value("${traffic.capture.queue:4096}")
+    private int queueSize;
+
+    private ObjectWriter writer;
+    private BlockingQueue<TrafficLog.Entry> queue;
+    private Thread thread;
+    private volatile boolean running;
+
+    private final LongAdder captured = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private DataOutputStream out;
+    private long written;
+    private long fileMillis;
+
+    @PostConstruct
+    public void init() throws IOException {
+        this.writer = TrafficCapture.normalizing(this.objectMapper).writerFor(PremiumRequest.class);
+        if (!this.enabled) {
+            return;
+        }
+        Files.createDirectories(this.directory);
+        this.queue = new ArrayBlockingQueue<>(this.queueSize);
+        this.running = true;
+        this.thread = new Thread(this::drain, "traffic-capture");
+        this.thread.setDaemon(true);
+        this.thread.start();
+        TrafficCapture.log.info("capturing {} of quote requests to {}", this.sampleRate, this.directory.toAbsolutePath());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (null != this.thread) {
+            this.running = false; // not interrupted, that would close the file channel mid-write
+            this.thread.join(TimeUnit.SECONDS.toMillis(5L));
+        }
+    }
+
+    /**
+     * The mapper requests are captured with, also to read them back. Every class is read as if annotated
+     * JsonInclude(NON_DEFAULT), which compares a property with its value in a new instance, not with the type's default.
+     */
+    static ObjectMapper normalizing(final ObjectMapper objectMapper) {
+        final ObjectMapper normalizing = objectMapper.copy();
+        return normalizing.setAnnotationIntrospector(AnnotationIntrospector.pair(new NopAnnotationIntrospector() {
+            @Override
+            public JsonInclude.Value findPropertyInclusion(final Annotated annotated) {
+                return annotated instanceof AnnotatedClass ? JsonInclude.Value.construct(JsonInclude.Include.NON_DEFAULT, null) : JsonInclude.Value.empty();
+            }
+        }, normalizing.getSerializationConfig().getAnnotationIntrospector()));
+    }
+
+    public void sample(final PremiumRequest premiumRequest) {
+        if (!this.enabled || ThreadLocalRandom.current().nextDouble() >= this.sampleRate) {
+            return;
+        }
+        try {
+            final Instant now = Instant.now();
+            final long micros = now.getEpochSecond() * 1_000_000L + now.getNano() / 1_000L;
+            if (this.queue.offer(new TrafficLog.Entry(micros, this.writer.writeValueAsBytes(premiumRequest)))) {
+                this.captured.increment();
+            } else {
+                this.dropped.increment();
+            }
+        } catch (final Exception e) {
+            this.dropped.increment();
+            TrafficCapture.log.debug("quote request not captured", e);
+        }
+    }
+
+    public long getCaptured() {
+        return this.captured.sum();
+    }
+
+    public long getDropped() {
+        return this.dropped.sum();
+    }
+
+    private void drain() {
+        try {
+            while (this.running || !this.queue.isEmpty()) {
+                final TrafficLog.Entry entry = this.queue.poll(TrafficCapture.IDLE_FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+                if (null == entry) {
+                    if (null != this.out) {
+                        this.out.flush();
+                    }
+                    continue;
+                }
+                if (null == this.out || this.written >= this.fileBytes) {
+                    this.rotate(entry.capturedAtMicros());
+                }
+                this.written += TrafficLog.write(this.out, entry);
+            }
+        } catch (final IOException e) {
+            TrafficCapture.log.error("traffic capture stopped", e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            this.close();
+        }
+    }
+
+    private void rotate(final long capturedAtMicros) throws IOException {
+        this.close();
+        // names sort in capture order, a file started in the same millisecond as the last one takes the next
+        long millis = Math.max(capturedAtMicros / 1_000L, this.fileMillis + 1L);
+        Path file;
+        while (Files.exists(file = this.directory.resolve(TrafficCapture.FILE_NAME.format(Instant.ofEpochMilli(millis)) + TrafficLog.SUFFIX))) {
+            millis++;
+        }
+        this.fileMillis = millis;
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+        TrafficLog.writeHeader(this.out);
+        this.written = TrafficLog.HEADER_BYTES;
+        try (final Stream<Path> listed = Files.list(this.directory)) {
+            final List<Path> logs = listed.filter(path -> path.getFileName().toString().endsWith(TrafficLog.SUFFIX)).sorted().toList();
+            for (int index = 0; index < logs.size() - this.files; index++) {
+                Files.deleteIfExists(logs.get(index));
+            }
+        }
+    }
+
+    private void close() {
+        if (null == this.out) {
+            return;
+        }
+        try {
+            this.out.close();
+        } catch (final IOException e) {
+            TrafficCapture.log.warn("traffic log not closed cleanly", e);
+        }
+        this.out = null;
+    }
+}
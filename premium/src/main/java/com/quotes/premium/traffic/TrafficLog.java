@@ -0,0 +1,88 @@
+package com.quotes.premium.traffic;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Captured traffic file: a magic number followed by length-prefixed records, each the payload length, the capture
+ * time in microseconds since the epoch and the request as normalized JSON. A file cut short by a crash reads up to
+ * its last whole record.
+ */
+public final class TrafficLog {
+
+    static final int MAGIC = 0x51544C31; // QTL1
+    static final int HEADER_BYTES = 4;
+    static final int RECORD_HEADER_BYTES = 12;
+    static final String SUFFIX = ".qtl";
+
+    public record Entry(long capturedAtMicros, byte[] request) {
+    }
+
+    private TrafficLog() {
+    }
+
+    static void writeHeader(final DataOutputStream out) throws IOException {
+        out.writeInt(TrafficLog.MAGIC);
+    }
+
+    /**
+     * @return the bytes written
+     */
+    static int write(final DataOutputStream out, final Entry entry) throws IOException {
+        out.writeInt(entry.request().length);
+        out.writeLong(entry.capturedAtMicros());
+        out.write(entry.request());
+        return TrafficLog.RECORD_HEADER_BYTES + entry.request().length;
+    }
+
+    /**
+     * @return the entries of a file, or of every file in a directory in name order, which is capture order
+     */
+    public static List<Entry> read(final Path path) throws IOException {
+        final List<Path> files;
+        if (Files.isDirectory(path)) {
+            try (final Stream<Path> listed = Files.list(path)) {
+                files = listed.filter(file -> file.getFileName().toString().endsWith(TrafficLog.SUFFIX)).sorted().toList();
+            }
+        } else {
+            files = List.of(path);
+        }
+        final List<Entry> entries = new ArrayList<>();
+        for (final Path file : files) {
+            TrafficLog.readFile(file, entries);
+        }
+        return entries;
+    }
+
+    private static void readFile(final Path file, final List<Entry> entries) throws IOException {
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (TrafficLog.MAGIC != in.readInt()) {
+                throw new IOException(file + " is not a traffic log");
+            }
+            while (true) {
+                final int length;
+                try {
+                    length = in.readInt();
+                } catch (final EOFException e) {
+                    return;
+                }
+                try {
+                    final long capturedAtMicros = in.readLong();
+                    final byte[] request = new byte[length];
+                    in.readFully(request);
+                    entries.add(new Entry(capturedAtMicros, request));
+                } catch (final EOFException e) {
+                    return; // the record being written when the process stopped
+                }
+            }
+        }
+    }
+}
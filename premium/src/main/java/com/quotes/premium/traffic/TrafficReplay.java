@@ -0,0 +1,200 @@
+package com.quotes.premium.traffic;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.quotes.premium.dto.ApiResponse;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.PremiumResponse;
+import com.quotes.premium.service.PremiumService;
+import lombok.Getter;
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Feeds captured requests through PremiumService.calculatePremium in capture order, either spaced as they were
+ * captured or as fast as the threads go. At the recorded rate latency is measured from when the request was due, so
+ * a stalled service shows up as queueing delay, as in LoadGenerator. The checksum adds up every final premium quoted
+ * and the number of requests that were not, two runs of one log against the same rates agree on it.
+ */
+@Component
+public class TrafficReplay {
+
+    private static final long HIGHEST_LATENCY_NANOS = 60_000_000_000L;
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    @Autowired
+    private PremiumService premiumService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Getter
+    public static class Result {
+        private final long requests;
+        private final long failures;
+        private final long elapsedNanos;
+        private final Histogram latency; // nanoseconds
+        private final long allocatedBytes;
+        private final long checksum;
+
+        private Result(final long requests, final long failures, final long elapsedNanos, final Histogram latency, final long allocatedBytes,
+                       final long checksum) {
+            this.requests = requests;
+            this.failures = failures;
+            this.elapsedNanos = elapsedNanos;
+            this.latency = latency;
+            this.allocatedBytes = allocatedBytes;
+            this.checksum = checksum;
+        }
+
+        public double throughput() {
+            return this.requests * 1_000_000_000.0d / this.elapsedNanos;
+        }
+
+        public double percentileMillis(final double percentile) {
+            return this.latency.getValueAtPercentile(percentile) / 1_000_000.0d;
+        }
+
+        /**
+         * @return bytes the replay threads allocated per request, -1 when the JVM does not count them
+         */
+        public long allocatedPerRequest() {
+            return 0L > this.allocatedBytes || 0L == this.requests ? -1L : this.allocatedBytes / this.requests;
+        }
+    }
+
+    public List<PremiumRequest> requests(final List<TrafficLog.Entry> entries) throws IOException {
+        final ObjectReader reader = TrafficCapture.normalizing(this.objectMapper).readerFor(PremiumRequest.class);
+        final List<PremiumRequest> requests = new ArrayList<>(entries.size());
+        for (final TrafficLog.Entry entry : entries) {
+            requests.add(reader.readValue(entry.request()));
+        }
+        return requests;
+    }
+
+    /**
+     * @param speed how many times faster than captured to send the requests, 0 to send them as fast as possible
+     * @param passes how many times to go through the entries, a pass at the recorded rate starts after the last one
+     */
+    public Result replay(final List<TrafficLog.Entry> entries, final double speed, final int threads, final int passes) throws Exception {
+        final PremiumRequest[] requests = this.requests(entries).toArray(new PremiumRequest[0]);
+        final long[] due = new long[requests.length]; // nanoseconds after the start, all 0 as fast as possible
+        if (0.0d < speed) {
+            for (int index = 0; index < requests.length; index++) {
+                due[index] = (long) ((entries.get(index).capturedAtMicros() - entries.get(0).capturedAtMicros()) * 1_000.0d / speed);
+            }
+        }
+        final long span = 0 == requests.length ? 0L : due[requests.length - 1] + 1L;
+        final long total = (long) requests.length * passes;
+
+        final AtomicLong next = new AtomicLong();
+        final CountDownLatch ready = new CountDownLatch(1);
+        final long[] start = new long[1];
+        final Worker[] workers = new Worker[threads];
+        for (int thread = 0; thread < threads; thread++) {
+            workers[thread] = new Worker("traffic-replay-" + thread, self -> {
+                ready.await();
+                final long allocatedBefore = TrafficReplay.allocatedBytes();
+                long slot;
+                while ((slot = next.getAndIncrement()) < total) {
+                    final int index = (int) (slot % requests.length);
+                    final long scheduled = start[0] + due[index] + slot / requests.length * span;
+                    long now;
+                    while ((now = System.nanoTime()) < scheduled) {
+                        LockSupport.parkNanos(scheduled - now);
+                    }
+                    final long from = 0.0d < speed ? scheduled : now;
+                    final ApiResponse<PremiumResponse> response = this.premiumService.calculatePremium(requests[index]);
+                    self.record(System.nanoTime() - from, response);
+                }
+                self.allocated = 0L > allocatedBefore ? -1L : TrafficReplay.allocatedBytes() - allocatedBefore;
+            });
+            workers[thread].start();
+        }
+        start[0] = System.nanoTime();
+        ready.countDown();
+        for (final Worker worker : workers) {
+            worker.join();
+        }
+        final long elapsed = System.nanoTime() - start[0];
+
+        final Histogram latency = new Histogram(TrafficReplay.HIGHEST_LATENCY_NANOS, TrafficReplay.SIGNIFICANT_DIGITS);
+        long failures = 0L;
+        long allocated = 0L;
+        long checksum = 0L;
+        for (final Worker worker : workers) {
+            if (null != worker.error) {
+                throw new IllegalStateException("replay worker " + worker.getName() + " failed", worker.error);
+            }
+            latency.add(worker.latency);
+            failures += worker.failures;
+            allocated = 0L > allocated || 0L > worker.allocated ? -1L : allocated + worker.allocated;
+            checksum += worker.checksum;
+        }
+        return new Result(total, failures, elapsed, latency, allocated, checksum + failures);
+    }
+
+    public static void report(final Result result, final PrintStream out) {
+        out.println(String.format(Locale.ROOT, "%10s %9s %12s %9s %9s %9s %9s %9s %14s %16s",
+                "requests", "failures", "requests/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "alloc KB/quote", "checksum"));
+        out.println(String.format(Locale.ROOT, "%10d %9d %12.1f %9.3f %9.3f %9.3f %9.3f %9.3f %14.1f %16d",
+                result.getRequests(), result.getFailures(), result.throughput(), result.percentileMillis(50.0d), result.percentileMillis(90.0d),
+                result.percentileMillis(99.0d), result.percentileMillis(99.9d), result.getLatency().getMaxValue() / 1_000_000.0d,
+                result.allocatedPerRequest() / 1024.0d, result.getChecksum()));
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return -1L;
+    }
+
+    @FunctionalInterface
+    private interface Body {
+        void run(Worker self) throws Exception;
+    }
+
+    private static final class Worker extends Thread {
+        private final Histogram latency = new Histogram(TrafficReplay.HIGHEST_LATENCY_NANOS, TrafficReplay.SIGNIFICANT_DIGITS);
+        private final Body body;
+        private long failures;
+        private long checksum;
+        private long allocated;
+        private Throwable error;
+
+        private Worker(final String name, final Body body) {
+            super(name);
+            this.body = body;
+            this.setDaemon(true);
+        }
+
+        private void record(final long nanos, final ApiResponse<PremiumResponse> response) {
+            this.latency.recordValue(Math.min(nanos, TrafficReplay.HIGHEST_LATENCY_NANOS));
+            if (response.isSuccess()) {
+                this.checksum += response.getData().map(PremiumResponse::getFinalPremium).orElse(0L);
+            } else {
+                this.failures++;
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                this.body.run(this);
+            } catch (final Throwable e) {
+                this.error = e;
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.quotes.premium.traffic;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Replays captured traffic against the service in process, the application exits once the run is reported:
+ * <pre>
+ * java -jar premium.jar --spring.main.web-application-type=none --logging.level.com.quotes.premium=WARN \
+ *      --traffic.replay=traffic --traffic.replay.rate=max --traffic.replay.threads=8 --traffic.replay.passes=3
+ * java -jar premium.jar --spring.main.web-application-type=none --logging.level.com.quotes.premium=WARN \
+ *      --traffic.replay=traffic/traffic-20260101-120000-000.qtl --traffic.replay.rate=recorded --traffic.replay.speed=2
+ * </pre>
+ * traffic.replay is a log file or a directory of them. Every run is preceded by one unreported pass as fast as
+ * possible to warm up, traffic.replay.out keeps the latency distribution of the measured run (.hgrm, milliseconds).
+ */
+@Component
+@Log4j2
+public class TrafficReplayCommand implements ApplicationRunner {
+
+    @Autowired
+    private TrafficReplay trafficReplay;
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Value("${traffic.replay.rate:max}")
+    private String rate;
+    @Value("${traffic.replay.speed:1.0}")
+    private double speed;
+    @Value("${traffic.replay.threads:8}")
+    private int threads;
+    @Value("${traffic.replay.passes:1}")
+    private int passes;
+    @Value("${traffic.replay.out:}")
+    private String out;
+
+    @Override
+    public void run(final ApplicationArguments args) throws Exception {
+        if (!args.containsOption("traffic.replay")) {
+            return;
+        }
+        final Path path = Path.of(args.getOptionValues("traffic.replay").get(0));
+        final List<TrafficLog.Entry> entries = TrafficLog.read(path);
+        if (entries.isEmpty()) {
+            throw new IllegalArgumentException("no captured requests in " + path);
+        }
+        final double pace = switch (this.rate) {
+            case "max" -> 0.0d;
+            case "recorded" -> this.speed;
+            default -> throw new IllegalArgumentException("unknown replay rate " + this.rate + ", expected max or recorded");
+        };
+        TrafficReplayCommand.log.info("replaying {} captured requests from {}", entries.size(), path);
+        this.trafficReplay.replay(entries, 0.0d, this.threads, 1);
+        final TrafficReplay.Result result = this.trafficReplay.replay(entries, pace, this.threads, this.passes);
+        TrafficReplay.report(result, System.out);
+        if (!this.out.isBlank()) {
+            final Path directory = Path.of(this.out);
+            Files.createDirectories(directory);
+            try (final PrintStream hgrm = new PrintStream(Files.newOutputStream(directory.resolve("replay-" + this.rate + ".hgrm")))) {
+                result.getLatency().outputPercentileDistribution(hgrm, 1_000_000.0d);
+            }
+            TrafficReplayCommand.log.info("replay latency distribution written to {}", this.out);
+        }
+        System.exit(SpringApplication.exit(this.applicationContext, () -> 0));
+    }
+}
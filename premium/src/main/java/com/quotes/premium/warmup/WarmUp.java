@@ -0,0 +1,151 @@
+package com.quotes.premium.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quotes.premium.dto.ApiResponse;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.PremiumResponse;
+import com.quotes.premium.loadgen.LoadGenerator;
+import com.quotes.premium.service.PremiumService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives synthetic quotes through request deserialization, PremiumService.calculatePremium and response
+ * serialization once the web server is up, so the first real quotes do not run in the interpreter. Readiness
+ * stays OUT_OF_SERVICE until it is done, see {@link WarmUpHealthIndicator}. Half the quotes are priced as
+ * renewals, the rest of the mix comes from warmup.profile.
+ * <p>
+ * Only a serving instance warms up: offline commands and tests run without a web server and skip it. With
+ * warmup.exit the application exits once warmed up, which makes it the training run of the fast-start build.
+ */
+@Component
+@Log4j2
+public class WarmUp {
+
+    public enum State { PENDING, RUNNING, DONE, SKIPPED }
+
+    private static final int POOL_SIZE = 2000;
+    private static final ThreadLocal<Boolean> WARMING_UP = ThreadLocal.withInitial(() -> false);
+
+    @Autowired
+    private PremiumService premiumService;
+    @Autowired
+    private LoadGenerator loadGenerator;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+    @Value("${warmup.iterations:5000}")
+    private int iterations;
+    @Value("${warmup.duration.seconds:60}")
+    private long durationSeconds;
+    @Value("${warmup.threads:2}")
+    private int threads;
+    @Value("${warmup.profile}")
+    private String profile;
+    @Value("${warmup.exit:false}")
+    private boolean exit;
+
+    private volatile State state = State.PENDING;
+    private final AtomicInteger claimed = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicLong failed = new AtomicLong();
+
+    @EventListener
+    public void onApplicationReady(final ApplicationReadyEvent event) {
+        if (!this.enabled || !(event.getApplicationContext() instanceof WebServerApplicationContext)) {
+            this.state = State.SKIPPED;
+            return;
+        }
+        final Thread thread = new Thread(() -> {
+            this.run(this.iterations, this.durationSeconds * 1_000_000_000L, this.threads);
+            if (this.exit) {
+                System.exit(SpringApplication.exit(event.getApplicationContext(), () -> 0));
+            }
+        }, "warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Prices synthetic quotes on the given number of threads until either limit is reached.
+     *
+     * @return the number of quotes priced
+     */
+    public int run(final int iterations, final long durationNanos, final int threads) {
+        this.state = State.RUNNING;
+        this.claimed.set(0);
+        this.completed.set(0);
+        this.failed.set(0L);
+        final long start = System.nanoTime();
+        try {
+            final List<PremiumRequest> requests = this.loadGenerator.synthesize(this.profile, WarmUp.POOL_SIZE, 42L);
+            for (int i = 0; i < requests.size(); i += 2) {
+                requests.get(i).setFresh(false);
+            }
+            final List<Thread> workers = new ArrayList<>(threads);
+            for (int worker = 0; worker < threads; worker++) {
+                final Thread thread = new Thread(() -> this.quote(requests, iterations, start + durationNanos), "warm-up-" + worker);
+                thread.start();
+                workers.add(thread);
+            }
+            for (final Thread worker : workers) {
+                worker.join();
+            }
+        } catch (final Exception e) {
+            WarmUp.log.warn("warm-up stopped early", e);
+        } finally {
+            this.state = State.DONE;
+        }
+        WarmUp.log.info("warm-up priced {} quotes ({} failed) in {} ms", this.completed.get(), this.failed.get(),
+                (System.nanoTime() - start) / 1_000_000L);
+        return this.completed.get();
+    }
+
+    /**
+     * Whether the calling thread is pricing a warm-up quote, which the outlier, shadow and coalescing statistics
+     * leave out.
+     */
+    public static boolean isWarmUpQuote() {
+        return WarmUp.WARMING_UP.get();
+    }
+
+    public State getState() {
+        return this.state;
+    }
+
+    public int getCompleted() {
+        return this.completed.get();
+    }
+
+    public int getIterations() {
+        return this.iterations;
+    }
+
+    private void quote(final List<PremiumRequest> requests, final int iterations, final long deadline) {
+        WarmUp.WARMING_UP.set(true); // a worker thread of its own, the flag ends with it
+        int iteration;
+        while (System.nanoTime() < deadline && (iteration = this.claimed.getAndIncrement()) < iterations) {
+            try {
+                final byte[] json = this.objectMapper.writeValueAsBytes(requests.get(iteration % requests.size()));
+                final ApiResponse<PremiumResponse> response = this.premiumService.calculatePremium(this.objectMapper.readValue(json, PremiumRequest.class));
+                this.objectMapper.writeValueAsBytes(response);
+            } catch (final Exception e) {
+                this.failed.incrementAndGet(); // the pipeline rejects some shapes by throwing, still warm code
+            }
+            this.completed.incrementAndGet();
+        }
+    }
+}
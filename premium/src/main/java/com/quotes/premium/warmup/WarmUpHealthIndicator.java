@@ -0,0 +1,27 @@
+package com.quotes.premium.warmup;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Part of the readiness group (management.endpoint.health.group.readiness.include), keeps an instance out of
+ * the load balancer while it warms up.
+ */
+@Component
+public class WarmUpHealthIndicator implements HealthIndicator {
+
+    @Autowired
+    private WarmUp warmUp;
+
+    @Override
+    public Health health() {
+        final WarmUp.State state = this.warmUp.getState();
+        final Health.Builder builder = WarmUp.State.DONE == state || WarmUp.State.SKIPPED == state ? Health.up() : Health.outOfService();
+        return builder.withDetail("state", state)
+                .withDetail("completed", this.warmUp.getCompleted())
+                .withDetail("iterations", this.warmUp.getIterations())
+                .build();
+    }
+}
@@ -0,0 +1,103 @@
+package com.quotes.premium.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.exception.DeadlineExceededException;
+import com.quotes.premium.loadgen.LoadGenerator;
+import com.quotes.premium.service.PremiumService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"admission.limit.initial=2", "admission.limit.min=2", "admission.limit.max=4",
+        "admission.heavy.limit.initial=1", "admission.heavy.limit.min=1", "admission.heavy.limit.max=1"})
+@AutoConfigureMockMvc
+class AdmissionLimiterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private AdmissionLimiter admissionLimiter;
+    @Autowired
+    @Qualifier(AdmissionConfiguration.HEAVY)
+    private AdmissionLimiter heavyAdmissionLimiter;
+    @Autowired
+    private PremiumService premiumService;
+    @Autowired
+    private LoadGenerator loadGenerator;
+
+    @Test
+    void quotesOverTheLimitAreRejectedAndTheLimitFollowsLatency() throws Exception {
+        final byte[] json = this.objectMapper.writeValueAsBytes(this.loadGenerator.synthesize(1, 5L).get(0));
+        this.mockMvc.perform(post("/quote").contentType(MediaType.APPLICATION_JSON).content(json).header(Deadline.HEADER, "60000"))
+                .andExpect(status().isOk());
+        this.mockMvc.perform(post("/quote").contentType(MediaType.APPLICATION_JSON).content(json).header(Deadline.HEADER, "0"))
+                .andExpect(status().isGatewayTimeout());
+
+        assertEquals(2, this.admissionLimiter.report().getLimit());
+        assertTrue(this.admissionLimiter.tryAcquire());
+        assertTrue(this.admissionLimiter.tryAcquire());
+        this.mockMvc.perform(post("/quote").contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.success").value(false));
+        assertEquals(1, this.admissionLimiter.report().getRejected());
+
+        final long start = System.nanoTime(); // quotes released in the loop take well under the target latency
+        for (int i = 0; i < 8; i++) { // fast quotes with the limit in use raise it up to the maximum
+            this.admissionLimiter.release(start, false);
+            assertTrue(this.admissionLimiter.tryAcquire());
+        }
+        assertEquals(4, this.admissionLimiter.report().getLimit());
+        this.admissionLimiter.release(start, true);
+        this.admissionLimiter.release(start, true); // the second cut falls in the same target latency window
+        assertEquals(3, this.admissionLimiter.report().getLimit());
+        assertEquals(0, this.admissionLimiter.report().getInFlight());
+        assertEquals(2, this.admissionLimiter.report().getAbandoned());
+    }
+
+    @Test
+    void heavyEndpointsAreAdmittedApartFromQuotes() throws Exception {
+        final byte[] json = this.objectMapper.writeValueAsBytes(this.loadGenerator.synthesize(1, 7L).get(0));
+        assertTrue(this.heavyAdmissionLimiter.tryAcquire());
+        try {
+            this.mockMvc.perform(post("/quote/breakdown").contentType(MediaType.APPLICATION_JSON).content(json))
+                    .andExpect(status().isServiceUnavailable());
+            this.mockMvc.perform(post("/quote/forecast").contentType(MediaType.APPLICATION_JSON).content(json))
+                    .andExpect(status().isServiceUnavailable());
+            this.mockMvc.perform(post("/quote").contentType(MediaType.APPLICATION_JSON).content(json))
+                    .andExpect(status().isOk());
+        } finally {
+            this.heavyAdmissionLimiter.release(System.nanoTime(), false);
+        }
+        assertEquals(2, this.heavyAdmissionLimiter.report().getRejected());
+        this.mockMvc.perform(post("/quote/breakdown").contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isOk());
+        assertEquals(0, this.heavyAdmissionLimiter.report().getInFlight());
+    }
+
+    @Test
+    void pipelineStopsOnceTheDeadlineHasPassed() throws Exception {
+        final PremiumRequest premiumRequest = this.loadGenerator.synthesize(1, 6L).get(0);
+        final Long previous = Deadline.bind(System.nanoTime() - 1L);
+        try {
+            final DeadlineExceededException e = assertThrows(DeadlineExceededException.class, () -> this.premiumService.calculateLive(premiumRequest));
+            assertTrue(e.getMessage().startsWith("deadline passed before "));
+        } finally {
+            Deadline.bind(previous);
+        }
+        assertTrue(this.premiumService.calculateLive(premiumRequest).isSuccess());
+    }
+}
@@ -0,0 +1,35 @@
+package com.quotes.premium.cube;
+
+import com.quotes.premium.dto.PremiumRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class QuoteCubeLayoutTest {
+
+    private static final List<String> EXECUTION_KEYS = List.of("lookup", "superstarBonus", "consumableCover", "copay", "longTermDiscount", "totalPremium");
+
+    private final QuoteCubeLayout layout = new QuoteCubeLayout(QuoteCubeLayoutTest.EXECUTION_KEYS,
+            QuoteCubeLayout.parseBundles("none;consumableCover;superstarBonus,consumableCover"));
+
+    @Test
+    void requestsAtCoordinatesIndexBackToThem() {
+        for (int bundle = 0; 3 > bundle; bundle++) {
+            final PremiumRequest premiumRequest = this.layout.request(47, 3, 2, 4, true, bundle);
+            assertEquals(this.layout.index(47, 3, 2, 4, true, bundle), this.layout.index(premiumRequest));
+        }
+    }
+
+    @Test
+    void requestsOutsideTheCubeAreNotIndexed() {
+        final PremiumRequest superstarOnly = this.layout.request(30, 0, 1, 1, false, 0);
+        superstarOnly.setSuperstarBonus(true);
+        assertEquals(-1, this.layout.index(superstarOnly));
+
+        final PremiumRequest floater = this.layout.request(30, 0, 1, 1, false, 0);
+        floater.setPolicyType("floater");
+        assertEquals(-1, this.layout.index(floater));
+    }
+}
@@ -0,0 +1,84 @@
+package com.quotes.premium.cube;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.quotes.premium.config.MandatoryConfiguration;
+import com.quotes.premium.dto.ApiResponse;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.PremiumResponse;
+import com.quotes.premium.service.PremiumService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "quote.cube.bundles=none;consumableCover;superstarBonus,limitlessCare;healthQuestionnaire")
+class QuoteCubeTest {
+
+    private static final int[] AGES = {18, 45, 65, 66, 100};
+
+    @Autowired
+    private QuoteCube quoteCube;
+    @Autowired
+    private MandatoryConfiguration mandatoryConfiguration;
+    @Autowired
+    private QuoteCubeGenerator quoteCubeGenerator;
+    @Autowired
+    private PremiumService premiumService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${quote.cube.bundles}")
+    private String bundles;
+
+    @Test
+    void cubeAnswersMatchTheEngineBesidesTheApplicablesForEveryBundle(@TempDir final Path directory) throws Exception {
+        final Path path = directory.resolve("quote-cube.bin");
+        final List<List<String>> bundles = QuoteCubeLayout.parseBundles(this.bundles);
+        this.quoteCubeGenerator.generate(path, bundles);
+        this.quoteCube.load(path);
+
+        final QuoteCubeLayout layout = new QuoteCubeLayout(this.mandatoryConfiguration.getExecutionKeys(), bundles);
+        int served = 0;
+        for (int bundle = 0; bundle < bundles.size(); bundle++) {
+            for (final int age : QuoteCubeTest.AGES) {
+                for (int sumInsured = 0; sumInsured < QuoteCubeLayout.SUM_INSURED.size(); sumInsured++) {
+                    for (int term = 1; term <= QuoteCubeLayout.TERMS; term++) {
+                        for (final boolean emi : new boolean[]{false, true}) {
+                            final PremiumRequest premiumRequest = layout.request(age, sumInsured, 1 + term % QuoteCubeLayout.ZONES, term, emi, bundle);
+                            final ApiResponse<PremiumResponse> live = this.premiumService.calculateLive(premiumRequest);
+                            final boolean hit = null != this.quoteCube.lookup(premiumRequest, valid -> true);
+                            assertEquals(live.isSuccess(), hit, "served from the cube " + bundles.get(bundle) + " at age " + age);
+                            final ApiResponse<PremiumResponse> answered = this.premiumService.calculatePremium(premiumRequest);
+                            if (hit) {
+                                served++;
+                                assertTrue(answered.getData().orElseThrow().getApplicables().isEmpty());
+                            }
+                            assertEquals(this.withoutApplicables(live), this.withoutApplicables(answered),
+                                    bundles.get(bundle) + " at age " + age + " sum insured " + sumInsured + " term " + term + " emi " + emi);
+                        }
+                    }
+                }
+            }
+        }
+        assertTrue(0 < served);
+
+        final PremiumRequest inside = layout.request(45, 2, 1, 1, false, 0);
+        assertNotNull(this.quoteCube.lookup(inside, valid -> true));
+        assertNull(this.quoteCube.lookup(inside, valid -> false)); // left to the engine to reject
+    }
+
+    private ObjectNode withoutApplicables(final ApiResponse<PremiumResponse> response) {
+        final ObjectNode tree = this.objectMapper.valueToTree(response);
+        if (tree.get("data") instanceof ObjectNode data) {
+            data.remove("applicables");
+        }
+        return tree;
+    }
+}
@@ -0,0 +1,75 @@
+package com.quotes.premium.engine;
+
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.PremiumResponse;
+import com.quotes.premium.dto.ShadowReport;
+import com.quotes.premium.loadgen.LoadGenerator;
+import com.quotes.premium.service.PremiumService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Lazy;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"premium.engine.shadow=skewed", "premium.engine.shadow.sample.rate=1.0", "premium.engine.shadow.queue=1000"})
+class PremiumEnginesTest {
+
+    /**
+     * Candidate that quotes one rupee more on two year policies.
+     */
+    @TestConfiguration
+    static class SkewedEngineConfiguration {
+        @Bean
+        PremiumEngine skewedEngine(@Lazy final PremiumService premiumService) {
+            return new PremiumEngine() {
+                @Override
+                public String getName() {
+                    return "skewed";
+                }
+
+                @Override
+                public PremiumResponse quote(final PremiumRequest premiumRequest) throws Exception {
+                    final PremiumResponse premiumResponse = premiumService.quote(premiumRequest);
+                    if (2 == premiumRequest.getPolicyTerm()) {
+                        premiumResponse.setTotalPremium(premiumResponse.getTotalPremium() + 1);
+                    }
+                    return premiumResponse;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private PremiumService premiumService;
+    @Autowired
+    private PremiumEngines premiumEngines;
+    @Autowired
+    private LoadGenerator loadGenerator;
+
+    @Test
+    void shadowMismatchesAreCountedPerField() throws Exception {
+        final List<PremiumRequest> requests = this.loadGenerator.synthesize(200, 11L);
+        final long twoYearPolicies = requests.stream().filter(request -> 2 == request.getPolicyTerm()).count();
+        for (final PremiumRequest premiumRequest : requests) {
+            assertTrue(this.premiumService.calculateLive(premiumRequest).isSuccess());
+        }
+
+        ShadowReport report = this.premiumEngines.report();
+        for (int wait = 0; wait < 200 && report.getCompared() < report.getSampled() - report.getDropped(); wait++) {
+            Thread.sleep(50L);
+            report = this.premiumEngines.report();
+        }
+        assertEquals(200, report.getSampled());
+        assertEquals(0, report.getDropped());
+        assertEquals(twoYearPolicies, report.getMismatched());
+        assertEquals(twoYearPolicies, report.getMismatchedFields().get("totalPremium"));
+        assertEquals(1, report.getMismatchedFields().size());
+        assertEquals(200, report.getPrimaryLatency().getCount());
+        assertEquals(200, report.getShadowLatency().getCount());
+    }
+}
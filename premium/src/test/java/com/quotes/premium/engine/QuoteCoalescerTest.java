@@ -0,0 +1,96 @@
+package com.quotes.premium.engine;
+
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.PremiumResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuoteCoalescerTest {
+
+    private static PremiumRequest request(final String sumInsured) {
+        final PremiumRequest premiumRequest = new PremiumRequest();
+        premiumRequest.setSumInsured(sumInsured);
+        premiumRequest.setPolicyTerm(1);
+        premiumRequest.setZone("A");
+        return premiumRequest;
+    }
+
+    @Test
+    void identicalRequestsInFlightArePricedOnce() throws Exception {
+        final QuoteCoalescer coalescer = new QuoteCoalescer();
+        final AtomicInteger pricings = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        final QuoteCoalescer.Pricing slow = premiumRequest -> {
+            pricings.incrementAndGet();
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            final PremiumResponse premiumResponse = new PremiumResponse();
+            premiumResponse.setTotalPremium(12345L);
+            return premiumResponse;
+        };
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<PremiumResponse>> quotes = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                quotes.add(executor.submit(() -> coalescer.quote(QuoteCoalescerTest.request("500000"), slow)));
+            }
+            for (int wait = 0; wait < 200 && coalescer.report().getCoalesced() < 7; wait++) {
+                Thread.sleep(10L);
+            }
+            release.countDown();
+            final List<PremiumResponse> responses = new ArrayList<>();
+            for (final Future<PremiumResponse> quote : quotes) {
+                responses.add(quote.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, pricings.get());
+            assertEquals(8, responses.stream().distinct().count()); // every caller owns its quote
+            responses.forEach(premiumResponse -> assertEquals(12345L, premiumResponse.getTotalPremium()));
+            assertEquals(1, coalescer.report().getPriced());
+            assertEquals(7, coalescer.report().getCoalesced());
+            assertEquals(0, coalescer.report().getInFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        coalescer.quote(QuoteCoalescerTest.request("500000"), premiumRequest -> new PremiumResponse());
+        assertEquals(2, coalescer.report().getPriced()); // nothing is kept once a flight lands
+    }
+
+    @Test
+    void waitersGetTheFailureAndDifferentRequestsDoNotShare() throws Exception {
+        final QuoteCoalescer coalescer = new QuoteCoalescer();
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            final QuoteCoalescer.Pricing failing = premiumRequest -> {
+                assertTrue(release.await(10, TimeUnit.SECONDS));
+                throw new IllegalArgumentException("zone " + premiumRequest.getZone());
+            };
+            final Future<PremiumResponse> leader = executor.submit(() -> coalescer.quote(QuoteCoalescerTest.request("500000"), failing));
+            final Future<PremiumResponse> waiter = executor.submit(() -> coalescer.quote(QuoteCoalescerTest.request("500000"), failing));
+            final Future<PremiumResponse> other = executor.submit(() -> coalescer.quote(QuoteCoalescerTest.request("1000000"), failing));
+            for (int wait = 0; wait < 200 && (coalescer.report().getCoalesced() < 1 || coalescer.report().getPriced() < 2); wait++) {
+                Thread.sleep(10L);
+            }
+            release.countDown();
+            for (final Future<PremiumResponse> quote : List.of(leader, waiter, other)) {
+                final Exception e = assertThrows(Exception.class, () -> quote.get(10, TimeUnit.SECONDS));
+                assertInstanceOf(IllegalArgumentException.class, e.getCause());
+            }
+            assertEquals(2, coalescer.report().getPriced());
+            assertEquals(1, coalescer.report().getCoalesced());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
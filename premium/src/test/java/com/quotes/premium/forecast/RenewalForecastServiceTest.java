@@ -0,0 +1,89 @@
+package com.quotes.premium.forecast;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quotes.premium.dto.ApiResponse;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.PremiumResponse;
+import com.quotes.premium.dto.RenewalForecast;
+import com.quotes.premium.dto.RenewalYear;
+import com.quotes.premium.loadgen.LoadGenerator;
+import com.quotes.premium.service.PremiumService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class RenewalForecastServiceTest {
+
+    private static final int YEARS = 15;
+
+    @Autowired
+    private RenewalForecastService renewalForecastService;
+    @Autowired
+    private PremiumService premiumService;
+    @Autowired
+    private LoadGenerator loadGenerator;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void everyRenewalMatchesItsOwnQuote() throws Exception {
+        int reused = 0;
+        int stopped = 0;
+        for (final PremiumRequest premiumRequest : this.loadGenerator.synthesize(80, 47L)) {
+            final ApiResponse<RenewalForecast> response = this.renewalForecastService.forecast(premiumRequest, RenewalForecastServiceTest.YEARS);
+            final ApiResponse<PremiumResponse> first = this.premiumService.calculateLive(this.renewalForecastService.renewal(premiumRequest, 1));
+            assertEquals(first.isSuccess(), response.isSuccess());
+            if (!response.isSuccess()) {
+                assertEquals(first.getMessage(), response.getMessage());
+                continue;
+            }
+            final RenewalForecast forecast = response.getData().orElseThrow();
+            long totalPremium = 0L;
+            for (final RenewalYear year : forecast.getYears()) {
+                final PremiumRequest renewal = this.renewalForecastService.renewal(premiumRequest, year.getRenewal());
+                final ApiResponse<PremiumResponse> expected = this.premiumService.calculateLive(renewal);
+                assertTrue(expected.isSuccess(), expected.getMessage());
+                assertEquals(this.objectMapper.writeValueAsString(expected.getData().orElseThrow()), this.objectMapper.writeValueAsString(year.getQuote()),
+                        "renewal " + year.getRenewal() + (year.isRepriced() ? " repriced" : " reused"));
+                totalPremium += year.getTotalPremium();
+            }
+            assertEquals(totalPremium, forecast.getTotalPremium());
+            assertEquals(forecast.getYears().size(), forecast.getRepriced() + forecast.getReused());
+            reused += forecast.getReused();
+            if (null != forecast.getStoppedAt()) {
+                stopped++;
+                assertEquals(forecast.getYears().size() + 1, forecast.getStoppedAt());
+                final ApiResponse<PremiumResponse> next = this.premiumService.calculateLive(
+                        this.renewalForecastService.renewal(premiumRequest, forecast.getStoppedAt()));
+                assertFalse(next.isSuccess());
+                assertEquals(next.getMessage(), forecast.getStoppedBecause());
+            } else {
+                assertEquals(RenewalForecastServiceTest.YEARS, forecast.getYears().size());
+            }
+        }
+        assertTrue(0 < reused);
+        assertTrue(0 < stopped);
+    }
+
+    @Test
+    void yearsOutsideTheLimitAreRefused() throws Exception {
+        final PremiumRequest premiumRequest = this.loadGenerator.synthesize(1, 1L).get(0);
+        assertFalse(this.renewalForecastService.forecast(premiumRequest, 0).isSuccess());
+        assertFalse(this.renewalForecastService.forecast(premiumRequest, 31).isSuccess());
+    }
+
+    @Test
+    void termOutsideTheLimitIsRejectedWithoutWalkingIt() throws Exception {
+        final PremiumRequest premiumRequest = this.loadGenerator.synthesize(1, 1L).get(0);
+        premiumRequest.setPolicyTerm(Integer.MAX_VALUE);
+        final ApiResponse<RenewalForecast> response = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> this.renewalForecastService.forecast(premiumRequest, 3));
+        assertFalse(response.isSuccess());
+        assertTrue(response.getMessage().endsWith("policy term is wrong"), response.getMessage());
+    }
+}
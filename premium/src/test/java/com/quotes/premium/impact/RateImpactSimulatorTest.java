@@ -0,0 +1,118 @@
+package com.quotes.premium.impact;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quotes.premium.dto.ApiResponse;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.PremiumResponse;
+import com.quotes.premium.dto.RateImpactReport;
+import com.quotes.premium.loadgen.LoadGenerator;
+import com.quotes.premium.plan.QuoteContext;
+import com.quotes.premium.plan.StageListener;
+import com.quotes.premium.rates.RateRegistry;
+import com.quotes.premium.rates.RateVersion;
+import com.quotes.premium.rates.RateVersionDefinition;
+import com.quotes.premium.service.PremiumService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class RateImpactSimulatorTest {
+
+    @TempDir
+    Path directory;
+
+    @Autowired
+    private RateImpactSimulator rateImpactSimulator;
+    @Autowired
+    private RateRegistry rateRegistry;
+    @Autowired
+    private PremiumService premiumService;
+    @Autowired
+    private LoadGenerator loadGenerator;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void reportMatchesPricingEveryPolicyAtBothVersions() throws Exception {
+        final List<PremiumRequest> requests = this.loadGenerator.synthesize(400, 48L);
+        final Path book = this.book(requests);
+        final RateVersion live = this.rateRegistry.resolve(null);
+        final RateVersionDefinition definition = new RateVersionDefinition();
+        definition.setId("zone-1-discount");
+        definition.setProperties(Map.of("zonal.discount.mapping", "1:0.12,2:0.17,3:0.30"));
+        final RateVersion candidate = this.rateRegistry.candidate(definition, live);
+
+        long compared = 0L;
+        long livePremium = 0L;
+        long candidatePremium = 0L;
+        long moved = 0L;
+        for (final PremiumRequest premiumRequest : requests) {
+            final ApiResponse<PremiumResponse> expected = this.premiumService.calculateLive(premiumRequest);
+            if (!expected.isSuccess()) {
+                continue;
+            }
+            final QuoteContext context = this.premiumService.prepare(premiumRequest, candidate);
+            this.premiumService.execute(context, 0, StageListener.NONE);
+            final long before = expected.getData().orElseThrow().getTotalPremium();
+            final long after = context.getPremiumResponse().getTotalPremium();
+            compared++;
+            livePremium += before;
+            candidatePremium += after;
+            moved += 10.0d < Math.abs((after - before) * 100.0d / before) ? 1L : 0L;
+        }
+
+        final RateImpactReport report = this.rateImpactSimulator.simulate(book, live, candidate, 4);
+        assertEquals("zone-1-discount", report.getCandidateVersion());
+        assertEquals(requests.size() + 1L, report.getPolicies());
+        assertEquals(1L, report.getUnreadable());
+        assertEquals(compared, report.getCompared());
+        assertEquals(requests.size() - compared, report.getFailedLive());
+        assertEquals(livePremium, report.getLivePremium());
+        assertEquals(candidatePremium, report.getCandidatePremium());
+        assertEquals(moved, report.getMovedOverThreshold());
+        assertTrue(0L < moved);
+        assertEquals(compared, report.getChanges().stream().mapToLong(RateImpactReport.Bucket::getPolicies).sum());
+        assertEquals(compared, report.getBySumInsured().stream().mapToLong(RateImpactReport.Group::getPolicies).sum());
+        assertEquals(compared, report.getByAgeBand().stream().mapToLong(RateImpactReport.Group::getPolicies).sum());
+
+        assertEquals(List.of("1", "2", "3"), report.getByZone().stream().map(RateImpactReport.Group::getKey).toList());
+        final RateImpactReport.Group zone1 = report.getByZone().get(0);
+        assertTrue(zone1.getCandidatePremium() < zone1.getLivePremium());
+        for (final RateImpactReport.Group zone : report.getByZone().subList(1, 3)) {
+            assertEquals(zone.getLivePremium(), zone.getCandidatePremium());
+            assertEquals(0L, zone.getMovedOverThreshold());
+        }
+    }
+
+    @Test
+    void unchangedRatesMoveNothing() throws Exception {
+        final Path book = this.book(this.loadGenerator.synthesize(100, 7L));
+        final RateVersion live = this.rateRegistry.resolve(null);
+        final RateImpactReport report = this.rateImpactSimulator.simulate(book, live, this.rateRegistry.candidate(new RateVersionDefinition(), live), 2);
+        assertEquals(report.getLivePremium(), report.getCandidatePremium());
+        assertEquals(0L, report.getMovedOverThreshold());
+        assertEquals(1, report.getChanges().size());
+        assertEquals(0.0d, report.getChanges().get(0).getFromPercent());
+        assertEquals(1.0d, report.getChanges().get(0).getToPercent());
+    }
+
+    private Path book(final List<PremiumRequest> requests) throws Exception {
+        final List<String> lines = new ArrayList<>();
+        for (final PremiumRequest premiumRequest : requests) {
+            lines.add(this.objectMapper.writeValueAsString(premiumRequest));
+        }
+        lines.add(lines.size() / 2, "{\"sumInsured\":");
+        lines.add("");
+        return Files.write(this.directory.resolve("book.ndjson"), lines);
+    }
+}
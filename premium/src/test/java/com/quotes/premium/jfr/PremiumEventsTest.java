@@ -0,0 +1,73 @@
+package com.quotes.premium.jfr;
+
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.loadgen.LoadGenerator;
+import com.quotes.premium.service.PremiumService;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class PremiumEventsTest {
+
+    @Autowired
+    private PremiumService premiumService;
+    @Autowired
+    private LoadGenerator loadGenerator;
+
+    @Test
+    void quotesRecordTheirStagesAndValidationKeys(@TempDir final Path directory) throws Exception {
+        final Configuration configuration;
+        try (Reader reader = new InputStreamReader(Objects.requireNonNull(this.getClass().getResourceAsStream("/jfr/premium.jfc")),
+                StandardCharsets.UTF_8)) {
+            configuration = Configuration.create(reader);
+        }
+        assertEquals("100 us", configuration.getSettings().get("com.quotes.premium.Stage#threshold"));
+
+        final List<PremiumRequest> requests = this.loadGenerator.synthesize(2, 44L);
+        final PremiumRequest rejected = requests.get(1);
+        rejected.setZone("9");
+
+        final Path file = directory.resolve("premium.jfr");
+        try (Recording recording = new Recording(configuration)) {
+            recording.enable(StageEvent.class).withThreshold(Duration.ZERO);
+            recording.enable(ValidationEvent.class).withThreshold(Duration.ZERO);
+            recording.start();
+            assertTrue(this.premiumService.calculateLive(requests.get(0)).isSuccess());
+            assertFalse(this.premiumService.calculatePremium(rejected).isSuccess());
+            recording.stop();
+            recording.dump(file);
+        }
+
+        final List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        final List<RecordedEvent> quotes = events.stream().filter(event -> "com.quotes.premium.Quote".equals(event.getEventType().getName())).toList();
+        assertEquals(1, quotes.size()); // calculateLive is not a whole quote
+        assertEquals(QuoteEvent.REJECTED, quotes.get(0).getString("outcome"));
+        assertEquals(rejected.getPolicyType(), quotes.get(0).getString("policyType"));
+        assertEquals(rejected.getInsured().size(), quotes.get(0).getInt("insured"));
+
+        final List<RecordedEvent> stages = events.stream().filter(event -> "com.quotes.premium.Stage".equals(event.getEventType().getName())).toList();
+        assertFalse(stages.isEmpty());
+        assertTrue(stages.stream().allMatch(stage -> PremiumService.ENGINE_NAME.equals(stage.getString("engine"))));
+        assertTrue(stages.stream().anyMatch(stage -> "totalPremium".equals(stage.getString("key"))));
+
+        final List<RecordedEvent> validations = events.stream()
+                .filter(event -> "com.quotes.premium.Validation".equals(event.getEventType().getName())).toList();
+        assertTrue(validations.stream().anyMatch(validation -> "zone".equals(validation.getString("key")) && 1 == validation.getInt("violations")));
+    }
+}
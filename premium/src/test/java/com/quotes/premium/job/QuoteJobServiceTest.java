@@ -0,0 +1,92 @@
+package com.quotes.premium.job;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quotes.premium.controller.QuoteJobController;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.loadgen.LoadGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class QuoteJobServiceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private LoadGenerator loadGenerator;
+    @Autowired
+    private QuoteJobService quoteJobService;
+
+    @Test
+    void jobsArePricedInTheBackgroundAndDownloadedInPages() throws Exception {
+        final List<PremiumRequest> requests = this.loadGenerator.synthesize(250, 3L);
+        requests.get(7).setZone("9"); // rejected by validation, recorded as a failed result
+        final MvcResult submitted = this.mockMvc.perform(post("/quote/jobs").contentType(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsBytes(requests)))
+                .andExpect(status().isAccepted()).andReturn();
+        final String jobId = this.objectMapper.readTree(submitted.getResponse().getContentAsByteArray()).at("/data/jobId").asText();
+
+        final QuoteJob job = this.quoteJobService.get(jobId);
+        for (int wait = 0; wait < 600 && !job.isFinished(); wait++) {
+            Thread.sleep(50L);
+        }
+        assertEquals(QuoteJob.State.DONE, job.getState());
+        final JsonNode status = this.objectMapper.readTree(this.mockMvc.perform(get("/quote/jobs/" + jobId))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsByteArray()).get("data");
+        assertEquals(250, status.get("total").asInt());
+        assertEquals(250, status.get("priced").asInt());
+        assertEquals(250, status.get("available").asInt());
+        assertTrue(1 <= status.get("failed").asInt());
+        assertTrue(0.0d < status.get("quotesPerSecond").asDouble());
+
+        int from = 0;
+        int pages = 0;
+        while (from < 250) {
+            final MvcResult page = this.mockMvc.perform(get("/quote/jobs/" + jobId + "/results").param("from", String.valueOf(from)).param("size", "100"))
+                    .andExpect(status().isOk()).andReturn();
+            final String[] lines = page.getResponse().getContentAsString().split("\n");
+            for (int line = 0; line < lines.length; line++) {
+                final JsonNode result = this.objectMapper.readTree(lines[line]);
+                assertEquals(from + line, result.get("index").asInt());
+                assertEquals(7 != from + line, result.get("success").asBoolean());
+            }
+            from = Integer.parseInt(page.getResponse().getHeader(QuoteJobController.NEXT_FROM));
+            pages++;
+        }
+        assertEquals(3, pages);
+        assertEquals(0, this.mockMvc.perform(get("/quote/jobs/" + jobId + "/results").param("from", "250"))
+                .andReturn().getResponse().getContentAsByteArray().length);
+
+        this.mockMvc.perform(delete("/quote/jobs/" + jobId)).andExpect(status().isNoContent());
+        assertFalse(Files.exists(job.getDirectory()));
+        this.mockMvc.perform(get("/quote/jobs/" + jobId)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void payloadsThatAreNotArraysOfRequestsAreRefused() throws Exception {
+        this.mockMvc.perform(post("/quote/jobs").contentType(MediaType.APPLICATION_JSON).content("{\"zone\":\"1\"}"))
+                .andExpect(status().isBadRequest());
+        this.mockMvc.perform(post("/quote/jobs").contentType(MediaType.APPLICATION_JSON).content("[{\"zone\":\"1\"},42]"))
+                .andExpect(status().isBadRequest());
+        this.mockMvc.perform(post("/quote/jobs").contentType(MediaType.APPLICATION_JSON).content("[{\"zone\":"))
+                .andExpect(status().isBadRequest());
+    }
+}
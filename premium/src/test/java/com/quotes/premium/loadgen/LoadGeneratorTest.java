@@ -0,0 +1,43 @@
+package com.quotes.premium.loadgen;
+
+import com.quotes.premium.dto.ApiResponse;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.PremiumResponse;
+import com.quotes.premium.service.PremiumService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class LoadGeneratorTest {
+
+    @Autowired
+    private LoadGenerator loadGenerator;
+    @Autowired
+    private PremiumService premiumService;
+
+    @Test
+    void synthesizedRequestsAreQuoted() throws Exception {
+        final List<PremiumRequest> requests = this.loadGenerator.synthesize(2000, 7L);
+        for (final PremiumRequest premiumRequest : requests) {
+            final ApiResponse<PremiumResponse> response = this.premiumService.calculatePremium(premiumRequest);
+            assertTrue(response.isSuccess(), response.getMessage());
+        }
+    }
+
+    @Test
+    void closedLoopReportsEveryThreadStep() throws Exception {
+        final ServiceLoadTarget target = new ServiceLoadTarget(this.premiumService, this.loadGenerator.synthesize(200, 7L));
+        final List<LoadStep> steps = this.loadGenerator.closedLoop(target, List.of(1, 2), 100_000_000L, 200_000_000L);
+        assertEquals(2, steps.size());
+        for (final LoadStep step : steps) {
+            assertTrue(0 < step.getRequests());
+            assertEquals(0, step.getFailures());
+            assertEquals(step.getRequests(), step.getLatency().getTotalCount());
+        }
+    }
+}
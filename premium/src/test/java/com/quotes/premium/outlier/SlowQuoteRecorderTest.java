@@ -0,0 +1,82 @@
+package com.quotes.premium.outlier;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.SlowQuote;
+import com.quotes.premium.dto.SlowQuoteReplay;
+import com.quotes.premium.dto.SlowQuoteReport;
+import com.quotes.premium.engine.PremiumEngines;
+import com.quotes.premium.jfr.QuoteEvent;
+import com.quotes.premium.loadgen.LoadGenerator;
+import com.quotes.premium.service.PremiumService;
+import com.quotes.premium.warmup.WarmUp;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"quote.outliers.threshold.ms=0", "quote.outliers.capacity=4", "quote.outliers.replay.max.repetitions=2",
+        "quote.cube.bundles="})
+class SlowQuoteRecorderTest {
+
+    @Autowired
+    private PremiumService premiumService;
+    @Autowired
+    private SlowQuoteRecorder slowQuoteRecorder;
+    @Autowired
+    private LoadGenerator loadGenerator;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private WarmUp warmUp;
+    @Autowired
+    private PremiumEngines premiumEngines;
+
+    @Test
+    void theNewestSlowQuotesAreKeptWithTheirStagesAndReplayed() throws Exception {
+        final List<PremiumRequest> requests = this.loadGenerator.synthesize(5, 45L);
+        final long before = this.slowQuoteRecorder.report().getCaptured();
+        for (final PremiumRequest premiumRequest : requests) {
+            assertTrue(this.premiumService.calculatePremium(premiumRequest).isSuccess());
+        }
+        final PremiumRequest rejected = this.objectMapper.treeToValue(this.objectMapper.valueToTree(requests.get(0)), PremiumRequest.class);
+        rejected.setPolicyTerm(9);
+        assertFalse(this.premiumService.calculatePremium(rejected).isSuccess());
+
+        final SlowQuoteReport report = this.slowQuoteRecorder.report();
+        assertEquals(before + 6, report.getCaptured());
+        final List<SlowQuote> quotes = report.getQuotes();
+        assertEquals(4, quotes.size());
+        assertEquals(before + 5, quotes.get(0).getSequence());
+        assertEquals(QuoteEvent.REJECTED, quotes.get(0).getOutcome());
+        assertTrue(quotes.get(0).getStageMs().isEmpty()); // rejected before the first stage
+
+        final SlowQuote priced = quotes.get(1);
+        assertEquals(QuoteEvent.PRICED, priced.getOutcome());
+        assertEquals(this.objectMapper.valueToTree(requests.get(4)), priced.getRequest());
+        assertTrue(priced.getStageMs().containsKey("totalPremium"));
+        assertTrue(priced.getStageMs().values().stream().mapToDouble(Double::doubleValue).sum() <= priced.getLatencyMs());
+        assertEquals(Thread.currentThread().getName(), priced.getThread());
+
+        final List<SlowQuoteReplay> replays = this.slowQuoteRecorder.replay(1_000_000);
+        assertEquals(4, replays.size());
+        assertEquals(2, replays.get(1).getRepetitions()); // capped at quote.outliers.replay.max.repetitions
+        assertNotNull(replays.get(0).getFailure());
+        assertNull(replays.get(1).getFailure());
+        assertTrue(replays.get(1).isIntrinsic()); // anything is over a 0 ms threshold
+        assertTrue(replays.get(1).getMinMs() <= replays.get(1).getMedianMs());
+    }
+
+    @Test
+    void warmUpQuotesAreLeftOutOfTheStatistics() {
+        final long captured = this.slowQuoteRecorder.report().getCaptured();
+        final long priced = this.premiumEngines.coalescing().getPriced();
+        assertEquals(50, this.warmUp.run(50, 60_000_000_000L, 2));
+        assertEquals(captured, this.slowQuoteRecorder.report().getCaptured());
+        assertEquals(priced, this.premiumEngines.coalescing().getPriced());
+        assertFalse(WarmUp.isWarmUpQuote());
+    }
+}
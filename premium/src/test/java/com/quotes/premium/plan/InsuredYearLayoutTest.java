@@ -0,0 +1,63 @@
+package com.quotes.premium.plan;
+
+import com.quotes.premium.dto.Applicable;
+import com.quotes.premium.dto.Attribute;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class InsuredYearLayoutTest {
+
+    private static List<Applicable> applicables() {
+        final List<Applicable> applicables = new ArrayList<>();
+        for (int year = 1; 3 >= year; year++) {
+            applicables.add(InsuredYearLayoutTest.applicable("adult", 45, year));
+            applicables.add(InsuredYearLayoutTest.applicable("adult", 40, year));
+            applicables.add(InsuredYearLayoutTest.applicable("child", 10, year));
+        }
+        return applicables;
+    }
+
+    private static Applicable applicable(final String type, final int age, final int year) {
+        final Applicable applicable = new Applicable();
+        applicable.setType(type);
+        applicable.setAge(age);
+        applicable.setYear(year);
+        return applicable;
+    }
+
+    @Test
+    void allInsuredAllYearsReturnsTheQuoteList() {
+        final List<Applicable> applicables = InsuredYearLayoutTest.applicables();
+        final InsuredYearLayout layout = new InsuredYearLayout(applicables);
+        assertSame(applicables, layout.select(new Attribute("all", "all", true, true, "1", "loading")));
+    }
+
+    @Test
+    void resolvesYearAndInsuredSelectors() {
+        final InsuredYearLayout layout = new InsuredYearLayout(InsuredYearLayoutTest.applicables());
+
+        final List<Applicable> adultsFromYearTwo = layout.select(new Attribute("adult", "2,3", true, true, "2", "loading"));
+        assertEquals(4, adultsFromYearTwo.size());
+        adultsFromYearTwo.forEach(app -> assertEquals("adult", app.getType()));
+
+        final List<Applicable> oldestInception = layout.select(new Attribute("oldest", "1", false, false, "2", "loading"));
+        assertEquals(1, oldestInception.size());
+        assertEquals(45, oldestInception.get(0).getAge());
+
+        assertEquals(0, layout.select(new Attribute("proposer", "all", false, false, "2", "loading")).size());
+    }
+
+    @Test
+    void reusesTheSelectionForEqualSelectors() {
+        final InsuredYearLayout layout = new InsuredYearLayout(InsuredYearLayoutTest.applicables());
+        final List<Applicable> first = layout.select(new Attribute("oldest", "all", false, false, "2", "loading"));
+        assertSame(first, layout.select(new Attribute("oldest", "all", false, false, "2", "loading")));
+        assertEquals(3, first.size());
+    }
+}
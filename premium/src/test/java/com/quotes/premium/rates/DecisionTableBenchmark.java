@@ -0,0 +1,185 @@
+package com.quotes.premium.rates;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * Time and allocation of the maternity, new born, instant cover and PA cover lookups of one insured-year against the
+ * decision tables of application.properties, through the single input overloads the handlers use (decision-table) and
+ * through the input array overloads (decision-table-arrays):
+ * <pre>
+ * mvn -B test-compile org.codehaus.mojo:exec-maven-plugin:3.6.4:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.quotes.premium.rates.DecisionTableBenchmark -Dexec.args="100000 20"
+ * </pre>
+ * Both paths run over the same generated insured-years and have to come to the same checksum. Each path is run
+ * unmeasured first so the numbers are of compiled code. Allocated is what the benchmark thread allocated per lookup,
+ * escape analysis may remove the input arrays of the last path once compiled, the interpreter does not.
+ */
+@Log4j2
+public class DecisionTableBenchmark {
+
+    public static final List<String> PATHS = List.of("decision-table", "decision-table-arrays");
+
+    private static final String[] OPTIONS = {"A", "B", "C", "D"};
+    private static final double[] SUB_LIMITS = {30000.0d, 50000.0d, 75000.0d, 100000.0d, Double.NaN};
+    private static final double[] SUMS_INSURED = {500000.0d, 750000.0d, 1000000.0d, 2500000.0d, 5000000.0d, 10000000.0d};
+    private static final List<List<String>> PEDS = List.of(List.of(), List.of("BP"), List.of("Thyroid"), List.of("DM", "CAD"), List.of("Asthma", "Thyroid"));
+    private static final double PER_MILE_EXPENSE = 1750.0d;
+    private static final double BASE_PREMIUM = 10000.0d;
+
+    public record Result(String path, int lookups, double nanosPerLookup, double allocatedBytesPerLookup, double checksum) {
+    }
+
+    /**
+     * Generated insured-years, each one maternity option, a sum insured, a set of PEDs and an age.
+     */
+    public record Samples(String[] options, double[] subLimits, double[] sumsInsured, List<List<String>> peds, double[] ages, boolean[] eldest) {
+
+        public static Samples generate(final int size, final long seed) {
+            final SplittableRandom random = new SplittableRandom(seed);
+            final String[] options = new String[size];
+            final double[] subLimits = new double[size];
+            final double[] sumsInsured = new double[size];
+            final List<List<String>> peds = new ArrayList<>(size);
+            final double[] ages = new double[size];
+            final boolean[] eldest = new boolean[size];
+            for (int sample = 0; sample < size; sample++) {
+                options[sample] = DecisionTableBenchmark.OPTIONS[random.nextInt(DecisionTableBenchmark.OPTIONS.length)];
+                subLimits[sample] = DecisionTableBenchmark.SUB_LIMITS[random.nextInt(DecisionTableBenchmark.SUB_LIMITS.length)];
+                sumsInsured[sample] = DecisionTableBenchmark.SUMS_INSURED[random.nextInt(DecisionTableBenchmark.SUMS_INSURED.length)];
+                peds.add(DecisionTableBenchmark.PEDS.get(random.nextInt(DecisionTableBenchmark.PEDS.size())));
+                ages[sample] = random.nextInt(91);
+                eldest[sample] = random.nextBoolean();
+            }
+            return new Samples(options, subLimits, sumsInsured, peds, ages, eldest);
+        }
+
+        public int size() {
+            return this.options.length;
+        }
+    }
+
+    /**
+     * @param decisions the decision tables by rate property name, {@link RateVersion#decision} say
+     */
+    public static Result run(final String path, final Function<String, DecisionTable> decisions, final Samples samples, final int rounds) {
+        final Lookups lookups = switch (path) {
+            case "decision-table" -> new Tables(decisions)::scalar;
+            case "decision-table-arrays" -> new Tables(decisions)::arrays;
+            default -> throw new IllegalArgumentException("unknown decision table path " + path + ", expected one of " + DecisionTableBenchmark.PATHS);
+        };
+        for (int round = 0; round < rounds; round++) {
+            DecisionTableBenchmark.sum(lookups, samples);
+        }
+        final long allocatedBefore = DecisionTableBenchmark.allocatedBytes();
+        final long start = System.nanoTime();
+        double checksum = 0.0d;
+        for (int round = 0; round < rounds; round++) {
+            checksum = DecisionTableBenchmark.sum(lookups, samples);
+        }
+        final long nanos = System.nanoTime() - start;
+        final long allocated = DecisionTableBenchmark.allocatedBytes() - allocatedBefore;
+        final int count = rounds * samples.size();
+        DecisionTableBenchmark.log.info("{} made {} lookups in {} ms", path, count, nanos / 1_000_000L);
+        return new Result(path, count, (double) nanos / count, (double) allocated / count, checksum);
+    }
+
+    /**
+     * @param args the number of insured-years to generate and, optionally, the number of rounds (20)
+     */
+    public static void main(final String[] args) throws IOException {
+        final Properties rates = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+        final Function<String, DecisionTable> decisions = name -> {
+            try {
+                return DecisionTable.compile(name, rates.getProperty(name));
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+        final Samples samples = Samples.generate(Integer.parseInt(args[0]), 42L);
+        final int rounds = 1 < args.length ? Integer.parseInt(args[1]) : 20;
+        final List<Result> results = new ArrayList<>();
+        for (final String path : DecisionTableBenchmark.PATHS) {
+            results.add(DecisionTableBenchmark.run(path, decisions, samples, rounds));
+        }
+        DecisionTableBenchmark.report(results, System.out);
+    }
+
+    public static void report(final List<Result> results, final PrintStream out) {
+        out.printf("%-22s %12s %12s %18s %18s%n", "path", "lookups", "ns/lookup", "allocated B/lookup", "checksum");
+        for (final Result result : results) {
+            out.printf("%-22s %12d %12.1f %18.1f %18.1f%n", result.path(), result.lookups(), result.nanosPerLookup(),
+                    result.allocatedBytesPerLookup(), result.checksum());
+        }
+    }
+
+    private static double sum(final Lookups lookups, final Samples samples) {
+        double checksum = 0.0d;
+        for (int sample = 0; sample < samples.size(); sample++) {
+            checksum += lookups.price(samples, sample);
+        }
+        return checksum;
+    }
+
+    @FunctionalInterface
+    private interface Lookups {
+        double price(Samples samples, int sample);
+    }
+
+    private static final class Tables {
+
+        private final DecisionTable maternity;
+        private final DecisionTable newBorn;
+        private final DecisionTable instantCover;
+        private final DecisionTable shares;
+
+        private Tables(final Function<String, DecisionTable> decisions) {
+            this.maternity = decisions.apply("maternity.amount.decision");
+            this.newBorn = decisions.apply("maternity.newborn.decision");
+            this.instantCover = decisions.apply("instant.cover.decision");
+            this.shares = decisions.apply("pa.cover.share.decision");
+        }
+
+        private double scalar(final Samples samples, final int sample) {
+            final String option = samples.options()[sample];
+            final double maternityAmount = this.maternity.lookup(0, this.maternity.key(0, option), samples.subLimits()[sample], 0.0d);
+            final double newBornAmount = this.newBorn.lookup(0, this.newBorn.key(0, option), samples.sumsInsured()[sample], 0.0d);
+            final double loading = DecisionTableBenchmark.BASE_PREMIUM
+                    * this.instantCover.lookup(0, this.instantCover.keys(0, samples.peds().get(sample)), 0.0d);
+            final int row = this.shares.matchNumbers(samples.ages()[sample], samples.eldest()[sample] ? 1 : 0);
+            return maternityAmount + newBornAmount + loading + this.paCover(row);
+        }
+
+        private double arrays(final Samples samples, final int sample) {
+            final String option = samples.options()[sample];
+            final double maternityAmount = this.maternity.lookup(0, new long[]{this.maternity.key(0, option)}, new double[]{samples.subLimits()[sample]}, 0.0d);
+            final double newBornAmount = this.newBorn.lookup(0, new long[]{this.newBorn.key(0, option)}, new double[]{samples.sumsInsured()[sample]}, 0.0d);
+            final double loading = DecisionTableBenchmark.BASE_PREMIUM
+                    * this.instantCover.lookup(0, new long[]{this.instantCover.keys(0, samples.peds().get(sample))}, DecisionTable.NO_NUMBERS, 0.0d);
+            final int row = this.shares.match(DecisionTable.NO_KEYS, new double[]{samples.ages()[sample], samples.eldest()[sample] ? 1 : 0});
+            return maternityAmount + newBornAmount + loading + this.paCover(row);
+        }
+
+        private double paCover(final int row) {
+            return -1 == row ? 0.0d : Math.min(DecisionTableBenchmark.PER_MILE_EXPENSE * this.shares.result(row, 0), this.shares.result(row, 1));
+        }
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return -1L;
+    }
+}
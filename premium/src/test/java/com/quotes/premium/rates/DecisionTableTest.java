@@ -0,0 +1,92 @@
+package com.quotes.premium.rates;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecisionTableTest {
+
+    private static final String NEWBORN = """
+            {"inputs":{"option":"key","sumInsured":"number"},"outputs":["amount"],
+             "rules":[["A","<=2500000","2690"],["A","*","4034"],["C","500000|750000","41932"],["C","*","167730"]]}""";
+
+    @Test
+    void firstMatchingRuleWins() throws Exception {
+        final DecisionTable table = DecisionTable.compile("newborn", DecisionTableTest.NEWBORN);
+        assertEquals(5, table.rows()); // 500000|750000 is flattened into two rows
+        assertEquals(2690.0d, table.lookup(0, new long[]{table.key(0, "A")}, new double[]{2500000}, 0.0d));
+        assertEquals(4034.0d, table.lookup(0, new long[]{table.key(0, "A")}, new double[]{5000000}, 0.0d));
+        assertEquals(41932.0d, table.lookup(0, new long[]{table.key(0, "C")}, new double[]{750000}, 0.0d));
+        assertEquals(167730.0d, table.lookup(0, new long[]{table.key(0, "C")}, new double[]{1000000}, 0.0d));
+        assertEquals(-1, table.match(new long[]{table.key(0, "B")}, new double[]{500000}));
+        assertEquals(-1, table.match(new long[]{table.key(0, null)}, new double[]{500000}));
+    }
+
+    @Test
+    void keySetsMatchAnyMember() throws Exception {
+        final DecisionTable table = DecisionTable.compile("instant",
+                "{\"inputs\":{\"peds\":\"key\"},\"outputs\":[\"loading\"],\"rules\":[[\"CAD\",\"0.30\"],[\"BP|DM\",\"0.20\"],[\"+\",\"0.15\"],[\"*\",\"0\"]]}");
+        assertEquals(0.30d, table.lookup(0, new long[]{table.keys(0, List.of("DM", "CAD"))}, DecisionTable.NO_NUMBERS, -1.0d));
+        assertEquals(0.20d, table.lookup(0, new long[]{table.keys(0, List.of("Thyroid", "BP"))}, DecisionTable.NO_NUMBERS, -1.0d));
+        assertEquals(0.15d, table.lookup(0, new long[]{table.keys(0, List.of("Thyroid"))}, DecisionTable.NO_NUMBERS, -1.0d));
+        assertEquals(0.0d, table.lookup(0, new long[]{table.keys(0, List.of())}, DecisionTable.NO_NUMBERS, -1.0d));
+    }
+
+    @Test
+    void boundsAreInclusiveUnlessStrict() throws Exception {
+        final DecisionTable table = DecisionTable.compile("bands",
+                "{\"inputs\":{\"age\":\"number\"},\"outputs\":[\"band\"],\"rules\":[[\"<18\",\"0\"],[\"18..70\",\"1\"],[\">70\",\"2\"]]}");
+        assertEquals(0.0d, table.lookup(0, DecisionTable.NO_KEYS, new double[]{17.99d}, -1.0d));
+        assertEquals(1.0d, table.lookup(0, DecisionTable.NO_KEYS, new double[]{18}, -1.0d));
+        assertEquals(1.0d, table.lookup(0, DecisionTable.NO_KEYS, new double[]{70}, -1.0d));
+        assertEquals(2.0d, table.lookup(0, DecisionTable.NO_KEYS, new double[]{70.01d}, -1.0d));
+        assertEquals(-1.0d, table.lookup(0, DecisionTable.NO_KEYS, new double[]{Double.NaN}, -1.0d));
+    }
+
+    @Test
+    void malformedRulesAreRejectedAtLoad() {
+        assertThrows(IllegalArgumentException.class, () -> DecisionTable.compile("short",
+                "{\"inputs\":{\"option\":\"key\"},\"outputs\":[\"amount\"],\"rules\":[[\"A\"]]}"));
+        assertThrows(IllegalArgumentException.class, () -> DecisionTable.compile("kind",
+                "{\"inputs\":{\"option\":\"text\"},\"outputs\":[\"amount\"],\"rules\":[]}"));
+    }
+
+    @Test
+    void singleInputOverloadsMatchTheArrayInputs() throws Exception {
+        final DecisionTable newBorn = DecisionTable.compile("newborn", DecisionTableTest.NEWBORN);
+        for (final String option : new String[]{"A", "B", "C", null}) {
+            for (final double sumInsured : new double[]{500000, 2500000, 5000000, Double.NaN}) {
+                final long key = newBorn.key(0, option);
+                assertEquals(newBorn.match(new long[]{key}, new double[]{sumInsured}), newBorn.match(key, sumInsured));
+                assertEquals(newBorn.lookup(0, new long[]{key}, new double[]{sumInsured}, -1.0d), newBorn.lookup(0, key, sumInsured, -1.0d));
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> newBorn.match(newBorn.key(0, "A")));
+        assertThrows(IllegalArgumentException.class, () -> newBorn.matchNumbers(18, 1));
+    }
+
+    @Test
+    void benchmarkPathsAgreeAndSingleInputsDoNotAllocate() throws Exception {
+        final Properties rates = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+        final DecisionTableBenchmark.Samples samples = DecisionTableBenchmark.Samples.generate(20000, 7L);
+        final List<DecisionTableBenchmark.Result> results = DecisionTableBenchmark.PATHS.stream()
+                .map(path -> DecisionTableBenchmark.run(path, name -> DecisionTableTest.compile(name, rates), samples, 3)).toList();
+        assertEquals(results.get(0).checksum(), results.get(1).checksum());
+        assertTrue(1.0d > results.get(0).allocatedBytesPerLookup(), results.get(0).allocatedBytesPerLookup() + " bytes per lookup");
+    }
+
+    private static DecisionTable compile(final String name, final Properties rates) {
+        try {
+            return DecisionTable.compile(name, rates.getProperty(name));
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
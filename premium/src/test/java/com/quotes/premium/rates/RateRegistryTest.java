@@ -0,0 +1,68 @@
+package com.quotes.premium.rates;
+
+import com.quotes.premium.dto.Insured;
+import com.quotes.premium.dto.PaymentTermRequest;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.service.PremiumService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "rate.versions=[{\"id\":\"2030-04\",\"effectiveFrom\":\"2030-04-01\",\"properties\":{\"zonal.discount.mapping\":\"1:0,2:0.10,3:0.30\"}}]")
+class RateRegistryTest {
+
+    @Autowired
+    private RateRegistry rateRegistry;
+    @Autowired
+    private PremiumService premiumService;
+
+    @Test
+    void versionsAreSelectedByQuoteDate() {
+        assertEquals(RateRegistry.BASE_VERSION, this.rateRegistry.resolve(LocalDate.of(2030, 3, 31)).getId());
+        assertEquals("2030-04", this.rateRegistry.resolve(LocalDate.of(2030, 4, 1)).getId());
+        assertEquals("2030-04", this.rateRegistry.resolve(LocalDate.of(2031, 1, 1)).getId());
+    }
+
+    @Test
+    void unchangedTablesAreShared() {
+        final RateVersion base = this.rateRegistry.get(RateRegistry.BASE_VERSION);
+        final RateVersion filed = this.rateRegistry.get("2030-04");
+        assertSame(base.table("parent_ss_premium.xlsx"), filed.table("parent_ss_premium.xlsx"));
+        assertSame(base.table("consumable.cover"), filed.table("consumable.cover"));
+        assertNotSame(base.table("zonal.discount.mapping"), filed.table("zonal.discount.mapping"));
+        assertEquals(0.10d, filed.table("zonal.discount.mapping").get("2"));
+    }
+
+    @Test
+    void quotesArePricedWithTheRatesInForceOnTheQuoteDate() {
+        final long before = this.finalPremium(LocalDate.of(2030, 3, 31));
+        final long after = this.finalPremium(LocalDate.of(2030, 4, 1));
+        assertTrue(after > before, before + " should be below " + after);
+        assertEquals(before, this.finalPremium(LocalDate.of(2030, 3, 31)));
+    }
+
+    private long finalPremium(final LocalDate quoteDate) {
+        final Insured insured = new Insured();
+        insured.setType("adult");
+        insured.setAge(40);
+        insured.setProposer(true);
+        final PaymentTermRequest paymentTermRequest = new PaymentTermRequest();
+        paymentTermRequest.setPaymentDuration("annual");
+        final PremiumRequest premiumRequest = new PremiumRequest();
+        premiumRequest.setSumInsured("1000000");
+        premiumRequest.setPolicyTerm(1);
+        premiumRequest.setZone("2");
+        premiumRequest.setPolicyType("individual");
+        premiumRequest.setFresh(true);
+        premiumRequest.setInsured(new ArrayList<>(List.of(insured)));
+        premiumRequest.setPaymentTermRequest(paymentTermRequest);
+        premiumRequest.setQuoteDate(quoteDate);
+        return this.premiumService.calculatePremium(premiumRequest).getData().orElseThrow().getFinalPremium();
+    }
+}
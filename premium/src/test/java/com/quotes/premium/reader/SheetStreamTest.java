@@ -0,0 +1,87 @@
+package com.quotes.premium.reader;
+
+import com.quotes.premium.rates.PrimitiveRateTable;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.InputStreamResource;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SheetStreamTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void cellsReadLikeTheObjectModel() throws Exception {
+        final Path file = this.directory.resolve("cells.xlsx");
+        try (final XSSFWorkbook workbook = new XSSFWorkbook(); final OutputStream out = Files.newOutputStream(file)) {
+            final Sheet sheet = workbook.createSheet();
+            final Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Age");
+            header.createCell(1).setCellValue(500000);
+            header.createCell(3).setCellValue("UNLIMITED");
+            final Row row = sheet.createRow(2); // row 1 left out
+            row.createCell(0).setCellValue(" LTE 35 ");
+            row.createCell(1).setCellValue(0.066d);
+            row.createCell(2).setCellStyle(workbook.createCellStyle()); // blank
+            row.createCell(3).setCellValue(true);
+            row.createCell(27).setCellValue(1.0E-7d);
+            workbook.write(out);
+        }
+
+        final List<Integer> rowIndexes = new ArrayList<>();
+        final List<SheetRow> rows = new ArrayList<>();
+        SheetStream.read(file, (rowIndex, row) -> {
+            rowIndexes.add(rowIndex);
+            rows.add(row.copy());
+        });
+        assertEquals(List.of(0, 2), rowIndexes);
+
+        final SheetRow header = rows.get(0);
+        assertEquals(4, header.size());
+        assertEquals("Age", header.text(0));
+        assertEquals(500000, (long) header.number(1));
+        assertFalse(header.has(2));
+        assertEquals(3, header.next(2));
+        assertThrows(IllegalStateException.class, () -> header.number(3));
+
+        final SheetRow row = rows.get(1);
+        assertEquals(28, row.size());
+        assertEquals(" LTE 35 ", row.text(0));
+        assertEquals(0.066d, row.number(1));
+        assertEquals(0.0d, row.number(2));
+        assertEquals("", row.text(2));
+        assertEquals("TRUE", row.toString(3));
+        assertEquals("1.0E-7", row.toString(27));
+        assertEquals(27, row.next(4));
+    }
+
+    @Test
+    void keyedTablesStreamIntoPrimitiveArrays() throws Exception {
+        final Path file = this.directory.resolve("zones.xlsx");
+        WorkbookLoadBenchmark.generate(file, 5000, 7L);
+
+        final PrimitiveRateTable table = PrimitiveTableReader.read(file, 0, 2);
+        assertEquals(5000, table.size());
+        assertEquals(WorkbookLoadBenchmark.dom(file), WorkbookLoadBenchmark.stream(file));
+        assertEquals(WorkbookLoadBenchmark.dom(file),
+                WorkbookResource.read(new InputStreamResource(Files.newInputStream(file)), WorkbookLoadBenchmark::stream));
+        assertEquals(WorkbookLoadBenchmark.dom(file).get("102500"), table.get(102500L));
+        assertTrue(Double.isNaN(table.get(99L)));
+
+        final PrimitiveRateTable unsorted = PrimitiveRateTable.builder("unsorted").put(30L, 3.0d).put(10L, 1.0d).put(20L, 2.0d).build();
+        assertEquals(1.0d, unsorted.get(10L));
+        assertEquals(3.0d, unsorted.get(30L));
+        assertThrows(IllegalArgumentException.class, () -> PrimitiveRateTable.builder("twice").put(2L, 1.0d).put(1L, 1.0d).put(2L, 2.0d).build());
+    }
+}
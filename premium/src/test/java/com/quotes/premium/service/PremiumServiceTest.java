@@ -0,0 +1,41 @@
+package com.quotes.premium.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class PremiumServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Autowired
+    private PremiumService premiumService;
+
+    private PremiumRequest request(final String json) throws Exception {
+        return this.objectMapper.readValue(json, PremiumRequest.class);
+    }
+
+    @Test
+    void outOfRangeTermIsRejectedBeforeItsInsuredYearsAreLaidOut() throws Exception {
+        final PremiumRequest premiumRequest = this.request("""
+                {"sumInsured":"1000000","policyTerm":2147483647,"zone":"1","policyType":"individual","insured":[{"type":"adult","age":30}]}""");
+        final ValidationException e = assertThrows(ValidationException.class, () -> this.premiumService.prepare(premiumRequest));
+        assertEquals("policy term is wrong", e.getErrors().get(0));
+        assertFalse(this.premiumService.calculatePremium(premiumRequest).isSuccess());
+    }
+
+    @Test
+    void missingInsuredIsRejectedAsAWrongFamilySize() throws Exception {
+        final PremiumRequest premiumRequest = this.request("""
+                {"sumInsured":"1000000","policyTerm":2,"zone":"1","policyType":"individual"}""");
+        final ValidationException e = assertThrows(ValidationException.class, () -> this.premiumService.prepare(premiumRequest));
+        assertEquals("family size is wrong", e.getErrors().get(0));
+        assertFalse(this.premiumService.calculatePremium(premiumRequest).isSuccess());
+    }
+}
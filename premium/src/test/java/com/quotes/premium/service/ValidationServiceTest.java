@@ -0,0 +1,55 @@
+package com.quotes.premium.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidationServiceTest {
+
+    private static final List<String> KEYS = List.of("sumInsured", "policyTerm", "zone", "insured", "policyType",
+            "voluntarilyDeductible", "maternityRequest", "paCover", "paymentTerm");
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final ValidationService validationService = new ValidationService();
+
+    private PremiumRequest request(final String json) throws Exception {
+        return this.objectMapper.readValue(json, PremiumRequest.class);
+    }
+
+    @Test
+    void everyViolationIsCollectedInOnePass() throws Exception {
+        final ValidationResult result = this.validationService.validatePremiumRequest(this.request("""
+                {"sumInsured":"1000000","policyTerm":6,"zone":"4","policyType":"floater",
+                 "insured":[{"type":"adult","age":17}],
+                 "voluntarilyDeductible":{"deductible":true,"deductibleAmount":"25000"},"voluntarilyCopay":{"copay":true,"copayPercent":"20"},
+                 "paymentTermRequest":{"emi":true,"paymentDuration":"monthly"}}"""), ValidationServiceTest.KEYS);
+        assertEquals(List.of("policy term is wrong", "zone is wrong", "adult age can not be less than 18",
+                "floater must have more than one insured", "copay and deductible cannot be added together",
+                "emi is not available for greater than 3 years"), result.getErrors());
+
+        final ValidationException e = new ValidationException(result.getErrors());
+        assertEquals("com.quotes.premium.exception.SuperstarException: policy term is wrong", PremiumService.failureMessage(e));
+        assertEquals(0, e.getStackTrace().length);
+
+        assertTrue(this.validationService.validatePremiumRequest(this.request("""
+                {"sumInsured":"1000000","policyTerm":2,"zone":"1","policyType":"individual","insured":[{"type":"adult","age":30}]}"""),
+                ValidationServiceTest.KEYS).isValid()); // the thread's result is reused
+    }
+
+    @Test
+    void faultsStillPropagateUnlessTheInputWasAlreadyRejected() throws Exception {
+        // sum insured UNLIMITED does not parse for the pa cover check, as it never did
+        assertThrows(InvocationTargetException.class, () -> this.validationService.validatePremiumRequest(this.request("""
+                {"sumInsured":"UNLIMITED","policyTerm":1,"zone":"1","policyType":"individual","insured":[{"type":"adult","age":30}]}"""),
+                ValidationServiceTest.KEYS));
+        final ValidationResult result = this.validationService.validatePremiumRequest(this.request("""
+                {"sumInsured":"lots","policyTerm":1,"zone":"1","policyType":"floater"}"""), ValidationServiceTest.KEYS);
+        assertEquals(List.of("sum insured is wrong", "family size is wrong"), result.getErrors()); // pa cover fails to parse it
+    }
+}
@@ -0,0 +1,135 @@
+package com.quotes.premium.session;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.quotes.premium.dto.ApiResponse;
+import com.quotes.premium.dto.CoverBundle;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.PremiumResponse;
+import com.quotes.premium.loadgen.LoadGenerator;
+import com.quotes.premium.service.PremiumService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "quote.breakdown.covers=superstarBonus,smartNetworkDiscount,voluntarilyCopay.copay,voluntarilyDeductible.deductible,"
+        + "roomRent.rent,wellnessDiscount.wellnessDiscount,maternityRequest.maternityRequest,hospitalCashRequest.hospitalCash,"
+        + "healthQuestionnaire,cibilScoreRequest.cibil,earlyRenewalDiscount")
+class CoverBundleOptimizerTest {
+
+    private static final List<String> COVERS = List.of("superstarBonus", "smartNetworkDiscount", "voluntarilyCopay.copay",
+            "voluntarilyDeductible.deductible", "roomRent.rent", "wellnessDiscount.wellnessDiscount", "maternityRequest.maternityRequest",
+            "hospitalCashRequest.hospitalCash", "healthQuestionnaire", "cibilScoreRequest.cibil", "earlyRenewalDiscount");
+    private static final String OPTIONS = """
+            {"voluntarilyCopay":{"copay":false,"copayPercent":"20"},
+             "voluntarilyDeductible":{"deductible":false,"deductibleAmount":"25000"},
+             "roomRent":{"rent":false,"option":"shared"},
+             "wellnessDiscount":{"wellnessDiscount":false,"points":600.0},
+             "maternityRequest":{"maternityRequest":false,"option":[{"option":"A","subLimit":50000.0}]},
+             "cibilScoreRequest":{"cibil":false,"cibilScore":780}}""";
+    private static final List<List<String>> MUST_HAVES = List.of(List.of(), List.of("maternityRequest.maternityRequest", "voluntarilyCopay.copay"),
+            List.of("superstarBonus", "hospitalCashRequest.hospitalCash"));
+
+    @Autowired
+    private CoverBundleOptimizer coverBundleOptimizer;
+    @Autowired
+    private PremiumService premiumService;
+    @Autowired
+    private LoadGenerator loadGenerator;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void cheapestBundleMatchesPricingEveryBundle() throws Exception {
+        final List<PremiumRequest> requests = this.loadGenerator.synthesize(12, 50L);
+        long bundles = 0L;
+        long bundlesPriced = 0L;
+        int prunedByBound = 0;
+        int prunedByValidation = 0;
+        for (int request = 0; request < requests.size(); request++) {
+            final ObjectNode tree = this.objectMapper.valueToTree(requests.get(request));
+            this.objectMapper.readTree(CoverBundleOptimizerTest.OPTIONS).fields().forEachRemaining(option -> {
+                if (tree.path(option.getKey()).isMissingNode() || tree.get(option.getKey()).isNull()) {
+                    tree.set(option.getKey(), option.getValue());
+                }
+            });
+            if (0 == request % 4) {
+                // options A and B together never validate, the bundle goes without maternity
+                tree.set("maternityRequest", this.objectMapper.readTree("""
+                        {"maternityRequest":false,"option":[{"option":"A","subLimit":50000.0},{"option":"B","subLimit":30000.0}]}"""));
+            }
+            final List<String> available = CoverBundleOptimizerTest.COVERS.stream().filter(cover -> !cover.contains(".")
+                    || tree.path(cover.substring(0, cover.indexOf('.'))).isObject()).toList();
+
+            final PremiumResponse[] quotes = new PremiumResponse[1 << available.size()];
+            for (int bundle = 0; bundle < quotes.length; bundle++) {
+                quotes[bundle] = this.premiumService.calculateLive(this.objectMapper.treeToValue(this.select(tree, available, bundle), PremiumRequest.class))
+                        .getData().orElse(null);
+            }
+
+            for (final List<String> mustHave : CoverBundleOptimizerTest.MUST_HAVES) {
+                if (!available.containsAll(mustHave)) {
+                    continue;
+                }
+                int required = 0;
+                for (final String cover : mustHave) {
+                    required |= 1 << available.indexOf(cover);
+                }
+                PremiumResponse cheapest = null;
+                for (int bundle = 0; bundle < quotes.length; bundle++) {
+                    if (required == (bundle & required) && null != quotes[bundle]
+                            && (null == cheapest || quotes[bundle].getTotalPremium() < cheapest.getTotalPremium())) {
+                        cheapest = quotes[bundle];
+                    }
+                }
+
+                final ApiResponse<CoverBundle> response = this.coverBundleOptimizer.optimize(this.objectMapper.treeToValue(tree, PremiumRequest.class), mustHave);
+                final String label = "request " + request + " must have " + mustHave;
+                assertEquals(null != quotes[required], response.isSuccess(), label + ": " + response.getMessage());
+                if (!response.isSuccess()) {
+                    continue;
+                }
+                final CoverBundle found = response.getData().orElseThrow();
+                assertEquals(quotes[required].getTotalPremium(), found.getMustHavePremium(), label);
+                assertEquals(cheapest.getTotalPremium(), found.getTotalPremium(), label);
+                assertTrue(found.getCovers().containsAll(mustHave), label);
+                int bundle = 0;
+                for (final String cover : found.getCovers()) {
+                    bundle |= 1 << available.indexOf(cover);
+                }
+                assertEquals(this.objectMapper.writeValueAsString(quotes[bundle]), this.objectMapper.writeValueAsString(found.getQuote()), label);
+                assertFalse(found.getCovers().contains("maternityRequest.maternityRequest") && 0 == request % 4, label);
+                assertFalse(found.getCovers().containsAll(List.of("voluntarilyCopay.copay", "voluntarilyDeductible.deductible")), label);
+                bundles += found.getBundles();
+                bundlesPriced += found.getBundlesPriced();
+                prunedByBound += found.getPrunedByBound();
+                prunedByValidation += found.getPrunedByValidation();
+            }
+        }
+        assertTrue(0 < prunedByBound);
+        assertTrue(0 < prunedByValidation);
+        assertTrue(bundlesPriced * 4 < bundles, bundlesPriced + " of " + bundles);
+    }
+
+    @Test
+    void unknownMustHaveIsTurnedDown() throws Exception {
+        final ApiResponse<CoverBundle> response = this.coverBundleOptimizer.optimize(this.loadGenerator.synthesize(1, 1L).get(0), List.of("jetpack"));
+        assertFalse(response.isSuccess());
+        assertEquals("unknown cover jetpack", response.getMessage());
+    }
+
+    private ObjectNode select(final ObjectNode tree, final List<String> covers, final int bundle) {
+        final ObjectNode selected = tree.deepCopy();
+        for (int cover = 0; cover < covers.size(); cover++) {
+            final String[] path = covers.get(cover).split("\\.");
+            final ObjectNode holder = 1 == path.length ? selected : (ObjectNode) selected.get(path[0]);
+            holder.put(path[path.length - 1], 0 != (bundle & 1 << cover));
+        }
+        return selected;
+    }
+}
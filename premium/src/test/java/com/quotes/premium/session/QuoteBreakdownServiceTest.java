@@ -0,0 +1,70 @@
+package com.quotes.premium.session;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.quotes.premium.dto.ApiResponse;
+import com.quotes.premium.dto.CoverImpact;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.QuoteBreakdownResponse;
+import com.quotes.premium.service.PremiumService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class QuoteBreakdownServiceTest {
+
+    private static final String REQUEST = """
+            {"sumInsured":"1000000","policyTerm":2,"zone":"2","policyType":"floater","fresh":true,
+             "insured":[{"type":"adult","age":42,"peds":["DM"]},{"type":"adult","age":39},{"type":"child","age":9}],
+             "superstarBonus":true,"womenCare":true,"consumableCover":true,
+             "voluntarilyCopay":{"copay":false,"copayPercent":"20"},
+             "voluntarilyDeductible":{"deductible":false,"deductibleAmount":"25000"},
+             "roomRent":{"rent":true,"option":"shared"},
+             "hospitalCashRequest":{"hospitalCash":false,"numberOfDays":"30"},
+             "paCoverRequest":{"paCover":false,"option":"1"},
+             "pedWaitingRequest":{"pedWaitingRequest":false,"waitingPeriod":"1"},
+             "cibilScoreRequest":{"cibil":false,"cibilScore":780},
+             "paymentTermRequest":{"emi":false,"paymentDuration":"annual"}}""";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new Jdk8Module()).findAndRegisterModules();
+
+    @Autowired
+    private QuoteBreakdownService quoteBreakdownService;
+    @Autowired
+    private PremiumService premiumService;
+
+    @Test
+    void everyToggledQuoteMatchesAFullQuote() throws Exception {
+        final ApiResponse<QuoteBreakdownResponse> breakdown = this.quoteBreakdownService.breakdown(this.objectMapper.readValue(QuoteBreakdownServiceTest.REQUEST, PremiumRequest.class));
+        assertTrue(breakdown.isSuccess(), breakdown.getMessage());
+        final QuoteBreakdownResponse response = breakdown.getData().orElseThrow();
+        final long base = this.premiumService.calculateLive(this.objectMapper.readValue(QuoteBreakdownServiceTest.REQUEST, PremiumRequest.class))
+                .getData().orElseThrow().getTotalPremium();
+        assertEquals(base, response.getQuote().getTotalPremium());
+        assertEquals(22, response.getCovers().size()); // no maternity or wellness objects to toggle
+
+        int priced = 0;
+        for (final CoverImpact impact : response.getCovers()) {
+            final ObjectNode toggled = (ObjectNode) this.objectMapper.readTree(QuoteBreakdownServiceTest.REQUEST);
+            final String[] path = impact.getCover().split("\\.");
+            final ObjectNode holder = 1 == path.length ? toggled : (ObjectNode) toggled.get(path[0]);
+            assertEquals(impact.isSelected(), holder.path(path[path.length - 1]).asBoolean(false), impact.getCover());
+            holder.put(path[path.length - 1], !impact.isSelected());
+
+            final ApiResponse<com.quotes.premium.dto.PremiumResponse> expected = this.premiumService.calculateLive(this.objectMapper.treeToValue(toggled, PremiumRequest.class));
+            assertEquals(expected.isSuccess(), impact.isSuccess(), impact.getCover() + ": " + impact.getMessage());
+            if (impact.isSuccess()) {
+                priced++;
+                assertEquals(expected.getData().orElseThrow().getTotalPremium(), impact.getTotalPremium(), impact.getCover());
+                assertEquals(impact.getTotalPremium() - base, impact.getDelta());
+            }
+        }
+        assertTrue(15 < priced);
+        assertTrue(response.getCovers().stream().filter(CoverImpact::isSuccess).allMatch(impact -> null != impact.getRecomputedFrom()
+                && !"lookup".equals(impact.getRecomputedFrom())));
+    }
+}
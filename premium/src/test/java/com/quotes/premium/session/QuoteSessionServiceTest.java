@@ -0,0 +1,77 @@
+package com.quotes.premium.session;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.quotes.premium.dto.ApiResponse;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.PremiumResponse;
+import com.quotes.premium.dto.QuoteSessionResponse;
+import com.quotes.premium.service.PremiumService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class QuoteSessionServiceTest {
+
+    private static final String REQUEST = """
+            {"sumInsured":"1000000","policyTerm":2,"zone":"2","policyType":"floater","fresh":true,
+             "insured":[{"type":"adult","age":42,"peds":["DM"]},{"type":"adult","age":39},{"type":"child","age":9}],
+             "superstarBonus":true,"womenCare":true,
+             "paymentTermRequest":{"emi":false,"paymentDuration":"annual"}}""";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new Jdk8Module());
+
+    @Autowired
+    private QuoteSessionService quoteSessionService;
+    @Autowired
+    private PremiumService premiumService;
+    @Autowired
+    private QuoteSessionStore quoteSessionStore;
+
+    @Test
+    void patchRecomputesDownstreamStagesOnly() throws Exception {
+        final ApiResponse<QuoteSessionResponse> created = this.quoteSessionService.create(this.objectMapper.readValue(QuoteSessionServiceTest.REQUEST, PremiumRequest.class));
+        assertTrue(created.isSuccess(), created.getMessage());
+        final String sessionId = created.getData().orElseThrow().getSessionId();
+
+        final ApiResponse<QuoteSessionResponse> patched = this.quoteSessionService.update(sessionId,
+                this.objectMapper.readTree("{\"consumableCover\":true,\"voluntarilyCopay\":{\"copay\":true,\"copayPercent\":\"20\"}}"));
+        assertTrue(patched.isSuccess(), patched.getMessage());
+        assertEquals("consumableCover", patched.getData().orElseThrow().getRecomputedFrom());
+
+        final PremiumRequest full = this.objectMapper.readValue(QuoteSessionServiceTest.REQUEST, PremiumRequest.class);
+        full.setConsumableCover(true);
+        full.setVoluntarilyCopay(this.objectMapper.readValue("{\"copay\":true,\"copayPercent\":\"20\"}", com.quotes.premium.dto.VoluntarilyCopay.class));
+        final PremiumResponse expected = this.premiumService.calculatePremium(full).getData().orElseThrow();
+        assertEquals(this.objectMapper.writeValueAsString(expected), this.objectMapper.writeValueAsString(patched.getData().orElseThrow().getQuote()));
+    }
+
+    @Test
+    void invalidPatchKeepsThePreviousQuote() throws Exception {
+        final ApiResponse<QuoteSessionResponse> created = this.quoteSessionService.create(this.objectMapper.readValue(QuoteSessionServiceTest.REQUEST, PremiumRequest.class));
+        final String sessionId = created.getData().orElseThrow().getSessionId();
+        final long totalPremium = created.getData().orElseThrow().getQuote().getTotalPremium();
+
+        assertFalse(this.quoteSessionService.update(sessionId, this.objectMapper.readTree("{\"zone\":\"9\"}")).isSuccess());
+        assertEquals(totalPremium, this.quoteSessionService.get(sessionId).getData().orElseThrow().getQuote().getTotalPremium());
+        assertNull(this.quoteSessionService.update("unknown", this.objectMapper.readTree("{}")));
+    }
+
+    @Test
+    void sessionKeepsResumableCheckpointsOnly() throws Exception {
+        final long bytes = this.quoteSessionStore.bytes();
+        final String sessionId = this.quoteSessionService.create(this.objectMapper.readValue(QuoteSessionServiceTest.REQUEST, PremiumRequest.class))
+                .getData().orElseThrow().getSessionId();
+        final QuoteSession session = this.quoteSessionStore.get(sessionId);
+        for (int position = 1; position < session.getCheckpoints().length; position++) {
+            assertEquals(session.getResumable()[position], null != session.getCheckpoints()[position], "checkpoint " + position);
+        }
+        assertEquals(bytes + session.estimatedBytes(), this.quoteSessionStore.bytes());
+
+        assertTrue(this.quoteSessionService.delete(sessionId));
+        assertEquals(bytes, this.quoteSessionStore.bytes());
+    }
+}
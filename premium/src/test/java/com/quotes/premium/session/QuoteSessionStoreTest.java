@@ -0,0 +1,39 @@
+package com.quotes.premium.session;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.quotes.premium.dto.PremiumRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "quote.session.max.bytes=1")
+class QuoteSessionStoreTest {
+
+    private static final String REQUEST = """
+            {"sumInsured":"1000000","policyTerm":3,"zone":"1","policyType":"floater","fresh":true,
+             "insured":[{"type":"adult","age":36},{"type":"adult","age":34}],
+             "paymentTermRequest":{"emi":false,"paymentDuration":"annual"}}""";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new Jdk8Module());
+
+    @Autowired
+    private QuoteSessionService quoteSessionService;
+    @Autowired
+    private QuoteSessionStore quoteSessionStore;
+
+    @Test
+    void storeOverItsByteBoundEvictsTheLeastRecentlyUsedSessions() throws Exception {
+        final String first = this.quoteSessionService.create(this.objectMapper.readValue(QuoteSessionStoreTest.REQUEST, PremiumRequest.class))
+                .getData().orElseThrow().getSessionId();
+        final String second = this.quoteSessionService.create(this.objectMapper.readValue(QuoteSessionStoreTest.REQUEST, PremiumRequest.class))
+                .getData().orElseThrow().getSessionId();
+
+        assertNull(this.quoteSessionStore.get(first));
+        assertNotNull(this.quoteSessionStore.get(second));
+        assertEquals(1, this.quoteSessionStore.size());
+        assertEquals(this.quoteSessionStore.get(second).estimatedBytes(), this.quoteSessionStore.bytes());
+    }
+}
@@ -0,0 +1,88 @@
+package com.quotes.premium.solver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quotes.premium.dto.ApiResponse;
+import com.quotes.premium.dto.CoverSolution;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.PremiumResponse;
+import com.quotes.premium.loadgen.LoadGenerator;
+import com.quotes.premium.service.PremiumService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CoverSolverTest {
+
+    private static final List<String> SUMS_INSURED = List.of("500000", "750000", "1000000", "1500000", "2000000", "2500000", "5000000",
+            "10000000", "UNLIMITED");
+    private static final long[] BUDGETS = {15_000L, 40_000L, 120_000L};
+
+    @Autowired
+    private CoverSolver coverSolver;
+    @Autowired
+    private PremiumService premiumService;
+    @Autowired
+    private LoadGenerator loadGenerator;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void solutionsMatchPricingEveryOption() throws Exception {
+        int priced = 0;
+        int grid = 0;
+        for (final PremiumRequest premiumRequest : this.loadGenerator.synthesize(30, 49L)) {
+            final PremiumResponse[][] quotes = new PremiumResponse[CoverSolverTest.SUMS_INSURED.size()][6];
+            for (int sumInsured = 0; sumInsured < CoverSolverTest.SUMS_INSURED.size(); sumInsured++) {
+                for (int term = 1; term <= 5; term++) {
+                    final PremiumRequest variant = this.objectMapper.convertValue(premiumRequest, PremiumRequest.class);
+                    variant.setSumInsured(CoverSolverTest.SUMS_INSURED.get(sumInsured));
+                    variant.setPolicyTerm(term);
+                    quotes[sumInsured][term] = this.premiumService.calculateLive(variant).getData().orElse(null);
+                }
+            }
+            for (final long budget : CoverSolverTest.BUDGETS) {
+                final ApiResponse<CoverSolution> response = this.coverSolver.solve(premiumRequest, budget);
+                assertTrue(response.isSuccess(), response.getMessage());
+                final CoverSolution solution = response.getData().orElseThrow();
+                priced += solution.getSumsInsuredPriced();
+                grid += solution.getGridSize();
+
+                CoverSolution.Option best = null;
+                int option = 0;
+                for (int term = 1; term <= 5; term++) {
+                    int highest = -1;
+                    for (int sumInsured = 0; sumInsured < CoverSolverTest.SUMS_INSURED.size(); sumInsured++) {
+                        final PremiumResponse quote = quotes[sumInsured][term];
+                        if (null != quote && quote.getTotalPremium() <= budget * term) {
+                            highest = sumInsured;
+                        }
+                    }
+                    if (0 > highest) {
+                        continue;
+                    }
+                    final CoverSolution.Option found = solution.getOptions().get(option++);
+                    assertEquals(term, found.getPolicyTerm());
+                    assertEquals(CoverSolverTest.SUMS_INSURED.get(highest), found.getSumInsured(), "term " + term + " budget " + budget);
+                    assertEquals(this.objectMapper.writeValueAsString(quotes[highest][term]), this.objectMapper.writeValueAsString(found.getQuote()));
+                    if (null == best || CoverSolverTest.SUMS_INSURED.indexOf(best.getSumInsured()) < highest
+                            || CoverSolverTest.SUMS_INSURED.indexOf(best.getSumInsured()) == highest && found.getAnnualPremium() < best.getAnnualPremium()) {
+                        best = found;
+                    }
+                }
+                assertEquals(option, solution.getOptions().size());
+                assertSame(best, solution.getBest());
+            }
+        }
+        assertTrue(priced * 5 < grid, priced + " of " + grid);
+    }
+
+    @Test
+    void budgetMustBePositive() throws Exception {
+        assertFalse(this.coverSolver.solve(this.loadGenerator.synthesize(1, 1L).get(0), 0L).isSuccess());
+    }
+}
@@ -0,0 +1,79 @@
+package com.quotes.premium.traffic;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quotes.premium.dto.ApiResponse;
+import com.quotes.premium.dto.PremiumRequest;
+import com.quotes.premium.dto.PremiumResponse;
+import com.quotes.premium.loadgen.LoadGenerator;
+import com.quotes.premium.service.PremiumService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"traffic.capture.enabled=true", "traffic.capture.sample.rate=1.0", "traffic.capture.file.bytes=4096",
+        "traffic.capture.files=3"})
+@DirtiesContext
+class TrafficCaptureTest {
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void directory(final DynamicPropertyRegistry registry) {
+        registry.add("traffic.capture.directory", () -> TrafficCaptureTest.directory.toString());
+    }
+
+    @Autowired
+    private TrafficCapture trafficCapture;
+    @Autowired
+    private TrafficReplay trafficReplay;
+    @Autowired
+    private LoadGenerator loadGenerator;
+    @Autowired
+    private PremiumService premiumService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void capturedRequestsReadBackUnchangedAndReplayDeterministically() throws Exception {
+        final List<PremiumRequest> requests = this.loadGenerator.synthesize(200, 7L);
+        requests.get(199).getInsured().get(0).setPeds(null); // not the default, kept
+        requests.forEach(this.trafficCapture::sample);
+        this.trafficCapture.shutdown();
+        assertEquals(200L, this.trafficCapture.getCaptured());
+        assertEquals(0L, this.trafficCapture.getDropped());
+
+        try (final Stream<Path> files = Files.list(TrafficCaptureTest.directory)) {
+            assertEquals(3L, files.count()); // rotated at 4 KB, the oldest deleted
+        }
+        final List<TrafficLog.Entry> entries = TrafficLog.read(TrafficCaptureTest.directory);
+        assertTrue(0 < entries.size() && entries.size() < 200);
+        final List<PremiumRequest> replayed = this.trafficReplay.requests(entries);
+        final int first = 200 - entries.size();
+        long checksum = 0L;
+        for (int index = 0; index < entries.size(); index++) {
+            assertEquals(this.objectMapper.writeValueAsString(requests.get(first + index)), this.objectMapper.writeValueAsString(replayed.get(index)));
+            assertTrue(index == 0 || entries.get(index - 1).capturedAtMicros() <= entries.get(index).capturedAtMicros());
+            final ApiResponse<PremiumResponse> response = this.premiumService.calculatePremium(replayed.get(index));
+            checksum += response.isSuccess() ? response.getData().orElseThrow().getFinalPremium() : 1L;
+        }
+
+        final TrafficReplay.Result max = this.trafficReplay.replay(entries, 0.0d, 4, 2);
+        assertEquals(2L * entries.size(), max.getRequests());
+        assertEquals(2L * checksum, max.getChecksum());
+        assertTrue(0L < max.allocatedPerRequest());
+        final TrafficReplay.Result recorded = this.trafficReplay.replay(entries, 1.0d, 2, 1);
+        assertEquals(checksum, recorded.getChecksum());
+    }
+}
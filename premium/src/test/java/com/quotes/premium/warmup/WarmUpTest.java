@@ -0,0 +1,28 @@
+package com.quotes.premium.warmup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class WarmUpTest {
+
+    @Autowired
+    private WarmUp warmUp;
+    @Autowired
+    private WarmUpHealthIndicator warmUpHealthIndicator;
+
+    @Test
+    void warmUpPricesQuotesAndReportsReady() {
+        assertEquals(WarmUp.State.SKIPPED, this.warmUp.getState()); // no web server in the mock environment
+        assertEquals(Status.UP, this.warmUpHealthIndicator.health().getStatus());
+
+        assertEquals(200, this.warmUp.run(200, 60_000_000_000L, 2));
+        assertEquals(WarmUp.State.DONE, this.warmUp.getState());
+        assertEquals(Status.UP, this.warmUpHealthIndicator.health().getStatus());
+        assertEquals(0, this.warmUp.run(200, 0L, 1));
+    }
+}